@@ -31,6 +31,7 @@ public class DataCarrier<T> {
     private Channels<T> channels;
     private IDriver driver;
     private String name;
+    private WaitStrategy waitStrategy = WaitStrategy.SLEEP;
 
     public DataCarrier(int channelSize, int bufferSize) {
         this("DEFAULT", channelSize, bufferSize);
@@ -41,10 +42,21 @@ public class DataCarrier<T> {
     }
 
     public DataCarrier(String name, String envPrefix, int channelSize, int bufferSize) {
+        this(name, envPrefix, channelSize, bufferSize, BufferType.ARRAY);
+    }
+
+    public DataCarrier(int channelSize, int bufferSize, BufferType bufferType) {
+        this("DEFAULT", "DEFAULT", channelSize, bufferSize, bufferType);
+    }
+
+    /**
+     * @param bufferType the engine of the channel buffers, see {@link BufferType}.
+     */
+    public DataCarrier(String name, String envPrefix, int channelSize, int bufferSize, BufferType bufferType) {
         this.name = name;
         this.bufferSize = EnvUtil.getInt(envPrefix + "_BUFFER_SIZE", bufferSize);
         this.channelSize = EnvUtil.getInt(envPrefix + "_CHANNEL_SIZE", channelSize);
-        channels = new Channels<T>(channelSize, bufferSize, new SimpleRollingPartitioner<T>(), BufferStrategy.BLOCKING);
+        channels = new Channels<T>(channelSize, bufferSize, new SimpleRollingPartitioner<T>(), BufferStrategy.BLOCKING, bufferType);
     }
 
     /**
@@ -69,6 +81,17 @@ public class DataCarrier<T> {
         return this;
     }
 
+    /**
+     * set how the consumer threads wait when there is no data, takes effect on the following {@link
+     * DataCarrier#consume} calls. The default is {@link WaitStrategy#SLEEP}.
+     *
+     * @param waitStrategy
+     */
+    public DataCarrier setWaitStrategy(WaitStrategy waitStrategy) {
+        this.waitStrategy = waitStrategy;
+        return this;
+    }
+
     public BlockingDataCarrier<T> toBlockingDataCarrier() {
         this.channels.setStrategy(BufferStrategy.BLOCKING);
         return new BlockingDataCarrier<T>(this.channels);
@@ -100,7 +123,7 @@ public class DataCarrier<T> {
         if (driver != null) {
             driver.close(channels);
         }
-        driver = new ConsumeDriver<T>(this.name, this.channels, consumerClass, num, consumeCycle);
+        driver = new ConsumeDriver<T>(this.name, this.channels, consumerClass, num, consumeCycle, waitStrategy);
         driver.begin(channels);
         return this;
     }
@@ -127,7 +150,7 @@ public class DataCarrier<T> {
         if (driver != null) {
             driver.close(channels);
         }
-        driver = new ConsumeDriver<T>(this.name, this.channels, consumer, num, consumeCycle);
+        driver = new ConsumeDriver<T>(this.name, this.channels, consumer, num, consumeCycle, waitStrategy);
         driver.begin(channels);
         return this;
     }
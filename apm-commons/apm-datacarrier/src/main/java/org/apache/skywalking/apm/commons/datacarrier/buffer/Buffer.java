@@ -21,32 +21,57 @@ package org.apache.skywalking.apm.commons.datacarrier.buffer;
 import java.util.*;
 import org.apache.skywalking.apm.commons.datacarrier.callback.QueueBlockingCallback;
 import org.apache.skywalking.apm.commons.datacarrier.common.AtomicRangeInteger;
+import org.apache.skywalking.apm.commons.datacarrier.common.ConsumerSignal;
 
 /**
  * Created by wusheng on 2016/10/25.
  */
-public class Buffer<T> {
+public class Buffer<T> implements QueueBuffer<T> {
     private final Object[] buffer;
     private BufferStrategy strategy;
     private AtomicRangeInteger index;
     private List<QueueBlockingCallback<T>> callbacks;
+    private volatile ConsumerSignal[] signals;
 
     Buffer(int bufferSize, BufferStrategy strategy) {
         buffer = new Object[bufferSize];
         this.strategy = strategy;
         index = new AtomicRangeInteger(0, bufferSize);
         callbacks = new LinkedList<QueueBlockingCallback<T>>();
+        signals = new ConsumerSignal[0];
     }
 
-    void setStrategy(BufferStrategy strategy) {
+    @Override
+    public void setStrategy(BufferStrategy strategy) {
         this.strategy = strategy;
     }
 
-    void addCallback(QueueBlockingCallback<T> callback) {
+    @Override
+    public void addCallback(QueueBlockingCallback<T> callback) {
         callbacks.add(callback);
     }
 
-    boolean save(T data) {
+    @Override
+    public synchronized void addSignal(ConsumerSignal signal) {
+        ConsumerSignal[] newSignals = Arrays.copyOf(signals, signals.length + 1);
+        newSignals[signals.length] = signal;
+        signals = newSignals;
+    }
+
+    @Override
+    public synchronized void removeSignal(ConsumerSignal signal) {
+        ConsumerSignal[] newSignals = new ConsumerSignal[signals.length];
+        int size = 0;
+        for (ConsumerSignal existed : signals) {
+            if (existed != signal) {
+                newSignals[size++] = existed;
+            }
+        }
+        signals = Arrays.copyOf(newSignals, size);
+    }
+
+    @Override
+    public boolean save(T data) {
         int i = index.getAndIncrement();
         if (buffer[i] != null) {
             switch (strategy) {
@@ -72,9 +97,13 @@ public class Buffer<T> {
             }
         }
         buffer[i] = data;
+        for (ConsumerSignal signal : signals) {
+            signal.signal();
+        }
         return true;
     }
 
+    @Override
     public int getBufferSize() {
         return buffer.length;
     }
@@ -85,13 +114,23 @@ public class Buffer<T> {
 
     public LinkedList<T> obtain(int start, int end) {
         LinkedList<T> result = new LinkedList<T>();
+        this.obtain(result, start, end);
+        return result;
+    }
+
+    @Override
+    public void obtain(List<T> consumeList) {
+        this.obtain(consumeList, 0, buffer.length);
+    }
+
+    @Override
+    public void obtain(List<T> consumeList, int start, int end) {
         for (int i = start; i < end; i++) {
             if (buffer[i] != null) {
-                result.add((T)buffer[i]);
+                consumeList.add((T)buffer[i]);
                 buffer[i] = null;
             }
         }
-        return result;
     }
 
 }
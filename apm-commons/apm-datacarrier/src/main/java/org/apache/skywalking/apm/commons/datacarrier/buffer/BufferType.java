@@ -0,0 +1,36 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.buffer;
+
+/**
+ * The engine of the channel buffers.
+ */
+public enum BufferType {
+    /**
+     * {@link Buffer}, the slots are taken round by round, the consumers scan the whole array for data. One channel
+     * could be consumed by several threads, each one takes a range of the array.
+     */
+    ARRAY,
+    /**
+     * {@link RingBuffer}, the multiple producers claim sequences, the only consumer drains the published ones in
+     * order, so the consuming cost depends on the data amount rather than the buffer size. One channel is consumed by
+     * one thread only, {@link BufferStrategy#OVERRIDE} works as {@link BufferStrategy#IF_POSSIBLE}.
+     */
+    RING
+}
@@ -26,19 +26,32 @@ import org.apache.skywalking.apm.commons.datacarrier.partition.IDataPartitioner;
  * is full. The Default is BLOCKING <p> Created by wusheng on 2016/10/25.
  */
 public class Channels<T> {
-    private final Buffer<T>[] bufferChannels;
+    private final QueueBuffer<T>[] bufferChannels;
+    private final BufferType bufferType;
     private IDataPartitioner<T> dataPartitioner;
     private BufferStrategy strategy;
     private final long size;
 
     public Channels(int channelSize, int bufferSize, IDataPartitioner<T> partitioner, BufferStrategy strategy) {
+        this(channelSize, bufferSize, partitioner, strategy, BufferType.ARRAY);
+    }
+
+    public Channels(int channelSize, int bufferSize, IDataPartitioner<T> partitioner, BufferStrategy strategy,
+        BufferType bufferType) {
         this.dataPartitioner = partitioner;
         this.strategy = strategy;
-        bufferChannels = new Buffer[channelSize];
+        this.bufferType = bufferType;
+        bufferChannels = new QueueBuffer[channelSize];
+        long size = 0;
         for (int i = 0; i < channelSize; i++) {
-            bufferChannels[i] = new Buffer<T>(bufferSize, strategy);
+            if (BufferType.RING.equals(bufferType)) {
+                bufferChannels[i] = new RingBuffer<T>(bufferSize, strategy);
+            } else {
+                bufferChannels[i] = new Buffer<T>(bufferSize, strategy);
+            }
+            size += bufferChannels[i].getBufferSize();
         }
-        size = channelSize * bufferSize;
+        this.size = size;
     }
 
     public boolean save(T data) {
@@ -69,7 +82,7 @@ public class Channels<T> {
      * @param strategy
      */
     public void setStrategy(BufferStrategy strategy) {
-        for (Buffer<T> buffer : bufferChannels) {
+        for (QueueBuffer<T> buffer : bufferChannels) {
             buffer.setStrategy(strategy);
         }
     }
@@ -87,12 +100,16 @@ public class Channels<T> {
         return size;
     }
 
-    public Buffer<T> getBuffer(int index) {
+    public BufferType getBufferType() {
+        return bufferType;
+    }
+
+    public QueueBuffer<T> getBuffer(int index) {
         return this.bufferChannels[index];
     }
 
     public void addCallback(QueueBlockingCallback<T> callback) {
-        for (Buffer<T> channel : bufferChannels) {
+        for (QueueBuffer<T> channel : bufferChannels) {
             channel.addCallback(callback);
         }
     }
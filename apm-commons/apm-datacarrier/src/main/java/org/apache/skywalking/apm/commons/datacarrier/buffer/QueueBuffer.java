@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.buffer;
+
+import java.util.List;
+import org.apache.skywalking.apm.commons.datacarrier.callback.QueueBlockingCallback;
+import org.apache.skywalking.apm.commons.datacarrier.common.ConsumerSignal;
+
+/**
+ * The buffer of one channel, implemented by the different buffer engines, see {@link BufferType}.
+ */
+public interface QueueBuffer<T> {
+    /**
+     * Save data into the buffer, following the {@link BufferStrategy} when the buffer is full.
+     *
+     * @param data to save
+     * @return false if the data is not saved.
+     */
+    boolean save(T data);
+
+    void setStrategy(BufferStrategy strategy);
+
+    void addCallback(QueueBlockingCallback<T> callback);
+
+    /**
+     * Add the signal of a consumer thread, which is raised after each save.
+     *
+     * @param signal of the consumer thread consuming this buffer.
+     */
+    void addSignal(ConsumerSignal signal);
+
+    /**
+     * Remove the signal of a consumer thread, which doesn't consume this buffer anymore.
+     */
+    void removeSignal(ConsumerSignal signal);
+
+    int getBufferSize();
+
+    /**
+     * Move all the data in the buffer into the given list.
+     *
+     * @param consumeList to add the data into, reused by the consumer thread.
+     */
+    void obtain(List<T> consumeList);
+
+    /**
+     * Move the data in the given range of the buffer into the given list. The engines which can't be consumed by range
+     * move all the data, see {@link BufferType#RING}.
+     *
+     * @param consumeList to add the data into, reused by the consumer thread.
+     * @param start of the range, inclusive
+     * @param end of the range, exclusive
+     */
+    void obtain(List<T> consumeList, int start, int end);
+}
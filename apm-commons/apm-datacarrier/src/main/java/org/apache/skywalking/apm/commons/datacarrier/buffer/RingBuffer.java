@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.buffer;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import org.apache.skywalking.apm.commons.datacarrier.callback.QueueBlockingCallback;
+import org.apache.skywalking.apm.commons.datacarrier.common.ConsumerSignal;
+import org.apache.skywalking.apm.commons.datacarrier.common.Sequence;
+
+/**
+ * A bounded multiple producers, single consumer ring. The producers claim sequences, then publish the data into the
+ * slot of the sequence. The consumer drains from its sequence to the first slot not published yet, so it only touches
+ * the slots holding data, rather than scanning the whole buffer like {@link Buffer}.
+ *
+ * The size is rounded up to the power of 2. When the ring is full, {@link BufferStrategy#BLOCKING} waits for the
+ * consumer, {@link BufferStrategy#IF_POSSIBLE} and {@link BufferStrategy#OVERRIDE} drop the new data, because a
+ * claimed sequence can't be given back.
+ */
+public class RingBuffer<T> implements QueueBuffer<T> {
+    private static final long BLOCKING_PARK_NANOS = 10000L;
+
+    private final AtomicReferenceArray<T> entries;
+    private final int capacity;
+    private final int mask;
+    /**
+     * The next sequence to claim by the producers.
+     */
+    private final Sequence producerSequence;
+    /**
+     * The next sequence to consume.
+     */
+    private final Sequence consumerSequence;
+    private final AtomicBoolean draining;
+    private BufferStrategy strategy;
+    private List<QueueBlockingCallback<T>> callbacks;
+    private volatile ConsumerSignal[] signals;
+
+    RingBuffer(int bufferSize, BufferStrategy strategy) {
+        int size = 1;
+        while (size < bufferSize) {
+            size <<= 1;
+        }
+        this.entries = new AtomicReferenceArray<T>(size);
+        this.capacity = size;
+        this.mask = size - 1;
+        this.producerSequence = new Sequence(0);
+        this.consumerSequence = new Sequence(0);
+        this.draining = new AtomicBoolean(false);
+        this.strategy = strategy;
+        this.callbacks = new LinkedList<QueueBlockingCallback<T>>();
+        this.signals = new ConsumerSignal[0];
+    }
+
+    @Override
+    public void setStrategy(BufferStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    @Override
+    public void addCallback(QueueBlockingCallback<T> callback) {
+        callbacks.add(callback);
+    }
+
+    @Override
+    public synchronized void addSignal(ConsumerSignal signal) {
+        ConsumerSignal[] newSignals = Arrays.copyOf(signals, signals.length + 1);
+        newSignals[signals.length] = signal;
+        signals = newSignals;
+    }
+
+    @Override
+    public synchronized void removeSignal(ConsumerSignal signal) {
+        ConsumerSignal[] newSignals = new ConsumerSignal[signals.length];
+        int size = 0;
+        for (ConsumerSignal existed : signals) {
+            if (existed != signal) {
+                newSignals[size++] = existed;
+            }
+        }
+        signals = Arrays.copyOf(newSignals, size);
+    }
+
+    @Override
+    public boolean save(T data) {
+        long sequence;
+        if (BufferStrategy.BLOCKING.equals(strategy)) {
+            sequence = producerSequence.getAndIncrement();
+            boolean isFirstTimeBlocking = true;
+            while (sequence - consumerSequence.get() >= capacity) {
+                if (isFirstTimeBlocking) {
+                    isFirstTimeBlocking = false;
+                    for (QueueBlockingCallback<T> callback : callbacks) {
+                        callback.notify(data);
+                    }
+                }
+                LockSupport.parkNanos(BLOCKING_PARK_NANOS);
+            }
+        } else {
+            do {
+                sequence = producerSequence.get();
+                if (sequence - consumerSequence.get() >= capacity) {
+                    return false;
+                }
+            }
+            while (!producerSequence.compareAndSet(sequence, sequence + 1));
+        }
+
+        entries.set((int)sequence & mask, data);
+        for (ConsumerSignal signal : signals) {
+            signal.signal();
+        }
+        return true;
+    }
+
+    @Override
+    public int getBufferSize() {
+        return capacity;
+    }
+
+    @Override
+    public void obtain(List<T> consumeList) {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long sequence = consumerSequence.get();
+            long claimed = producerSequence.get();
+            for (; sequence < claimed; sequence++) {
+                int index = (int)sequence & mask;
+                T data = entries.get(index);
+                if (data == null) {
+                    // claimed, but not published yet
+                    break;
+                }
+                entries.lazySet(index, null);
+                consumeList.add(data);
+            }
+            consumerSequence.set(sequence);
+        } finally {
+            draining.set(false);
+        }
+    }
+
+    /**
+     * The ring is drained as a whole, the range is ignored.
+     */
+    @Override
+    public void obtain(List<T> consumeList, int start, int end) {
+        obtain(consumeList);
+    }
+}
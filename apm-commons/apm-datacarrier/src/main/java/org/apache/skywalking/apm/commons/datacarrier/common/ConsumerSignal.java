@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.common;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The signal between the producers and one consumer thread. The producers raise the signal after saving data into a
+ * buffer, the consumer thread waits for the signal when there is nothing to consume, instead of sleeping a whole
+ * consume cycle.
+ *
+ * The consumer spins for a short while first, then yields, and parks at last, so a busy consumer is not parked and
+ * unparked for every batch, and an idle one costs no CPU.
+ */
+public class ConsumerSignal {
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 10;
+    /**
+     * The signal is raised for every save, so parking long is safe, the timeout is only a guard.
+     */
+    private static final long MAX_PARK_MILLIS = 1000;
+
+    private final AtomicBoolean signalled;
+    private final long maxParkNanos;
+    private volatile Thread waiter;
+
+    public ConsumerSignal() {
+        this.signalled = new AtomicBoolean(false);
+        this.maxParkNanos = TimeUnit.MILLISECONDS.toNanos(MAX_PARK_MILLIS);
+    }
+
+    /**
+     * Wake the consumer thread if it is waiting, called by the producers.
+     */
+    public void signal() {
+        if (!signalled.get() && signalled.compareAndSet(false, true)) {
+            Thread thread = waiter;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+
+    /**
+     * Clear the signal, called by the consumer thread before it checks the buffers. A signal raised after this is not
+     * missed by the following {@link #await()}.
+     */
+    public void reset() {
+        signalled.set(false);
+    }
+
+    /**
+     * Wait for the signal, no longer than the max park time.
+     */
+    public void await() {
+        for (int i = 0; i < SPIN_TRIES; i++) {
+            if (signalled.get()) {
+                return;
+            }
+        }
+        for (int i = 0; i < YIELD_TRIES; i++) {
+            if (signalled.get()) {
+                return;
+            }
+            Thread.yield();
+        }
+
+        waiter = Thread.currentThread();
+        if (!signalled.get()) {
+            LockSupport.parkNanos(this, maxParkNanos);
+        }
+        waiter = null;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.common;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * A long sequence padded on both sides, so it has a cache line of its own, and the producers and the consumer of a
+ * {@link org.apache.skywalking.apm.commons.datacarrier.buffer.RingBuffer} don't invalidate each other's cache line.
+ *
+ * The padding is put in the super classes, because the JVM lays out the fields of a class in its own order, but always
+ * puts the fields of the super class first.
+ */
+public class Sequence extends RhsPadding {
+    private static final AtomicLongFieldUpdater<Value> UPDATER = AtomicLongFieldUpdater.newUpdater(Value.class, "value");
+
+    public Sequence(long initialValue) {
+        UPDATER.set(this, initialValue);
+    }
+
+    public long get() {
+        return value;
+    }
+
+    public void set(long newValue) {
+        value = newValue;
+    }
+
+    /**
+     * Set the value without a StoreLoad barrier, visible to the other threads a little later.
+     */
+    public void lazySet(long newValue) {
+        UPDATER.lazySet(this, newValue);
+    }
+
+    public boolean compareAndSet(long expectedValue, long newValue) {
+        return UPDATER.compareAndSet(this, expectedValue, newValue);
+    }
+
+    public long getAndIncrement() {
+        return UPDATER.getAndIncrement(this);
+    }
+
+    /**
+     * Make the padding fields used, so they are not removed.
+     */
+    long sumPadding() {
+        return p1 + p2 + p3 + p4 + p5 + p6 + p7 + p9 + p10 + p11 + p12 + p13 + p14 + p15;
+    }
+}
+
+class LhsPadding {
+    protected long p1;
+    protected long p2;
+    protected long p3;
+    protected long p4;
+    protected long p5;
+    protected long p6;
+    protected long p7;
+}
+
+class Value extends LhsPadding {
+    protected volatile long value;
+}
+
+class RhsPadding extends Value {
+    protected long p9;
+    protected long p10;
+    protected long p11;
+    protected long p12;
+    protected long p13;
+    protected long p14;
+    protected long p15;
+}
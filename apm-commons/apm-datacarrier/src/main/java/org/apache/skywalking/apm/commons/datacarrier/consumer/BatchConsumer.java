@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.consumer;
+
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * The consumer takes the data one by one, straight from the batch reused by the consumer thread, then it is told the
+ * end of the batch. So neither a copy of the batch, nor a mark on the last data is needed.
+ */
+public abstract class BatchConsumer<T> implements IConsumer<T> {
+
+    @Override
+    public final void consume(List<T> data) {
+        if (data instanceof RandomAccess) {
+            for (int i = 0, size = data.size(); i < size; i++) {
+                consume(data.get(i));
+            }
+        } else {
+            for (T element : data) {
+                consume(element);
+            }
+        }
+        onBatchEnd();
+    }
+
+    /**
+     * Consume one data of the batch.
+     */
+    public abstract void consume(T data);
+
+    /**
+     * All the data of the batch have been consumed, called once per consume cycle having data.
+     */
+    public abstract void onBatchEnd();
+}
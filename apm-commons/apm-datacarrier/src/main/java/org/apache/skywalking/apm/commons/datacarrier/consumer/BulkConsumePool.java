@@ -29,20 +29,52 @@ import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
  *
  * In typical case, the number of {@link MultipleChannelsConsumer} should be less than the number of channels.
  *
+ * The channels are assigned to the consumer thread with the lowest buffer size when added. When the rebalance cycle
+ * is set, the pool measures the data consumed by every channels in each cycle, and moves the channels from the busiest
+ * thread to the idlest one, if that makes the load more even.
+ *
  * @author wusheng
  */
 public class BulkConsumePool implements ConsumerPool {
+    /**
+     * The channels are not moved when the load gap between the busiest and the idlest threads is less than this
+     * percentage of the busiest thread load, to avoid moving channels back and forth.
+     */
+    private static final int REBALANCE_THRESHOLD_PERCENT = 20;
+
     private List<MultipleChannelsConsumer> allConsumers;
     private volatile boolean isStarted = false;
+    private final Rebalancer rebalancer;
 
     public BulkConsumePool(String name, int size, long consumeCycle) {
+        this(name, size, consumeCycle, WaitStrategy.SLEEP);
+    }
+
+    public BulkConsumePool(String name, int size, long consumeCycle, WaitStrategy waitStrategy) {
+        this(name, size, consumeCycle, waitStrategy, 0, null);
+    }
+
+    /**
+     * @param rebalanceCycle the millis between two rebalances, no rebalance if it is not positive.
+     * @param loadListener notified with the thread loads of each rebalance cycle, could be null.
+     */
+    public BulkConsumePool(String name, int size, long consumeCycle, WaitStrategy waitStrategy, long rebalanceCycle,
+        ConsumerLoadListener loadListener) {
         size = EnvUtil.getInt(name + "_THREAD", size);
         allConsumers = new ArrayList<MultipleChannelsConsumer>(size);
         for (int i = 0; i < size; i++) {
-            MultipleChannelsConsumer multipleChannelsConsumer = new MultipleChannelsConsumer("DataCarrier." + name + ".BulkConsumePool." + i + ".Thread", consumeCycle);
+            MultipleChannelsConsumer multipleChannelsConsumer = new MultipleChannelsConsumer("DataCarrier." + name + ".BulkConsumePool." + i + ".Thread", consumeCycle, waitStrategy);
             multipleChannelsConsumer.setDaemon(true);
             allConsumers.add(multipleChannelsConsumer);
         }
+
+        rebalanceCycle = EnvUtil.getLong(name + "_REBALANCE_CYCLE", rebalanceCycle);
+        if (rebalanceCycle > 0) {
+            rebalancer = new Rebalancer("DataCarrier." + name + ".BulkConsumePool.Rebalancer", rebalanceCycle, loadListener);
+            rebalancer.setDaemon(true);
+        } else {
+            rebalancer = null;
+        }
     }
 
     @Override synchronized public void add(String name, Channels channels, IConsumer consumer) {
@@ -75,6 +107,9 @@ public class BulkConsumePool implements ConsumerPool {
     }
 
     @Override public void close(Channels channels) {
+        if (rebalancer != null) {
+            rebalancer.shutdown();
+        }
         for (MultipleChannelsConsumer consumer : allConsumers) {
             consumer.shutdown();
         }
@@ -87,9 +122,100 @@ public class BulkConsumePool implements ConsumerPool {
         for (MultipleChannelsConsumer consumer : allConsumers) {
             consumer.start();
         }
+        if (rebalancer != null) {
+            rebalancer.start();
+        }
         isStarted = true;
     }
 
+    /**
+     * Update the loads of all the threads, then move one target from the busiest thread to the idlest one, choosing
+     * the target which makes the two loads closest.
+     */
+    synchronized void rebalance(ConsumerLoadListener loadListener) {
+        MultipleChannelsConsumer busiest = null;
+        MultipleChannelsConsumer idlest = null;
+        long busiestLoad = -1;
+        long idlestLoad = Long.MAX_VALUE;
+        for (int i = 0; i < allConsumers.size(); i++) {
+            MultipleChannelsConsumer consumer = allConsumers.get(i);
+            long load = 0;
+            for (MultipleChannelsConsumer.Group target : consumer.getTargets()) {
+                load += target.updateLoad();
+            }
+            if (loadListener != null) {
+                loadListener.onLoad(i, load);
+            }
+
+            if (load > busiestLoad) {
+                busiest = consumer;
+                busiestLoad = load;
+            }
+            if (load < idlestLoad) {
+                idlest = consumer;
+                idlestLoad = load;
+            }
+        }
+
+        long gap = busiestLoad - idlestLoad;
+        if (busiest == idlest || gap * 100 < busiestLoad * REBALANCE_THRESHOLD_PERCENT) {
+            return;
+        }
+        List<MultipleChannelsConsumer.Group> targets = busiest.getTargets();
+        if (targets.size() < 2) {
+            return;
+        }
+
+        MultipleChannelsConsumer.Group moved = null;
+        long movedGap = gap;
+        for (MultipleChannelsConsumer.Group target : targets) {
+            long load = target.getLoad();
+            if (load <= 0 || load >= gap) {
+                continue;
+            }
+            // The load gap of the two threads after moving this target.
+            long newGap = Math.abs(gap - 2 * load);
+            if (newGap < movedGap) {
+                moved = target;
+                movedGap = newGap;
+            }
+        }
+        if (moved != null) {
+            busiest.migrate(moved, idlest);
+        }
+    }
+
+    private class Rebalancer extends Thread {
+        private final long rebalanceCycle;
+        private final ConsumerLoadListener loadListener;
+        private volatile boolean running;
+
+        private Rebalancer(String threadName, long rebalanceCycle, ConsumerLoadListener loadListener) {
+            super(threadName);
+            this.rebalanceCycle = rebalanceCycle;
+            this.loadListener = loadListener;
+            this.running = true;
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                try {
+                    Thread.sleep(rebalanceCycle);
+                } catch (InterruptedException e) {
+                }
+                if (running) {
+                    rebalance(loadListener);
+                }
+            }
+        }
+
+        private void shutdown() {
+            running = false;
+            interrupt();
+        }
+    }
+
     /**
      * The creator for {@link BulkConsumePool}.
      */
@@ -97,15 +223,30 @@ public class BulkConsumePool implements ConsumerPool {
         private String name;
         private int size;
         private long consumeCycle;
+        private WaitStrategy waitStrategy;
+        private long rebalanceCycle;
+        private ConsumerLoadListener loadListener;
 
         public Creator(String name, int poolSize, long consumeCycle) {
+            this(name, poolSize, consumeCycle, WaitStrategy.SLEEP);
+        }
+
+        public Creator(String name, int poolSize, long consumeCycle, WaitStrategy waitStrategy) {
+            this(name, poolSize, consumeCycle, waitStrategy, 0, null);
+        }
+
+        public Creator(String name, int poolSize, long consumeCycle, WaitStrategy waitStrategy, long rebalanceCycle,
+            ConsumerLoadListener loadListener) {
             this.name = name;
             this.size = poolSize;
             this.consumeCycle = consumeCycle;
+            this.waitStrategy = waitStrategy;
+            this.rebalanceCycle = rebalanceCycle;
+            this.loadListener = loadListener;
         }
 
         @Override public ConsumerPool call() {
-            return new BulkConsumePool(name, size, consumeCycle);
+            return new BulkConsumePool(name, size, consumeCycle, waitStrategy, rebalanceCycle, loadListener);
         }
 
         public static int recommendMaxSize() {
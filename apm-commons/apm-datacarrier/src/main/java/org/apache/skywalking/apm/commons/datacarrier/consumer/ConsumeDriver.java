@@ -33,18 +33,28 @@ public class ConsumeDriver<T> implements IDriver {
 
     public ConsumeDriver(String name, Channels<T> channels, Class<? extends IConsumer<T>> consumerClass, int num,
         long consumeCycle) {
+        this(name, channels, consumerClass, num, consumeCycle, WaitStrategy.SLEEP);
+    }
+
+    public ConsumeDriver(String name, Channels<T> channels, Class<? extends IConsumer<T>> consumerClass, int num,
+        long consumeCycle, WaitStrategy waitStrategy) {
         this(channels, num);
         for (int i = 0; i < num; i++) {
-            consumerThreads[i] = new ConsumerThread("DataCarrier." + name + ".Consumser." + i + ".Thread", getNewConsumerInstance(consumerClass), consumeCycle);
+            consumerThreads[i] = new ConsumerThread("DataCarrier." + name + ".Consumser." + i + ".Thread", getNewConsumerInstance(consumerClass), consumeCycle, waitStrategy);
             consumerThreads[i].setDaemon(true);
         }
     }
 
     public ConsumeDriver(String name, Channels<T> channels, IConsumer<T> prototype, int num, long consumeCycle) {
+        this(name, channels, prototype, num, consumeCycle, WaitStrategy.SLEEP);
+    }
+
+    public ConsumeDriver(String name, Channels<T> channels, IConsumer<T> prototype, int num, long consumeCycle,
+        WaitStrategy waitStrategy) {
         this(channels, num);
         prototype.init();
         for (int i = 0; i < num; i++) {
-            consumerThreads[i] = new ConsumerThread("DataCarrier." + name + ".Consumser." + i + ".Thread", prototype, consumeCycle);
+            consumerThreads[i] = new ConsumerThread("DataCarrier." + name + ".Consumser." + i + ".Thread", prototype, consumeCycle, waitStrategy);
             consumerThreads[i].setDaemon(true);
         }
 
@@ -93,7 +103,7 @@ public class ConsumeDriver<T> implements IDriver {
 
     private void allocateBuffer2Thread() {
         int channelSize = this.channels.getChannelSize();
-        if (channelSize < consumerThreads.length) {
+        if (channelSize < consumerThreads.length && BufferType.ARRAY.equals(channels.getBufferType())) {
             /**
              * if consumerThreads.length > channelSize
              * each channel will be process by several consumers.
@@ -109,7 +119,7 @@ public class ConsumeDriver<T> implements IDriver {
 
             for (int channelIndex = 0; channelIndex < channelSize; channelIndex++) {
                 ArrayList<Integer> threadAllocationPerChannel = threadAllocation[channelIndex];
-                Buffer<T> channel = this.channels.getBuffer(channelIndex);
+                QueueBuffer<T> channel = this.channels.getBuffer(channelIndex);
                 int bufferSize = channel.getBufferSize();
                 int step = bufferSize / threadAllocationPerChannel.size();
                 for (int i = 0; i < threadAllocationPerChannel.size(); i++) {
@@ -126,6 +136,9 @@ public class ConsumeDriver<T> implements IDriver {
              *
              * if consumerThreads.length == channelSize
              * each consumer will process one channel.
+             *
+             * if consumerThreads.length > channelSize, and the buffers are rings,
+             * each channel has only one consumer, the others keep idle.
              */
             for (int channelIndex = 0; channelIndex < channelSize; channelIndex++) {
                 int consumerIndex = channelIndex % consumerThreads.length;
@@ -19,9 +19,11 @@
 
 package org.apache.skywalking.apm.commons.datacarrier.consumer;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
-import org.apache.skywalking.apm.commons.datacarrier.buffer.Buffer;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.QueueBuffer;
+import org.apache.skywalking.apm.commons.datacarrier.common.ConsumerSignal;
 
 /**
  * Created by wusheng on 2016/10/25.
@@ -31,13 +33,26 @@ public class ConsumerThread<T> extends Thread {
     private IConsumer<T> consumer;
     private List<DataSource> dataSources;
     private long consumeCycle;
+    private ConsumerSignal signal;
+    /**
+     * The batch of each consuming, reused between the consume cycles.
+     */
+    private ArrayList<T> consumeList;
 
     ConsumerThread(String threadName, IConsumer<T> consumer, long consumeCycle) {
+        this(threadName, consumer, consumeCycle, WaitStrategy.SLEEP);
+    }
+
+    ConsumerThread(String threadName, IConsumer<T> consumer, long consumeCycle, WaitStrategy waitStrategy) {
         super(threadName);
         this.consumer = consumer;
         running = false;
         dataSources = new LinkedList<DataSource>();
         this.consumeCycle = consumeCycle;
+        this.consumeList = new ArrayList<T>();
+        if (WaitStrategy.SIGNAL.equals(waitStrategy)) {
+            signal = new ConsumerSignal();
+        }
     }
 
     /**
@@ -47,8 +62,11 @@ public class ConsumerThread<T> extends Thread {
      * @param start
      * @param end
      */
-    void addDataSource(Buffer<T> sourceBuffer, int start, int end) {
+    void addDataSource(QueueBuffer<T> sourceBuffer, int start, int end) {
         this.dataSources.add(new DataSource(sourceBuffer, start, end));
+        if (signal != null) {
+            sourceBuffer.addSignal(signal);
+        }
     }
 
     /**
@@ -56,8 +74,8 @@ public class ConsumerThread<T> extends Thread {
      *
      * @param sourceBuffer
      */
-    void addDataSource(Buffer<T> sourceBuffer) {
-        this.dataSources.add(new DataSource(sourceBuffer, 0, sourceBuffer.getBufferSize()));
+    void addDataSource(QueueBuffer<T> sourceBuffer) {
+        this.addDataSource(sourceBuffer, 0, sourceBuffer.getBufferSize());
     }
 
     @Override
@@ -65,12 +83,20 @@ public class ConsumerThread<T> extends Thread {
         running = true;
 
         while (running) {
+            if (signal != null) {
+                signal.reset();
+            }
+
             boolean hasData = consume();
 
             if (!hasData) {
-                try {
-                    Thread.sleep(consumeCycle);
-                } catch (InterruptedException e) {
+                if (signal != null) {
+                    signal.await();
+                } else {
+                    try {
+                        Thread.sleep(consumeCycle);
+                    } catch (InterruptedException e) {
+                    }
                 }
             }
         }
@@ -83,24 +109,18 @@ public class ConsumerThread<T> extends Thread {
     }
 
     private boolean consume() {
-        boolean hasData = false;
-        LinkedList<T> consumeList = new LinkedList<T>();
         for (DataSource dataSource : dataSources) {
-            LinkedList<T> data = dataSource.obtain();
-            if (data.size() == 0) {
-                continue;
-            }
-            for (T element : data) {
-                consumeList.add(element);
-            }
-            hasData = true;
+            dataSource.obtain(consumeList);
         }
 
-        if (consumeList.size() > 0) {
+        boolean hasData = consumeList.size() > 0;
+        if (hasData) {
             try {
                 consumer.consume(consumeList);
             } catch (Throwable t) {
                 consumer.onError(consumeList, t);
+            } finally {
+                consumeList.clear();
             }
         }
         return hasData;
@@ -108,24 +128,27 @@ public class ConsumerThread<T> extends Thread {
 
     void shutdown() {
         running = false;
+        if (signal != null) {
+            signal.signal();
+        }
     }
 
     /**
-     * DataSource is a refer to {@link Buffer}.
+     * DataSource is a refer to {@link QueueBuffer}.
      */
     class DataSource {
-        private Buffer<T> sourceBuffer;
+        private QueueBuffer<T> sourceBuffer;
         private int start;
         private int end;
 
-        DataSource(Buffer<T> sourceBuffer, int start, int end) {
+        DataSource(QueueBuffer<T> sourceBuffer, int start, int end) {
             this.sourceBuffer = sourceBuffer;
             this.start = start;
             this.end = end;
         }
 
-        LinkedList<T> obtain() {
-            return sourceBuffer.obtain(start, end);
+        void obtain(List<T> consumeList) {
+            sourceBuffer.obtain(consumeList, start, end);
         }
     }
 }
@@ -27,6 +27,10 @@ import java.util.List;
 public interface IConsumer<T> {
     void init();
 
+    /**
+     * @param data the batch of this consume cycle. The list is reused by the consumer thread, don't keep it after
+     * returning, see {@link BatchConsumer} to take the data one by one.
+     */
     void consume(List<T> data);
 
     void onError(List<T> data, Throwable t);
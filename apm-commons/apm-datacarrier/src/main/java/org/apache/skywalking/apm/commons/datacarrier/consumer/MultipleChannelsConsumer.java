@@ -20,11 +20,15 @@ package org.apache.skywalking.apm.commons.datacarrier.consumer;
 
 import java.util.*;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.*;
+import org.apache.skywalking.apm.commons.datacarrier.common.ConsumerSignal;
 
 /**
  * MultipleChannelsConsumer represent a single consumer thread, but support multiple channels with their {@link
  * IConsumer}s
  *
+ * A target could be moved to another consumer thread by {@link #migrate(Group, MultipleChannelsConsumer)}. The move
+ * is done by this thread between two consuming rounds, so a target is never consumed by two threads at the same time.
+ *
  * @author wusheng
  */
 public class MultipleChannelsConsumer extends Thread {
@@ -32,11 +36,18 @@ public class MultipleChannelsConsumer extends Thread {
     private volatile ArrayList<Group> consumeTargets;
     private volatile long size;
     private final long consumeCycle;
+    private final ConsumerSignal signal;
+    private volatile Migration pendingMigration;
 
     public MultipleChannelsConsumer(String threadName, long consumeCycle) {
+        this(threadName, consumeCycle, WaitStrategy.SLEEP);
+    }
+
+    public MultipleChannelsConsumer(String threadName, long consumeCycle, WaitStrategy waitStrategy) {
         super(threadName);
         this.consumeTargets = new ArrayList<Group>();
         this.consumeCycle = consumeCycle;
+        this.signal = WaitStrategy.SIGNAL.equals(waitStrategy) ? new ConsumerSignal() : null;
     }
 
     @Override
@@ -44,15 +55,25 @@ public class MultipleChannelsConsumer extends Thread {
         running = true;
 
         while (running) {
+            if (signal != null) {
+                signal.reset();
+            }
+
             boolean hasData = false;
             for (Group target : consumeTargets) {
-                hasData = hasData || consume(target);
+                hasData = consume(target) || hasData;
             }
 
+            doMigration();
+
             if (!hasData) {
-                try {
-                    Thread.sleep(consumeCycle);
-                } catch (InterruptedException e) {
+                if (signal != null) {
+                    signal.await();
+                } else {
+                    try {
+                        Thread.sleep(consumeCycle);
+                    } catch (InterruptedException e) {
+                    }
                 }
             }
 
@@ -68,21 +89,24 @@ public class MultipleChannelsConsumer extends Thread {
     }
 
     private boolean consume(Group target) {
-        boolean hasData;
-        LinkedList consumeList = new LinkedList();
+        ArrayList consumeList = target.consumeList;
         for (int i = 0; i < target.channels.getChannelSize(); i++) {
-            Buffer buffer = target.channels.getBuffer(i);
-            consumeList.addAll(buffer.obtain());
+            QueueBuffer buffer = target.channels.getBuffer(i);
+            buffer.obtain(consumeList);
         }
 
-        if (hasData = consumeList.size() > 0) {
+        int consumed = consumeList.size();
+        if (consumed > 0) {
+            target.consumedCount += consumed;
             try {
                 target.consumer.consume(consumeList);
             } catch (Throwable t) {
                 target.consumer.onError(consumeList, t);
+            } finally {
+                consumeList.clear();
             }
         }
-        return hasData;
+        return consumed > 0;
     }
 
     /**
@@ -92,7 +116,15 @@ public class MultipleChannelsConsumer extends Thread {
      * @param consumer
      */
     public void addNewTarget(Channels channels, IConsumer consumer) {
-        Group group = new Group(channels, consumer);
+        addTarget(new Group(channels, consumer));
+    }
+
+    private synchronized void addTarget(Group group) {
+        if (signal != null) {
+            for (int i = 0; i < group.channels.getChannelSize(); i++) {
+                group.channels.getBuffer(i).addSignal(signal);
+            }
+        }
         // Recreate the new list to avoid change list while the list is used in consuming.
         ArrayList<Group> newList = new ArrayList<Group>();
         for (Group target : consumeTargets) {
@@ -100,7 +132,66 @@ public class MultipleChannelsConsumer extends Thread {
         }
         newList.add(group);
         consumeTargets = newList;
-        size += channels.size();
+        size += group.channels.size();
+    }
+
+    private synchronized void removeTarget(Group group) {
+        ArrayList<Group> newList = new ArrayList<Group>();
+        for (Group target : consumeTargets) {
+            if (target != group) {
+                newList.add(target);
+            }
+        }
+        consumeTargets = newList;
+        size -= group.channels.size();
+    }
+
+    /**
+     * Ask this thread to hand the target over to another consumer thread, after its current consuming round.
+     *
+     * @return false if there is a migration not done yet.
+     */
+    boolean migrate(Group target, MultipleChannelsConsumer to) {
+        if (pendingMigration != null) {
+            return false;
+        }
+        pendingMigration = new Migration(target, to);
+        if (signal != null) {
+            signal.signal();
+        }
+        return true;
+    }
+
+    private void doMigration() {
+        Migration migration = pendingMigration;
+        if (migration == null) {
+            return;
+        }
+        pendingMigration = null;
+        if (!running || !consumeTargets.contains(migration.target)) {
+            return;
+        }
+
+        Group target = migration.target;
+        removeTarget(target);
+        migration.to.addTarget(target);
+        if (signal != null) {
+            for (int i = 0; i < target.channels.getChannelSize(); i++) {
+                target.channels.getBuffer(i).removeSignal(signal);
+            }
+        }
+        // The data saved before the new owner added its signal should not wait for its next wake up.
+        migration.to.wakeUp();
+    }
+
+    private void wakeUp() {
+        if (signal != null) {
+            signal.signal();
+        }
+    }
+
+    List<Group> getTargets() {
+        return consumeTargets;
     }
 
     public long size() {
@@ -109,15 +200,58 @@ public class MultipleChannelsConsumer extends Thread {
 
     void shutdown() {
         running = false;
+        if (signal != null) {
+            signal.signal();
+        }
     }
 
-    private class Group {
+    static class Group {
         private Channels channels;
         private IConsumer consumer;
+        /**
+         * The batch of each consuming, reused between the consume cycles.
+         */
+        private ArrayList consumeList;
+        /**
+         * The number of the consumed data, only written by the owner thread.
+         */
+        private volatile long consumedCount;
+        /**
+         * The consumed count read last time, and the load since then, only used by {@link BulkConsumePool}.
+         */
+        private long lastConsumedCount;
+        private long load;
 
         public Group(Channels channels, IConsumer consumer) {
             this.channels = channels;
             this.consumer = consumer;
+            this.consumeList = new ArrayList();
+        }
+
+        /**
+         * Update the load with the data consumed since the last update.
+         *
+         * @return the load
+         */
+        long updateLoad() {
+            long consumed = consumedCount;
+            load = consumed - lastConsumedCount;
+            lastConsumedCount = consumed;
+            return load;
+        }
+
+        long getLoad() {
+            return load;
+        }
+    }
+
+    private static class Migration {
+        private final Group target;
+        private final MultipleChannelsConsumer to;
+
+        private Migration(Group target, MultipleChannelsConsumer to) {
+            this.target = target;
+            this.to = to;
         }
     }
 }
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.buffer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compare the {@link BufferType}s, by saving some data into a buffer of 10000, the size used by the OAP aggregation
+ * workers, then draining it, as one consume cycle does.
+ *
+ * Run the main method to execute.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BufferTypeBenchmark {
+
+    private static final int BUFFER_SIZE = 10000;
+    private static final Object DATA = new Object();
+
+    @Param({"ARRAY", "RING"})
+    public String bufferType;
+
+    @Param({"3", "1000"})
+    public int dataCount;
+
+    private QueueBuffer<Object> buffer;
+    private List<Object> consumeList;
+
+    @Setup
+    public void setup() {
+        Channels<Object> channels = new Channels<Object>(1, BUFFER_SIZE, null, BufferStrategy.BLOCKING, BufferType.valueOf(bufferType));
+        buffer = channels.getBuffer(0);
+        consumeList = new ArrayList<Object>(BUFFER_SIZE);
+    }
+
+    @Benchmark
+    public int saveAndObtain() {
+        for (int i = 0; i < dataCount; i++) {
+            buffer.save(DATA);
+        }
+        buffer.obtain(consumeList);
+        int size = consumeList.size();
+        consumeList.clear();
+        return size;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(BufferTypeBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.buffer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.apache.skywalking.apm.commons.datacarrier.SampleData;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RingBufferTest {
+    @Test
+    public void testBufferSize() {
+        Assert.assertEquals(128, new RingBuffer<SampleData>(100, BufferStrategy.BLOCKING).getBufferSize());
+        Assert.assertEquals(64, new RingBuffer<SampleData>(64, BufferStrategy.BLOCKING).getBufferSize());
+    }
+
+    @Test
+    public void testIfPossible() {
+        RingBuffer<SampleData> buffer = new RingBuffer<SampleData>(4, BufferStrategy.IF_POSSIBLE);
+        for (int i = 0; i < 4; i++) {
+            Assert.assertTrue(buffer.save(new SampleData().setIntValue(i)));
+        }
+        Assert.assertFalse(buffer.save(new SampleData().setIntValue(4)));
+
+        List<SampleData> consumeList = new ArrayList<SampleData>();
+        buffer.obtain(consumeList);
+        Assert.assertEquals(4, consumeList.size());
+        for (int i = 0; i < 4; i++) {
+            Assert.assertEquals(i, consumeList.get(i).getIntValue());
+        }
+
+        consumeList.clear();
+        Assert.assertTrue(buffer.save(new SampleData().setIntValue(5)));
+        buffer.obtain(consumeList);
+        Assert.assertEquals(1, consumeList.size());
+        Assert.assertEquals(5, consumeList.get(0).getIntValue());
+
+        consumeList.clear();
+        buffer.obtain(consumeList);
+        Assert.assertEquals(0, consumeList.size());
+    }
+
+    @Test
+    public void testBlockingWithMultipleProducers() throws InterruptedException {
+        final int producerCount = 4;
+        final int countPerProducer = 10000;
+        final RingBuffer<SampleData> buffer = new RingBuffer<SampleData>(64, BufferStrategy.BLOCKING);
+        final CountDownLatch finished = new CountDownLatch(producerCount);
+        for (int p = 0; p < producerCount; p++) {
+            final String name = String.valueOf(p);
+            new Thread() {
+                @Override public void run() {
+                    for (int i = 0; i < countPerProducer; i++) {
+                        buffer.save(new SampleData().setName(name).setIntValue(i));
+                    }
+                    finished.countDown();
+                }
+            }.start();
+        }
+
+        int[] lastValues = new int[producerCount];
+        for (int p = 0; p < producerCount; p++) {
+            lastValues[p] = -1;
+        }
+        int consumed = 0;
+        List<SampleData> consumeList = new ArrayList<SampleData>();
+        while (consumed < producerCount * countPerProducer) {
+            buffer.obtain(consumeList);
+            for (SampleData data : consumeList) {
+                int producer = Integer.parseInt(data.getName());
+                Assert.assertEquals(lastValues[producer] + 1, data.getIntValue());
+                lastValues[producer] = data.getIntValue();
+            }
+            consumed += consumeList.size();
+            consumeList.clear();
+        }
+        finished.await();
+
+        buffer.obtain(consumeList);
+        Assert.assertEquals(0, consumeList.size());
+    }
+}
@@ -19,9 +19,11 @@
 package org.apache.skywalking.apm.commons.datacarrier.consumer;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.*;
 import org.apache.skywalking.apm.commons.datacarrier.partition.SimpleRollingPartitioner;
 import org.junit.*;
+import org.powermock.api.support.membermodification.MemberModifier;
 
 /**
  * @author wusheng
@@ -88,4 +90,72 @@ public class BulkConsumePoolTest {
         Assert.assertEquals(5, result1.size());
         Assert.assertEquals(2, result2.size());
     }
+
+    @Test
+    public void testRebalance() throws InterruptedException, IllegalAccessException {
+        BulkConsumePool pool = new BulkConsumePool("testRebalancePool", 2, 20);
+        final AtomicInteger consumed = new AtomicInteger(0);
+        IConsumer counter = new IConsumer() {
+            @Override public void init() {
+            }
+
+            @Override public void consume(List data) {
+                consumed.addAndGet(data.size());
+            }
+
+            @Override public void onError(List data, Throwable t) {
+            }
+
+            @Override public void onExit() {
+            }
+        };
+        Channels c1 = new Channels(1, 100, new SimpleRollingPartitioner(), BufferStrategy.BLOCKING);
+        Channels c2 = new Channels(1, 100, new SimpleRollingPartitioner(), BufferStrategy.BLOCKING);
+        Channels c3 = new Channels(1, 100, new SimpleRollingPartitioner(), BufferStrategy.BLOCKING);
+        pool.add("c1", c1, counter);
+        pool.add("c2", c2, counter);
+        pool.add("c3", c3, counter);
+        pool.begin(c1);
+
+        List<MultipleChannelsConsumer> allConsumers = (List<MultipleChannelsConsumer>)MemberModifier.field(BulkConsumePool.class, "allConsumers").get(pool);
+        MultipleChannelsConsumer thread0 = allConsumers.get(0);
+        MultipleChannelsConsumer thread1 = allConsumers.get(1);
+        Assert.assertEquals(2, thread0.getTargets().size());
+        Assert.assertEquals(1, thread1.getTargets().size());
+
+        for (int i = 0; i < 50; i++) {
+            c1.save(new Object());
+            c3.save(new Object());
+        }
+        waitFor(consumed, 100);
+
+        final long[] loads = new long[2];
+        pool.rebalance(new ConsumerLoadListener() {
+            @Override public void onLoad(int threadIndex, long load) {
+                loads[threadIndex] = load;
+            }
+        });
+        Assert.assertEquals(100, loads[0]);
+        Assert.assertEquals(0, loads[1]);
+
+        for (int i = 0; i < 100 && thread1.getTargets().size() < 2; i++) {
+            Thread.sleep(20);
+        }
+        Assert.assertEquals(1, thread0.getTargets().size());
+        Assert.assertEquals(2, thread1.getTargets().size());
+
+        for (int i = 0; i < 50; i++) {
+            c1.save(new Object());
+            c3.save(new Object());
+        }
+        waitFor(consumed, 200);
+        pool.close(c1);
+    }
+
+    private void waitFor(AtomicInteger consumed, int expected) throws InterruptedException {
+        for (int i = 0; i < 100 && consumed.get() < expected; i++) {
+            Thread.sleep(20);
+        }
+        Assert.assertEquals(expected, consumed.get());
+    }
 }
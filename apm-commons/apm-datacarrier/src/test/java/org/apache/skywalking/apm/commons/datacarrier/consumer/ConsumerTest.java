@@ -23,6 +23,7 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.SampleData;
 import org.junit.Assert;
@@ -100,6 +101,70 @@ public class ConsumerTest {
         Assert.assertTrue(IS_OCCUR_ERROR);
     }
 
+    @Test
+    public void testSignalWaitStrategy() throws InterruptedException {
+        final DataCarrier<SampleData> carrier = new DataCarrier<SampleData>(2, 100);
+        carrier.setWaitStrategy(WaitStrategy.SIGNAL);
+
+        final LinkedBlockingQueue<SampleData> consumed = new LinkedBlockingQueue<SampleData>();
+        carrier.consume(new IConsumer<SampleData>() {
+            @Override public void init() {
+            }
+
+            @Override public void consume(List<SampleData> data) {
+                consumed.addAll(data);
+            }
+
+            @Override public void onError(List<SampleData> data, Throwable t) {
+            }
+
+            @Override public void onExit() {
+            }
+        }, 1, 60 * 1000L);
+
+        Thread.sleep(100);
+
+        /*
+         * The consumer thread is parked for up to 60 seconds, so the data is consumed in time only when it is woken up
+         * by the producer.
+         */
+        Assert.assertTrue(carrier.produce(new SampleData().setName("data")));
+        Assert.assertNotNull(consumed.poll(5, TimeUnit.SECONDS));
+
+        carrier.shutdownConsumers();
+    }
+
+    @Test
+    public void testBatchConsumer() {
+        final List<String> events = new ArrayList<String>();
+        BatchConsumer<SampleData> consumer = new BatchConsumer<SampleData>() {
+            @Override public void init() {
+            }
+
+            @Override public void consume(SampleData data) {
+                events.add(data.getName());
+            }
+
+            @Override public void onBatchEnd() {
+                events.add("end");
+            }
+
+            @Override public void onError(List<SampleData> data, Throwable t) {
+            }
+
+            @Override public void onExit() {
+            }
+        };
+
+        List<SampleData> batch = new ArrayList<SampleData>();
+        batch.add(new SampleData().setName("a"));
+        batch.add(new SampleData().setName("b"));
+        consumer.consume(batch);
+        consumer.consume(new ArrayList<SampleData>(batch.subList(0, 1)));
+
+        Assert.assertEquals("[a, b, end, a, end]", events.toString());
+    }
+
     class SampleConsumer2 implements IConsumer<SampleData> {
         public int i = 1;
 
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.consumer;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compare the {@link WaitStrategy}s of the consumer thread, with the 20 millis consume cycle used by the OAP
+ * aggregation workers.
+ *
+ * idleLatency: the time from producing one data to consuming it, when the consumer thread is idle.
+ *
+ * saturated: the throughput when the producer keeps the consumer thread busy.
+ *
+ * idleCpu: the CPU time the idle consumer thread takes in 100 millis, reported as the consumerCpuNanos counter.
+ *
+ * Run the main method to execute.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WaitStrategyBenchmark {
+
+    private static final int BATCH = 1000;
+    private static final Object DATA = new Object();
+
+    @Param({"SLEEP", "SIGNAL"})
+    public String waitStrategy;
+
+    private DataCarrier<Object> carrier;
+    private CountingConsumer consumer;
+    private long consumerThreadId;
+
+    @Setup
+    public void setup() {
+        consumer = new CountingConsumer();
+        carrier = new DataCarrier<Object>("WaitStrategyBenchmark", 1, BATCH * 2);
+        carrier.setWaitStrategy(WaitStrategy.valueOf(waitStrategy));
+        carrier.consume(consumer, 1, 20);
+
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith("DataCarrier.WaitStrategyBenchmark")) {
+                consumerThreadId = thread.getId();
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        carrier.shutdownConsumers();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void idleLatency() {
+        long target = consumer.consumed.get() + 1;
+        carrier.produce(DATA);
+        waitFor(target);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(BATCH)
+    public void saturated() {
+        long target = consumer.consumed.get() + BATCH;
+        for (int i = 0; i < BATCH; i++) {
+            carrier.produce(DATA);
+        }
+        waitFor(target);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Measurement(iterations = 5, time = 2)
+    public void idleCpu(CpuCounters counters) throws InterruptedException {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        long cpuTime = threadMXBean.getThreadCpuTime(consumerThreadId);
+        Thread.sleep(100);
+        counters.consumerCpuNanos += threadMXBean.getThreadCpuTime(consumerThreadId) - cpuTime;
+    }
+
+    private void waitFor(long target) {
+        while (consumer.consumed.get() < target) {
+            Thread.yield();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(WaitStrategyBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class CpuCounters {
+        public long consumerCpuNanos;
+    }
+
+    private static class CountingConsumer implements IConsumer<Object> {
+        private final AtomicLong consumed = new AtomicLong(0);
+
+        @Override public void init() {
+        }
+
+        @Override public void consume(List<Object> data) {
+            consumed.addAndGet(data.size());
+        }
+
+        @Override public void onError(List<Object> data, Throwable t) {
+        }
+
+        @Override public void onExit() {
+        }
+    }
+}
@@ -22,6 +22,7 @@ package org.apache.skywalking.apm.agent.core.conf;
 import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
 import org.apache.skywalking.apm.agent.core.logging.core.LogLevel;
 import org.apache.skywalking.apm.agent.core.logging.core.WriterFactory;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferType;
 
 /**
  * This is the core config in sniffer agent.
@@ -54,6 +55,25 @@ public class Config {
          */
         public static int SAMPLE_N_PER_3_SECS = -1;
 
+        /**
+         * If true, {@link #SAMPLE_N_PER_3_SECS} is handed out evenly over the 3 seconds rather than reset at once, and
+         * every entry endpoint is sampled at least {@link #SAMPLE_MIN_PER_ENDPOINT_PER_3_SECS} times and at most {@link
+         * #SAMPLE_MAX_PER_ENDPOINT_PER_3_SECS} times in 3 seconds.
+         */
+        public static boolean SAMPLE_ADAPTIVE = false;
+
+        /**
+         * The samples every entry endpoint gets in 3 seconds, even if {@link #SAMPLE_N_PER_3_SECS} has been used up.
+         * Only works when {@link #SAMPLE_ADAPTIVE} is true.
+         */
+        public static int SAMPLE_MIN_PER_ENDPOINT_PER_3_SECS = 1;
+
+        /**
+         * The max samples of an entry endpoint in 3 seconds, negative or zero means no limit. Only works when {@link
+         * #SAMPLE_ADAPTIVE} is true.
+         */
+        public static int SAMPLE_MAX_PER_ENDPOINT_PER_3_SECS = -1;
+
         /**
          * If the operation name of the first span is included in this set, this segment should be ignored.
          */
@@ -65,6 +85,12 @@ public class Config {
          */
         public static int SPAN_LIMIT_PER_SEGMENT = 300;
 
+        /**
+         * If true, the finished segments and their spans are reused for the new traces after they have been sent to the
+         * collector, rather than being left to GC. Only turn on when no plugin holds a span after it is stopped.
+         */
+        public static boolean RECYCLE_SEGMENT = false;
+
         /**
          * If true, skywalking agent will save all instrumented classes files in `/debugging` folder.
          * Skywalking team may ask for these files in order to resolve compatible problem.
@@ -95,6 +121,23 @@ public class Config {
          * Collector skywalking trace receiver service addresses.
          */
         public static String BACKEND_SERVICE = "";
+        /**
+         * If true, the trace segments are sent through a stream kept open across the consume batches. Otherwise a
+         * stream is opened for each batch, and the consumer waits for the collector to finish it at the end of the
+         * batch.
+         */
+        public static boolean SEGMENT_STREAM_KEEP_ALIVE = false;
+        /**
+         * The max lifetime of a kept alive trace segment stream, in seconds. The stream is replaced by a new one after
+         * this time, or after an error.
+         */
+        public static long SEGMENT_STREAM_MAX_LIFETIME = 60;
+        /**
+         * The max number of the trace segments sent through one stream, the stream is replaced by a new one after
+         * that. The collector acknowledges the segments only when it finishes the stream, so this bounds the segments
+         * lost, or kept for the spill log, when the stream fails.
+         */
+        public static int SEGMENT_STREAM_MAX_SEGMENTS = 1000;
     }
 
     public static class Jvm {
@@ -108,6 +151,27 @@ public class Config {
         public static int CHANNEL_SIZE = 5;
 
         public static int BUFFER_SIZE = 300;
+
+        /**
+         * The buffers of the trace segment channels, array or ring.
+         */
+        public static BufferType BUFFER_TYPE = BufferType.ARRAY;
+
+        /**
+         * The directory of the spill log, which keeps the trace segments on the local disk while the collector is
+         * unreachable or slow, and replays them after reconnected. Empty means off.
+         */
+        public static String SPILL_DIR = "";
+
+        /**
+         * The max size of the spill log, in MB. The segments are dropped when it is full.
+         */
+        public static int SPILL_MAX_SIZE = 128;
+
+        /**
+         * The max number of the spilled segments replayed per second.
+         */
+        public static int SPILL_REPLAY_RATE = 500;
     }
 
     public static class Dictionary {
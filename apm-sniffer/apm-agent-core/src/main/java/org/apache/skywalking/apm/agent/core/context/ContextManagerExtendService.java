@@ -57,7 +57,7 @@ public class ContextManagerExtendService implements BootService {
             context = new IgnoredTracerContext();
         } else {
             SamplingService samplingService = ServiceManager.INSTANCE.findService(SamplingService.class);
-            if (forceSampling || samplingService.trySampling()) {
+            if (forceSampling || samplingService.trySampling(operationName)) {
                 context = new TracingContext();
             } else {
                 context = new IgnoredTracerContext();
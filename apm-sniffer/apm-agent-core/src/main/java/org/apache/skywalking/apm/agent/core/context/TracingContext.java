@@ -18,6 +18,7 @@
 
 package org.apache.skywalking.apm.agent.core.context;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
@@ -29,12 +30,12 @@ import org.apache.skywalking.apm.agent.core.context.trace.ExitSpan;
 import org.apache.skywalking.apm.agent.core.context.trace.LocalSpan;
 import org.apache.skywalking.apm.agent.core.context.trace.NoopExitSpan;
 import org.apache.skywalking.apm.agent.core.context.trace.NoopSpan;
+import org.apache.skywalking.apm.agent.core.context.trace.SegmentRecycler;
 import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
 import org.apache.skywalking.apm.agent.core.context.trace.TraceSegmentRef;
 import org.apache.skywalking.apm.agent.core.context.trace.WithPeerInfo;
 import org.apache.skywalking.apm.agent.core.dictionary.DictionaryManager;
 import org.apache.skywalking.apm.agent.core.dictionary.DictionaryUtil;
-import org.apache.skywalking.apm.agent.core.dictionary.PossibleFound;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.agent.core.sampling.SamplingService;
@@ -56,6 +57,7 @@ import org.apache.skywalking.apm.util.StringUtil;
  */
 public class TracingContext implements AbstractTracerContext {
     private static final ILog logger = LogManager.getLogger(TracingContext.class);
+    private static final int ACTIVE_SPAN_STACK_CAPACITY = 8;
     private long lastWarningTimestamp = 0;
 
     /**
@@ -69,11 +71,11 @@ public class TracingContext implements AbstractTracerContext {
     private TraceSegment segment;
 
     /**
-     * Active spans stored in a Stack, usually called 'ActiveSpanStack'. This {@link LinkedList} is the in-memory
-     * storage-structure. <p> I use {@link LinkedList#removeLast()}, {@link LinkedList#addLast(Object)} and {@link
-     * LinkedList#last} instead of {@link #pop()}, {@link #push(AbstractSpan)}, {@link #peek()}
+     * Active spans stored in a Stack, usually called 'ActiveSpanStack'. This {@link ArrayList} is the in-memory
+     * storage-structure, the top is the last element, so {@link #pop()}, {@link #push(AbstractSpan)} and {@link
+     * #peek()} don't allocate.
      */
-    private LinkedList<AbstractSpan> activeSpanStack = new LinkedList<AbstractSpan>();
+    private ArrayList<AbstractSpan> activeSpanStack = new ArrayList<AbstractSpan>(ACTIVE_SPAN_STACK_CAPACITY);
 
     /**
      * A counter for the next span.
@@ -84,7 +86,7 @@ public class TracingContext implements AbstractTracerContext {
      * Initialize all fields with default value.
      */
     TracingContext() {
-        this.segment = new TraceSegment();
+        this.segment = SegmentRecycler.INSTANCE.createSegment();
         this.spanIdGenerator = 0;
         if (samplingService == null) {
             samplingService = ServiceManager.INSTANCE.findService(SamplingService.class);
@@ -250,31 +252,16 @@ public class TracingContext implements AbstractTracerContext {
         AbstractSpan entrySpan;
         final AbstractSpan parentSpan = peek();
         final int parentSpanId = parentSpan == null ? -1 : parentSpan.getSpanId();
+        int operationId = DictionaryManager.findEndpointSection().findOnlyId(segment.getServiceId(), operationName);
         if (parentSpan != null && parentSpan.isEntry()) {
-            entrySpan = (AbstractTracingSpan)DictionaryManager.findEndpointSection()
-                .findOnly(segment.getServiceId(), operationName)
-                .doInCondition(new PossibleFound.FoundAndObtain() {
-                    @Override public Object doProcess(int operationId) {
-                        return parentSpan.setOperationId(operationId);
-                    }
-                }, new PossibleFound.NotFoundAndObtain() {
-                    @Override public Object doProcess() {
-                        return parentSpan.setOperationName(operationName);
-                    }
-                });
+            if (DictionaryUtil.isNull(operationId)) {
+                entrySpan = parentSpan.setOperationName(operationName);
+            } else {
+                entrySpan = parentSpan.setOperationId(operationId);
+            }
             return entrySpan.start();
         } else {
-            entrySpan = (AbstractTracingSpan)DictionaryManager.findEndpointSection()
-                .findOnly(segment.getServiceId(), operationName)
-                .doInCondition(new PossibleFound.FoundAndObtain() {
-                    @Override public Object doProcess(int operationId) {
-                        return new EntrySpan(spanIdGenerator++, parentSpanId, operationId);
-                    }
-                }, new PossibleFound.NotFoundAndObtain() {
-                    @Override public Object doProcess() {
-                        return new EntrySpan(spanIdGenerator++, parentSpanId, operationName);
-                    }
-                });
+            entrySpan = SegmentRecycler.INSTANCE.createEntrySpan(spanIdGenerator++, parentSpanId, operationName, operationId);
             entrySpan.start();
             return push(entrySpan);
         }
@@ -298,7 +285,7 @@ public class TracingContext implements AbstractTracerContext {
          * From v6.0.0-beta, local span doesn't do op name register.
          * All op name register is related to entry and exit spans only.
          */
-        AbstractTracingSpan span = new LocalSpan(spanIdGenerator++, parentSpanId, operationName);
+        AbstractTracingSpan span = SegmentRecycler.INSTANCE.createLocalSpan(spanIdGenerator++, parentSpanId, operationName);
         span.start();
         return push(span);
     }
@@ -319,54 +306,13 @@ public class TracingContext implements AbstractTracerContext {
             exitSpan = parentSpan;
         } else {
             final int parentSpanId = parentSpan == null ? -1 : parentSpan.getSpanId();
-            exitSpan = (AbstractSpan)DictionaryManager.findNetworkAddressSection()
-                .find(remotePeer).doInCondition(
-                    new PossibleFound.FoundAndObtain() {
-                        @Override
-                        public Object doProcess(final int peerId) {
-                            if (isLimitMechanismWorking()) {
-                                return new NoopExitSpan(peerId);
-                            }
-
-                            return DictionaryManager.findEndpointSection()
-                                .findOnly(segment.getServiceId(), operationName)
-                                .doInCondition(
-                                    new PossibleFound.FoundAndObtain() {
-                                        @Override
-                                        public Object doProcess(int operationId) {
-                                            return new ExitSpan(spanIdGenerator++, parentSpanId, operationId, peerId);
-                                        }
-                                    }, new PossibleFound.NotFoundAndObtain() {
-                                        @Override
-                                        public Object doProcess() {
-                                            return new ExitSpan(spanIdGenerator++, parentSpanId, operationName, peerId);
-                                        }
-                                    });
-                        }
-                    },
-                    new PossibleFound.NotFoundAndObtain() {
-                        @Override
-                        public Object doProcess() {
-                            if (isLimitMechanismWorking()) {
-                                return new NoopExitSpan(remotePeer);
-                            }
-
-                            return DictionaryManager.findEndpointSection()
-                                .findOnly(segment.getServiceId(), operationName)
-                                .doInCondition(
-                                    new PossibleFound.FoundAndObtain() {
-                                        @Override
-                                        public Object doProcess(int operationId) {
-                                            return new ExitSpan(spanIdGenerator++, parentSpanId, operationId, remotePeer);
-                                        }
-                                    }, new PossibleFound.NotFoundAndObtain() {
-                                        @Override
-                                        public Object doProcess() {
-                                            return new ExitSpan(spanIdGenerator++, parentSpanId, operationName, remotePeer);
-                                        }
-                                    });
-                        }
-                    });
+            int peerId = DictionaryManager.findNetworkAddressSection().findId(remotePeer);
+            if (isLimitMechanismWorking()) {
+                exitSpan = DictionaryUtil.isNull(peerId) ? new NoopExitSpan(remotePeer) : new NoopExitSpan(peerId);
+            } else {
+                int operationId = DictionaryManager.findEndpointSection().findOnlyId(segment.getServiceId(), operationName);
+                exitSpan = SegmentRecycler.INSTANCE.createExitSpan(spanIdGenerator++, parentSpanId, operationName, operationId, remotePeer, peerId);
+            }
             push(exitSpan);
         }
         exitSpan.start();
@@ -425,7 +371,7 @@ public class TracingContext implements AbstractTracerContext {
          * @see {@link #createSpan(String, long, boolean)}
          */
         if (!segment.hasRef() && segment.isSingleSpanSegment()) {
-            if (!samplingService.trySampling()) {
+            if (!samplingService.recheckSampling()) {
                 finishedSegment.setIgnore(true);
             }
         }
@@ -461,6 +407,22 @@ public class TracingContext implements AbstractTracerContext {
             }
         }
 
+        /**
+         * @return true, if the given {@link TracingContextListener} is registered, and all the others are {@link
+         * NonRetainingListener}s, so it is the only holder of the finished {@link TraceSegment}s.
+         */
+        public static boolean isOnlyRetainingListener(TracingContextListener listener) {
+            boolean registered = false;
+            for (TracingContextListener existing : LISTENERS) {
+                if (existing == listener) {
+                    registered = true;
+                } else if (!(existing instanceof NonRetainingListener)) {
+                    return false;
+                }
+            }
+            return registered;
+        }
+
         /**
          * Clear the given {@link TracingContextListener}
          */
@@ -474,7 +436,7 @@ public class TracingContext implements AbstractTracerContext {
      * @return the top element of 'ActiveSpanStack', and remove it.
      */
     private AbstractSpan pop() {
-        return activeSpanStack.removeLast();
+        return activeSpanStack.remove(activeSpanStack.size() - 1);
     }
 
     /**
@@ -483,7 +445,7 @@ public class TracingContext implements AbstractTracerContext {
      * @param span
      */
     private AbstractSpan push(AbstractSpan span) {
-        activeSpanStack.addLast(span);
+        activeSpanStack.add(span);
         return span;
     }
 
@@ -494,11 +456,11 @@ public class TracingContext implements AbstractTracerContext {
         if (activeSpanStack.isEmpty()) {
             return null;
         }
-        return activeSpanStack.getLast();
+        return activeSpanStack.get(activeSpanStack.size() - 1);
     }
 
     private AbstractSpan first() {
-        return activeSpanStack.getFirst();
+        return activeSpanStack.get(0);
     }
 
     private boolean isLimitMechanismWorking() {
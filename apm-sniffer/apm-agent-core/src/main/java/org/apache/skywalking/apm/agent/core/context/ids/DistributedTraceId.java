@@ -19,6 +19,8 @@
 
 package org.apache.skywalking.apm.agent.core.context.ids;
 
+import com.google.protobuf.CodedOutputStream;
+import java.io.IOException;
 import org.apache.skywalking.apm.network.language.agent.*;
 
 /**
@@ -58,6 +60,20 @@ public abstract class DistributedTraceId {
         return id.transform();
     }
 
+    /**
+     * @return the size of {@link #toUniqueId()} result in protobuf wire format.
+     */
+    public int serializedSize() {
+        return id.serializedSize();
+    }
+
+    /**
+     * Write the {@link #toUniqueId()} result in protobuf wire format.
+     */
+    public void writeTo(CodedOutputStream output) throws IOException {
+        id.writeTo(output);
+    }
+
     /**
      * Compare the two <code>DistributedTraceId</code> by its {@link #id},
      * even these two <code>DistributedTraceId</code>s are not the same instances.
@@ -19,6 +19,9 @@
 
 package org.apache.skywalking.apm.agent.core.context.ids;
 
+import com.google.protobuf.CodedOutputStream;
+import java.io.IOException;
+import org.apache.skywalking.apm.agent.core.context.util.ProtobufUtil;
 import org.apache.skywalking.apm.network.language.agent.*;
 /**
  * @author wusheng
@@ -98,4 +101,26 @@ public class ID {
     public UniqueId transform() {
         return UniqueId.newBuilder().addIdParts(part1).addIdParts(part2).addIdParts(part3).build();
     }
+
+    /**
+     * @return the size of {@link #transform()} result in protobuf wire format.
+     */
+    public int serializedSize() {
+        return ProtobufUtil.computeMessageSize(1, partsSize());
+    }
+
+    /**
+     * Write the {@link #transform()} result in protobuf wire format, the id parts are packed.
+     */
+    public void writeTo(CodedOutputStream output) throws IOException {
+        ProtobufUtil.writeMessageHeader(output, 1, partsSize());
+        output.writeInt64NoTag(part1);
+        output.writeInt64NoTag(part2);
+        output.writeInt64NoTag(part3);
+    }
+
+    private int partsSize() {
+        return CodedOutputStream.computeInt64SizeNoTag(part1) + CodedOutputStream.computeInt64SizeNoTag(part2)
+            + CodedOutputStream.computeInt64SizeNoTag(part3);
+    }
 }
@@ -18,6 +18,8 @@
 
 package org.apache.skywalking.apm.agent.core.context.trace;
 
+import com.google.protobuf.CodedOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
@@ -25,6 +27,7 @@ import java.util.Map;
 import org.apache.skywalking.apm.agent.core.context.tag.AbstractTag;
 import org.apache.skywalking.apm.agent.core.context.tag.StringTag;
 import org.apache.skywalking.apm.agent.core.context.util.KeyValuePair;
+import org.apache.skywalking.apm.agent.core.context.util.ProtobufUtil;
 import org.apache.skywalking.apm.agent.core.context.util.TagValuePair;
 import org.apache.skywalking.apm.agent.core.context.util.ThrowableTransformer;
 import org.apache.skywalking.apm.agent.core.dictionary.DictionaryUtil;
@@ -314,6 +317,153 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
         return spanBuilder;
     }
 
+    /**
+     * @return the size of {@link #transform()} result in protobuf wire format.
+     */
+    public int serializedSize() {
+        int size = ProtobufUtil.computeInt32Size(1, spanId);
+        size += ProtobufUtil.computeInt32Size(2, parentSpanId);
+        size += ProtobufUtil.computeInt64Size(3, startTime);
+        size += ProtobufUtil.computeInt64Size(4, endTime);
+        if (this.refs != null) {
+            for (TraceSegmentRef ref : this.refs) {
+                size += ProtobufUtil.computeMessageSize(5, ref.serializedSize());
+            }
+        }
+        if (operationId != DictionaryUtil.nullValue()) {
+            size += ProtobufUtil.computeInt32Size(6, operationId);
+        } else {
+            size += ProtobufUtil.computeStringSize(7, operationName);
+        }
+        size += peerSerializedSize();
+        size += ProtobufUtil.computeInt32Size(10, spanTypeValue());
+        if (this.layer != null) {
+            size += ProtobufUtil.computeInt32Size(11, this.layer.getCode());
+        }
+        if (componentId != DictionaryUtil.nullValue()) {
+            size += ProtobufUtil.computeInt32Size(12, componentId);
+        } else {
+            size += ProtobufUtil.computeStringSize(13, componentName);
+        }
+        size += ProtobufUtil.computeBoolSize(14, errorOccurred);
+        if (this.tags != null) {
+            for (TagValuePair tag : this.tags) {
+                size += ProtobufUtil.computeMessageSize(15, tag.serializedSize());
+            }
+        }
+        if (this.logs != null) {
+            for (LogDataEntity log : this.logs) {
+                size += ProtobufUtil.computeMessageSize(16, log.serializedSize());
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Write the {@link #transform()} result in protobuf wire format, without building the protobuf objects.
+     */
+    public void writeTo(CodedOutputStream output) throws IOException {
+        ProtobufUtil.writeInt32(output, 1, spanId);
+        ProtobufUtil.writeInt32(output, 2, parentSpanId);
+        ProtobufUtil.writeInt64(output, 3, startTime);
+        ProtobufUtil.writeInt64(output, 4, endTime);
+        if (this.refs != null) {
+            for (TraceSegmentRef ref : this.refs) {
+                ProtobufUtil.writeMessageHeader(output, 5, ref.serializedSize());
+                ref.writeTo(output);
+            }
+        }
+        if (operationId != DictionaryUtil.nullValue()) {
+            ProtobufUtil.writeInt32(output, 6, operationId);
+        } else {
+            ProtobufUtil.writeString(output, 7, operationName);
+        }
+        writePeerTo(output);
+        ProtobufUtil.writeInt32(output, 10, spanTypeValue());
+        if (this.layer != null) {
+            ProtobufUtil.writeInt32(output, 11, this.layer.getCode());
+        }
+        if (componentId != DictionaryUtil.nullValue()) {
+            ProtobufUtil.writeInt32(output, 12, componentId);
+        } else {
+            ProtobufUtil.writeString(output, 13, componentName);
+        }
+        ProtobufUtil.writeBool(output, 14, errorOccurred);
+        if (this.tags != null) {
+            for (TagValuePair tag : this.tags) {
+                ProtobufUtil.writeMessageHeader(output, 15, tag.serializedSize());
+                tag.writeTo(output);
+            }
+        }
+        if (this.logs != null) {
+            for (LogDataEntity log : this.logs) {
+                ProtobufUtil.writeMessageHeader(output, 16, log.serializedSize());
+                log.writeTo(output);
+            }
+        }
+    }
+
+    /**
+     * @return the size of the peer fields, only the exit span has.
+     */
+    protected int peerSerializedSize() {
+        return 0;
+    }
+
+    /**
+     * Write the peer fields, only the exit span has.
+     */
+    protected void writePeerTo(CodedOutputStream output) throws IOException {
+    }
+
+    private int spanTypeValue() {
+        if (isEntry()) {
+            return SpanType.Entry_VALUE;
+        } else if (isExit()) {
+            return SpanType.Exit_VALUE;
+        } else {
+            return SpanType.Local_VALUE;
+        }
+    }
+
+    /**
+     * Set the span as a new one, when it is created again by {@link SegmentRecycler}.
+     */
+    void reuse(int spanId, int parentSpanId, String operationName, int operationId) {
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.operationName = operationName;
+        this.operationId = operationId;
+    }
+
+    /**
+     * Clear the span after its segment has been sent, the tag list is kept for the next use.
+     */
+    void recycle() {
+        if (tags != null) {
+            tags.clear();
+        }
+        this.operationName = null;
+        this.operationId = DictionaryUtil.nullValue();
+        this.layer = null;
+        this.startTime = 0;
+        this.endTime = 0;
+        this.errorOccurred = false;
+        this.componentId = DictionaryUtil.nullValue();
+        this.componentName = null;
+        this.logs = null;
+        this.refs = null;
+    }
+
+    /**
+     * @return true, if the span has been changed after {@link #recycle()}, by someone still holding it.
+     */
+    boolean isChangedAfterRecycle() {
+        return (tags != null && !tags.isEmpty()) || operationName != null || operationId != DictionaryUtil.nullValue()
+            || layer != null || startTime != 0 || endTime != 0 || errorOccurred || componentId != DictionaryUtil.nullValue()
+            || componentName != null || logs != null || refs != null;
+    }
+
     @Override public void ref(TraceSegmentRef ref) {
         if (refs == null) {
             refs = new LinkedList<TraceSegmentRef>();
@@ -126,6 +126,17 @@ public class EntrySpan extends StackBasedTracingSpan {
         return false;
     }
 
+    @Override
+    void recycle() {
+        super.recycle();
+        this.currentMaxDepth = 0;
+    }
+
+    @Override
+    boolean isChangedAfterRecycle() {
+        return super.isChangedAfterRecycle() || currentMaxDepth != 0;
+    }
+
     private void clearWhenRestart() {
         this.componentId = DictionaryUtil.nullValue();
         this.componentName = null;
@@ -19,7 +19,10 @@
 
 package org.apache.skywalking.apm.agent.core.context.trace;
 
+import com.google.protobuf.CodedOutputStream;
+import java.io.IOException;
 import org.apache.skywalking.apm.agent.core.context.tag.AbstractTag;
+import org.apache.skywalking.apm.agent.core.context.util.ProtobufUtil;
 import org.apache.skywalking.apm.agent.core.dictionary.DictionaryUtil;
 import org.apache.skywalking.apm.network.language.agent.v2.SpanObjectV2;
 import org.apache.skywalking.apm.network.trace.component.Component;
@@ -47,6 +50,11 @@ public class ExitSpan extends StackBasedTracingSpan implements WithPeerInfo {
         this.peerId = DictionaryUtil.nullValue();
     }
 
+    @Override
+    boolean isChangedAfterRecycle() {
+        return super.isChangedAfterRecycle() || peer != null || peerId != DictionaryUtil.nullValue();
+    }
+
     public ExitSpan(int spanId, int parentSpanId, int operationId, int peerId) {
         super(spanId, parentSpanId, operationId);
         this.peer = null;
@@ -138,6 +146,22 @@ public class ExitSpan extends StackBasedTracingSpan implements WithPeerInfo {
         return spanBuilder;
     }
 
+    @Override protected int peerSerializedSize() {
+        if (peerId != DictionaryUtil.nullValue()) {
+            return ProtobufUtil.computeInt32Size(8, peerId);
+        } else {
+            return ProtobufUtil.computeStringSize(9, peer);
+        }
+    }
+
+    @Override protected void writePeerTo(CodedOutputStream output) throws IOException {
+        if (peerId != DictionaryUtil.nullValue()) {
+            ProtobufUtil.writeInt32(output, 8, peerId);
+        } else {
+            ProtobufUtil.writeString(output, 9, peer);
+        }
+    }
+
     @Override
     public AbstractTracingSpan setOperationName(String operationName) {
         if (stackDepth == 1) {
@@ -156,6 +180,19 @@ public class ExitSpan extends StackBasedTracingSpan implements WithPeerInfo {
         }
     }
 
+    void reuse(int spanId, int parentSpanId, String operationName, int operationId, String peer, int peerId) {
+        super.reuse(spanId, parentSpanId, operationName, operationId);
+        this.peer = peer;
+        this.peerId = peerId;
+    }
+
+    @Override
+    void recycle() {
+        super.recycle();
+        this.peer = null;
+        this.peerId = DictionaryUtil.nullValue();
+    }
+
     @Override
     public int getPeerId() {
         return peerId;
@@ -18,9 +18,12 @@
 
 package org.apache.skywalking.apm.agent.core.context.trace;
 
+import com.google.protobuf.CodedOutputStream;
+import java.io.IOException;
 import java.util.LinkedList;
 import java.util.List;
 import org.apache.skywalking.apm.agent.core.context.util.KeyValuePair;
+import org.apache.skywalking.apm.agent.core.context.util.ProtobufUtil;
 import org.apache.skywalking.apm.network.language.agent.v2.Log;
 
 /**
@@ -69,4 +72,26 @@ public class LogDataEntity {
         logMessageBuilder.setTime(timestamp);
         return logMessageBuilder.build();
     }
+
+    /**
+     * @return the size of {@link #transform()} result in protobuf wire format.
+     */
+    public int serializedSize() {
+        int size = ProtobufUtil.computeInt64Size(1, timestamp);
+        for (KeyValuePair log : logs) {
+            size += ProtobufUtil.computeMessageSize(2, log.serializedSize());
+        }
+        return size;
+    }
+
+    /**
+     * Write the {@link #transform()} result in protobuf wire format.
+     */
+    public void writeTo(CodedOutputStream output) throws IOException {
+        ProtobufUtil.writeInt64(output, 1, timestamp);
+        for (KeyValuePair log : logs) {
+            ProtobufUtil.writeMessageHeader(output, 2, log.serializedSize());
+            log.writeTo(output);
+        }
+    }
 }
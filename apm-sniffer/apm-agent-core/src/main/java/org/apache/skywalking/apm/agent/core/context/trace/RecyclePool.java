@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context.trace;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A bounded pool of the recycled objects. The objects are taken by the traced threads, and given back by the consumer
+ * thread of the segments, so the pool is split into stripes, each guarded by its own lock. A thread takes from the
+ * stripe of its id first, and the objects are given back to the stripes in turn.
+ */
+class RecyclePool<T> {
+    private final Stripe[] stripes;
+    private final int mask;
+    private final AtomicInteger releaseIndex;
+
+    RecyclePool(int stripeCount, int stripeCapacity) {
+        int size = 1;
+        while (size < stripeCount) {
+            size <<= 1;
+        }
+        stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe(stripeCapacity);
+        }
+        mask = size - 1;
+        releaseIndex = new AtomicInteger(0);
+    }
+
+    /**
+     * @return a recycled object, or null if the pool is empty. The stripe of the current thread is tried first.
+     */
+    @SuppressWarnings("unchecked")
+    T acquire() {
+        int index = (int)Thread.currentThread().getId();
+        for (int i = 0; i < stripes.length; i++) {
+            Stripe stripe = stripes[(index + i) & mask];
+            synchronized (stripe) {
+                if (stripe.size > 0) {
+                    Object item = stripe.items[--stripe.size];
+                    stripe.items[stripe.size] = null;
+                    return (T)item;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Give the object back, it is dropped if the stripe is full.
+     */
+    void release(T item) {
+        Stripe stripe = stripes[releaseIndex.getAndIncrement() & mask];
+        synchronized (stripe) {
+            if (stripe.size < stripe.items.length) {
+                stripe.items[stripe.size++] = item;
+            }
+        }
+    }
+
+    private static class Stripe {
+        private final Object[] items;
+        private int size;
+
+        private Stripe(int capacity) {
+            this.items = new Object[capacity];
+            this.size = 0;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context.trace;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.dictionary.DictionaryUtil;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+
+/**
+ * The <code>SegmentRecycler</code> creates the {@link TraceSegment}s and the {@link AbstractTracingSpan}s, and takes
+ * them back after the segment has been sent to the collector, when {@link Config.Agent#RECYCLE_SEGMENT} is on.
+ *
+ * A plugin keeping a span after it is stopped may change it after it has been recycled. Every recycled object is
+ * checked before being reused, the changed ones are dropped and counted as leaked, see {@link #getLeakedCount()}.
+ */
+public enum SegmentRecycler {
+    INSTANCE;
+
+    private static final ILog logger = LogManager.getLogger(SegmentRecycler.class);
+    private static final int STRIPE_COUNT = 8;
+    private static final int SEGMENT_STRIPE_CAPACITY = 128;
+    private static final int SPAN_STRIPE_CAPACITY = 512;
+
+    private final RecyclePool<TraceSegment> segments = new RecyclePool<TraceSegment>(STRIPE_COUNT, SEGMENT_STRIPE_CAPACITY);
+    private final RecyclePool<EntrySpan> entrySpans = new RecyclePool<EntrySpan>(STRIPE_COUNT, SPAN_STRIPE_CAPACITY);
+    private final RecyclePool<ExitSpan> exitSpans = new RecyclePool<ExitSpan>(STRIPE_COUNT, SPAN_STRIPE_CAPACITY);
+    private final RecyclePool<LocalSpan> localSpans = new RecyclePool<LocalSpan>(STRIPE_COUNT, SPAN_STRIPE_CAPACITY);
+    private final AtomicLong leakedCount = new AtomicLong(0);
+
+    public TraceSegment createSegment() {
+        if (Config.Agent.RECYCLE_SEGMENT) {
+            TraceSegment segment = segments.acquire();
+            if (segment != null) {
+                if (!segment.isChangedAfterRecycle()) {
+                    segment.reuse();
+                    return segment;
+                }
+                leaked(segment);
+            }
+        }
+        return new TraceSegment();
+    }
+
+    /**
+     * @param operationName used only when the operationId is {@link DictionaryUtil#nullValue()}
+     */
+    public EntrySpan createEntrySpan(int spanId, int parentSpanId, String operationName, int operationId) {
+        if (Config.Agent.RECYCLE_SEGMENT) {
+            EntrySpan span = entrySpans.acquire();
+            if (span != null) {
+                if (!span.isChangedAfterRecycle()) {
+                    span.reuse(spanId, parentSpanId, DictionaryUtil.isNull(operationId) ? operationName : null, operationId);
+                    return span;
+                }
+                leaked(span);
+            }
+        }
+        return DictionaryUtil.isNull(operationId) ? new EntrySpan(spanId, parentSpanId, operationName) : new EntrySpan(spanId, parentSpanId, operationId);
+    }
+
+    /**
+     * @param operationName used only when the operationId is {@link DictionaryUtil#nullValue()}
+     * @param peer used only when the peerId is {@link DictionaryUtil#nullValue()}
+     */
+    public ExitSpan createExitSpan(int spanId, int parentSpanId, String operationName, int operationId, String peer,
+        int peerId) {
+        if (!DictionaryUtil.isNull(operationId)) {
+            operationName = null;
+        }
+        if (!DictionaryUtil.isNull(peerId)) {
+            peer = null;
+        }
+        if (Config.Agent.RECYCLE_SEGMENT) {
+            ExitSpan span = exitSpans.acquire();
+            if (span != null) {
+                if (!span.isChangedAfterRecycle()) {
+                    span.reuse(spanId, parentSpanId, operationName, operationId, peer, peerId);
+                    return span;
+                }
+                leaked(span);
+            }
+        }
+        if (DictionaryUtil.isNull(operationId)) {
+            return peer == null ? new ExitSpan(spanId, parentSpanId, operationName, peerId) : new ExitSpan(spanId, parentSpanId, operationName, peer);
+        } else {
+            return peer == null ? new ExitSpan(spanId, parentSpanId, operationId, peerId) : new ExitSpan(spanId, parentSpanId, operationId, peer);
+        }
+    }
+
+    public LocalSpan createLocalSpan(int spanId, int parentSpanId, String operationName) {
+        if (Config.Agent.RECYCLE_SEGMENT) {
+            LocalSpan span = localSpans.acquire();
+            if (span != null) {
+                if (!span.isChangedAfterRecycle()) {
+                    span.reuse(spanId, parentSpanId, operationName, DictionaryUtil.nullValue());
+                    return span;
+                }
+                leaked(span);
+            }
+        }
+        return new LocalSpan(spanId, parentSpanId, operationName);
+    }
+
+    /**
+     * Take back the segment and all its spans. Must be called only when no one else holds the segment, typically after
+     * it has been sent to the collector.
+     */
+    public void recycle(TraceSegment segment) {
+        if (!Config.Agent.RECYCLE_SEGMENT) {
+            return;
+        }
+        if (segment.recycle()) {
+            segments.release(segment);
+        } else {
+            logger.warn("Trace segment {} has been recycled twice, ignore.", segment.getTraceSegmentId());
+        }
+    }
+
+    void recycle(AbstractTracingSpan span) {
+        span.recycle();
+        if (span instanceof EntrySpan) {
+            entrySpans.release((EntrySpan)span);
+        } else if (span instanceof ExitSpan) {
+            exitSpans.release((ExitSpan)span);
+        } else if (span instanceof LocalSpan) {
+            localSpans.release((LocalSpan)span);
+        }
+    }
+
+    /**
+     * @return the number of the recycled objects which have been changed by the leaked references, and dropped.
+     */
+    public long getLeakedCount() {
+        return leakedCount.get();
+    }
+
+    private void leaked(Object recycled) {
+        if (leakedCount.getAndIncrement() == 0) {
+            logger.warn("{} has been changed after recycled, some plugin holds it after it is stopped. " +
+                "The leaked ones are dropped, and the following ones are counted only.", recycled.getClass().getSimpleName());
+        }
+    }
+}
@@ -20,7 +20,6 @@ package org.apache.skywalking.apm.agent.core.context.trace;
 
 import org.apache.skywalking.apm.agent.core.dictionary.DictionaryManager;
 import org.apache.skywalking.apm.agent.core.dictionary.DictionaryUtil;
-import org.apache.skywalking.apm.agent.core.dictionary.PossibleFound;
 
 /**
  * The <code>StackBasedTracingSpan</code> represents a span with an inside stack construction.
@@ -42,24 +41,23 @@ public abstract class StackBasedTracingSpan extends AbstractTracingSpan {
         this.stackDepth = 0;
     }
 
+    @Override
+    void recycle() {
+        super.recycle();
+        this.stackDepth = 0;
+    }
+
+    @Override
+    boolean isChangedAfterRecycle() {
+        return super.isChangedAfterRecycle() || stackDepth != 0;
+    }
+
     @Override
     public boolean finish(TraceSegment owner) {
         if (--stackDepth == 0) {
             if (this.operationId == DictionaryUtil.nullValue()) {
-                this.operationId = (Integer)DictionaryManager.findEndpointSection()
-                    .findOrPrepare4Register(owner.getServiceId(), operationName, this.isEntry(), this.isExit())
-                    .doInCondition(
-                        new PossibleFound.FoundAndObtain() {
-                            @Override public Object doProcess(int value) {
-                                return value;
-                            }
-                        },
-                        new PossibleFound.NotFoundAndObtain() {
-                            @Override public Object doProcess() {
-                                return DictionaryUtil.nullValue();
-                            }
-                        }
-                    );
+                this.operationId = DictionaryManager.findEndpointSection()
+                    .findOrPrepare4RegisterId(owner.getServiceId(), operationName, this.isEntry(), this.isExit());
             }
             return super.finish(owner);
         } else {
@@ -19,6 +19,7 @@
 
 package org.apache.skywalking.apm.agent.core.context.trace;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import org.apache.skywalking.apm.agent.core.conf.RemoteDownstreamConfig;
@@ -72,12 +73,17 @@ public class TraceSegment {
 
     private boolean isSizeLimited = false;
 
+    /**
+     * True after this segment has been taken back by {@link SegmentRecycler}, until it is reused.
+     */
+    private boolean recycled = false;
+
     /**
      * Create a default/empty trace segment, with current time as start time, and generate a new segment id.
      */
     public TraceSegment() {
         this.traceSegmentId = GlobalIdGenerator.generate();
-        this.spans = new LinkedList<AbstractTracingSpan>();
+        this.spans = new ArrayList<AbstractTracingSpan>();
         this.relatedGlobalTraces = new DistributedTraceIds();
         this.relatedGlobalTraces.append(new NewDistributedTraceId());
     }
@@ -141,6 +147,14 @@ public class TraceSegment {
         return relatedGlobalTraces.getRelatedGlobalTraces();
     }
 
+    List<AbstractTracingSpan> getSpans() {
+        return spans;
+    }
+
+    boolean isSizeLimited() {
+        return isSizeLimited;
+    }
+
     public boolean isSingleSpanSegment() {
         return this.spans != null && this.spans.size() == 1;
     }
@@ -154,7 +168,8 @@ public class TraceSegment {
     }
 
     /**
-     * This is a high CPU cost method, only called when sending to collector or test cases.
+     * This is a high CPU cost method, only called when sending to collector or test cases. The collector client uses
+     * {@link TraceSegmentSerializer} instead, which writes the same bytes without building the protobuf objects.
      *
      * @return the segment as GRPC service parameter
      */
@@ -182,6 +197,43 @@ public class TraceSegment {
         return upstreamBuilder.build();
     }
 
+    /**
+     * Set the segment as a new one, when it is created again by {@link SegmentRecycler}.
+     */
+    void reuse() {
+        this.traceSegmentId = GlobalIdGenerator.generate();
+        this.relatedGlobalTraces = new DistributedTraceIds();
+        this.relatedGlobalTraces.append(new NewDistributedTraceId());
+        this.recycled = false;
+    }
+
+    /**
+     * Give all spans back to {@link SegmentRecycler}, and clear the segment.
+     *
+     * @return false, if the segment has been recycled already.
+     */
+    boolean recycle() {
+        if (recycled) {
+            return false;
+        }
+        recycled = true;
+        for (AbstractTracingSpan span : spans) {
+            SegmentRecycler.INSTANCE.recycle(span);
+        }
+        spans.clear();
+        refs = null;
+        ignore = false;
+        isSizeLimited = false;
+        return true;
+    }
+
+    /**
+     * @return true, if the segment has been changed after {@link #recycle()}, by someone still holding it.
+     */
+    boolean isChangedAfterRecycle() {
+        return !spans.isEmpty() || refs != null || ignore || isSizeLimited;
+    }
+
     @Override
     public String toString() {
         return "TraceSegment{" +
@@ -18,10 +18,13 @@
 
 package org.apache.skywalking.apm.agent.core.context.trace;
 
+import com.google.protobuf.CodedOutputStream;
+import java.io.IOException;
 import org.apache.skywalking.apm.agent.core.conf.RemoteDownstreamConfig;
 import org.apache.skywalking.apm.agent.core.context.ContextCarrier;
 import org.apache.skywalking.apm.agent.core.context.ContextSnapshot;
 import org.apache.skywalking.apm.agent.core.context.ids.ID;
+import org.apache.skywalking.apm.agent.core.context.util.ProtobufUtil;
 import org.apache.skywalking.apm.agent.core.dictionary.DictionaryUtil;
 import org.apache.skywalking.apm.network.language.agent.RefType;
 import org.apache.skywalking.apm.network.language.agent.v2.SegmentReference;
@@ -166,6 +169,66 @@ public class TraceSegmentRef {
         return refBuilder.build();
     }
 
+    /**
+     * @return the size of {@link #transform()} result in protobuf wire format.
+     */
+    public int serializedSize() {
+        boolean crossProcess = SegmentRefType.CROSS_PROCESS.equals(type);
+        int size = ProtobufUtil.computeInt32Size(1, crossProcess ? RefType.CrossProcess_VALUE : RefType.CrossThread_VALUE);
+        size += ProtobufUtil.computeMessageSize(2, traceSegmentId.serializedSize());
+        size += ProtobufUtil.computeInt32Size(3, spanId);
+        size += ProtobufUtil.computeInt32Size(4, parentServiceInstanceId);
+        if (crossProcess) {
+            if (peerId == DictionaryUtil.nullValue()) {
+                size += ProtobufUtil.computeStringSize(5, peerHost);
+            } else {
+                size += ProtobufUtil.computeInt32Size(6, peerId);
+            }
+        }
+        size += ProtobufUtil.computeInt32Size(7, entryServiceInstanceId);
+        if (entryEndpointId == DictionaryUtil.nullValue()) {
+            size += ProtobufUtil.computeStringSize(8, entryEndpointName);
+        } else {
+            size += ProtobufUtil.computeInt32Size(9, entryEndpointId);
+        }
+        if (parentEndpointId == DictionaryUtil.nullValue()) {
+            size += ProtobufUtil.computeStringSize(10, parentEndpointName);
+        } else {
+            size += ProtobufUtil.computeInt32Size(11, parentEndpointId);
+        }
+        return size;
+    }
+
+    /**
+     * Write the {@link #transform()} result in protobuf wire format.
+     */
+    public void writeTo(CodedOutputStream output) throws IOException {
+        boolean crossProcess = SegmentRefType.CROSS_PROCESS.equals(type);
+        ProtobufUtil.writeInt32(output, 1, crossProcess ? RefType.CrossProcess_VALUE : RefType.CrossThread_VALUE);
+        ProtobufUtil.writeMessageHeader(output, 2, traceSegmentId.serializedSize());
+        traceSegmentId.writeTo(output);
+        ProtobufUtil.writeInt32(output, 3, spanId);
+        ProtobufUtil.writeInt32(output, 4, parentServiceInstanceId);
+        if (crossProcess) {
+            if (peerId == DictionaryUtil.nullValue()) {
+                ProtobufUtil.writeString(output, 5, peerHost);
+            } else {
+                ProtobufUtil.writeInt32(output, 6, peerId);
+            }
+        }
+        ProtobufUtil.writeInt32(output, 7, entryServiceInstanceId);
+        if (entryEndpointId == DictionaryUtil.nullValue()) {
+            ProtobufUtil.writeString(output, 8, entryEndpointName);
+        } else {
+            ProtobufUtil.writeInt32(output, 9, entryEndpointId);
+        }
+        if (parentEndpointId == DictionaryUtil.nullValue()) {
+            ProtobufUtil.writeString(output, 10, parentEndpointName);
+        } else {
+            ProtobufUtil.writeInt32(output, 11, parentEndpointId);
+        }
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o)
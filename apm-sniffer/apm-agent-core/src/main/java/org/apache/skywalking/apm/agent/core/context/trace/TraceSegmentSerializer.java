@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context.trace;
+
+import com.google.protobuf.CodedOutputStream;
+import java.io.IOException;
+import java.util.List;
+import org.apache.skywalking.apm.agent.core.conf.RemoteDownstreamConfig;
+import org.apache.skywalking.apm.agent.core.context.ids.DistributedTraceId;
+import org.apache.skywalking.apm.agent.core.context.util.ProtobufUtil;
+import org.apache.skywalking.apm.network.language.agent.UpstreamSegment;
+
+/**
+ * The <code>TraceSegmentSerializer</code> writes a finished {@link TraceSegment} as the {@link UpstreamSegment} in
+ * protobuf wire format, byte-for-byte the same as {@link TraceSegment#transform()}, but without creating the builders
+ * and messages of the segment, spans, tags and logs.
+ *
+ * The sizes of the spans are computed once and kept in a reused array, so an instance is not thread safe, it should be
+ * held by the consumer thread.
+ */
+public class TraceSegmentSerializer {
+    private int[] spanSizes = new int[16];
+
+    /**
+     * @return the serialized {@link UpstreamSegment}.
+     */
+    public byte[] serialize(TraceSegment segment) throws IOException {
+        int serviceId = RemoteDownstreamConfig.Agent.SERVICE_ID;
+        int serviceInstanceId = RemoteDownstreamConfig.Agent.SERVICE_INSTANCE_ID;
+        List<AbstractTracingSpan> spans = segment.getSpans();
+        int spanCount = spans.size();
+        if (spanSizes.length < spanCount) {
+            spanSizes = new int[Math.max(spanCount, spanSizes.length * 2)];
+        }
+
+        int segmentSize = ProtobufUtil.computeMessageSize(1, segment.getTraceSegmentId().serializedSize());
+        for (int i = 0; i < spanCount; i++) {
+            spanSizes[i] = spans.get(i).serializedSize();
+            segmentSize += ProtobufUtil.computeMessageSize(2, spanSizes[i]);
+        }
+        segmentSize += ProtobufUtil.computeInt32Size(3, serviceId);
+        segmentSize += ProtobufUtil.computeInt32Size(4, serviceInstanceId);
+        segmentSize += ProtobufUtil.computeBoolSize(5, segment.isSizeLimited());
+
+        List<DistributedTraceId> globalTraceIds = segment.getRelatedGlobalTraces();
+        int upstreamSize = ProtobufUtil.computeMessageSize(2, segmentSize);
+        for (DistributedTraceId globalTraceId : globalTraceIds) {
+            upstreamSize += ProtobufUtil.computeMessageSize(1, globalTraceId.serializedSize());
+        }
+
+        byte[] result = new byte[upstreamSize];
+        CodedOutputStream output = CodedOutputStream.newInstance(result);
+        for (DistributedTraceId globalTraceId : globalTraceIds) {
+            ProtobufUtil.writeMessageHeader(output, 1, globalTraceId.serializedSize());
+            globalTraceId.writeTo(output);
+        }
+        ProtobufUtil.writeMessageHeader(output, 2, segmentSize);
+        ProtobufUtil.writeMessageHeader(output, 1, segment.getTraceSegmentId().serializedSize());
+        segment.getTraceSegmentId().writeTo(output);
+        for (int i = 0; i < spanCount; i++) {
+            ProtobufUtil.writeMessageHeader(output, 2, spanSizes[i]);
+            spans.get(i).writeTo(output);
+        }
+        ProtobufUtil.writeInt32(output, 3, serviceId);
+        ProtobufUtil.writeInt32(output, 4, serviceInstanceId);
+        ProtobufUtil.writeBool(output, 5, segment.isSizeLimited());
+        output.checkNoSpaceLeft();
+        return result;
+    }
+}
@@ -19,6 +19,8 @@
 
 package org.apache.skywalking.apm.agent.core.context.util;
 
+import com.google.protobuf.CodedOutputStream;
+import java.io.IOException;
 import org.apache.skywalking.apm.network.common.KeyStringValuePair;
 
 /**
@@ -51,4 +53,19 @@ public class KeyValuePair {
         }
         return keyValueBuilder.build();
     }
+
+    /**
+     * @return the size of {@link #transform()} result in protobuf wire format.
+     */
+    public int serializedSize() {
+        return ProtobufUtil.computeStringSize(1, key) + ProtobufUtil.computeStringSize(2, value);
+    }
+
+    /**
+     * Write the {@link #transform()} result in protobuf wire format.
+     */
+    public void writeTo(CodedOutputStream output) throws IOException {
+        ProtobufUtil.writeString(output, 1, key);
+        ProtobufUtil.writeString(output, 2, value);
+    }
 }
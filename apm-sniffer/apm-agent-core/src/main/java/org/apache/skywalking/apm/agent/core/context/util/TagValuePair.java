@@ -17,6 +17,8 @@
 
 package org.apache.skywalking.apm.agent.core.context.util;
 
+import com.google.protobuf.CodedOutputStream;
+import java.io.IOException;
 import org.apache.skywalking.apm.agent.core.context.tag.AbstractTag;
 import org.apache.skywalking.apm.network.common.KeyStringValuePair;
 
@@ -46,6 +48,21 @@ public class TagValuePair {
         return keyValueBuilder.build();
     }
 
+    /**
+     * @return the size of {@link #transform()} result in protobuf wire format.
+     */
+    public int serializedSize() {
+        return ProtobufUtil.computeStringSize(1, key.key()) + ProtobufUtil.computeStringSize(2, value);
+    }
+
+    /**
+     * Write the {@link #transform()} result in protobuf wire format.
+     */
+    public void writeTo(CodedOutputStream output) throws IOException {
+        ProtobufUtil.writeString(output, 1, key.key());
+        ProtobufUtil.writeString(output, 2, value);
+    }
+
     public boolean sameWith(AbstractTag tag) {
         return key.isCanOverwrite() && key.getId() == tag.getId();
     }
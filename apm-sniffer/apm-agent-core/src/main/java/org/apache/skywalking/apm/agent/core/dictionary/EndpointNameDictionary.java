@@ -43,30 +43,74 @@ public enum EndpointNameDictionary {
     private Map<OperationNameKey, Integer> endpointDictionary = new ConcurrentHashMap<OperationNameKey, Integer>();
     private Set<OperationNameKey> unRegisterEndpoints = new ConcurrentSet<OperationNameKey>();
 
+    /**
+     * The key for looking up only, reused by the thread, so the lookup doesn't allocate.
+     */
+    private final ThreadLocal<OperationNameKey> lookupKey = new ThreadLocal<OperationNameKey>() {
+        @Override protected OperationNameKey initialValue() {
+            return new OperationNameKey(0, "", false, false);
+        }
+    };
+
     public PossibleFound findOrPrepare4Register(int serviceId, String endpointName,
         boolean isEntry, boolean isExit) {
-        return find0(serviceId, endpointName, isEntry, isExit, true);
+        return toPossibleFound(findOrPrepare4RegisterId(serviceId, endpointName, isEntry, isExit));
     }
 
     public PossibleFound findOnly(int serviceId, String endpointName) {
+        return toPossibleFound(findOnlyId(serviceId, endpointName));
+    }
+
+    /**
+     * Same as {@link #findOrPrepare4Register(int, String, boolean, boolean)}, without allocating.
+     *
+     * @return the endpoint id, or {@link DictionaryUtil#nullValue()} if not found.
+     */
+    public int findOrPrepare4RegisterId(int serviceId, String endpointName,
+        boolean isEntry, boolean isExit) {
+        return find0(serviceId, endpointName, isEntry, isExit, true);
+    }
+
+    /**
+     * Same as {@link #findOnly(int, String)}, without allocating.
+     *
+     * @return the endpoint id, or {@link DictionaryUtil#nullValue()} if not found.
+     */
+    public int findOnlyId(int serviceId, String endpointName) {
         return find0(serviceId, endpointName, false, false, false);
     }
 
-    private PossibleFound find0(int serviceId, String endpointName,
+    /**
+     * Find the id of the entry endpoint, without allocating and registering.
+     *
+     * @return the endpoint id, or {@link DictionaryUtil#nullValue()} if not found.
+     */
+    public int findEntryId(int serviceId, String endpointName) {
+        return find0(serviceId, endpointName, true, false, false);
+    }
+
+    private PossibleFound toPossibleFound(int endpointId) {
+        if (DictionaryUtil.isNull(endpointId)) {
+            return new NotFound();
+        }
+        return new Found(endpointId);
+    }
+
+    private int find0(int serviceId, String endpointName,
         boolean isEntry, boolean isExit, boolean registerWhenNotFound) {
         if (endpointName == null || endpointName.length() == 0) {
-            return new NotFound();
+            return DictionaryUtil.nullValue();
         }
-        OperationNameKey key = new OperationNameKey(serviceId, endpointName, isEntry, isExit);
+        OperationNameKey key = lookupKey.get().reset(serviceId, endpointName, isEntry, isExit);
         Integer operationId = endpointDictionary.get(key);
         if (operationId != null) {
-            return new Found(operationId);
+            return operationId;
         } else {
-            if (registerWhenNotFound &&
+            if (registerWhenNotFound && !unRegisterEndpoints.contains(key) &&
                 endpointDictionary.size() + unRegisterEndpoints.size() < ENDPOINT_NAME_BUFFER_SIZE) {
-                unRegisterEndpoints.add(key);
+                unRegisterEndpoints.add(new OperationNameKey(serviceId, endpointName, isEntry, isExit));
             }
-            return new NotFound();
+            return DictionaryUtil.nullValue();
         }
     }
 
@@ -110,6 +154,14 @@ public enum EndpointNameDictionary {
             this.isExit = isExit;
         }
 
+        private OperationNameKey reset(int serviceId, String endpointName, boolean isEntry, boolean isExit) {
+            this.serviceId = serviceId;
+            this.endpointName = endpointName;
+            this.isEntry = isEntry;
+            this.isExit = isExit;
+            return this;
+        }
+
         public int getServiceId() {
             return serviceId;
         }
@@ -0,0 +1,285 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.remote;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+
+/**
+ * The <code>SegmentSpillLog</code> is a size capped append log on the local disk, keeping the serialized segments
+ * which can't be sent to the collector, until they are replayed.
+ *
+ * The log is a list of memory mapped files in the same size. Like the buffer of the OAP, the records are written one
+ * after another, each one is a length followed by the bytes. The length is a 4 bytes int rather than a varint, so it
+ * is negated in place once the record has been replayed, and the replay goes on from there after restart. A zero
+ * length means the end of the file.
+ *
+ * The files are unmapped as soon as they are deleted or the log is closed, rather than when the buffers are collected.
+ */
+class SegmentSpillLog {
+    private static final ILog logger = LogManager.getLogger(SegmentSpillLog.class);
+    private static final String FILE_PREFIX = "segment-";
+    private static final String FILE_SUFFIX = ".spill";
+    private static final int HEADER_SIZE = 4;
+
+    private final File directory;
+    private final int fileSize;
+    private final int maxFiles;
+    /**
+     * The files from the oldest to the newest, only the newest one is written.
+     */
+    private final LinkedList<SpillFile> files;
+    private boolean closed = false;
+
+    /**
+     * @param fileSize the size of each file, bytes.
+     * @param maxFiles the max number of files, the records are refused when all of them are full.
+     */
+    SegmentSpillLog(File directory, int fileSize, int maxFiles) throws IOException {
+        this.directory = directory;
+        this.fileSize = fileSize;
+        this.maxFiles = maxFiles;
+        this.files = new LinkedList<SpillFile>();
+
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Fail to create the spill directory " + directory.getAbsolutePath());
+        }
+        String[] fileNames = directory.list(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX);
+            }
+        });
+        long[] sequences = new long[fileNames == null ? 0 : fileNames.length];
+        for (int i = 0; i < sequences.length; i++) {
+            sequences[i] = Long.parseLong(fileNames[i].substring(FILE_PREFIX.length(), fileNames[i].length() - FILE_SUFFIX.length()));
+        }
+        Arrays.sort(sequences);
+        for (long sequence : sequences) {
+            files.add(new SpillFile(sequence));
+        }
+        deleteReplayedFiles();
+    }
+
+    /**
+     * @return false, if the log is full.
+     */
+    synchronized boolean append(byte[] data) throws IOException {
+        if (closed || HEADER_SIZE + data.length > fileSize) {
+            return false;
+        }
+        SpillFile last = files.peekLast();
+        if (last == null || !last.hasRoom(data.length)) {
+            if (last != null && last.readPosition >= last.writePosition) {
+                // The newest file is full but all replayed, replace it by a new one.
+                files.removeLast();
+                delete(last);
+            } else if (files.size() >= maxFiles) {
+                return false;
+            }
+            last = new SpillFile(last == null ? 0 : last.sequence + 1);
+            files.add(last);
+        }
+        last.append(data);
+        return true;
+    }
+
+    /**
+     * Read the records not replayed yet, from the oldest one. They are read again until {@link #commit(int)}.
+     *
+     * @param max the max number of records.
+     */
+    synchronized List<byte[]> read(int max) {
+        List<byte[]> records = new ArrayList<byte[]>();
+        for (SpillFile file : files) {
+            int position = file.readPosition;
+            while (records.size() < max && position < file.writePosition) {
+                int length = file.buffer.getInt(position);
+                if (length > 0) {
+                    byte[] record = new byte[length];
+                    ByteBuffer view = file.buffer.duplicate();
+                    view.position(position + HEADER_SIZE);
+                    view.get(record);
+                    records.add(record);
+                }
+                position += HEADER_SIZE + Math.abs(length);
+            }
+            if (records.size() >= max) {
+                break;
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Mark the given number of the oldest records as replayed, and delete the files which have been replayed.
+     */
+    synchronized void commit(int count) {
+        for (SpillFile file : files) {
+            while (count > 0 && file.readPosition < file.writePosition) {
+                int length = file.buffer.getInt(file.readPosition);
+                if (length > 0) {
+                    file.buffer.putInt(file.readPosition, -length);
+                    count--;
+                }
+                file.readPosition += HEADER_SIZE + Math.abs(length);
+            }
+            if (count == 0) {
+                break;
+            }
+        }
+        deleteReplayedFiles();
+    }
+
+    synchronized boolean isEmpty() {
+        for (SpillFile file : files) {
+            if (file.readPosition < file.writePosition) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Unmap all the files, the records not replayed are kept on the disk for the next start.
+     */
+    synchronized void close() {
+        closed = true;
+        for (SpillFile file : files) {
+            unmap(file.buffer);
+        }
+        files.clear();
+    }
+
+    /**
+     * Delete the replayed files, except the newest one, which is still written. It is replaced when it is full.
+     */
+    private void deleteReplayedFiles() {
+        while (files.size() > 1 && files.getFirst().readPosition >= files.getFirst().writePosition) {
+            delete(files.removeFirst());
+        }
+    }
+
+    private void delete(SpillFile file) {
+        unmap(file.buffer);
+        if (!file.file.delete()) {
+            logger.warn("Fail to delete the replayed spill file {}.", file.file.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Release the mapped memory and the file now, through the Unsafe of JDK 9+, or the cleaner of the buffer before.
+     * The buffer must not be used after. It is left to GC if neither works.
+     */
+    private static void unmap(MappedByteBuffer buffer) {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            invokeCleaner.invoke(theUnsafe.get(null), buffer);
+            return;
+        } catch (NoSuchMethodException e) {
+            // Before JDK 9, use the cleaner of the buffer.
+        } catch (Throwable t) {
+            logger.warn(t, "Fail to unmap the spill file, leave it to GC.");
+            return;
+        }
+        try {
+            Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            Object cleaner = cleanerMethod.invoke(buffer);
+            if (cleaner != null) {
+                cleaner.getClass().getMethod("clean").invoke(cleaner);
+            }
+        } catch (Throwable t) {
+            logger.warn(t, "Fail to unmap the spill file, leave it to GC.");
+        }
+    }
+
+    private class SpillFile {
+        private final long sequence;
+        private final File file;
+        private final MappedByteBuffer buffer;
+        /**
+         * The position of the first record not replayed.
+         */
+        private int readPosition;
+        /**
+         * The position of the end of the records.
+         */
+        private int writePosition;
+
+        private SpillFile(long sequence) throws IOException {
+            this.sequence = sequence;
+            this.file = new File(directory, FILE_PREFIX + sequence + FILE_SUFFIX);
+            RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+            try {
+                this.buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+            } finally {
+                randomAccessFile.close();
+            }
+
+            int position = 0;
+            readPosition = -1;
+            while (position + HEADER_SIZE <= fileSize) {
+                int length = buffer.getInt(position);
+                if (length == 0 || position + HEADER_SIZE + Math.abs(length) > fileSize) {
+                    break;
+                }
+                if (length > 0 && readPosition < 0) {
+                    readPosition = position;
+                }
+                position += HEADER_SIZE + Math.abs(length);
+            }
+            writePosition = position;
+            if (readPosition < 0) {
+                readPosition = writePosition;
+            }
+        }
+
+        private boolean hasRoom(int length) {
+            return writePosition + HEADER_SIZE + length <= fileSize;
+        }
+
+        /**
+         * Write the bytes before the length, so a record is not seen until it is complete.
+         */
+        private void append(byte[] data) {
+            ByteBuffer view = buffer.duplicate();
+            view.position(writePosition + HEADER_SIZE);
+            view.put(data);
+            buffer.putInt(writePosition, data.length);
+            writePosition += HEADER_SIZE + data.length;
+        }
+    }
+}
@@ -19,18 +19,38 @@
 package org.apache.skywalking.apm.agent.core.remote;
 
 import io.grpc.Channel;
-import io.grpc.stub.StreamObserver;
+import io.grpc.ClientCall;
+import io.grpc.MethodDescriptor;
+import io.grpc.protobuf.ProtoUtils;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientCalls;
+import io.grpc.stub.ClientResponseObserver;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.skywalking.apm.agent.core.boot.*;
+import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.context.*;
+import org.apache.skywalking.apm.agent.core.context.trace.SegmentRecycler;
 import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
+import org.apache.skywalking.apm.agent.core.context.trace.TraceSegmentSerializer;
 import org.apache.skywalking.apm.agent.core.logging.api.*;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.BatchConsumer;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
 import org.apache.skywalking.apm.network.common.Commands;
 import org.apache.skywalking.apm.network.language.agent.*;
 import org.apache.skywalking.apm.network.language.agent.v2.TraceSegmentReportServiceGrpc;
+import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
+import org.apache.skywalking.apm.util.StringUtil;
 
 import static org.apache.skywalking.apm.agent.core.conf.Config.Buffer.*;
 import static org.apache.skywalking.apm.agent.core.remote.GRPCChannelStatus.CONNECTED;
@@ -39,16 +59,53 @@ import static org.apache.skywalking.apm.agent.core.remote.GRPCChannelStatus.CONN
  * @author wusheng
  */
 @DefaultImplementor
-public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSegment>, TracingContextListener, GRPCChannelListener {
+public class TraceSegmentServiceClient extends BatchConsumer<TraceSegment> implements BootService, TracingContextListener, GRPCChannelListener {
     private static final ILog logger = LogManager.getLogger(TraceSegmentServiceClient.class);
     private static final int TIMEOUT = 30 * 1000;
+    /**
+     * The max time the consumer thread waits for the stream to be ready, or for the rotated stream to finish. The
+     * segments go to the spill log without waiting when the stream is still not ready after that.
+     */
+    private static final int READY_TIMEOUT = 1000;
+    /**
+     * The max size of a spill file, the spill log is split into the files in the same size adding up to {@link
+     * Config.Buffer#SPILL_MAX_SIZE}.
+     */
+    private static final long SPILL_FILE_SIZE = 16 * 1024 * 1024;
+    /**
+     * The collect method of {@link TraceSegmentReportServiceGrpc}, taking the {@link UpstreamSegment}s serialized by
+     * {@link TraceSegmentSerializer}.
+     */
+    private static final MethodDescriptor<byte[], Commands> COLLECT_METHOD = TraceSegmentReportServiceGrpc.getCollectMethod()
+        .toBuilder(new SerializedMessageMarshaller(), ProtoUtils.marshaller(Commands.getDefaultInstance())).build();
 
     private long lastLogTime;
-    private long segmentUplinkedCounter;
-    private long segmentAbandonedCounter;
+    /**
+     * The segments are counted as uplinked when the collector finishes their stream, or as abandoned when the stream
+     * fails, so the counters are updated by the gRPC threads too.
+     */
+    private final AtomicLong segmentUplinkedCounter = new AtomicLong();
+    private final AtomicLong segmentAbandonedCounter = new AtomicLong();
+    /**
+     * The stream sending the segments, and the last rotated one which may still wait for the collector to finish it.
+     * Only touched by the consumer thread.
+     */
+    private SegmentStream stream;
+    private SegmentStream closingStream;
+    private final TraceSegmentSerializer serializer = new TraceSegmentSerializer();
     private volatile DataCarrier<TraceSegment> carrier;
     private volatile TraceSegmentReportServiceGrpc.TraceSegmentReportServiceStub serviceStub;
     private volatile GRPCChannelStatus status = GRPCChannelStatus.DISCONNECT;
+    /**
+     * Keep the segments which can't be sent, null if {@link Config.Buffer#SPILL_DIR} is not set.
+     */
+    private volatile SegmentSpillLog spillLog;
+    /**
+     * Hand the segments over to the spill thread when {@link #carrier} is full, so the traced threads don't serialize
+     * and write the spill log. Null if the spill log is off.
+     */
+    private volatile DataCarrier<TraceSegment> spillCarrier;
+    private volatile ScheduledFuture<?> replayFuture;
 
     @Override
     public void prepare() throws Throwable {
@@ -58,11 +115,32 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
     @Override
     public void boot() throws Throwable {
         lastLogTime = System.currentTimeMillis();
-        segmentUplinkedCounter = 0;
-        segmentAbandonedCounter = 0;
-        carrier = new DataCarrier<TraceSegment>(CHANNEL_SIZE, BUFFER_SIZE);
+        segmentUplinkedCounter.set(0);
+        segmentAbandonedCounter.set(0);
+        carrier = new DataCarrier<TraceSegment>(CHANNEL_SIZE, BUFFER_SIZE, BUFFER_TYPE);
         carrier.setBufferStrategy(BufferStrategy.IF_POSSIBLE);
         carrier.consume(this, 1);
+
+        if (!StringUtil.isEmpty(SPILL_DIR)) {
+            long maxSize = Math.max(1, SPILL_MAX_SIZE) * 1024L * 1024L;
+            int fileCount = (int)((maxSize + SPILL_FILE_SIZE - 1) / SPILL_FILE_SIZE);
+            spillLog = new SegmentSpillLog(new File(SPILL_DIR), (int)(maxSize / fileCount), fileCount);
+            spillCarrier = new DataCarrier<TraceSegment>(1, BUFFER_SIZE, BUFFER_TYPE);
+            spillCarrier.setBufferStrategy(BufferStrategy.IF_POSSIBLE);
+            spillCarrier.consume(new SpillConsumer(), 1);
+            replayFuture = Executors.newSingleThreadScheduledExecutor(new DefaultNamedThreadFactory("SegmentSpillReplayer"))
+                .scheduleWithFixedDelay(new RunnableWithExceptionProtection(new Runnable() {
+                    @Override
+                    public void run() {
+                        replaySpilled();
+                    }
+                }, new RunnableWithExceptionProtection.CallbackWhenException() {
+                    @Override
+                    public void handle(Throwable t) {
+                        logger.error(t, "Replay the spilled trace segments fail.");
+                    }
+                }), 1, 1, TimeUnit.SECONDS);
+        }
     }
 
     @Override
@@ -73,6 +151,15 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
     @Override
     public void shutdown() throws Throwable {
         carrier.shutdownConsumers();
+        if (spillCarrier != null) {
+            spillCarrier.shutdownConsumers();
+        }
+        if (replayFuture != null) {
+            replayFuture.cancel(true);
+        }
+        if (spillLog != null) {
+            spillLog.close();
+        }
     }
 
     @Override
@@ -81,60 +168,170 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
     }
 
     @Override
-    public void consume(List<TraceSegment> data) {
-        if (CONNECTED.equals(status)) {
-            final GRPCStreamServiceStatus status = new GRPCStreamServiceStatus(false);
-            StreamObserver<UpstreamSegment> upstreamSegmentStreamObserver = serviceStub.collect(new StreamObserver<Commands>() {
-                @Override
-                public void onNext(Commands commands) {
+    public void consume(TraceSegment segment) {
+        if (!CONNECTED.equals(status)) {
+            if (!spill(segment, serializer)) {
+                segmentAbandonedCounter.incrementAndGet();
+            }
+            recycle(segment);
+            return;
+        }
 
-                }
+        if (stream != null && (stream.isFinished() || stream.isExpired() || stream.isFull() || stream.stub != serviceStub)) {
+            rotateStream();
+        }
+        if (stream == null) {
+            stream = new SegmentStream(serviceStub, segmentUplinkedCounter, segmentAbandonedCounter, spillLog != null);
+        }
 
-                @Override
-                public void onError(Throwable throwable) {
-                    status.finished();
-                    if (logger.isErrorEnable()) {
-                        logger.error(throwable, "Send UpstreamSegment to collector fail with a grpc internal exception.");
-                    }
-                    ServiceManager.INSTANCE.findService(GRPCChannelManager.class).reportError(throwable);
+        try {
+            byte[] upstreamSegment = serializer.serialize(segment);
+            if (!stream.awaitReady(stream.isStalled() ? 0 : READY_TIMEOUT) || !stream.send(upstreamSegment)) {
+                if (!spill(upstreamSegment)) {
+                    segmentAbandonedCounter.incrementAndGet();
                 }
-
-                @Override
-                public void onCompleted() {
-                    status.finished();
+                if (stream.isFinished()) {
+                    rotateStream();
+                } else if (stream.stalledTime() > TIMEOUT) {
+                    logger.warn("Collector traceSegment service isn't ready in {} seconds, open a new stream.", TIMEOUT / 1000);
+                    stream.cancel();
+                    rotateStream();
                 }
-            });
+            }
+        } catch (Throwable t) {
+            logger.error(t, "Transform and send UpstreamSegment to collector fail.");
+        }
+        recycle(segment);
+    }
 
-            try {
-                for (TraceSegment segment : data) {
-                    UpstreamSegment upstreamSegment = segment.transform();
-                    upstreamSegmentStreamObserver.onNext(upstreamSegment);
-                }
-                upstreamSegmentStreamObserver.onCompleted();
+    /**
+     * @param serializer the one of the current consumer thread.
+     */
+    private boolean spill(TraceSegment segment, TraceSegmentSerializer serializer) {
+        if (spillLog == null) {
+            return false;
+        }
+        try {
+            return spill(serializer.serialize(segment));
+        } catch (Throwable t) {
+            logger.error(t, "Serialize the trace segment fail.");
+            return false;
+        }
+    }
+
+    /**
+     * Keep the serialized segment in the {@link SegmentSpillLog}, if it is on and not full.
+     *
+     * @return true, if kept.
+     */
+    private boolean spill(byte[] upstreamSegment) {
+        if (spillLog == null) {
+            return false;
+        }
+        try {
+            return spillLog.append(upstreamSegment);
+        } catch (Throwable t) {
+            logger.error(t, "Spill the trace segment fail.");
+            return false;
+        }
+    }
 
-                status.wait4Finish();
-                segmentUplinkedCounter += data.size();
-            } catch (Throwable t) {
-                logger.error(t, "Transform and send UpstreamSegment to collector fail.");
+    /**
+     * Send the spilled segments through a stream of their own, at most {@link Config.Buffer#SPILL_REPLAY_RATE} every
+     * second. They are marked as replayed only after the collector finishes the stream, otherwise replayed again
+     * later.
+     */
+    private void replaySpilled() {
+        if (!CONNECTED.equals(status) || spillLog.isEmpty()) {
+            return;
+        }
+        List<byte[]> upstreamSegments = spillLog.read(SPILL_REPLAY_RATE);
+        SegmentStream replayStream = new SegmentStream(serviceStub, null, null, false);
+        int sent = 0;
+        try {
+            for (byte[] upstreamSegment : upstreamSegments) {
+                if (!replayStream.awaitReady(TIMEOUT) || !replayStream.send(upstreamSegment)) {
+                    break;
+                }
+                sent++;
             }
-        } else {
-            segmentAbandonedCounter += data.size();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!replayStream.isFinished()) {
+            replayStream.complete();
+        }
+        if (replayStream.wait4Finish(TIMEOUT) && !replayStream.isFailed()) {
+            spillLog.commit(sent);
+            logger.debug("{} spilled trace segments have been replayed to collector.", sent);
+        } else if (!replayStream.isFinished()) {
+            replayStream.cancel();
+        }
+    }
+
+    /**
+     * Give the segment back to {@link SegmentRecycler}, when no other listener may hold it.
+     */
+    private void recycle(TraceSegment segment) {
+        if (Config.Agent.RECYCLE_SEGMENT && TracingContext.ListenerManager.isOnlyRetainingListener(this)) {
+            SegmentRecycler.INSTANCE.recycle(segment);
+        }
+    }
+
+    /**
+     * The stream of the batch is completed, and waited for the collector to finish it, at most {@link #TIMEOUT}. When
+     * {@link Config.Collector#SEGMENT_STREAM_KEEP_ALIVE} is on, the stream is kept open across the batches, and
+     * rotated only when it is older than {@link Config.Collector#SEGMENT_STREAM_MAX_LIFETIME}.
+     */
+    @Override
+    public void onBatchEnd() {
+        if (!Config.Collector.SEGMENT_STREAM_KEEP_ALIVE) {
+            rotateStream();
+            awaitClosingStream(TIMEOUT);
+        } else if (stream != null && stream.isExpired()) {
+            rotateStream();
         }
 
         printUplinkStatus();
     }
 
+    /**
+     * Complete the current stream, and keep it as the closing one. At most one rotated stream is waiting for the
+     * collector to finish it, so the older one is waited for first, at most {@link #READY_TIMEOUT}.
+     */
+    private void rotateStream() {
+        awaitClosingStream(READY_TIMEOUT);
+        if (stream != null && !stream.isFinished()) {
+            stream.complete();
+        }
+        closingStream = stream;
+        stream = null;
+    }
+
+    /**
+     * Wait for the collector to finish the closing stream, or cancel it after the timeout, so its segments are
+     * spilled or counted as abandoned.
+     *
+     * @param timeout max wait time, milliseconds.
+     */
+    private void awaitClosingStream(long timeout) {
+        if (closingStream != null && !closingStream.isFinished() && !closingStream.wait4Finish(timeout)) {
+            logger.warn("Collector traceSegment service doesn't finish the stream in {} milliseconds.", timeout);
+            closingStream.cancel();
+        }
+    }
+
     private void printUplinkStatus() {
         long currentTimeMillis = System.currentTimeMillis();
         if (currentTimeMillis - lastLogTime > 30 * 1000) {
             lastLogTime = currentTimeMillis;
-            if (segmentUplinkedCounter > 0) {
-                logger.debug("{} trace segments have been sent to collector.", segmentUplinkedCounter);
-                segmentUplinkedCounter = 0;
+            long uplinked = segmentUplinkedCounter.getAndSet(0);
+            if (uplinked > 0) {
+                logger.debug("{} trace segments have been sent to collector.", uplinked);
             }
-            if (segmentAbandonedCounter > 0) {
-                logger.debug("{} trace segments have been abandoned, cause by no available channel.", segmentAbandonedCounter);
-                segmentAbandonedCounter = 0;
+            long abandoned = segmentAbandonedCounter.getAndSet(0);
+            if (abandoned > 0) {
+                logger.debug("{} trace segments have been abandoned, cause by no available channel or a failed stream.", abandoned);
             }
         }
     }
@@ -146,17 +343,23 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
 
     @Override
     public void onExit() {
-
+        if (stream != null) {
+            rotateStream();
+        }
     }
 
     @Override
     public void afterFinished(TraceSegment traceSegment) {
         if (traceSegment.isIgnore()) {
+            recycle(traceSegment);
             return;
         }
         if (!carrier.produce(traceSegment)) {
-            if (logger.isDebugEnable()) {
-                logger.debug("One trace segment has been abandoned, cause by buffer is full.");
+            if (spillCarrier == null || !spillCarrier.produce(traceSegment)) {
+                if (logger.isDebugEnable()) {
+                    logger.debug("One trace segment has been abandoned, cause by buffer is full.");
+                }
+                recycle(traceSegment);
             }
         }
     }
@@ -169,4 +372,258 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
         }
         this.status = status;
     }
+
+    /**
+     * Write the segments which don't fit in {@link #carrier} into the spill log, with a serializer of its own thread.
+     */
+    private class SpillConsumer implements IConsumer<TraceSegment> {
+        private final TraceSegmentSerializer spillSerializer = new TraceSegmentSerializer();
+
+        @Override
+        public void init() {
+        }
+
+        @Override
+        public void consume(List<TraceSegment> data) {
+            for (TraceSegment segment : data) {
+                if (!spill(segment, spillSerializer)) {
+                    segmentAbandonedCounter.incrementAndGet();
+                }
+                recycle(segment);
+            }
+        }
+
+        @Override
+        public void onError(List<TraceSegment> data, Throwable t) {
+            logger.error(t, "Try to spill {} trace segments, with unexpected exception.", data.size());
+        }
+
+        @Override
+        public void onExit() {
+        }
+    }
+
+    /**
+     * Send the serialized messages as they are.
+     */
+    private static class SerializedMessageMarshaller implements MethodDescriptor.Marshaller<byte[]> {
+        @Override
+        public InputStream stream(byte[] value) {
+            return new ByteArrayInputStream(value);
+        }
+
+        @Override
+        public byte[] parse(InputStream stream) {
+            throw new UnsupportedOperationException("The serialized messages are sent only.");
+        }
+    }
+
+    /**
+     * A collect stream to the collector, which sends only when gRPC reports the stream is ready, so the segments
+     * are kept in the buffer rather than in the transport when the collector is slow.
+     *
+     * The sent segments are added to the uplinked counter when the collector finishes the stream. When the stream
+     * fails or is cancelled, the retained ones are written into the spill log, and the others are added to the
+     * abandoned counter.
+     */
+    private class SegmentStream implements ClientResponseObserver<byte[], Commands> {
+        private final TraceSegmentReportServiceGrpc.TraceSegmentReportServiceStub stub;
+        private final long createTime;
+        private final GRPCStreamServiceStatus status;
+        private final Object readyLock = new Object();
+        private final AtomicLong uplinkedCounter;
+        private final AtomicLong abandonedCounter;
+        private final AtomicInteger sent = new AtomicInteger();
+        /**
+         * The sent segments not finished by the collector yet, null if they are not retained. Guarded by {@link
+         * #settleLock}, as {@link #settled} is.
+         */
+        private final List<byte[]> unacknowledged;
+        private final Object settleLock = new Object();
+        private boolean settled = false;
+        private ClientCallStreamObserver<byte[]> requestStream;
+        private volatile boolean failed = false;
+        /**
+         * The time the stream is found not ready, 0 when it is ready. Only touched by the sending thread.
+         */
+        private long notReadyTime = 0;
+
+        /**
+         * @param uplinkedCounter counts the segments finished by the collector, nullable.
+         * @param abandonedCounter counts the segments lost by a failed stream, nullable.
+         * @param retaining true, if the sent segments are kept until the collector finishes the stream, and spilled
+         * when it fails.
+         */
+        private SegmentStream(TraceSegmentReportServiceGrpc.TraceSegmentReportServiceStub stub,
+            AtomicLong uplinkedCounter, AtomicLong abandonedCounter, boolean retaining) {
+            this.stub = stub;
+            this.uplinkedCounter = uplinkedCounter;
+            this.abandonedCounter = abandonedCounter;
+            this.unacknowledged = retaining ? new ArrayList<byte[]>() : null;
+            this.createTime = System.currentTimeMillis();
+            this.status = new GRPCStreamServiceStatus(false);
+            ClientCall<byte[], Commands> call = stub.getChannel().newCall(COLLECT_METHOD, stub.getCallOptions());
+            ClientCalls.asyncClientStreamingCall(call, this);
+        }
+
+        @Override
+        public void beforeStart(ClientCallStreamObserver<byte[]> requestStream) {
+            this.requestStream = requestStream;
+            requestStream.setOnReadyHandler(new Runnable() {
+                @Override
+                public void run() {
+                    signalReady();
+                }
+            });
+        }
+
+        @Override
+        public void onNext(Commands commands) {
+
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            failed = true;
+            settle(false);
+            status.finished();
+            signalReady();
+            if (logger.isErrorEnable()) {
+                logger.error(throwable, "Send UpstreamSegment to collector fail with a grpc internal exception.");
+            }
+            ServiceManager.INSTANCE.findService(GRPCChannelManager.class).reportError(throwable);
+        }
+
+        @Override
+        public void onCompleted() {
+            settle(true);
+            status.finished();
+            signalReady();
+        }
+
+        /**
+         * Count the sent segments as uplinked, or spill them as failed, only once for the stream.
+         */
+        private void settle(boolean finished) {
+            synchronized (settleLock) {
+                if (settled) {
+                    return;
+                }
+                settled = true;
+                int lost = sent.get();
+                if (finished) {
+                    lost = 0;
+                    if (uplinkedCounter != null) {
+                        uplinkedCounter.addAndGet(sent.get());
+                    }
+                } else if (unacknowledged != null) {
+                    for (byte[] upstreamSegment : unacknowledged) {
+                        if (spill(upstreamSegment)) {
+                            lost--;
+                        }
+                    }
+                }
+                if (unacknowledged != null) {
+                    unacknowledged.clear();
+                }
+                if (abandonedCounter != null && lost > 0) {
+                    abandonedCounter.addAndGet(lost);
+                }
+            }
+        }
+
+        /**
+         * @param timeout max wait time, milliseconds.
+         * @return true, if the stream is ready to send, false if it is finished or still not ready after timeout.
+         */
+        private boolean awaitReady(long timeout) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + timeout;
+            synchronized (readyLock) {
+                while (!requestStream.isReady() && !status.isStatus()) {
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (remaining <= 0) {
+                        if (notReadyTime == 0) {
+                            notReadyTime = System.currentTimeMillis();
+                        }
+                        return false;
+                    }
+                    readyLock.wait(remaining);
+                }
+            }
+            notReadyTime = 0;
+            return !status.isStatus();
+        }
+
+        /**
+         * @return true, if the stream was not ready at the last {@link #awaitReady(long)}, so the following segments
+         * don't wait for it.
+         */
+        private boolean isStalled() {
+            return notReadyTime != 0;
+        }
+
+        /**
+         * @return the milliseconds since the stream has been found not ready, 0 if it is ready.
+         */
+        private long stalledTime() {
+            return notReadyTime == 0 ? 0 : System.currentTimeMillis() - notReadyTime;
+        }
+
+        private void signalReady() {
+            synchronized (readyLock) {
+                readyLock.notifyAll();
+            }
+        }
+
+        /**
+         * @return true, if sent, false if the stream has been settled.
+         */
+        private boolean send(byte[] upstreamSegment) {
+            synchronized (settleLock) {
+                if (settled) {
+                    return false;
+                }
+                requestStream.onNext(upstreamSegment);
+                sent.incrementAndGet();
+                if (unacknowledged != null) {
+                    unacknowledged.add(upstreamSegment);
+                }
+                return true;
+            }
+        }
+
+        private void complete() {
+            requestStream.onCompleted();
+        }
+
+        private void cancel() {
+            requestStream.cancel("Stream is stalled or not finished in time.", null);
+            failed = true;
+            settle(false);
+            status.finished();
+        }
+
+        private boolean wait4Finish(long maxTimeout) {
+            return status.wait4Finish(maxTimeout);
+        }
+
+        private boolean isFinished() {
+            return status.isStatus();
+        }
+
+        private boolean isFailed() {
+            return failed;
+        }
+
+        /**
+         * @return true, if {@link Config.Collector#SEGMENT_STREAM_MAX_SEGMENTS} segments have been sent.
+         */
+        private boolean isFull() {
+            return sent.get() >= Config.Collector.SEGMENT_STREAM_MAX_SEGMENTS;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() - createTime > Config.Collector.SEGMENT_STREAM_MAX_LIFETIME * 1000;
+        }
+    }
 }
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.sampling;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import org.apache.skywalking.apm.agent.core.dictionary.DictionaryUtil;
+
+/**
+ * The sampler behind {@link SamplingService} when adaptive sampling is on.
+ * <p>
+ * The budget is a token bucket, refilled a little at every {@link #tick()} rather than reset every 3 seconds, so the
+ * samples spread over the whole window. The tokens are kept in stripes, a thread takes from the stripe of its id first,
+ * so the traced threads don't fight over a single counter. Every entry endpoint, known by its id in the endpoint
+ * dictionary, is sampled at least minPerEndpoint times in a window whether there are tokens or not, and at most
+ * maxPerEndpoint times, so the rare endpoints are still visible and the hot ones can't take all the budget. The
+ * endpoints are counted one by one, their number is bounded by the endpoint dictionary.
+ */
+class AdaptiveSampler {
+    /**
+     * The int slots between two stripes, keep each stripe in its own cache line.
+     */
+    private static final int PADDING = 16;
+
+    private final int samplesPerWindow;
+    private final int ticksPerWindow;
+    private final int minPerEndpoint;
+    private final int maxPerEndpoint;
+    private final int stripeCapacity;
+    private final int mask;
+    private final AtomicIntegerArray tokens;
+    private final ConcurrentHashMap<Integer, AtomicInteger> endpointSamples;
+    private int tickIndex;
+    private int refillIndex;
+
+    /**
+     * @param samplesPerWindow the number of the samples in a window.
+     * @param ticksPerWindow how many times {@link #tick()} is called in a window.
+     * @param minPerEndpoint the samples every endpoint gets in a window, even if there is no token left.
+     * @param maxPerEndpoint the max samples of an endpoint in a window, negative or zero means no limit.
+     * @param stripeCount the number of the token stripes, rounded up to a power of 2.
+     */
+    AdaptiveSampler(int samplesPerWindow, int ticksPerWindow, int minPerEndpoint, int maxPerEndpoint,
+        int stripeCount) {
+        int size = 1;
+        while (size < stripeCount) {
+            size <<= 1;
+        }
+        this.samplesPerWindow = samplesPerWindow;
+        this.ticksPerWindow = ticksPerWindow;
+        this.minPerEndpoint = minPerEndpoint;
+        this.maxPerEndpoint = maxPerEndpoint;
+        this.stripeCapacity = Math.max(1, (samplesPerWindow + size - 1) / size);
+        this.mask = size - 1;
+        this.tokens = new AtomicIntegerArray(size * PADDING);
+        this.endpointSamples = new ConcurrentHashMap<Integer, AtomicInteger>();
+        this.tickIndex = 0;
+        this.refillIndex = 0;
+    }
+
+    /**
+     * @param endpointId the id of the entry endpoint, or {@link DictionaryUtil#nullValue()} if it is unknown, then only
+     * the token bucket decides.
+     * @return true, if the trace should be sampled.
+     */
+    boolean trySampling(int endpointId) {
+        if (DictionaryUtil.isNull(endpointId)) {
+            return tryAcquire();
+        }
+        AtomicInteger samples = endpointSamples.get(endpointId);
+        if (samples == null) {
+            AtomicInteger created = new AtomicInteger(0);
+            samples = endpointSamples.putIfAbsent(endpointId, created);
+            if (samples == null) {
+                samples = created;
+            }
+        }
+        while (true) {
+            int sampled = samples.get();
+            if (maxPerEndpoint > 0 && sampled >= maxPerEndpoint) {
+                return false;
+            }
+            // Count the sample before taking the token, so the concurrent threads can't go over maxPerEndpoint.
+            if (!samples.compareAndSet(sampled, sampled + 1)) {
+                continue;
+            }
+            if (tryAcquire() || sampled < minPerEndpoint) {
+                return true;
+            }
+            samples.decrementAndGet();
+            return false;
+        }
+    }
+
+    /**
+     * Take a token if there is any.
+     *
+     * @return true, if a token has been taken.
+     */
+    boolean tryAcquire() {
+        int index = (int)Thread.currentThread().getId();
+        for (int i = 0; i <= mask; i++) {
+            int offset = ((index + i) & mask) * PADDING;
+            int available;
+            while ((available = tokens.get(offset)) > 0) {
+                if (tokens.compareAndSet(offset, available, available - 1)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Add the tokens of one tick to the stripes in turn, a full stripe takes no more. The endpoint samples are cleared
+     * at the end of every window. Called by a single thread only.
+     */
+    void tick() {
+        int refill = (int)((long)samplesPerWindow * (tickIndex + 1) / ticksPerWindow
+            - (long)samplesPerWindow * tickIndex / ticksPerWindow);
+        for (int i = 0; i < refill; i++) {
+            int offset = (refillIndex++ & mask) * PADDING;
+            int available;
+            while ((available = tokens.get(offset)) < stripeCapacity) {
+                if (tokens.compareAndSet(offset, available, available + 1)) {
+                    break;
+                }
+            }
+        }
+
+        if (++tickIndex == ticksPerWindow) {
+            tickIndex = 0;
+            for (AtomicInteger samples : endpointSamples.values()) {
+                samples.set(0);
+            }
+        }
+    }
+}
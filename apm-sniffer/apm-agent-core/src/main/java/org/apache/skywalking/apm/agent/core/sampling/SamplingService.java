@@ -28,7 +28,9 @@ import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
 import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
 import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.conf.RemoteDownstreamConfig;
 import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
+import org.apache.skywalking.apm.agent.core.dictionary.EndpointNameDictionary;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
@@ -39,15 +41,19 @@ import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
  * send all of them to collector, if SAMPLING is on.
  * <p>
  * By default, SAMPLING is on, and  {@link Config.Agent#SAMPLE_N_PER_3_SECS }
+ * <p>
+ * If {@link Config.Agent#SAMPLE_ADAPTIVE} is true, the {@link AdaptiveSampler} takes over, see it for more details.
  *
  * @author wusheng
  */
 @DefaultImplementor
 public class SamplingService implements BootService {
     private static final ILog logger = LogManager.getLogger(SamplingService.class);
+    private static final int ADAPTIVE_TICKS_PER_3_SECS = 30;
 
     private volatile boolean on = false;
     private volatile AtomicInteger samplingFactorHolder;
+    private volatile AdaptiveSampler adaptiveSampler;
     private volatile ScheduledFuture<?> scheduledFuture;
 
     @Override
@@ -64,7 +70,28 @@ public class SamplingService implements BootService {
              */
             scheduledFuture.cancel(true);
         }
-        if (Config.Agent.SAMPLE_N_PER_3_SECS > 0) {
+        if (Config.Agent.SAMPLE_N_PER_3_SECS > 0 && Config.Agent.SAMPLE_ADAPTIVE) {
+            final AdaptiveSampler sampler = new AdaptiveSampler(Config.Agent.SAMPLE_N_PER_3_SECS, ADAPTIVE_TICKS_PER_3_SECS,
+                Config.Agent.SAMPLE_MIN_PER_ENDPOINT_PER_3_SECS, Config.Agent.SAMPLE_MAX_PER_ENDPOINT_PER_3_SECS,
+                Runtime.getRuntime().availableProcessors());
+            sampler.tick();
+            adaptiveSampler = sampler;
+            on = true;
+            ScheduledExecutorService service = Executors
+                .newSingleThreadScheduledExecutor(new DefaultNamedThreadFactory("SamplingService"));
+            scheduledFuture = service.scheduleAtFixedRate(new RunnableWithExceptionProtection(new Runnable() {
+                @Override
+                public void run() {
+                    sampler.tick();
+                }
+            }, new RunnableWithExceptionProtection.CallbackWhenException() {
+                @Override public void handle(Throwable t) {
+                    logger.error("unexpected exception.", t);
+                }
+            }), 3000 / ADAPTIVE_TICKS_PER_3_SECS, 3000 / ADAPTIVE_TICKS_PER_3_SECS, TimeUnit.MILLISECONDS);
+            logger.debug("Agent adaptive sampling mechanism started. Sample {} traces in 3 seconds.", Config.Agent.SAMPLE_N_PER_3_SECS);
+        } else if (Config.Agent.SAMPLE_N_PER_3_SECS > 0) {
+            adaptiveSampler = null;
             on = true;
             this.resetSamplingFactor();
             ScheduledExecutorService service = Executors
@@ -100,6 +127,10 @@ public class SamplingService implements BootService {
      */
     public boolean trySampling() {
         if (on) {
+            AdaptiveSampler sampler = adaptiveSampler;
+            if (sampler != null) {
+                return sampler.tryAcquire();
+            }
             int factor = samplingFactorHolder.get();
             if (factor < Config.Agent.SAMPLE_N_PER_3_SECS) {
                 boolean success = samplingFactorHolder.compareAndSet(factor, factor + 1);
@@ -111,6 +142,35 @@ public class SamplingService implements BootService {
         return true;
     }
 
+    /**
+     * Same as {@link #trySampling()}, but the adaptive sampler also takes the budget of the entry endpoint into
+     * account.
+     *
+     * @param operationName the operation name of the first span.
+     * @return true, if the trace should be sampled.
+     */
+    public boolean trySampling(String operationName) {
+        AdaptiveSampler sampler = adaptiveSampler;
+        if (on && sampler != null) {
+            return sampler.trySampling(EndpointNameDictionary.INSTANCE.findEntryId(RemoteDownstreamConfig.Agent.SERVICE_ID, operationName));
+        }
+        return trySampling();
+    }
+
+    /**
+     * Recheck the trace which turns out to have only one span and no ref when its segment finishes. The adaptive sampler
+     * has decided on the budget of its entry endpoint when the trace started, so the segment is kept rather than
+     * charged a second token, which a rare endpoint sampled under its minimum may not get.
+     *
+     * @return true, if the segment should be kept.
+     */
+    public boolean recheckSampling() {
+        if (on && adaptiveSampler != null) {
+            return true;
+        }
+        return trySampling();
+    }
+
     /**
      * Increase the sampling factor by force,
      * to avoid sampling too many traces.
@@ -119,6 +179,11 @@ public class SamplingService implements BootService {
      */
     public void forceSampled() {
         if (on) {
+            AdaptiveSampler sampler = adaptiveSampler;
+            if (sampler != null) {
+                sampler.tryAcquire();
+                return;
+            }
             samplingFactorHolder.incrementAndGet();
         }
     }
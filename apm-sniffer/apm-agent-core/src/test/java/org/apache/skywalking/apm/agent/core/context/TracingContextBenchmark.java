@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.agent.core.conf.RemoteDownstreamConfig;
+import org.apache.skywalking.apm.agent.core.context.trace.AbstractSpan;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Trace one request through a {@link TracingContext}, an entry span, a local span and an exit span, as a typical
+ * instrumented service call does. The {@link GCProfiler} reports the bytes allocated per request, see
+ * gc.alloc.rate.norm.
+ *
+ * Run the main method to execute.
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TracingContextBenchmark {
+
+    @Setup
+    public void setup() {
+        RemoteDownstreamConfig.Agent.SERVICE_ID = 1;
+        RemoteDownstreamConfig.Agent.SERVICE_INSTANCE_ID = 1;
+    }
+
+    @Benchmark
+    public TracingContext traceRequest() {
+        TracingContext context = new TracingContext();
+        AbstractSpan entrySpan = context.createEntrySpan("/benchmark/request");
+        AbstractSpan localSpan = context.createLocalSpan("benchmark.local");
+        AbstractSpan exitSpan = context.createExitSpan("/benchmark/remote", "127.0.0.1:8080");
+        context.stopSpan(exitSpan);
+        context.stopSpan(localSpan);
+        context.stopSpan(entrySpan);
+        return context;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(TracingContextBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class).build();
+        new Runner(options).run();
+    }
+}
@@ -19,8 +19,10 @@
 package org.apache.skywalking.apm.agent.core.context;
 
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.conf.RemoteDownstreamConfig;
 import org.apache.skywalking.apm.agent.core.context.trace.*;
+import org.apache.skywalking.apm.agent.core.sampling.SamplingService;
 import org.junit.*;
 
 public class TracingContextTest {
@@ -63,4 +65,34 @@ public class TracingContextTest {
 
         Assert.assertTrue(dataReceived[0]);
     }
+
+    @Test
+    public void testSingleSpanSegmentKeptWhenAdaptiveBudgetUsedUp() throws Throwable {
+        final boolean[] ignored = {true};
+        TracingContextListener listener = new TracingContextListener() {
+            @Override public void afterFinished(TraceSegment traceSegment) {
+                ignored[0] = traceSegment.isIgnore();
+            }
+        };
+        TracingContext.ListenerManager.add(listener);
+        SamplingService samplingService = ServiceManager.INSTANCE.findService(SamplingService.class);
+        Config.Agent.SAMPLE_N_PER_3_SECS = 1;
+        Config.Agent.SAMPLE_ADAPTIVE = true;
+        try {
+            samplingService.boot();
+            while (samplingService.trySampling()) {
+            }
+
+            TracingContext tracingContext = new TracingContext();
+            AbstractSpan span = tracingContext.createEntrySpan("/rare");
+            tracingContext.stopSpan(span);
+
+            Assert.assertFalse(ignored[0]);
+        } finally {
+            Config.Agent.SAMPLE_N_PER_3_SECS = -1;
+            Config.Agent.SAMPLE_ADAPTIVE = false;
+            samplingService.shutdown();
+            TracingContext.ListenerManager.remove(listener);
+        }
+    }
 }
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context.trace;
+
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.dictionary.DictionaryUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.powermock.reflect.Whitebox;
+
+public class SegmentRecyclerTest {
+
+    @Before
+    public void setUp() {
+        Config.Agent.RECYCLE_SEGMENT = true;
+    }
+
+    @After
+    public void tearDown() {
+        Config.Agent.RECYCLE_SEGMENT = false;
+    }
+
+    @Test
+    public void testReuse() {
+        TraceSegment segment = SegmentRecycler.INSTANCE.createSegment();
+        ExitSpan span = SegmentRecycler.INSTANCE.createExitSpan(0, -1, "/test", 1, "127.0.0.1:8080", 2);
+        span.start();
+        span.tag("key", "value");
+        span.errorOccurred();
+        span.finish(segment);
+        SegmentRecycler.INSTANCE.recycle(segment);
+        SegmentRecycler.INSTANCE.recycle(segment);
+
+        ExitSpan reused = SegmentRecycler.INSTANCE.createExitSpan(0, -1, "/test", 3, "127.0.0.1:8080", DictionaryUtil.nullValue());
+        Assert.assertSame(span, reused);
+        Assert.assertEquals(3, reused.getOperationId());
+        Assert.assertNull(reused.getOperationName());
+        Assert.assertEquals("127.0.0.1:8080", reused.getPeer());
+        Assert.assertEquals(DictionaryUtil.nullValue(), reused.getPeerId());
+        Assert.assertEquals(0, reused.transform().getTagsCount());
+        Assert.assertFalse(reused.transform().getIsError());
+
+        Assert.assertSame(segment, SegmentRecycler.INSTANCE.createSegment());
+        Assert.assertFalse(segment.isSingleSpanSegment());
+        Assert.assertNotSame(segment, SegmentRecycler.INSTANCE.createSegment());
+    }
+
+    @Test
+    public void testLeakedSpanIsNotReused() {
+        TraceSegment segment = SegmentRecycler.INSTANCE.createSegment();
+        LocalSpan span = SegmentRecycler.INSTANCE.createLocalSpan(0, -1, "local");
+        span.start();
+        span.finish(segment);
+        SegmentRecycler.INSTANCE.recycle(segment);
+
+        span.tag("leaked", "value");
+        long leakedCount = SegmentRecycler.INSTANCE.getLeakedCount();
+        LocalSpan created = SegmentRecycler.INSTANCE.createLocalSpan(0, -1, "local");
+        Assert.assertNotSame(span, created);
+        Assert.assertEquals(leakedCount + 1, SegmentRecycler.INSTANCE.getLeakedCount());
+    }
+
+    @Test
+    public void testLeakedExitSpanPeerIsNotReused() {
+        TraceSegment segment = SegmentRecycler.INSTANCE.createSegment();
+        ExitSpan span = SegmentRecycler.INSTANCE.createExitSpan(0, -1, "/exit", 1, "127.0.0.1:8080", 2);
+        span.start();
+        span.finish(segment);
+        SegmentRecycler.INSTANCE.recycle(segment);
+
+        Whitebox.setInternalState(span, "peerId", 3);
+        long leakedCount = SegmentRecycler.INSTANCE.getLeakedCount();
+        ExitSpan created = SegmentRecycler.INSTANCE.createExitSpan(0, -1, "/exit", 1, "127.0.0.1:8080", 2);
+        Assert.assertNotSame(span, created);
+        Assert.assertEquals(leakedCount + 1, SegmentRecycler.INSTANCE.getLeakedCount());
+    }
+}
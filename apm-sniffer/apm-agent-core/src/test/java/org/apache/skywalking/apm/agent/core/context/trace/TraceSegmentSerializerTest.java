@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context.trace;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.skywalking.apm.agent.core.conf.RemoteDownstreamConfig;
+import org.apache.skywalking.apm.agent.core.context.ContextCarrier;
+import org.apache.skywalking.apm.agent.core.context.ContextSnapshot;
+import org.apache.skywalking.apm.agent.core.context.ids.ID;
+import org.apache.skywalking.apm.agent.core.context.ids.PropagatedTraceId;
+import org.apache.skywalking.apm.agent.core.context.tag.Tags;
+import org.apache.skywalking.apm.network.trace.component.ComponentsDefine;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TraceSegmentSerializerTest {
+
+    @Before
+    public void setUp() {
+        RemoteDownstreamConfig.Agent.SERVICE_ID = 1;
+        RemoteDownstreamConfig.Agent.SERVICE_INSTANCE_ID = 1;
+    }
+
+    @Test
+    public void testSameAsTransform() throws Exception {
+        TraceSegment segment = new TraceSegment();
+        segment.relatedGlobalTraces(new PropagatedTraceId("3.4.5"));
+
+        EntrySpan entrySpan = new EntrySpan(0, -1, 10);
+        entrySpan.start();
+        entrySpan.setComponent(ComponentsDefine.TOMCAT);
+        SpanLayer.asHttp(entrySpan);
+        Tags.URL.set(entrySpan, "http://127.0.0.1:8080/serializer");
+        Tags.STATUS_CODE.set(entrySpan, "");
+        entrySpan.ref(new TraceSegmentRef(mockCarrier()));
+        entrySpan.ref(new TraceSegmentRef(mockSnapshot()));
+
+        LocalSpan localSpan = new LocalSpan(1, 0, "local/\u00e9\u4e2d");
+        localSpan.start();
+        localSpan.setComponent("local-component");
+        localSpan.log(new RuntimeException("serializer"));
+        Map<String, Object> fields = new HashMap<String, Object>();
+        fields.put("event", "info");
+        localSpan.log(System.currentTimeMillis(), fields);
+        localSpan.finish(segment);
+
+        ExitSpan exitSpan = new ExitSpan(2, 0, 11, "127.0.0.1:3306");
+        exitSpan.start();
+        exitSpan.errorOccurred();
+        SpanLayer.asDB(exitSpan);
+        exitSpan.finish(segment);
+
+        ExitSpan exitSpanWithPeerId = new ExitSpan(3, 0, 12, 5);
+        exitSpanWithPeerId.start();
+        exitSpanWithPeerId.finish(segment);
+
+        entrySpan.finish(segment);
+        segment.finish(true);
+
+        Assert.assertArrayEquals(segment.transform().toByteArray(), new TraceSegmentSerializer().serialize(segment));
+    }
+
+    private ContextCarrier mockCarrier() {
+        ContextCarrier carrier = mock(ContextCarrier.class);
+        when(carrier.getTraceSegmentId()).thenReturn(new ID(1, 2, 3));
+        when(carrier.getSpanId()).thenReturn(4);
+        when(carrier.getParentServiceInstanceId()).thenReturn(5);
+        when(carrier.getEntryServiceInstanceId()).thenReturn(6);
+        when(carrier.getPeerHost()).thenReturn("#127.0.0.1:8080");
+        when(carrier.getEntryEndpointName()).thenReturn("#/entry");
+        when(carrier.getParentEndpointName()).thenReturn("7");
+        return carrier;
+    }
+
+    private ContextSnapshot mockSnapshot() {
+        ContextSnapshot snapshot = mock(ContextSnapshot.class);
+        when(snapshot.getTraceSegmentId()).thenReturn(new ID(1, 2, 4));
+        when(snapshot.getSpanId()).thenReturn(2);
+        when(snapshot.getEntryApplicationInstanceId()).thenReturn(6);
+        when(snapshot.getEntryOperationName()).thenReturn("8");
+        when(snapshot.getParentOperationName()).thenReturn("#/parent");
+        return snapshot;
+    }
+}
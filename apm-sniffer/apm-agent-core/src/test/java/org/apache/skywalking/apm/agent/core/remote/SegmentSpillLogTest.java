@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.remote;
+
+import java.io.File;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SegmentSpillLogTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testReplayAndRecover() throws Exception {
+        File directory = folder.newFolder("spill");
+        SegmentSpillLog spillLog = new SegmentSpillLog(directory, 40, 3);
+        for (int i = 0; i < 6; i++) {
+            Assert.assertTrue(spillLog.append(new byte[] {(byte)i, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11}));
+        }
+        Assert.assertFalse(spillLog.append(new byte[12]));
+        Assert.assertFalse(spillLog.append(new byte[64]));
+        Assert.assertEquals(3, directory.list().length);
+
+        List<byte[]> records = spillLog.read(3);
+        Assert.assertEquals(3, records.size());
+        Assert.assertEquals(0, records.get(0)[0]);
+        Assert.assertEquals(2, records.get(2)[0]);
+        Assert.assertEquals(0, spillLog.read(3).get(0)[0]);
+
+        spillLog.commit(3);
+        Assert.assertEquals(3, spillLog.read(1).get(0)[0]);
+        Assert.assertEquals(2, directory.list().length);
+
+        SegmentSpillLog recovered = new SegmentSpillLog(directory, 40, 3);
+        records = recovered.read(10);
+        Assert.assertEquals(3, records.size());
+        Assert.assertEquals(3, records.get(0)[0]);
+        Assert.assertTrue(recovered.append(new byte[] {6}));
+
+        recovered.commit(4);
+        Assert.assertTrue(recovered.isEmpty());
+        Assert.assertEquals(1, directory.list().length);
+    }
+
+    @Test
+    public void testRefillSingleFile() throws Exception {
+        File directory = folder.newFolder("spill");
+        SegmentSpillLog spillLog = new SegmentSpillLog(directory, 40, 1);
+        Assert.assertTrue(spillLog.append(new byte[16]));
+        Assert.assertTrue(spillLog.append(new byte[16]));
+        Assert.assertFalse(spillLog.append(new byte[16]));
+
+        Assert.assertEquals(2, spillLog.read(10).size());
+        spillLog.commit(2);
+        Assert.assertTrue(spillLog.isEmpty());
+
+        Assert.assertTrue(spillLog.append(new byte[] {1}));
+        Assert.assertTrue(spillLog.append(new byte[16]));
+        Assert.assertFalse(spillLog.append(new byte[16]));
+        Assert.assertEquals(1, directory.list().length);
+        List<byte[]> records = spillLog.read(10);
+        Assert.assertEquals(2, records.size());
+        Assert.assertEquals(1, records.get(0)[0]);
+        spillLog.close();
+    }
+
+    @Test
+    public void testCloseKeepsRecords() throws Exception {
+        File directory = folder.newFolder("spill");
+        SegmentSpillLog spillLog = new SegmentSpillLog(directory, 40, 3);
+        Assert.assertTrue(spillLog.append(new byte[] {1, 2, 3}));
+        spillLog.close();
+        Assert.assertFalse(spillLog.append(new byte[] {4}));
+        Assert.assertTrue(spillLog.isEmpty());
+
+        SegmentSpillLog reopened = new SegmentSpillLog(directory, 40, 3);
+        List<byte[]> records = reopened.read(10);
+        Assert.assertEquals(1, records.size());
+        Assert.assertEquals(3, records.get(0)[2]);
+        reopened.close();
+    }
+}
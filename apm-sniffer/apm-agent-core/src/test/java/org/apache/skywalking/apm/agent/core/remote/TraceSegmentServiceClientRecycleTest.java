@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.skywalking.apm.agent.core.remote;
+
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.conf.RemoteDownstreamConfig;
+import org.apache.skywalking.apm.agent.core.context.ContextManager;
+import org.apache.skywalking.apm.agent.core.context.TracingContext;
+import org.apache.skywalking.apm.agent.core.context.TracingContextListener;
+import org.apache.skywalking.apm.agent.core.context.trace.SegmentRecycler;
+import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
+import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.powermock.reflect.Whitebox;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TraceSegmentServiceClientRecycleTest {
+
+    private TraceSegmentServiceClient serviceClient;
+    private ContextManager contextManager;
+    private TracingContextListener retainingListener;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        Config.Agent.RECYCLE_SEGMENT = true;
+        RemoteDownstreamConfig.Agent.SERVICE_INSTANCE_ID = 1;
+
+        DataCarrier<TraceSegment> fullCarrier = mock(DataCarrier.class);
+        when(fullCarrier.produce(any(TraceSegment.class))).thenReturn(false);
+        serviceClient = new TraceSegmentServiceClient();
+        Whitebox.setInternalState(serviceClient, "carrier", fullCarrier);
+
+        contextManager = new ContextManager();
+        TracingContext.ListenerManager.add(contextManager);
+        TracingContext.ListenerManager.add(serviceClient);
+    }
+
+    @After
+    public void tearDown() {
+        TracingContext.ListenerManager.remove(contextManager);
+        TracingContext.ListenerManager.remove(serviceClient);
+        if (retainingListener != null) {
+            TracingContext.ListenerManager.remove(retainingListener);
+        }
+        Config.Agent.RECYCLE_SEGMENT = false;
+    }
+
+    @Test
+    public void testRecycleWithNonRetainingListeners() {
+        TraceSegment segment = SegmentRecycler.INSTANCE.createSegment();
+        serviceClient.afterFinished(segment);
+
+        assertThat((Boolean)Whitebox.getInternalState(segment, "recycled"), is(true));
+    }
+
+    @Test
+    public void testKeepSegmentHeldByAnotherListener() {
+        retainingListener = new TracingContextListener() {
+            @Override
+            public void afterFinished(TraceSegment traceSegment) {
+            }
+        };
+        TracingContext.ListenerManager.add(retainingListener);
+
+        TraceSegment segment = SegmentRecycler.INSTANCE.createSegment();
+        serviceClient.afterFinished(segment);
+
+        assertThat((Boolean)Whitebox.getInternalState(segment, "recycled"), is(false));
+    }
+}
@@ -19,11 +19,14 @@
 package org.apache.skywalking.apm.agent.core.remote;
 
 import com.google.protobuf.InvalidProtocolBufferException;
+import io.grpc.Status;
 import io.grpc.stub.StreamObserver;
 import io.grpc.testing.GrpcServerRule;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.conf.RemoteDownstreamConfig;
 import org.apache.skywalking.apm.agent.core.context.ContextManager;
 import org.apache.skywalking.apm.agent.core.context.tag.Tags;
@@ -45,6 +48,7 @@ import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.powermock.reflect.Whitebox;
 
@@ -61,15 +65,20 @@ public class TraceSegmentServiceClientTest {
     @Rule
     public GrpcServerRule grpcServerRule = new GrpcServerRule().directExecutor();
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     @SegmentStoragePoint
     private SegmentStorage storage;
 
     private TraceSegmentServiceClient serviceClient = new TraceSegmentServiceClient();
     private List<UpstreamSegment> upstreamSegments;
+    private int streamCount;
 
     private TraceSegmentReportServiceGrpc.TraceSegmentReportServiceImplBase serviceImplBase = new TraceSegmentReportServiceGrpc.TraceSegmentReportServiceImplBase() {
         @Override
         public StreamObserver<UpstreamSegment> collect(final StreamObserver<Commands> responseObserver) {
+            streamCount++;
             return new StreamObserver<UpstreamSegment>() {
                 @Override
                 public void onNext(UpstreamSegment value) {
@@ -110,6 +119,7 @@ public class TraceSegmentServiceClientTest {
         Whitebox.setInternalState(serviceClient, "status", GRPCChannelStatus.CONNECTED);
 
         upstreamSegments = new ArrayList<UpstreamSegment>();
+        streamCount = 0;
     }
 
     @Test
@@ -136,6 +146,105 @@ public class TraceSegmentServiceClientTest {
         assertThat(spanObject.getSpanType(), is(SpanType.Entry));
         assertThat(spanObject.getSpanId(), is(0));
         assertThat(spanObject.getParentSpanId(), is(-1));
+
+        serviceClient.onExit();
+    }
+
+    @Test
+    public void testOpenStreamPerBatch() {
+        grpcServerRule.getServiceRegistry().addService(serviceImplBase);
+
+        ContextManager.createEntrySpan("/testFirstBatch", null);
+        ContextManager.stopSpan();
+        serviceClient.consume(storage.getTraceSegments());
+        ContextManager.createEntrySpan("/testSecondBatch", null);
+        ContextManager.stopSpan();
+        serviceClient.consume(storage.getTraceSegments().subList(1, 2));
+
+        assertThat(upstreamSegments.size(), is(2));
+        assertThat(streamCount, is(2));
+    }
+
+    @Test
+    public void testKeepStreamAcrossBatches() {
+        grpcServerRule.getServiceRegistry().addService(serviceImplBase);
+        Config.Collector.SEGMENT_STREAM_KEEP_ALIVE = true;
+        try {
+            ContextManager.createEntrySpan("/testFirstBatch", null);
+            ContextManager.stopSpan();
+            serviceClient.consume(storage.getTraceSegments());
+            ContextManager.createEntrySpan("/testSecondBatch", null);
+            ContextManager.stopSpan();
+            serviceClient.consume(storage.getTraceSegments().subList(1, 2));
+
+            assertThat(upstreamSegments.size(), is(2));
+            assertThat(streamCount, is(1));
+
+            serviceClient.onExit();
+        } finally {
+            Config.Collector.SEGMENT_STREAM_KEEP_ALIVE = false;
+        }
+    }
+
+    @Test
+    public void testCountUplinkedWhenStreamFinished() throws InterruptedException {
+        grpcServerRule.getServiceRegistry().addService(serviceImplBase);
+        Config.Collector.SEGMENT_STREAM_KEEP_ALIVE = true;
+        try {
+            ContextManager.createEntrySpan("/testUplinked", null);
+            ContextManager.stopSpan();
+            serviceClient.consume(storage.getTraceSegments());
+
+            AtomicLong uplinked = Whitebox.getInternalState(serviceClient, "segmentUplinkedCounter");
+            assertThat(upstreamSegments.size(), is(1));
+            assertThat(uplinked.get(), is(0L));
+
+            serviceClient.onExit();
+            for (int i = 0; i < 50 && uplinked.get() == 0; i++) {
+                Thread.sleep(100);
+            }
+            assertThat(uplinked.get(), is(1L));
+        } finally {
+            Config.Collector.SEGMENT_STREAM_KEEP_ALIVE = false;
+        }
+    }
+
+    @Test
+    public void testSpillUnacknowledgedWhenStreamFails() throws Throwable {
+        grpcServerRule.getServiceRegistry().addService(new TraceSegmentReportServiceGrpc.TraceSegmentReportServiceImplBase() {
+            @Override
+            public StreamObserver<UpstreamSegment> collect(final StreamObserver<Commands> responseObserver) {
+                return new StreamObserver<UpstreamSegment>() {
+                    @Override
+                    public void onNext(UpstreamSegment value) {
+                        upstreamSegments.add(value);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        responseObserver.onError(Status.UNAVAILABLE.asRuntimeException());
+                    }
+                };
+            }
+        });
+        SegmentSpillLog spillLog = new SegmentSpillLog(folder.newFolder(), 1024 * 1024, 1);
+        Whitebox.setInternalState(serviceClient, "spillLog", spillLog);
+
+        ContextManager.createEntrySpan("/testSpilled", null);
+        ContextManager.stopSpan();
+        serviceClient.consume(storage.getTraceSegments());
+
+        AtomicLong abandoned = Whitebox.getInternalState(serviceClient, "segmentAbandonedCounter");
+        assertThat(upstreamSegments.size(), is(1));
+        assertThat(spillLog.read(10).size(), is(1));
+        assertThat(abandoned.get(), is(0L));
+
+        Whitebox.setInternalState(serviceClient, "spillLog", (SegmentSpillLog)null);
+        spillLog.close();
     }
 
     @Test
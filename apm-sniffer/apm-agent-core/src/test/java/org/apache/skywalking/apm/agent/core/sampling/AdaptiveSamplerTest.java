@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.sampling;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AdaptiveSamplerTest {
+    @Test
+    public void testSmoothedRefill() {
+        AdaptiveSampler sampler = new AdaptiveSampler(12, 5, 0, -1, 4);
+        assertFalse(sampler.tryAcquire());
+
+        sampler.tick();
+        assertEquals(2, drain(sampler));
+
+        for (int i = 0; i < 10; i++) {
+            sampler.tick();
+        }
+        assertEquals(12, drain(sampler));
+    }
+
+    @Test
+    public void testEndpointBudget() {
+        AdaptiveSampler sampler = new AdaptiveSampler(4, 1, 1, 3, 2);
+        sampler.tick();
+
+        assertTrue(sampler.trySampling(1));
+        assertTrue(sampler.trySampling(1));
+        assertTrue(sampler.trySampling(1));
+        assertFalse(sampler.trySampling(1));
+
+        assertTrue(sampler.trySampling(2));
+        assertFalse(sampler.trySampling(2));
+        assertTrue(sampler.trySampling(3));
+
+        sampler.tick();
+        assertTrue(sampler.trySampling(1));
+    }
+
+    @Test
+    public void testEndpointsDontShareBudget() {
+        AdaptiveSampler sampler = new AdaptiveSampler(8, 1, 0, 2, 1);
+        sampler.tick();
+
+        assertTrue(sampler.trySampling(1));
+        assertTrue(sampler.trySampling(1));
+        assertFalse(sampler.trySampling(1));
+        assertTrue(sampler.trySampling(1 + 1024));
+        assertTrue(sampler.trySampling(1 + 1024));
+    }
+
+    @Test
+    public void testConcurrentEndpointLimit() throws InterruptedException {
+        final AdaptiveSampler sampler = new AdaptiveSampler(1000, 1, 0, 5, 4);
+        sampler.tick();
+
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicInteger sampled = new AtomicInteger();
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int j = 0; j < 100; j++) {
+                        if (sampler.trySampling(7)) {
+                            sampled.incrementAndGet();
+                        }
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(5, sampled.get());
+    }
+
+    private int drain(AdaptiveSampler sampler) {
+        int count = 0;
+        while (sampler.tryAcquire()) {
+            count++;
+        }
+        return count;
+    }
+}
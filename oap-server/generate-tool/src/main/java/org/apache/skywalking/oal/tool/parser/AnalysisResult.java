@@ -134,7 +134,7 @@ public class AnalysisResult {
                 case "long":
                     serializeFields.addLongField(column.getFieldName());
                     break;
-                case "IntKeyLongValueArray":
+                case "IntKeyLongValueHistogram":
                     serializeFields.addIntLongValuePairelistField(column.getFieldName());
                     break;
                 default:
@@ -18,6 +18,7 @@
 
 package org.apache.skywalking.oap.server.core.analysis.generated.${packageName};
 
+import java.io.IOException;
 import java.util.*;
 <#if (fieldsFromSource?size>0) >
 import lombok.*;
@@ -36,6 +37,8 @@ import org.apache.skywalking.oap.server.core.remote.annotation.StreamData;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
 import org.apache.skywalking.oap.server.core.storage.annotation.*;
 import org.apache.skywalking.oap.server.core.storage.StorageBuilder;
+import org.apache.skywalking.oap.server.core.storage.StorageDataReader;
+import org.apache.skywalking.oap.server.core.storage.StorageDataWriter;
 import org.apache.skywalking.oap.server.core.source.Scope;
 
 /**
@@ -139,7 +142,7 @@ public class ${metricName}Indicator extends ${indicatorClassName} implements Ala
         remoteBuilder.addDataIntegers(${field.getter}());
 </#list>
 <#list serializeFields.intLongValuePairListFields as field>
-        ${field.getter}().forEach(element -> remoteBuilder.addDataIntLongPairList(element.serialize()));
+        remoteBuilder.addAllDataIntLongPairList(${field.getter}().serialize());
 </#list>
 
         return remoteBuilder;
@@ -163,10 +166,8 @@ public class ${metricName}Indicator extends ${indicatorClassName} implements Ala
 </#list>
 
 <#list serializeFields.intLongValuePairListFields as field>
-        setDetailGroup(new IntKeyLongValueArray(30));
-        remoteData.getDataIntLongPairListList().forEach(element -> {
-            getDetailGroup().add(new IntKeyLongValue(element.getKey(), element.getValue()));
-        });
+        ${field.setter}(new IntKeyLongValueHistogram(remoteData.getDataIntLongPairListCount()));
+        ${field.getter}().deserialize(remoteData.getDataIntLongPairListList());
 </#list>
 
     }
@@ -272,6 +273,32 @@ public class ${metricName}Indicator extends ${indicatorClassName} implements Ala
             return map;
         }
 
+        @Override public void data2Values(${metricName}Indicator storageData, String[] columnNames, Object[] values, int offset) {
+            for (int i = 0; i < columnNames.length; i++) {
+                switch (columnNames[i]) {
+    <#list fieldsFromSource as field>
+                    case "${field.columnName}":
+                        values[offset + i] = storageData.${field.fieldGetter}();
+                        break;
+    </#list>
+    <#list persistentFields as field>
+                    case "${field.columnName}":
+                        values[offset + i] = storageData.${field.fieldGetter}();
+                        break;
+    </#list>
+                }
+            }
+        }
+
+        @Override public void data2Writer(${metricName}Indicator storageData, StorageDataWriter writer) throws IOException {
+    <#list fieldsFromSource as field>
+            writer.write("${field.columnName}", storageData.${field.fieldGetter}());
+    </#list>
+    <#list persistentFields as field>
+            writer.write("${field.columnName}", storageData.${field.fieldGetter}());
+    </#list>
+        }
+
         @Override public ${metricName}Indicator map2Data(Map<String, Object> dbMap) {
             ${metricName}Indicator indicator = new ${metricName}Indicator();
     <#list fieldsFromSource as field>
@@ -294,5 +321,39 @@ public class ${metricName}Indicator extends ${indicatorClassName} implements Ala
     </#list>
             return indicator;
         }
+
+        @Override public ${metricName}Indicator reader2Data(StorageDataReader reader) throws IOException {
+            ${metricName}Indicator indicator = new ${metricName}Indicator();
+            String columnName;
+            while ((columnName = reader.nextColumn()) != null) {
+                switch (columnName) {
+    <#list fieldsFromSource as field>
+                    case "${field.columnName}":
+        <#if field.typeName == "long" || field.typeName == "int" || field.typeName == "double" || field.typeName == "float">
+                        indicator.${field.fieldSetter}(reader.read${field.typeName?cap_first}());
+        <#elseif field.typeName == "java.lang.String">
+                        indicator.${field.fieldSetter}(reader.readString());
+        <#else>
+                        indicator.${field.fieldSetter}(new ${field.typeName}(reader.readString()));
+        </#if>
+                        break;
+    </#list>
+    <#list persistentFields as field>
+                    case "${field.columnName}":
+        <#if field.typeName == "long" || field.typeName == "int" || field.typeName == "double" || field.typeName == "float">
+                        indicator.${field.fieldSetter}(reader.read${field.typeName?cap_first}());
+        <#elseif field.typeName == "java.lang.String">
+                        indicator.${field.fieldSetter}(reader.readString());
+        <#else>
+                        indicator.${field.fieldSetter}(new ${field.typeName}(reader.readString()));
+        </#if>
+                        break;
+    </#list>
+                    default:
+                        reader.skip();
+                }
+            }
+            return indicator;
+        }
     }
 }
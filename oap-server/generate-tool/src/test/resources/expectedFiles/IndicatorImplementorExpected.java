@@ -18,6 +18,7 @@
 
 package org.apache.skywalking.oap.server.core.analysis.generated.service.serviceavg;
 
+import java.io.IOException;
 import java.util.*;
 import lombok.*;
 import org.apache.skywalking.oap.server.core.Const;
@@ -29,6 +30,8 @@ import org.apache.skywalking.oap.server.core.remote.annotation.StreamData;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
 import org.apache.skywalking.oap.server.core.storage.annotation.*;
 import org.apache.skywalking.oap.server.core.storage.StorageBuilder;
+import org.apache.skywalking.oap.server.core.storage.StorageDataReader;
+import org.apache.skywalking.oap.server.core.storage.StorageDataWriter;
 import org.apache.skywalking.oap.server.core.source.Scope;
 
 /**
@@ -162,6 +165,40 @@ public class ServiceAvgIndicator extends LongAvgIndicator implements AlarmSuppor
             return map;
         }
 
+        @Override public void data2Values(ServiceAvgIndicator storageData, String[] columnNames, Object[] values, int offset) {
+            for (int i = 0; i < columnNames.length; i++) {
+                switch (columnNames[i]) {
+                    case "entity_id":
+                        values[offset + i] = storageData.getEntityId();
+                        break;
+                    case "summation":
+                        values[offset + i] = storageData.getSummation();
+                        break;
+                    case "count":
+                        values[offset + i] = storageData.getCount();
+                        break;
+                    case "value":
+                        values[offset + i] = storageData.getValue();
+                        break;
+                    case "time_bucket":
+                        values[offset + i] = storageData.getTimeBucket();
+                        break;
+                    case "string_field":
+                        values[offset + i] = storageData.getStringField();
+                        break;
+                }
+            }
+        }
+
+        @Override public void data2Writer(ServiceAvgIndicator storageData, StorageDataWriter writer) throws IOException {
+            writer.write("entity_id", storageData.getEntityId());
+            writer.write("summation", storageData.getSummation());
+            writer.write("count", storageData.getCount());
+            writer.write("value", storageData.getValue());
+            writer.write("time_bucket", storageData.getTimeBucket());
+            writer.write("string_field", storageData.getStringField());
+        }
+
         @Override public ServiceAvgIndicator map2Data(Map<String, Object> dbMap) {
             ServiceAvgIndicator indicator = new ServiceAvgIndicator();
             indicator.setEntityId((String)dbMap.get("entity_id"));
@@ -172,5 +209,35 @@ public class ServiceAvgIndicator extends LongAvgIndicator implements AlarmSuppor
             indicator.setStringField((String)dbMap.get("string_field"));
             return indicator;
         }
+
+        @Override public ServiceAvgIndicator reader2Data(StorageDataReader reader) throws IOException {
+            ServiceAvgIndicator indicator = new ServiceAvgIndicator();
+            String columnName;
+            while ((columnName = reader.nextColumn()) != null) {
+                switch (columnName) {
+                    case "entity_id":
+                        indicator.setEntityId(reader.readString());
+                        break;
+                    case "summation":
+                        indicator.setSummation(reader.readLong());
+                        break;
+                    case "count":
+                        indicator.setCount(reader.readInt());
+                        break;
+                    case "value":
+                        indicator.setValue(reader.readLong());
+                        break;
+                    case "time_bucket":
+                        indicator.setTimeBucket(reader.readLong());
+                        break;
+                    case "string_field":
+                        indicator.setStringField(reader.readString());
+                        break;
+                    default:
+                        reader.skip();
+                }
+            }
+            return indicator;
+        }
     }
 }
@@ -46,6 +46,7 @@ public class CoreModule extends ModuleDefine {
     @Override public Class[] services() {
         List<Class> classes = new ArrayList<>();
         classes.add(DownsamplingConfigService.class);
+        classes.add(DataCarrierConfigService.class);
         classes.add(IComponentLibraryCatalogService.class);
 
         addServerInterface(classes);
@@ -42,6 +42,38 @@ public class CoreModuleConfig extends ModuleConfig {
     @Setter private int hourMetricsDataTTL;
     @Setter private int dayMetricsDataTTL;
     @Setter private int monthMetricsDataTTL;
+    /**
+     * The period of the persistence timer, in second.
+     */
+    @Setter private int persistentPeriod = 3;
+    /**
+     * The number of threads preparing and executing the batches of the persistence workers in parallel.
+     */
+    @Setter private int persistentParallelism = 2;
+    /**
+     * The number of long-lived streams to each other OAP server.
+     */
+    @Setter private int remoteStreamCount = 2;
+    /**
+     * The max number of batches sent through one remote stream but not processed by the other OAP server yet.
+     */
+    @Setter private int remoteInFlightWindow = 16;
+    /**
+     * The max number of remote messages packed into one batch.
+     */
+    @Setter private int remoteBatchSize = 500;
+    /**
+     * The way the consumer threads of the workers wait for the data, sleep or signal.
+     */
+    @Setter private String dataCarrierWaitStrategy = "sleep";
+    /**
+     * The buffers of the data carriers of the workers, array or ring.
+     */
+    @Setter private String dataCarrierBufferType = "array";
+    /**
+     * The millis between two rebalances of the channels between the aggregation threads, no rebalance if it is 0.
+     */
+    @Setter private long dataCarrierRebalanceCycle = 0;
 
     CoreModuleConfig() {
         this.downsampling = new ArrayList<>();
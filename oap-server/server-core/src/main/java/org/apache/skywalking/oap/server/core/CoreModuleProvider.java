@@ -99,6 +99,8 @@ public class CoreModuleProvider extends ModuleProvider {
         jettyServer.initialize();
 
         this.registerServiceImplementation(DownsamplingConfigService.class, new DownsamplingConfigService(moduleConfig.getDownsampling()));
+        this.registerServiceImplementation(DataCarrierConfigService.class, new DataCarrierConfigService(moduleConfig.getDataCarrierWaitStrategy(),
+            moduleConfig.getDataCarrierBufferType(), moduleConfig.getDataCarrierRebalanceCycle()));
 
         this.registerServiceImplementation(GRPCHandlerRegister.class, new GRPCHandlerRegisterImpl(grpcServer));
         this.registerServiceImplementation(JettyHandlerRegister.class, new JettyHandlerRegisterImpl(jettyServer));
@@ -140,7 +142,8 @@ public class CoreModuleProvider extends ModuleProvider {
         annotationScan.registerListener(new RecordTypeListener(getManager()));
         annotationScan.registerListener(new TopNTypeListener(getManager()));
 
-        this.remoteClientManager = new RemoteClientManager(getManager());
+        this.remoteClientManager = new RemoteClientManager(getManager(), moduleConfig.getRemoteStreamCount(),
+            moduleConfig.getRemoteInFlightWindow(), moduleConfig.getRemoteBatchSize());
         this.registerServiceImplementation(RemoteClientManager.class, remoteClientManager);
     }
 
@@ -171,7 +174,7 @@ public class CoreModuleProvider extends ModuleProvider {
         RemoteInstance gRPCServerInstance = new RemoteInstance(new Address(moduleConfig.getGRPCHost(), moduleConfig.getGRPCPort(), true));
         this.getManager().find(ClusterModule.NAME).provider().getService(ClusterRegister.class).registerRemote(gRPCServerInstance);
 
-        PersistenceTimer.INSTANCE.start(getManager());
+        PersistenceTimer.INSTANCE.start(getManager(), moduleConfig);
 
         DataTTLKeeperTimer.INSTANCE.setDataTTL(moduleConfig.getDataTTL());
         DataTTLKeeperTimer.INSTANCE.start(getManager());
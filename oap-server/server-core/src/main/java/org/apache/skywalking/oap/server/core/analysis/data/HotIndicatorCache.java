@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.data;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
+
+/**
+ * Cache of the indicators persisted by the current OAP node, grouped by time bucket. Only the latest two time buckets
+ * are kept, the current one and the previous one, all older buckets are evicted as soon as a newer one shows up.
+ *
+ * The cache never holds more than maxSize indicators, indicators beyond that are not cached, then the read goes to
+ * storage as usual.
+ */
+public class HotIndicatorCache<INDICATOR extends Indicator> {
+
+    private static final int KEPT_TIME_BUCKETS = 2;
+
+    private final int maxSize;
+    private final TreeMap<Long, Map<String, INDICATOR>> buckets;
+    private int size;
+
+    public HotIndicatorCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.buckets = new TreeMap<>();
+        this.size = 0;
+    }
+
+    public synchronized INDICATOR get(INDICATOR indicator) {
+        Map<String, INDICATOR> bucket = buckets.get(indicator.getTimeBucket());
+        if (bucket == null) {
+            return null;
+        }
+        return bucket.get(indicator.id());
+    }
+
+    public synchronized void put(INDICATOR indicator) {
+        long timeBucket = indicator.getTimeBucket();
+
+        Map<String, INDICATOR> bucket = buckets.get(timeBucket);
+        if (bucket == null) {
+            if (buckets.size() >= KEPT_TIME_BUCKETS && timeBucket < buckets.firstKey()) {
+                return;
+            }
+
+            bucket = new HashMap<>();
+            buckets.put(timeBucket, bucket);
+            while (buckets.size() > KEPT_TIME_BUCKETS) {
+                size -= buckets.pollFirstEntry().getValue().size();
+            }
+        }
+
+        String id = indicator.id();
+        if (bucket.containsKey(id)) {
+            bucket.put(id, indicator);
+        } else if (size < maxSize) {
+            bucket.put(id, indicator);
+            size++;
+        }
+    }
+
+    /**
+     * Drop all the cached indicators, as they may not match the storage any more.
+     */
+    public synchronized void clear() {
+        buckets.clear();
+        size = 0;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+}
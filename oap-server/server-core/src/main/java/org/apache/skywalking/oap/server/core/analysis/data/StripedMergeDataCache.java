@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.data;
+
+import java.util.*;
+import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
+
+/**
+ * Merge data cache which could be written by multiple threads at the same time, as the alternative of {@link
+ * MergeDataCache} for the L1 aggregation.
+ *
+ * The indicators are spread into stripes by hash code, every stripe is a {@link HashMap} guarded by its own lock. The
+ * reader takes a snapshot by swapping the map of each stripe with an empty one, so it never waits for the writers to
+ * finish, and an indicator is never combined again after it has been taken by a snapshot.
+ */
+public class StripedMergeDataCache<INDICATOR extends Indicator> {
+
+    private final List<Stripe<INDICATOR>> stripes;
+    private final int mask;
+
+    public StripedMergeDataCache(int stripeCount) {
+        int size = 1;
+        while (size < stripeCount) {
+            size <<= 1;
+        }
+        this.stripes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            stripes.add(new Stripe<>());
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Combine the given indicator into the one with the same id, or keep it if there is none.
+     */
+    public void merge(INDICATOR data) {
+        Stripe<INDICATOR> stripe = stripeOf(data);
+        synchronized (stripe) {
+            INDICATOR existed = stripe.collection.get(data);
+            if (existed == null) {
+                stripe.collection.put(data, data);
+            } else {
+                existed.combine(data);
+            }
+        }
+    }
+
+    /**
+     * Take all merged indicators out of the cache.
+     *
+     * @return the indicators merged since the last snapshot.
+     */
+    public List<INDICATOR> snapshot() {
+        List<INDICATOR> snapshot = new ArrayList<>();
+        for (Stripe<INDICATOR> stripe : stripes) {
+            Map<INDICATOR, INDICATOR> last;
+            synchronized (stripe) {
+                if (stripe.collection.isEmpty()) {
+                    continue;
+                }
+                last = stripe.collection;
+                stripe.collection = new HashMap<>(last.size());
+            }
+            snapshot.addAll(last.values());
+        }
+        return snapshot;
+    }
+
+    /**
+     * @return the number of cached indicators, not accurate when there are concurrent writers.
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe<INDICATOR> stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.collection.size();
+            }
+        }
+        return size;
+    }
+
+    private Stripe<INDICATOR> stripeOf(INDICATOR data) {
+        int hash = data.hashCode();
+        return stripes.get((hash ^ (hash >>> 16)) & mask);
+    }
+
+    private static class Stripe<INDICATOR> {
+        private Map<INDICATOR, INDICATOR> collection = new HashMap<>();
+    }
+}
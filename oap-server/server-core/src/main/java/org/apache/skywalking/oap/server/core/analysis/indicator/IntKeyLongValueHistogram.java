@@ -0,0 +1,233 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.indicator;
+
+import java.util.*;
+import org.apache.skywalking.oap.server.core.Const;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.IntKeyLongValuePair;
+import org.apache.skywalking.oap.server.core.storage.type.StorageDataType;
+
+/**
+ * IntKeyLongValueHistogram is the primitive alternative of {@link IntKeyLongValueArray}, with the keys in int and the
+ * counters in long, held by two growable arrays in the ascending order of the keys. No element object is created for
+ * any bucket, and no sort is required before reading the buckets in order.
+ *
+ * The storage format is the same as {@link IntKeyLongValueArray}.
+ */
+public class IntKeyLongValueHistogram implements StorageDataType {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] keys;
+    private long[] values;
+    private int size;
+
+    public IntKeyLongValueHistogram() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntKeyLongValueHistogram(int initialCapacity) {
+        this.keys = new int[Math.max(initialCapacity, 1)];
+        this.values = new long[keys.length];
+        this.size = 0;
+    }
+
+    public IntKeyLongValueHistogram(String data) {
+        this();
+        toObject(data);
+    }
+
+    /**
+     * Add the delta to the counter of the given key, create the counter if it doesn't exist.
+     */
+    public void increment(int key, long delta) {
+        int index;
+        if (size == 0 || keys[size - 1] < key) {
+            index = -(size + 1);
+        } else {
+            index = Arrays.binarySearch(keys, 0, size, key);
+        }
+
+        if (index >= 0) {
+            values[index] += delta;
+        } else {
+            insert(-(index + 1), key, delta);
+        }
+    }
+
+    /**
+     * Add all counters of the given histogram into this one, by one merge scan of the two key arrays.
+     */
+    public void combine(IntKeyLongValueHistogram histogram) {
+        if (histogram.size == 0) {
+            return;
+        }
+
+        int newSize = unionSize(histogram);
+        if (newSize == size) {
+            for (int i = 0, j = 0; j < histogram.size; i++) {
+                if (keys[i] == histogram.keys[j]) {
+                    values[i] += histogram.values[j];
+                    j++;
+                }
+            }
+            return;
+        }
+
+        int[] newKeys = new int[newSize];
+        long[] newValues = new long[newSize];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < size || j < histogram.size) {
+            if (j == histogram.size || (i < size && keys[i] < histogram.keys[j])) {
+                newKeys[k] = keys[i];
+                newValues[k] = values[i];
+                i++;
+            } else if (i == size || histogram.keys[j] < keys[i]) {
+                newKeys[k] = histogram.keys[j];
+                newValues[k] = histogram.values[j];
+                j++;
+            } else {
+                newKeys[k] = keys[i];
+                newValues[k] = values[i] + histogram.values[j];
+                i++;
+                j++;
+            }
+            k++;
+        }
+        this.keys = newKeys;
+        this.values = newValues;
+        this.size = newSize;
+    }
+
+    /**
+     * @return the counter of the given key, 0 if it doesn't exist.
+     */
+    public long get(int key) {
+        int index = Arrays.binarySearch(keys, 0, size, key);
+        return index >= 0 ? values[index] : 0;
+    }
+
+    /**
+     * @return the number of keys.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the index-th smallest key.
+     */
+    public int keyAt(int index) {
+        return keys[index];
+    }
+
+    /**
+     * @return the counter of the index-th smallest key.
+     */
+    public long valueAt(int index) {
+        return values[index];
+    }
+
+    /**
+     * @return the sum of all counters.
+     */
+    public long total() {
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            total += values[i];
+        }
+        return total;
+    }
+
+    public List<IntKeyLongValuePair> serialize() {
+        List<IntKeyLongValuePair> pairs = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            pairs.add(IntKeyLongValuePair.newBuilder().setKey(keys[i]).setValue(values[i]).build());
+        }
+        return pairs;
+    }
+
+    public void deserialize(List<IntKeyLongValuePair> pairs) {
+        for (IntKeyLongValuePair pair : pairs) {
+            increment(pair.getKey(), pair.getValue());
+        }
+    }
+
+    @Override public String toStorageData() {
+        StringBuilder data = new StringBuilder(size * 8);
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                data.append(Const.ARRAY_SPLIT);
+            }
+            data.append(keys[i]).append(Const.KEY_VALUE_SPLIT).append(values[i]);
+        }
+        return data.toString();
+    }
+
+    @Override public void toObject(String data) {
+        if (data == null || data.isEmpty()) {
+            return;
+        }
+
+        String[] keyValues = data.split(Const.ARRAY_PARSER_SPLIT);
+        for (String keyValue : keyValues) {
+            int split = keyValue.indexOf(Const.KEY_VALUE_SPLIT);
+            increment(Integer.parseInt(keyValue.substring(0, split)), Long.parseLong(keyValue.substring(split + 1)));
+        }
+    }
+
+    @Override public void copyFrom(Object source) {
+        IntKeyLongValueHistogram histogram = (IntKeyLongValueHistogram)source;
+        this.keys = Arrays.copyOf(histogram.keys, Math.max(histogram.size, 1));
+        this.values = Arrays.copyOf(histogram.values, keys.length);
+        this.size = histogram.size;
+    }
+
+    private int unionSize(IntKeyLongValueHistogram histogram) {
+        int union = size + histogram.size;
+        for (int i = 0, j = 0; i < size && j < histogram.size; ) {
+            if (keys[i] < histogram.keys[j]) {
+                i++;
+            } else if (keys[i] > histogram.keys[j]) {
+                j++;
+            } else {
+                union--;
+                i++;
+                j++;
+            }
+        }
+        return union;
+    }
+
+    private void insert(int index, int key, long value) {
+        if (size == keys.length) {
+            int newCapacity = keys.length + (keys.length >> 1) + 1;
+            keys = Arrays.copyOf(keys, newCapacity);
+            values = Arrays.copyOf(values, newCapacity);
+        }
+        if (index < size) {
+            System.arraycopy(keys, index, keys, index + 1, size - index);
+            System.arraycopy(values, index, values, index + 1, size - index);
+        }
+        keys[index] = key;
+        values[index] = value;
+        size++;
+    }
+}
@@ -19,12 +19,15 @@
 package org.apache.skywalking.oap.server.core.analysis.worker;
 
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.skywalking.apm.commons.datacarrier.*;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.*;
-import org.apache.skywalking.oap.server.core.UnexpectedException;
+import org.apache.skywalking.oap.server.core.*;
 import org.apache.skywalking.oap.server.core.analysis.data.*;
 import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
-import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
+import org.apache.skywalking.oap.server.core.config.DataCarrierConfigService;
+import org.apache.skywalking.oap.server.core.worker.*;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
 import org.apache.skywalking.oap.server.telemetry.api.*;
@@ -38,96 +41,96 @@ public class IndicatorAggregateWorker extends AbstractWorker<Indicator> {
     private static final Logger logger = LoggerFactory.getLogger(IndicatorAggregateWorker.class);
 
     private AbstractWorker<Indicator> nextWorker;
-    private final DataCarrier<Indicator> dataCarrier;
-    private final MergeDataCache<Indicator> mergeDataCache;
+    private final List<DataCarrier<Indicator>> dataCarriers;
+    private final StripedMergeDataCache<Indicator> mergeDataCache;
     private final String modelName;
     private CounterMetric aggregationCounter;
     private final long l2AggregationSendCycle;
-    private long lastSendTimestamp;
+    private final AtomicLong lastSendTimestamp;
 
     IndicatorAggregateWorker(ModuleManager moduleManager, int workerId, AbstractWorker<Indicator> nextWorker,
         String modelName) {
         super(workerId);
         this.modelName = modelName;
         this.nextWorker = nextWorker;
-        this.mergeDataCache = new MergeDataCache<>();
         String name = "INDICATOR_L1_AGGREGATION";
-        this.dataCarrier = new DataCarrier<>("IndicatorAggregateWorker." + modelName, name, 2, 10000);
-
-        BulkConsumePool.Creator creator = new BulkConsumePool.Creator(name, BulkConsumePool.Creator.recommendMaxSize() * 2, 20);
+        DataCarrierConfigService carrierConfig = moduleManager.find(CoreModule.NAME).provider().getService(DataCarrierConfigService.class);
+
+        /*
+         * The load of the models differs a lot, the data carriers can be rebalanced between the threads in cycle, so
+         * one hot model doesn't keep a thread busy while the others are idle.
+         */
+        BulkConsumePool.Creator creator = new BulkConsumePool.Creator(name, BulkConsumePool.Creator.recommendMaxSize() * 2, 20, carrierConfig.getWaitStrategy(),
+            carrierConfig.getRebalanceCycle(), new ConsumerPoolLoadTelemetry(moduleManager, name));
         try {
             ConsumerPoolFactory.INSTANCE.createIfAbsent(name, creator);
         } catch (Exception e) {
             throw new UnexpectedException(e.getMessage(), e);
         }
-        this.dataCarrier.consume(ConsumerPoolFactory.INSTANCE.get(name), new AggregatorConsumer(this));
+
+        /*
+         * Every data carrier is consumed by one thread of the pool, so the parallelism is the max number of threads
+         * aggregating this model at the same time.
+         */
+        int parallelism = Math.max(EnvUtil.getInt(name + "_PARALLELISM", 1), 1);
+        this.mergeDataCache = new StripedMergeDataCache<>(parallelism * 4);
+        this.dataCarriers = new ArrayList<>(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            String carrierName = "IndicatorAggregateWorker." + modelName + (i == 0 ? "" : "." + i);
+            DataCarrier<Indicator> dataCarrier = new DataCarrier<>(carrierName, name, 2, 10000, carrierConfig.getBufferType());
+            dataCarrier.consume(ConsumerPoolFactory.INSTANCE.get(name), new AggregatorConsumer(this));
+            dataCarriers.add(dataCarrier);
+        }
 
         MetricCreator metricCreator = moduleManager.find(TelemetryModule.NAME).provider().getService(MetricCreator.class);
         aggregationCounter = metricCreator.createCounter("indicator_aggregation", "The number of rows in aggregation",
             new MetricTag.Keys("metricName", "level", "dimensionality"), new MetricTag.Values(modelName, "1", "min"));
-        lastSendTimestamp = System.currentTimeMillis();
+        lastSendTimestamp = new AtomicLong(System.currentTimeMillis());
 
         l2AggregationSendCycle = EnvUtil.getLong("INDICATOR_L1_AGGREGATION_SEND_CYCLE", 1000);
     }
 
     @Override public final void in(Indicator indicator) {
-        indicator.setEndOfBatchContext(new EndOfBatchContext(false));
-        dataCarrier.produce(indicator);
+        if (dataCarriers.size() == 1) {
+            dataCarriers.get(0).produce(indicator);
+        } else {
+            dataCarriers.get(ThreadLocalRandom.current().nextInt(dataCarriers.size())).produce(indicator);
+        }
     }
 
     private void onWork(Indicator indicator) {
         aggregationCounter.inc();
         aggregate(indicator);
+    }
 
-        if (indicator.getEndOfBatchContext().isEndOfBatch()) {
-            if (shouldSend()) {
-                sendToNext();
-            }
+    private void onBatchEnd() {
+        if (shouldSend()) {
+            sendToNext();
         }
     }
 
     private boolean shouldSend() {
         long now = System.currentTimeMillis();
-        // Continue L2 aggregation in certain cycle.
-        if (now - lastSendTimestamp > l2AggregationSendCycle) {
-            lastSendTimestamp = now;
-            return true;
-        }
-        return false;
+        long last = lastSendTimestamp.get();
+        // Continue L2 aggregation in certain cycle, only one of the consumer threads sends.
+        return now - last > l2AggregationSendCycle && lastSendTimestamp.compareAndSet(last, now);
     }
 
     private void sendToNext() {
-        mergeDataCache.switchPointer();
-        while (mergeDataCache.getLast().isWriting()) {
-            try {
-                Thread.sleep(10);
-            } catch (InterruptedException e) {
-                logger.error(e.getMessage(), e);
-            }
-        }
-
-        mergeDataCache.getLast().collection().forEach(data -> {
+        mergeDataCache.snapshot().forEach(data -> {
             if (logger.isDebugEnabled()) {
                 logger.debug(data.toString());
             }
 
             nextWorker.in(data);
         });
-        mergeDataCache.finishReadingLast();
     }
 
     private void aggregate(Indicator indicator) {
-        mergeDataCache.writing();
-        if (mergeDataCache.containsKey(indicator)) {
-            mergeDataCache.get(indicator).combine(indicator);
-        } else {
-            mergeDataCache.put(indicator);
-        }
-
-        mergeDataCache.finishWriting();
+        mergeDataCache.merge(indicator);
     }
 
-    private class AggregatorConsumer implements IConsumer<Indicator> {
+    private class AggregatorConsumer extends BatchConsumer<Indicator> {
 
         private final IndicatorAggregateWorker aggregator;
 
@@ -139,18 +142,12 @@ public class IndicatorAggregateWorker extends AbstractWorker<Indicator> {
 
         }
 
-        @Override public void consume(List<Indicator> data) {
-            Iterator<Indicator> inputIterator = data.iterator();
-
-            int i = 0;
-            while (inputIterator.hasNext()) {
-                Indicator indicator = inputIterator.next();
-                i++;
-                if (i == data.size()) {
-                    indicator.getEndOfBatchContext().setEndOfBatch(true);
-                }
-                aggregator.onWork(indicator);
-            }
+        @Override public void consume(Indicator indicator) {
+            aggregator.onWork(indicator);
+        }
+
+        @Override public void onBatchEnd() {
+            aggregator.onBatchEnd();
         }
 
         @Override public void onError(List<Indicator> data, Throwable t) {
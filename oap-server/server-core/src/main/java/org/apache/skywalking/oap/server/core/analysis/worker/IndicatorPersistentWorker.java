@@ -18,19 +18,30 @@
 
 package org.apache.skywalking.oap.server.core.analysis.worker;
 
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
+import org.apache.skywalking.apm.commons.datacarrier.EnvUtil;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.*;
+import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.UnexpectedException;
-import org.apache.skywalking.oap.server.core.analysis.data.EndOfBatchContext;
+import org.apache.skywalking.oap.server.core.analysis.data.HotIndicatorCache;
 import org.apache.skywalking.oap.server.core.analysis.data.MergeDataCache;
 import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
+import org.apache.skywalking.oap.server.core.config.DataCarrierConfigService;
 import org.apache.skywalking.oap.server.core.storage.IIndicatorDAO;
 import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
+import org.apache.skywalking.oap.server.core.worker.ConsumerPoolLoadTelemetry;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetric;
+import org.apache.skywalking.oap.server.telemetry.api.MetricCreator;
+import org.apache.skywalking.oap.server.telemetry.api.MetricTag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -43,11 +54,17 @@ public class IndicatorPersistentWorker extends PersistenceWorker<Indicator, Merg
 
     private static final Logger logger = LoggerFactory.getLogger(IndicatorPersistentWorker.class);
 
+    private static final int MULTI_GET_CHUNK_SIZE = 1000;
+
     private final String modelName;
     private final MergeDataCache<Indicator> mergeDataCache;
     private final IIndicatorDAO indicatorDAO;
     private final AbstractWorker<Indicator> nextWorker;
     private final DataCarrier<Indicator> dataCarrier;
+    private final HotIndicatorCache<Indicator> hotIndicatorCache;
+    private final CounterMetric hotCacheHitCounter;
+    private final CounterMetric hotCacheMissCounter;
+    private volatile boolean hotCacheInvalidated = false;
 
     IndicatorPersistentWorker(int workerId, String modelName, int batchSize, ModuleManager moduleManager,
         IIndicatorDAO indicatorDAO, AbstractWorker<Indicator> nextWorker) {
@@ -56,20 +73,29 @@ public class IndicatorPersistentWorker extends PersistenceWorker<Indicator, Merg
         this.mergeDataCache = new MergeDataCache<>();
         this.indicatorDAO = indicatorDAO;
         this.nextWorker = nextWorker;
+        this.hotIndicatorCache = new HotIndicatorCache<>(EnvUtil.getInt("INDICATOR_L2_HOT_CACHE_MAX_SIZE", 20000));
+
+        MetricCreator metricCreator = moduleManager.find(TelemetryModule.NAME).provider().getService(MetricCreator.class);
+        hotCacheHitCounter = metricCreator.createCounter("indicator_persistent_hot_cache_hit", "The number of indicators merged with the hot cache in persistence",
+            new MetricTag.Keys("metricName"), new MetricTag.Values(modelName));
+        hotCacheMissCounter = metricCreator.createCounter("indicator_persistent_hot_cache_miss", "The number of indicators read from the storage in persistence",
+            new MetricTag.Keys("metricName"), new MetricTag.Values(modelName));
 
         String name = "INDICATOR_L2_AGGREGATION";
+        DataCarrierConfigService carrierConfig = moduleManager.find(CoreModule.NAME).provider().getService(DataCarrierConfigService.class);
         int size = BulkConsumePool.Creator.recommendMaxSize() / 8;
         if (size == 0) {
             size = 1;
         }
-        BulkConsumePool.Creator creator = new BulkConsumePool.Creator(name, size, 20);
+        BulkConsumePool.Creator creator = new BulkConsumePool.Creator(name, size, 20, carrierConfig.getWaitStrategy(),
+            carrierConfig.getRebalanceCycle(), new ConsumerPoolLoadTelemetry(moduleManager, name));
         try {
             ConsumerPoolFactory.INSTANCE.createIfAbsent(name, creator);
         } catch (Exception e) {
             throw new UnexpectedException(e.getMessage(), e);
         }
 
-        this.dataCarrier = new DataCarrier<>("IndicatorPersistentWorker." + modelName, name, 1, 2000);
+        this.dataCarrier = new DataCarrier<>("IndicatorPersistentWorker." + modelName, name, 1, 2000, carrierConfig.getBufferType());
         this.dataCarrier.consume(ConsumerPoolFactory.INSTANCE.get(name), new PersistentConsumer(this));
     }
 
@@ -78,7 +104,6 @@ public class IndicatorPersistentWorker extends PersistenceWorker<Indicator, Merg
     }
 
     @Override public void in(Indicator indicator) {
-        indicator.setEndOfBatchContext(new EndOfBatchContext(false));
         dataCarrier.produce(indicator);
     }
 
@@ -86,6 +111,10 @@ public class IndicatorPersistentWorker extends PersistenceWorker<Indicator, Merg
         return mergeDataCache;
     }
 
+    @Override public String getModelName() {
+        return modelName;
+    }
+
     public boolean flushAndSwitch() {
         boolean isSwitch;
         try {
@@ -99,15 +128,60 @@ public class IndicatorPersistentWorker extends PersistenceWorker<Indicator, Merg
     }
 
     @Override public List<Object> prepareBatch(MergeDataCache<Indicator> cache) {
+        if (hotCacheInvalidated) {
+            hotCacheInvalidated = false;
+            hotIndicatorCache.clear();
+        }
+
         List<Object> batchCollection = new LinkedList<>();
-        cache.getLast().collection().forEach(data -> {
-            Indicator dbData = null;
+
+        Collection<Indicator> collection = cache.getLast().collection();
+        List<Indicator> chunk = new ArrayList<>(Math.min(collection.size(), MULTI_GET_CHUNK_SIZE));
+        for (Indicator data : collection) {
+            chunk.add(data);
+            if (chunk.size() == MULTI_GET_CHUNK_SIZE) {
+                prepareChunk(chunk, batchCollection);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            prepareChunk(chunk, batchCollection);
+        }
+
+        return batchCollection;
+    }
+
+    /**
+     * Merge the indicators of the chunk with the ones persisted before. The hot cache is checked first, then the
+     * indicators not found in it are read from storage by one multi get.
+     */
+    private void prepareChunk(List<Indicator> chunk, List<Object> batchCollection) {
+        Map<String, Indicator> dbDataMap = new HashMap<>();
+
+        List<Indicator> missed = new ArrayList<>(chunk.size());
+        for (Indicator data : chunk) {
+            Indicator cachedData = hotIndicatorCache.get(data);
+            if (nonNull(cachedData)) {
+                dbDataMap.put(cachedData.id(), cachedData);
+            } else {
+                missed.add(data);
+            }
+        }
+        hotCacheHitCounter.inc(chunk.size() - missed.size());
+        hotCacheMissCounter.inc(missed.size());
+
+        if (!missed.isEmpty()) {
             try {
-                dbData = indicatorDAO.get(modelName, data);
+                List<Indicator> dbDataList = indicatorDAO.multiGet(modelName, missed);
+                dbDataList.forEach(dbData -> dbDataMap.put(dbData.id(), dbData));
             } catch (Throwable t) {
                 logger.error(t.getMessage(), t);
             }
+        }
+
+        for (Indicator data : chunk) {
             try {
+                Indicator dbData = dbDataMap.get(data.id());
                 if (nonNull(dbData)) {
                     data.combine(dbData);
                     data.calculate();
@@ -116,6 +190,7 @@ public class IndicatorPersistentWorker extends PersistenceWorker<Indicator, Merg
                 } else {
                     batchCollection.add(indicatorDAO.prepareBatchInsert(modelName, data));
                 }
+                hotIndicatorCache.put(data);
 
                 if (Objects.nonNull(nextWorker)) {
                     nextWorker.in(data);
@@ -123,9 +198,16 @@ public class IndicatorPersistentWorker extends PersistenceWorker<Indicator, Merg
             } catch (Throwable t) {
                 logger.error(t.getMessage(), t);
             }
-        });
+        }
+    }
 
-        return batchCollection;
+    /**
+     * Called when some writes of this model failed, the indicators in the hot cache may never reach the storage, then
+     * they are read from the storage again, rather than being updated blindly. The cache is cleared by the next
+     * {@link #prepareBatch(MergeDataCache)}, in the persistence thread rather than the storage client thread.
+     */
+    public void invalidateHotCache() {
+        hotCacheInvalidated = true;
     }
 
     @Override public void cacheData(Indicator input) {
@@ -142,7 +224,7 @@ public class IndicatorPersistentWorker extends PersistenceWorker<Indicator, Merg
         mergeDataCache.finishWriting();
     }
 
-    private class PersistentConsumer implements IConsumer<Indicator> {
+    private class PersistentConsumer extends BatchConsumer<Indicator> {
 
         private final IndicatorPersistentWorker persistent;
 
@@ -154,18 +236,11 @@ public class IndicatorPersistentWorker extends PersistenceWorker<Indicator, Merg
 
         }
 
-        @Override public void consume(List<Indicator> data) {
-            Iterator<Indicator> inputIterator = data.iterator();
+        @Override public void consume(Indicator indicator) {
+            persistent.onWork(indicator);
+        }
 
-            int i = 0;
-            while (inputIterator.hasNext()) {
-                Indicator indicator = inputIterator.next();
-                i++;
-                if (i == data.size()) {
-                    indicator.getEndOfBatchContext().setEndOfBatch(true);
-                }
-                persistent.onWork(indicator);
-            }
+        @Override public void onBatchEnd() {
         }
 
         @Override public void onError(List<Indicator> data, Throwable t) {
@@ -61,6 +61,8 @@ public abstract class PersistenceWorker<INPUT extends StorageData, CACHE extends
 
     public abstract CACHE getCache();
 
+    public abstract String getModelName();
+
     public boolean flushAndSwitch() {
         boolean isSwitch;
         try {
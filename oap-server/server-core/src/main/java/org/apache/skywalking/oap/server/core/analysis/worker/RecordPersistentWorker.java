@@ -21,9 +21,10 @@ package org.apache.skywalking.oap.server.core.analysis.worker;
 import java.util.*;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.*;
-import org.apache.skywalking.oap.server.core.UnexpectedException;
+import org.apache.skywalking.oap.server.core.*;
 import org.apache.skywalking.oap.server.core.analysis.data.NonMergeDataCache;
 import org.apache.skywalking.oap.server.core.analysis.record.Record;
+import org.apache.skywalking.oap.server.core.config.DataCarrierConfigService;
 import org.apache.skywalking.oap.server.core.storage.IRecordDAO;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.slf4j.*;
@@ -48,14 +49,15 @@ public class RecordPersistentWorker extends PersistenceWorker<Record, NonMergeDa
         this.recordDAO = recordDAO;
 
         String name = "RECORD_PERSISTENT";
-        BulkConsumePool.Creator creator = new BulkConsumePool.Creator(name, 1, 20);
+        DataCarrierConfigService carrierConfig = moduleManager.find(CoreModule.NAME).provider().getService(DataCarrierConfigService.class);
+        BulkConsumePool.Creator creator = new BulkConsumePool.Creator(name, 1, 20, carrierConfig.getWaitStrategy());
         try {
             ConsumerPoolFactory.INSTANCE.createIfAbsent(name, creator);
         } catch (Exception e) {
             throw new UnexpectedException(e.getMessage(), e);
         }
 
-        this.dataCarrier = new DataCarrier<>(1, 10000);
+        this.dataCarrier = new DataCarrier<>(1, 10000, carrierConfig.getBufferType());
         this.dataCarrier.consume(ConsumerPoolFactory.INSTANCE.get(name), new RecordPersistentWorker.PersistentConsumer(this));
     }
 
@@ -67,6 +69,10 @@ public class RecordPersistentWorker extends PersistenceWorker<Record, NonMergeDa
         return nonMergeDataCache;
     }
 
+    @Override public String getModelName() {
+        return modelName;
+    }
+
     @Override public List<Object> prepareBatch(NonMergeDataCache<Record> cache) {
         List<Object> batchCollection = new LinkedList<>();
         cache.getLast().collection().forEach(record -> {
@@ -77,6 +77,10 @@ public class TopNWorker extends PersistenceWorker<TopN, LimitedSizeDataCache<Top
         return limitedSizeDataCache;
     }
 
+    @Override public String getModelName() {
+        return modelName;
+    }
+
     /**
      * The top N worker persistent cycle is much less than the others, override `flushAndSwitch` to extend the execute
      * time windows.
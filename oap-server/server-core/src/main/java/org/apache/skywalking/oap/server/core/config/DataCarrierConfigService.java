@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.skywalking.oap.server.core.config;
+
+import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferType;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.WaitStrategy;
+import org.apache.skywalking.oap.server.library.module.Service;
+
+/**
+ * The engines of the data carriers and the consumer pools of the workers, chosen in the core module config.
+ */
+public class DataCarrierConfigService implements Service {
+
+    private final WaitStrategy waitStrategy;
+    private final BufferType bufferType;
+    private final long rebalanceCycle;
+
+    /**
+     * @param waitStrategy the name of a {@link WaitStrategy}, case insensitive.
+     * @param bufferType the name of a {@link BufferType}, case insensitive.
+     * @param rebalanceCycle the millis between two rebalances of the aggregation pools, no rebalance if it is not
+     * positive.
+     */
+    public DataCarrierConfigService(String waitStrategy, String bufferType, long rebalanceCycle) {
+        this.waitStrategy = WaitStrategy.valueOf(waitStrategy.toUpperCase());
+        this.bufferType = BufferType.valueOf(bufferType.toUpperCase());
+        this.rebalanceCycle = rebalanceCycle;
+    }
+
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    public BufferType getBufferType() {
+        return bufferType;
+    }
+
+    public long getRebalanceCycle() {
+        return rebalanceCycle;
+    }
+}
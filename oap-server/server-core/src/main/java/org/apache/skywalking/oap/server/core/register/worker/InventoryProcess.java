@@ -66,7 +66,7 @@ public enum InventoryProcess {
         RegisterRemoteWorker remoteWorker = new RegisterRemoteWorker(WorkerIdGenerator.INSTANCES.generate(), moduleManager, persistentWorker);
         WorkerInstances.INSTANCES.put(remoteWorker.getWorkerId(), remoteWorker);
 
-        RegisterDistinctWorker distinctWorker = new RegisterDistinctWorker(WorkerIdGenerator.INSTANCES.generate(), remoteWorker);
+        RegisterDistinctWorker distinctWorker = new RegisterDistinctWorker(WorkerIdGenerator.INSTANCES.generate(), moduleManager, remoteWorker);
         WorkerInstances.INSTANCES.put(distinctWorker.getWorkerId(), distinctWorker);
 
         entryWorkers.put(inventoryClass, distinctWorker);
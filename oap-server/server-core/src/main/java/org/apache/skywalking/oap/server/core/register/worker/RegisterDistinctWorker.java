@@ -21,10 +21,11 @@ package org.apache.skywalking.oap.server.core.register.worker;
 import java.util.*;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.*;
-import org.apache.skywalking.oap.server.core.UnexpectedException;
-import org.apache.skywalking.oap.server.core.analysis.data.EndOfBatchContext;
+import org.apache.skywalking.oap.server.core.*;
+import org.apache.skywalking.oap.server.core.config.DataCarrierConfigService;
 import org.apache.skywalking.oap.server.core.register.RegisterSource;
 import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.slf4j.*;
 
 /**
@@ -39,17 +40,18 @@ public class RegisterDistinctWorker extends AbstractWorker<RegisterSource> {
     private final Map<RegisterSource, RegisterSource> sources;
     private int messageNum;
 
-    RegisterDistinctWorker(int workerId, AbstractWorker<RegisterSource> nextWorker) {
+    RegisterDistinctWorker(int workerId, ModuleManager moduleManager, AbstractWorker<RegisterSource> nextWorker) {
         super(workerId);
         this.nextWorker = nextWorker;
         this.sources = new HashMap<>();
-        this.dataCarrier = new DataCarrier<>(1, 1000);
+        DataCarrierConfigService carrierConfig = moduleManager.find(CoreModule.NAME).provider().getService(DataCarrierConfigService.class);
+        this.dataCarrier = new DataCarrier<>(1, 1000, carrierConfig.getBufferType());
         String name = "REGISTER_L1";
         int size = BulkConsumePool.Creator.recommendMaxSize() / 8;
         if (size == 0) {
             size = 1;
         }
-        BulkConsumePool.Creator creator = new BulkConsumePool.Creator(name, size, 200);
+        BulkConsumePool.Creator creator = new BulkConsumePool.Creator(name, size, 200, carrierConfig.getWaitStrategy());
         try {
             ConsumerPoolFactory.INSTANCE.createIfAbsent(name, creator);
         } catch (Exception e) {
@@ -59,7 +61,6 @@ public class RegisterDistinctWorker extends AbstractWorker<RegisterSource> {
     }
 
     @Override public final void in(RegisterSource source) {
-        source.setEndOfBatchContext(new EndOfBatchContext(false));
         dataCarrier.produce(source);
     }
 
@@ -72,14 +73,18 @@ public class RegisterDistinctWorker extends AbstractWorker<RegisterSource> {
             sources.get(source).combine(source);
         }
 
-        if (messageNum >= 1000 || source.getEndOfBatchContext().isEndOfBatch()) {
-            sources.values().forEach(nextWorker::in);
-            sources.clear();
-            messageNum = 0;
+        if (messageNum >= 1000) {
+            sendToNext();
         }
     }
 
-    private class AggregatorConsumer implements IConsumer<RegisterSource> {
+    private void sendToNext() {
+        sources.values().forEach(nextWorker::in);
+        sources.clear();
+        messageNum = 0;
+    }
+
+    private class AggregatorConsumer extends BatchConsumer<RegisterSource> {
 
         private final RegisterDistinctWorker aggregator;
 
@@ -90,18 +95,12 @@ public class RegisterDistinctWorker extends AbstractWorker<RegisterSource> {
         @Override public void init() {
         }
 
-        @Override public void consume(List<RegisterSource> sources) {
-            Iterator<RegisterSource> sourceIterator = sources.iterator();
-
-            int i = 0;
-            while (sourceIterator.hasNext()) {
-                RegisterSource source = sourceIterator.next();
-                i++;
-                if (i == sources.size()) {
-                    source.getEndOfBatchContext().setEndOfBatch(true);
-                }
-                aggregator.onWork(source);
-            }
+        @Override public void consume(RegisterSource source) {
+            aggregator.onWork(source);
+        }
+
+        @Override public void onBatchEnd() {
+            aggregator.sendToNext();
         }
 
         @Override public void onError(List<RegisterSource> sources, Throwable t) {
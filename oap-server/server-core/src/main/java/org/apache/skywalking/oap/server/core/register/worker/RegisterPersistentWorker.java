@@ -18,16 +18,19 @@
 
 package org.apache.skywalking.oap.server.core.register.worker;
 
+import java.io.IOException;
 import java.util.*;
-import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
+import org.apache.skywalking.apm.commons.datacarrier.*;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.*;
 import org.apache.skywalking.oap.server.core.*;
-import org.apache.skywalking.oap.server.core.analysis.data.EndOfBatchContext;
+import org.apache.skywalking.oap.server.core.config.DataCarrierConfigService;
 import org.apache.skywalking.oap.server.core.register.RegisterSource;
 import org.apache.skywalking.oap.server.core.source.Scope;
 import org.apache.skywalking.oap.server.core.storage.*;
 import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.*;
 import org.slf4j.*;
 
 /**
@@ -40,9 +43,11 @@ public class RegisterPersistentWorker extends AbstractWorker<RegisterSource> {
     private final Scope scope;
     private final String modelName;
     private final Map<RegisterSource, RegisterSource> sources;
-    private final IRegisterLockDAO registerLockDAO;
+    private final RegisterSequenceLease sequenceLease;
     private final IRegisterDAO registerDAO;
     private final DataCarrier<RegisterSource> dataCarrier;
+    private final GaugeMetric leaseRemaining;
+    private final CounterMetric leaseFailure;
 
     RegisterPersistentWorker(int workerId, String modelName, ModuleManager moduleManager,
         IRegisterDAO registerDAO, Scope scope) {
@@ -50,16 +55,18 @@ public class RegisterPersistentWorker extends AbstractWorker<RegisterSource> {
         this.modelName = modelName;
         this.sources = new HashMap<>();
         this.registerDAO = registerDAO;
-        this.registerLockDAO = moduleManager.find(StorageModule.NAME).provider().getService(IRegisterLockDAO.class);
+        IRegisterLockDAO registerLockDAO = moduleManager.find(StorageModule.NAME).provider().getService(IRegisterLockDAO.class);
+        this.sequenceLease = new RegisterSequenceLease(scope, registerLockDAO, EnvUtil.getInt("REGISTER_SEQUENCE_LEASE_SIZE", 100));
         this.scope = scope;
-        this.dataCarrier = new DataCarrier<>("IndicatorPersistentWorker." + modelName, 1, 1000);
+        DataCarrierConfigService carrierConfig = moduleManager.find(CoreModule.NAME).provider().getService(DataCarrierConfigService.class);
+        this.dataCarrier = new DataCarrier<>("IndicatorPersistentWorker." + modelName, "IndicatorPersistentWorker." + modelName, 1, 1000, carrierConfig.getBufferType());
 
         String name = "REGISTER_L2";
         int size = BulkConsumePool.Creator.recommendMaxSize() / 8;
         if (size == 0) {
             size = 1;
         }
-        BulkConsumePool.Creator creator = new BulkConsumePool.Creator(name, size, 200);
+        BulkConsumePool.Creator creator = new BulkConsumePool.Creator(name, size, 200, carrierConfig.getWaitStrategy());
         try {
             ConsumerPoolFactory.INSTANCE.createIfAbsent(name, creator);
         } catch (Exception e) {
@@ -67,57 +74,109 @@ public class RegisterPersistentWorker extends AbstractWorker<RegisterSource> {
         }
 
         this.dataCarrier.consume(ConsumerPoolFactory.INSTANCE.get(name), new RegisterPersistentWorker.PersistentConsumer(this));
+
+        MetricCreator metricCreator = moduleManager.find(TelemetryModule.NAME).provider().getService(MetricCreator.class);
+        leaseRemaining = metricCreator.createGauge("register_sequence_lease_remaining", "The number of leased sequences not used yet",
+            new MetricTag.Keys("scope"), new MetricTag.Values(scope.name()));
+        leaseFailure = metricCreator.createCounter("register_sequence_lease_failure", "The number of register batches delayed because the sequence lease fails",
+            new MetricTag.Keys("scope"), new MetricTag.Values(scope.name()));
     }
 
     @Override public final void in(RegisterSource registerSource) {
-        registerSource.setEndOfBatchContext(new EndOfBatchContext(false));
         dataCarrier.produce(registerSource);
     }
 
-    private void onWork(RegisterSource registerSource) {
+    void onWork(RegisterSource registerSource) {
         if (!sources.containsKey(registerSource)) {
             sources.put(registerSource, registerSource);
         } else {
             sources.get(registerSource).combine(registerSource);
         }
 
-        if (sources.size() > 1000 || registerSource.getEndOfBatchContext().isEndOfBatch()) {
-            sources.values().forEach(source -> {
+        if (sources.size() > 1000) {
+            flush();
+        }
+    }
+
+    void flush() {
+        if (sources.isEmpty()) {
+            return;
+        }
+        List<RegisterSource> unregistered = Collections.emptyList();
+        try {
+            unregistered = register(new ArrayList<>(sources.values()));
+        } catch (Throwable t) {
+            logger.error(t.getMessage(), t);
+        }
+        sources.clear();
+        unregistered.forEach(source -> sources.put(source, source));
+    }
+
+    /**
+     * Register the sources in batch. The existing ones are read by one multi get, then the new ones get their
+     * sequences from the lease, are read again, and the ones still missing are inserted by one bulk request.
+     *
+     * @return the new sources which are not registered because the lease fails, they are kept for the next flush.
+     */
+    private List<RegisterSource> register(List<RegisterSource> sources) throws IOException {
+        List<RegisterSource> newSources = combineExisted(sources);
+        if (newSources.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        if (!sequenceLease.reserve(newSources.size())) {
+            logger.warn("{} inventory register try lock and increment sequence failure, {} sources are kept for the next flush.",
+                scope.name(), newSources.size());
+            leaseFailure.inc();
+            return newSources;
+        }
+
+        // Another OAP node may have registered some of them since the first read, don't insert them again with
+        // another sequence.
+        newSources = combineExisted(newSources);
+        if (newSources.isEmpty()) {
+            return Collections.emptyList();
+        }
+        for (RegisterSource source : newSources) {
+            source.setSequence(sequenceLease.next());
+        }
+        leaseRemaining.setValue(sequenceLease.remaining());
+
+        registerDAO.forceBatchInsert(modelName, newSources);
+        return Collections.emptyList();
+    }
+
+    /**
+     * Combine the sources into the existing ones in the storage, and update the changed ones.
+     *
+     * @return the sources which don't exist in the storage.
+     */
+    private List<RegisterSource> combineExisted(List<RegisterSource> sources) throws IOException {
+        List<String> ids = new ArrayList<>(sources.size());
+        sources.forEach(source -> ids.add(source.id()));
+
+        Map<String, RegisterSource> dbSources = new HashMap<>();
+        registerDAO.multiGet(modelName, ids).forEach(dbSource -> dbSources.put(dbSource.id(), dbSource));
+
+        List<RegisterSource> newSources = new ArrayList<>();
+        for (RegisterSource source : sources) {
+            RegisterSource dbSource = dbSources.get(source.id());
+            if (Objects.nonNull(dbSource)) {
                 try {
-                    RegisterSource dbSource = registerDAO.get(modelName, source.id());
-                    if (Objects.nonNull(dbSource)) {
-                        if (dbSource.combine(source)) {
-                            registerDAO.forceUpdate(modelName, dbSource);
-                        }
-                    } else {
-                        int sequence;
-                        if ((sequence = registerLockDAO.getId(scope, registerSource)) != Const.NONE) {
-                            try {
-                                dbSource = registerDAO.get(modelName, source.id());
-                                if (Objects.nonNull(dbSource)) {
-                                    if (dbSource.combine(source)) {
-                                        registerDAO.forceUpdate(modelName, dbSource);
-                                    }
-                                } else {
-                                    source.setSequence(sequence);
-                                    registerDAO.forceInsert(modelName, source);
-                                }
-                            } catch (Throwable t) {
-                                logger.error(t.getMessage(), t);
-                            }
-                        } else {
-                            logger.info("{} inventory register try lock and increment sequence failure.", scope.name());
-                        }
+                    if (dbSource.combine(source)) {
+                        registerDAO.forceUpdate(modelName, dbSource);
                     }
                 } catch (Throwable t) {
                     logger.error(t.getMessage(), t);
                 }
-            });
-            sources.clear();
+            } else {
+                newSources.add(source);
+            }
         }
+        return newSources;
     }
 
-    private class PersistentConsumer implements IConsumer<RegisterSource> {
+    private class PersistentConsumer extends BatchConsumer<RegisterSource> {
 
         private final RegisterPersistentWorker persistent;
 
@@ -129,18 +188,12 @@ public class RegisterPersistentWorker extends AbstractWorker<RegisterSource> {
 
         }
 
-        @Override public void consume(List<RegisterSource> data) {
-            Iterator<RegisterSource> sourceIterator = data.iterator();
+        @Override public void consume(RegisterSource source) {
+            persistent.onWork(source);
+        }
 
-            int i = 0;
-            while (sourceIterator.hasNext()) {
-                RegisterSource indicator = sourceIterator.next();
-                i++;
-                if (i == data.size()) {
-                    indicator.getEndOfBatchContext().setEndOfBatch(true);
-                }
-                persistent.onWork(indicator);
-            }
+        @Override public void onBatchEnd() {
+            persistent.flush();
         }
 
         @Override public void onError(List<RegisterSource> data, Throwable t) {
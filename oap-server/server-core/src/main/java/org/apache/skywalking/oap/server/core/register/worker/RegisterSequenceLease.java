@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.register.worker;
+
+import org.apache.skywalking.oap.server.core.Const;
+import org.apache.skywalking.oap.server.core.source.Scope;
+import org.apache.skywalking.oap.server.core.storage.IRegisterLockDAO;
+
+/**
+ * Sequences of one scope leased from the register lock. Each lease reserves a range of sequences by one lock
+ * operation, then the sequences are handed out from memory, so the OAP nodes of a cluster don't compete for the
+ * register lock for every new inventory.
+ *
+ * A new range is leased only when a batch needs more sequences than those left, and the sequences left are handed
+ * out before the new range. They are lost only when the OAP node stops, so no more than leaseSize - 1 sequences are
+ * wasted by each node for each scope.
+ */
+class RegisterSequenceLease {
+
+    private static final int MAX_LEASE_RETRY = 3;
+
+    private final Scope scope;
+    private final IRegisterLockDAO registerLockDAO;
+    private final int leaseSize;
+    private int next;
+    private int end;
+    private int leasedNext;
+    private int leasedEnd;
+
+    RegisterSequenceLease(Scope scope, IRegisterLockDAO registerLockDAO, int leaseSize) {
+        this.scope = scope;
+        this.registerLockDAO = registerLockDAO;
+        this.leaseSize = Math.max(leaseSize, 1);
+        this.next = Const.NONE;
+        this.end = Const.NONE;
+        this.leasedNext = Const.NONE;
+        this.leasedEnd = Const.NONE;
+    }
+
+    /**
+     * Make sure there are at least the given number of sequences in the lease, lease a new range when there are not
+     * enough. The new range is at least leaseSize, and is handed out after the sequences left in the current range.
+     *
+     * @return false if the lock operation fails.
+     */
+    boolean reserve(int count) {
+        if (remaining() >= count) {
+            return true;
+        }
+
+        int size = Math.max(count - remaining(), leaseSize);
+        for (int i = 0; i < MAX_LEASE_RETRY; i++) {
+            int first = registerLockDAO.getIds(scope, size);
+            if (first != Const.NONE) {
+                if (next < end) {
+                    leasedNext = first;
+                    leasedEnd = first + size;
+                } else {
+                    next = first;
+                    end = first + size;
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the next sequence in the lease, or {@link Const#NONE} if the lease is used up.
+     */
+    int next() {
+        if (next >= end && leasedNext < leasedEnd) {
+            next = leasedNext;
+            end = leasedEnd;
+            leasedNext = Const.NONE;
+            leasedEnd = Const.NONE;
+        }
+        if (next < end) {
+            return next++;
+        }
+        return Const.NONE;
+    }
+
+    /**
+     * @return the number of sequences leased but not used yet.
+     */
+    int remaining() {
+        return end - next + leasedEnd - leasedNext;
+    }
+}
@@ -63,35 +63,11 @@ public class RemoteServiceHandler extends RemoteServiceGrpc.RemoteServiceImplBas
     }
 
     @Override public StreamObserver<RemoteMessage> call(StreamObserver<Empty> responseObserver) {
-        if (Objects.isNull(streamDataClassGetter)) {
-            synchronized (RemoteServiceHandler.class) {
-                if (Objects.isNull(streamDataClassGetter)) {
-                    streamDataClassGetter = moduleDefineHolder.find(CoreModule.NAME).provider().getService(StreamDataClassGetter.class);
-                }
-            }
-        }
+        initStreamDataClassGetter();
 
         return new StreamObserver<RemoteMessage>() {
             @Override public void onNext(RemoteMessage message) {
-                remoteInCounter.inc();
-                HistogramMetric.Timer timer = remoteInHistogram.createTimer();
-                try {
-                    int streamDataId = message.getStreamDataId();
-                    int nextWorkerId = message.getNextWorkerId();
-                    RemoteData remoteData = message.getRemoteData();
-
-                    Class<StreamData> streamDataClass = streamDataClassGetter.findClassById(streamDataId);
-                    try {
-                        StreamData streamData = streamDataClass.newInstance();
-                        streamData.deserialize(remoteData);
-                        WorkerInstances.INSTANCES.get(nextWorkerId).in(streamData);
-                    } catch (Throwable t) {
-                        remoteInErrorCounter.inc();
-                        logger.error(t.getMessage(), t);
-                    }
-                } finally {
-                    timer.finish();
-                }
+                process(message);
             }
 
             @Override public void onError(Throwable throwable) {
@@ -104,4 +80,61 @@ public class RemoteServiceHandler extends RemoteServiceGrpc.RemoteServiceImplBas
             }
         };
     }
+
+    /**
+     * The long-lived stream used by {@link org.apache.skywalking.oap.server.core.remote.client.GRPCRemoteClient}, one
+     * Empty is replied after each batch is processed, so the client knows how many batches are still in flight.
+     */
+    @Override public StreamObserver<RemoteMessageBatch> batchCall(StreamObserver<Empty> responseObserver) {
+        initStreamDataClassGetter();
+
+        return new StreamObserver<RemoteMessageBatch>() {
+            @Override public void onNext(RemoteMessageBatch batch) {
+                for (RemoteMessage message : batch.getMessagesList()) {
+                    process(message);
+                }
+                responseObserver.onNext(Empty.getDefaultInstance());
+            }
+
+            @Override public void onError(Throwable throwable) {
+                logger.error(throwable.getMessage(), throwable);
+            }
+
+            @Override public void onCompleted() {
+                responseObserver.onCompleted();
+            }
+        };
+    }
+
+    private void initStreamDataClassGetter() {
+        if (Objects.isNull(streamDataClassGetter)) {
+            synchronized (RemoteServiceHandler.class) {
+                if (Objects.isNull(streamDataClassGetter)) {
+                    streamDataClassGetter = moduleDefineHolder.find(CoreModule.NAME).provider().getService(StreamDataClassGetter.class);
+                }
+            }
+        }
+    }
+
+    private void process(RemoteMessage message) {
+        remoteInCounter.inc();
+        HistogramMetric.Timer timer = remoteInHistogram.createTimer();
+        try {
+            int streamDataId = message.getStreamDataId();
+            int nextWorkerId = message.getNextWorkerId();
+            RemoteData remoteData = message.getRemoteData();
+
+            Class<StreamData> streamDataClass = streamDataClassGetter.findClassById(streamDataId);
+            try {
+                StreamData streamData = streamDataClass.newInstance();
+                streamData.deserialize(remoteData);
+                WorkerInstances.INSTANCES.get(nextWorkerId).in(streamData);
+            } catch (Throwable t) {
+                remoteInErrorCounter.inc();
+                logger.error(t.getMessage(), t);
+            }
+        } finally {
+            timer.finish();
+        }
+    }
 }
@@ -19,7 +19,9 @@
 package org.apache.skywalking.oap.server.core.remote.client;
 
 import io.grpc.ManagedChannel;
-import io.grpc.stub.StreamObserver;
+import io.grpc.Status;
+import io.grpc.stub.*;
+import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
@@ -38,6 +40,14 @@ import org.slf4j.*;
  * This is a wrapper of the gRPC client for sending message to each other OAP server.
  * It contains a block queue to buffering the message and sending the message by batch.
  *
+ * The messages are sent through a few long-lived streams, packed into batches of at most batchSize messages. Each
+ * stream keeps no more than inFlightWindow batches which are not processed by the remote server yet, and respects the
+ * flow control of gRPC, so the consumer is blocked rather than buffering unlimited messages in memory. The batches
+ * lost by a failed stream are counted as errors.
+ *
+ * The remote server of an older version doesn't implement the batch streams, then the messages are sent through a
+ * call stream per consume, as before.
+ *
  * @author peng-yongsheng
  */
 public class GRPCRemoteClient implements RemoteClient {
@@ -48,20 +58,35 @@ public class GRPCRemoteClient implements RemoteClient {
     private final int bufferSize;
     private final Address address;
     private final StreamDataClassGetter streamDataClassGetter;
-    private final AtomicInteger concurrentStreamObserverNumber = new AtomicInteger(0);
+    private final int streamCount;
+    private final int inFlightWindow;
+    private final int batchSize;
+    private final AtomicInteger streamIndex = new AtomicInteger(0);
+    private RemoteStream[] streams;
     private GRPCClient client;
     private DataCarrier<RemoteMessage> carrier;
     private boolean isConnect;
+    /**
+     * True once the remote server answers the batch stream with UNIMPLEMENTED.
+     */
+    private volatile boolean batchUnimplemented = false;
     private CounterMetric remoteOutCounter;
     private CounterMetric remoteOutErrorCounter;
 
-
     public GRPCRemoteClient(ModuleDefineHolder moduleDefineHolder, StreamDataClassGetter streamDataClassGetter, Address address, int channelSize,
         int bufferSize) {
+        this(moduleDefineHolder, streamDataClassGetter, address, channelSize, bufferSize, 2, 16, 500);
+    }
+
+    public GRPCRemoteClient(ModuleDefineHolder moduleDefineHolder, StreamDataClassGetter streamDataClassGetter, Address address, int channelSize,
+        int bufferSize, int streamCount, int inFlightWindow, int batchSize) {
         this.streamDataClassGetter = streamDataClassGetter;
         this.address = address;
         this.channelSize = channelSize;
         this.bufferSize = bufferSize;
+        this.streamCount = Math.max(streamCount, 1);
+        this.inFlightWindow = Math.max(inFlightWindow, 1);
+        this.batchSize = Math.max(batchSize, 1);
 
         remoteOutCounter = moduleDefineHolder.find(TelemetryModule.NAME).provider().getService(MetricCreator.class)
             .createCounter("remote_out_count", "The number(client side) of inside remote inside aggregate rpc.",
@@ -74,7 +99,11 @@ public class GRPCRemoteClient implements RemoteClient {
     @Override public void connect() {
         if (!isConnect) {
             this.getClient().connect();
-            this.getDataCarrier().consume(new RemoteMessageConsumer(), 1);
+            this.streams = new RemoteStream[streamCount];
+            for (int i = 0; i < streamCount; i++) {
+                streams[i] = new RemoteStream();
+            }
+            this.getDataCarrier().consume(new RemoteMessageConsumer(), streamCount);
             this.isConnect = true;
         }
     }
@@ -136,16 +165,19 @@ public class GRPCRemoteClient implements RemoteClient {
         }
 
         @Override public void consume(List<RemoteMessage> remoteMessages) {
-            try {
-                StreamObserver<RemoteMessage> streamObserver = createStreamObserver();
-                for (RemoteMessage remoteMessage : remoteMessages) {
-                    remoteOutCounter.inc();
-                    streamObserver.onNext(remoteMessage);
+            RemoteStream stream = streams[Math.abs(streamIndex.getAndIncrement() % streams.length)];
+
+            for (int from = 0; from < remoteMessages.size(); from += batchSize) {
+                List<RemoteMessage> messages = remoteMessages.subList(from, Math.min(from + batchSize, remoteMessages.size()));
+                try {
+                    if (batchUnimplemented || !stream.send(RemoteMessageBatch.newBuilder().addAllMessages(messages).build())) {
+                        call(messages);
+                    }
+                    remoteOutCounter.inc(messages.size());
+                } catch (Throwable t) {
+                    remoteOutErrorCounter.inc(messages.size());
+                    logger.error(t.getMessage(), t);
                 }
-                streamObserver.onCompleted();
-            } catch (Throwable t) {
-                remoteOutErrorCounter.inc();
-                logger.error(t.getMessage(), t);
             }
         }
 
@@ -158,50 +190,171 @@ public class GRPCRemoteClient implements RemoteClient {
     }
 
     /**
-     * Create a gRPC stream observer to sending stream data, one stream observer
-     * could send multiple stream data by a single consume.
-     * The max number of concurrency allowed at the same time is 10.
-     *
-     * @return stream observer
+     * Send the messages through a call stream of their own, for the remote server which doesn't implement the batch
+     * streams.
      */
-    private StreamObserver<RemoteMessage> createStreamObserver() {
-        int sleepTotalMillis = 0;
-        int sleepMillis = 10;
-        while (concurrentStreamObserverNumber.incrementAndGet() > 10) {
-            concurrentStreamObserverNumber.addAndGet(-1);
-
-            try {
-                Thread.sleep(sleepMillis);
-            } catch (InterruptedException e) {
-                logger.error(e.getMessage(), e);
+    private void call(List<RemoteMessage> remoteMessages) {
+        final int size = remoteMessages.size();
+        StreamObserver<RemoteMessage> streamObserver = getStub().call(new StreamObserver<Empty>() {
+            @Override public void onNext(Empty empty) {
             }
 
-            sleepTotalMillis += sleepMillis;
+            @Override public void onError(Throwable throwable) {
+                remoteOutErrorCounter.inc(size);
+                logger.error(throwable.getMessage(), throwable);
+            }
 
-            if (sleepTotalMillis > 60000) {
-                logger.warn("Remote client block times over 60 seconds.");
+            @Override public void onCompleted() {
             }
+        });
+        for (RemoteMessage remoteMessage : remoteMessages) {
+            streamObserver.onNext(remoteMessage);
         }
+        streamObserver.onCompleted();
+    }
 
-        return getStub().call(new StreamObserver<Empty>() {
-            @Override public void onNext(Empty empty) {
+    /**
+     * A long-lived stream to the remote OAP server, reopened on the next send after it fails. The remote server replies
+     * one Empty for each processed batch, in order, so the batches not replied yet are kept, and counted as errors if
+     * the stream closes before they are replied.
+     */
+    private class RemoteStream {
+        private ClientCallStreamObserver<RemoteMessageBatch> requestObserver;
+        private final Deque<RemoteMessageBatch> unacknowledged = new ArrayDeque<>();
+        private boolean completed = false;
+
+        /**
+         * Send the batch when gRPC is ready to take it and the in-flight window is not full, wait otherwise. The stream
+         * is reopened once if it has been closed, the batch fails if the new stream is closed too.
+         *
+         * @return false, if the remote server doesn't implement the batch streams.
+         */
+        synchronized boolean send(RemoteMessageBatch batch) throws IOException, InterruptedException {
+            long waitStartTime = System.currentTimeMillis();
+            boolean opened = false;
+            boolean warned = false;
+            while (true) {
+                if (batchUnimplemented) {
+                    return false;
+                }
+                if (completed) {
+                    throw new IOException("The remote stream to " + address + " is completed.");
+                }
+                if (Objects.isNull(requestObserver)) {
+                    if (opened) {
+                        throw new IOException("The remote stream to " + address + " is closed.");
+                    }
+                    open();
+                    opened = true;
+                    continue;
+                }
+                if (requestObserver.isReady() && unacknowledged.size() < inFlightWindow) {
+                    break;
+                }
+
+                wait(100);
+
+                if (!warned && System.currentTimeMillis() - waitStartTime > 60000) {
+                    logger.warn("Remote client block times over 60 seconds.");
+                    warned = true;
+                }
             }
 
-            @Override public void onError(Throwable throwable) {
-                concurrentStreamObserverNumber.addAndGet(-1);
-                logger.error(throwable.getMessage(), throwable);
+            unacknowledged.add(batch);
+            requestObserver.onNext(batch);
+            return true;
+        }
+
+        /**
+         * Complete the stream, the batches in flight are still counted when the remote server replies or fails them.
+         */
+        synchronized void complete() {
+            completed = true;
+            if (Objects.nonNull(requestObserver)) {
+                requestObserver.onCompleted();
             }
+        }
 
-            @Override public void onCompleted() {
-                concurrentStreamObserverNumber.addAndGet(-1);
+        private void open() {
+            getStub().batchCall(new ClientResponseObserver<RemoteMessageBatch, Empty>() {
+                private ClientCallStreamObserver<RemoteMessageBatch> requestStream;
+
+                @Override public void beforeStart(ClientCallStreamObserver<RemoteMessageBatch> requestStream) {
+                    this.requestStream = requestStream;
+                    requestObserver = requestStream;
+                    requestStream.setOnReadyHandler(RemoteStream.this::signal);
+                }
+
+                @Override public void onNext(Empty empty) {
+                    acknowledge(requestStream);
+                }
+
+                @Override public void onError(Throwable throwable) {
+                    if (Status.fromThrowable(throwable).getCode() == Status.Code.UNIMPLEMENTED) {
+                        logger.info("The remote server {} doesn't implement the batch streams, send the messages through the call streams.", address);
+                        batchUnimplemented = true;
+                    } else {
+                        logger.error(throwable.getMessage(), throwable);
+                    }
+                    close(requestStream);
+                }
+
+                @Override public void onCompleted() {
+                    close(requestStream);
+                }
+            });
+        }
+
+        private synchronized void signal() {
+            notifyAll();
+        }
+
+        private synchronized void acknowledge(ClientCallStreamObserver<RemoteMessageBatch> requestStream) {
+            if (requestObserver == requestStream) {
+                unacknowledged.poll();
+                notifyAll();
             }
-        });
+        }
+
+        /**
+         * Drop the closed stream, the batches not replied by it are resent through the call streams if the remote
+         * server doesn't implement the batch streams, or counted as errors otherwise.
+         */
+        private void close(ClientCallStreamObserver<RemoteMessageBatch> requestStream) {
+            List<RemoteMessageBatch> unreplied;
+            synchronized (this) {
+                if (requestObserver != requestStream) {
+                    return;
+                }
+                requestObserver = null;
+                unreplied = new ArrayList<>(unacknowledged);
+                unacknowledged.clear();
+                notifyAll();
+            }
+
+            for (RemoteMessageBatch batch : unreplied) {
+                if (batchUnimplemented) {
+                    try {
+                        call(batch.getMessagesList());
+                        continue;
+                    } catch (Throwable t) {
+                        logger.error(t.getMessage(), t);
+                    }
+                }
+                remoteOutErrorCounter.inc(batch.getMessagesCount());
+            }
+        }
     }
 
     @Override public void close() {
         if (Objects.nonNull(this.carrier)) {
             this.carrier.shutdownConsumers();
         }
+        if (Objects.nonNull(this.streams)) {
+            for (RemoteStream stream : streams) {
+                stream.complete();
+            }
+        }
         if (Objects.nonNull(this.client)) {
             this.client.shutdown();
         }
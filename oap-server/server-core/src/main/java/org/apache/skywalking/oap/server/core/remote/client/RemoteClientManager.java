@@ -45,9 +45,20 @@ public class RemoteClientManager implements Service {
     private final List<RemoteClient> clientsB;
     private volatile List<RemoteClient> usingClients;
     private GaugeMetric gauge;
+    private final int remoteStreamCount;
+    private final int remoteInFlightWindow;
+    private final int remoteBatchSize;
 
     public RemoteClientManager(ModuleDefineHolder moduleDefineHolder) {
+        this(moduleDefineHolder, 2, 16, 500);
+    }
+
+    public RemoteClientManager(ModuleDefineHolder moduleDefineHolder, int remoteStreamCount, int remoteInFlightWindow,
+        int remoteBatchSize) {
         this.moduleDefineHolder = moduleDefineHolder;
+        this.remoteStreamCount = remoteStreamCount;
+        this.remoteInFlightWindow = remoteInFlightWindow;
+        this.remoteBatchSize = remoteBatchSize;
         this.clientsA = new LinkedList<>();
         this.clientsB = new LinkedList<>();
         this.usingClients = clientsA;
@@ -199,7 +210,8 @@ public class RemoteClientManager implements Service {
                         RemoteClient client = new SelfRemoteClient(moduleDefineHolder, address);
                         getFreeClients().add(client);
                     } else {
-                        RemoteClient client = new GRPCRemoteClient(moduleDefineHolder, streamDataClassGetter, address, 1, 3000);
+                        RemoteClient client = new GRPCRemoteClient(moduleDefineHolder, streamDataClassGetter, address, 1, 3000,
+                            remoteStreamCount, remoteInFlightWindow, remoteBatchSize);
                         client.connect();
                         getFreeClients().add(client);
                     }
@@ -26,4 +26,10 @@ import java.util.List;
 public interface IBatchDAO extends DAO {
 
     void batchPersistence(List<?> batchCollection);
+
+    /**
+     * Set the listener of the failed writes, the storage which can't report them ignores it.
+     */
+    default void setFailureListener(BatchFailureListener listener) {
+    }
 }
@@ -19,6 +19,7 @@
 package org.apache.skywalking.oap.server.core.storage;
 
 import java.io.IOException;
+import java.util.List;
 import org.apache.skywalking.oap.server.core.register.RegisterSource;
 
 /**
@@ -28,7 +29,19 @@ public interface IRegisterDAO extends DAO {
     
     RegisterSource get(String modelName, String id) throws IOException;
 
+    /**
+     * Read the given ids from the storage in one request.
+     *
+     * @return the sources which exist in the storage, in no particular order. Missing ones are not included.
+     */
+    List<RegisterSource> multiGet(String modelName, List<String> ids) throws IOException;
+
     void forceInsert(String modelName, RegisterSource source) throws IOException;
 
+    /**
+     * Insert all the sources in one request, they are visible for the following read when this method returns.
+     */
+    void forceBatchInsert(String modelName, List<RegisterSource> sources) throws IOException;
+
     void forceUpdate(String modelName, RegisterSource source) throws IOException;
 }
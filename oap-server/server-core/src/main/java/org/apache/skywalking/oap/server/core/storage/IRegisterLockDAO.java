@@ -36,4 +36,15 @@ public interface IRegisterLockDAO extends DAO {
      * @return Unique ID.
      */
     int getId(Scope scope, RegisterSource registerSource);
+
+    /**
+     * Reserve a block of continuous IDs by one lock operation, with the same uniqueness guarantee as {@link
+     * #getId(Scope, RegisterSource)}.
+     *
+     * @param scope for the ids.
+     * @param count the number of ids to reserve.
+     * @return the first ID of the block, the block is [first, first + count), or {@link
+     * org.apache.skywalking.oap.server.core.Const#NONE} if the lock fails.
+     */
+    int getIds(Scope scope, int count);
 }
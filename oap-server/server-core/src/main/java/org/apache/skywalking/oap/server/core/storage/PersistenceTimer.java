@@ -18,9 +18,11 @@
 
 package org.apache.skywalking.oap.server.core.storage;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.util.*;
 import java.util.concurrent.*;
 import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
+import org.apache.skywalking.oap.server.core.CoreModuleConfig;
 import org.apache.skywalking.oap.server.core.analysis.worker.*;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
@@ -28,6 +30,9 @@ import org.apache.skywalking.oap.server.telemetry.api.*;
 import org.slf4j.*;
 
 /**
+ * Flush the persistence workers periodically. The workers are prepared in parallel on a bounded pool, and every batch
+ * is handed to the {@link IBatchDAO} as soon as its worker is prepared, without waiting for the others.
+ *
  * @author peng-yongsheng
  */
 public enum PersistenceTimer {
@@ -40,19 +45,20 @@ public enum PersistenceTimer {
     private CounterMetric errorCounter;
     private HistogramMetric prepareLatency;
     private HistogramMetric executeLatency;
+    private MetricCreator metricCreator;
+    private ExecutorService prepareExecutorService;
+    private final Map<String, HistogramMetric> modelPrepareLatency = new ConcurrentHashMap<>();
+    private final Map<String, HistogramMetric> modelExecuteLatency = new ConcurrentHashMap<>();
 
     PersistenceTimer() {
         this.debug = System.getProperty("debug") != null;
     }
 
-    public void start(ModuleManager moduleManager) {
+    public void start(ModuleManager moduleManager, CoreModuleConfig moduleConfig) {
         logger.info("persistence timer start");
-        //TODO timer value config
-//        final long timeInterval = EsConfig.Es.Persistence.Timer.VALUE * 1000;
-        final long timeInterval = 3;
         IBatchDAO batchDAO = moduleManager.find(StorageModule.NAME).provider().getService(IBatchDAO.class);
 
-        MetricCreator metricCreator = moduleManager.find(TelemetryModule.NAME).provider().getService(MetricCreator.class);
+        metricCreator = moduleManager.find(TelemetryModule.NAME).provider().getService(MetricCreator.class);
         errorCounter = metricCreator.createCounter("persistence_timer_bulk_error_count", "Error execution of the prepare stage in persistence timer",
             MetricTag.EMPTY_KEY, MetricTag.EMPTY_VALUE);
         prepareLatency = metricCreator.createHistogramMetric("persistence_timer_bulk_prepare_latency", "Latency of the prepare stage in persistence timer",
@@ -61,61 +67,62 @@ public enum PersistenceTimer {
             MetricTag.EMPTY_KEY, MetricTag.EMPTY_VALUE);
 
         if (!isStarted) {
-            Executors.newSingleThreadScheduledExecutor().scheduleAtFixedRate(
+            batchDAO.setFailureListener(modelNames -> {
+                logger.warn("The writes of {} failed, invalidate their hot indicator caches.", modelNames);
+                IndicatorProcess.INSTANCE.getPersistentWorkers().stream()
+                    .filter(worker -> modelNames.contains(worker.getModelName()))
+                    .forEach(IndicatorPersistentWorker::invalidateHotCache);
+            });
+
+            int parallelism = Math.max(moduleConfig.getPersistentParallelism(), 1);
+            prepareExecutorService = Executors.newFixedThreadPool(parallelism, new ThreadFactoryBuilder()
+                .setDaemon(true).setNameFormat("PersistenceTimer-prepare-%d").build());
+
+            Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setDaemon(true).setNameFormat("PersistenceTimer-%d").build()).scheduleAtFixedRate(
                 new RunnableWithExceptionProtection(() -> extractDataAndSave(batchDAO),
-                    t -> logger.error("Extract data and save failure.", t)), 1, timeInterval, TimeUnit.SECONDS);
+                    t -> logger.error("Extract data and save failure.", t)), 1, moduleConfig.getPersistentPeriod(), TimeUnit.SECONDS);
 
             this.isStarted = true;
         }
     }
 
-    @SuppressWarnings("unchecked")
     private void extractDataAndSave(IBatchDAO batchDAO) {
+        List<PersistenceWorker> persistenceWorkers = new ArrayList<>();
+        persistenceWorkers.addAll(IndicatorProcess.INSTANCE.getPersistentWorkers());
+        persistenceWorkers.addAll(RecordProcess.INSTANCE.getPersistentWorkers());
+        persistenceWorkers.addAll(TopNProcess.INSTANCE.getPersistentWorkers());
+
+        extractDataAndSave(batchDAO, persistenceWorkers);
+    }
+
+    /**
+     * Prepare and save the workers on the prepare pool, and wait for all of them. The failure of one worker is counted
+     * and logged, it doesn't stop the others.
+     */
+    @SuppressWarnings("unchecked")
+    void extractDataAndSave(IBatchDAO batchDAO, List<PersistenceWorker> persistenceWorkers) {
         if (logger.isDebugEnabled()) {
             logger.debug("Extract data and save");
         }
 
         long startTime = System.currentTimeMillis();
-        try {
-            HistogramMetric.Timer timer = prepareLatency.createTimer();
 
-            List batchAllCollection = new LinkedList();
+        CountDownLatch countDownLatch = new CountDownLatch(persistenceWorkers.size());
+        persistenceWorkers.forEach(worker -> prepareExecutorService.submit(() -> {
             try {
-                List<PersistenceWorker> persistenceWorkers = new ArrayList<>();
-                persistenceWorkers.addAll(IndicatorProcess.INSTANCE.getPersistentWorkers());
-                persistenceWorkers.addAll(RecordProcess.INSTANCE.getPersistentWorkers());
-                persistenceWorkers.addAll(TopNProcess.INSTANCE.getPersistentWorkers());
-
-                persistenceWorkers.forEach(worker -> {
-                    if (logger.isDebugEnabled()) {
-                        logger.debug("extract {} worker data and save", worker.getClass().getName());
-                    }
-
-                    if (worker.flushAndSwitch()) {
-                        List<?> batchCollection = worker.buildBatchCollection();
-
-                        if (logger.isDebugEnabled()) {
-                            logger.debug("extract {} worker data size: {}", worker.getClass().getName(), batchCollection.size());
-                        }
-                        batchAllCollection.addAll(batchCollection);
-                    }
-                });
-
-                if (debug) {
-                    logger.info("build batch persistence duration: {} ms", System.currentTimeMillis() - startTime);
-                }
+                extractDataAndSave(batchDAO, worker);
+            } catch (Throwable e) {
+                errorCounter.inc();
+                logger.error(e.getMessage(), e);
             } finally {
-                timer.finish();
+                countDownLatch.countDown();
             }
+        }));
 
-            HistogramMetric.Timer executeLatencyTimer = executeLatency.createTimer();
-            try {
-                batchDAO.batchPersistence(batchAllCollection);
-            } finally {
-                executeLatencyTimer.finish();
-            }
-        } catch (Throwable e) {
-            errorCounter.inc();
+        try {
+            countDownLatch.await();
+        } catch (InterruptedException e) {
             logger.error(e.getMessage(), e);
         } finally {
             if (logger.isDebugEnabled()) {
@@ -127,4 +134,47 @@ public enum PersistenceTimer {
             logger.info("batch persistence duration: {} ms", System.currentTimeMillis() - startTime);
         }
     }
+
+    private void extractDataAndSave(IBatchDAO batchDAO, PersistenceWorker worker) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("extract {} worker data and save", worker.getModelName());
+        }
+
+        if (!worker.flushAndSwitch()) {
+            return;
+        }
+
+        List<?> batchCollection;
+        HistogramMetric.Timer timer = prepareLatency.createTimer();
+        HistogramMetric.Timer modelTimer = modelPrepareLatency(worker.getModelName()).createTimer();
+        try {
+            batchCollection = worker.buildBatchCollection();
+        } finally {
+            modelTimer.finish();
+            timer.finish();
+        }
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("extract {} worker data size: {}", worker.getModelName(), batchCollection.size());
+        }
+
+        HistogramMetric.Timer executeLatencyTimer = executeLatency.createTimer();
+        HistogramMetric.Timer modelExecuteLatencyTimer = modelExecuteLatency(worker.getModelName()).createTimer();
+        try {
+            batchDAO.batchPersistence(batchCollection);
+        } finally {
+            modelExecuteLatencyTimer.finish();
+            executeLatencyTimer.finish();
+        }
+    }
+
+    private HistogramMetric modelPrepareLatency(String modelName) {
+        return modelPrepareLatency.computeIfAbsent(modelName, name -> metricCreator.createHistogramMetric("persistence_timer_model_prepare_latency",
+            "Latency of the prepare stage in persistence timer per model", new MetricTag.Keys("metricName"), new MetricTag.Values(name)));
+    }
+
+    private HistogramMetric modelExecuteLatency(String modelName) {
+        return modelExecuteLatency.computeIfAbsent(modelName, name -> metricCreator.createHistogramMetric("persistence_timer_model_execute_latency",
+            "Latency of the execute stage in persistence timer per model", new MetricTag.Keys("metricName"), new MetricTag.Values(name)));
+    }
 }
@@ -18,7 +18,10 @@
 
 package org.apache.skywalking.oap.server.core.storage;
 
+import java.io.IOException;
+import java.util.HashMap;
 import java.util.Map;
+import org.apache.skywalking.oap.server.core.storage.type.StorageDataType;
 
 /**
  * @author peng-yongsheng
@@ -28,4 +31,42 @@ public interface StorageBuilder<T extends StorageData> {
     T map2Data(Map<String, Object> dbMap);
 
     Map<String, Object> data2Map(T storageData);
+
+    /**
+     * Same as {@link #data2Map(StorageData)}, but write the values of the given columns straight into the array, in
+     * the same order, starting from the offset. The storage implementations use it to bind the values positionally,
+     * without the intermediate map.
+     */
+    default void data2Values(T storageData, String[] columnNames, Object[] values, int offset) {
+        Map<String, Object> map = data2Map(storageData);
+        for (int i = 0; i < columnNames.length; i++) {
+            values[offset + i] = map.get(columnNames[i]);
+        }
+    }
+
+    /**
+     * Same as {@link #data2Map(StorageData)}, but stream the columns into the writer.
+     */
+    default void data2Writer(T storageData, StorageDataWriter writer) throws IOException {
+        Map<String, Object> map = data2Map(storageData);
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            if (entry.getValue() instanceof StorageDataType) {
+                writer.write(entry.getKey(), (StorageDataType)entry.getValue());
+            } else {
+                writer.write(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Same as {@link #map2Data(Map)}, but read the columns from the reader.
+     */
+    default T reader2Data(StorageDataReader reader) throws IOException {
+        Map<String, Object> dbMap = new HashMap<>();
+        String columnName;
+        while ((columnName = reader.nextColumn()) != null) {
+            dbMap.put(columnName, reader.readObject());
+        }
+        return map2Data(dbMap);
+    }
 }
@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.storage;
+
+import java.io.IOException;
+
+/**
+ * Read the columns of a stored {@link StorageData} one by one, see {@link StorageBuilder#reader2Data(StorageDataReader)}.
+ * After {@link #nextColumn()}, exactly one of the read methods or {@link #skip()} should be called for the value.
+ */
+public interface StorageDataReader {
+
+    /**
+     * @return the name of the next column, or null if all columns have been read.
+     */
+    String nextColumn() throws IOException;
+
+    long readLong() throws IOException;
+
+    int readInt() throws IOException;
+
+    double readDouble() throws IOException;
+
+    float readFloat() throws IOException;
+
+    String readString() throws IOException;
+
+    /**
+     * @return the value as it is stored, the numbers are boxed.
+     */
+    Object readObject() throws IOException;
+
+    void skip() throws IOException;
+}
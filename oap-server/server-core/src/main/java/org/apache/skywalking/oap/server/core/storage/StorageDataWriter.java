@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.storage;
+
+import java.io.IOException;
+import org.apache.skywalking.oap.server.core.storage.type.StorageDataType;
+
+/**
+ * Receive the columns of a {@link StorageData} one by one, see {@link StorageBuilder#data2Writer(StorageData,
+ * StorageDataWriter)}. The storage implementations write them straight into their own format.
+ */
+public interface StorageDataWriter {
+
+    void write(String columnName, long value) throws IOException;
+
+    void write(String columnName, int value) throws IOException;
+
+    void write(String columnName, double value) throws IOException;
+
+    void write(String columnName, String value) throws IOException;
+
+    /**
+     * Write the value in {@link StorageDataType#toStorageData()} format, or null if the value is null.
+     */
+    void write(String columnName, StorageDataType value) throws IOException;
+
+    void write(String columnName, Object value) throws IOException;
+}
@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.worker;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.ConsumerLoadListener;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.*;
+
+/**
+ * Export the load of every consumer thread of a consumer pool, as the consumer_pool_thread_load gauge.
+ */
+public class ConsumerPoolLoadTelemetry implements ConsumerLoadListener {
+
+    private final String poolName;
+    private final MetricCreator metricCreator;
+    private final Map<Integer, GaugeMetric> loadGauges;
+
+    public ConsumerPoolLoadTelemetry(ModuleManager moduleManager, String poolName) {
+        this.poolName = poolName;
+        this.metricCreator = moduleManager.find(TelemetryModule.NAME).provider().getService(MetricCreator.class);
+        this.loadGauges = new ConcurrentHashMap<>();
+    }
+
+    @Override public void onLoad(int threadIndex, long load) {
+        loadGauges.computeIfAbsent(threadIndex, index -> metricCreator.createGauge("consumer_pool_thread_load",
+            "The number of data consumed by the thread of consumer pool in the last rebalance cycle",
+            new MetricTag.Keys("pool", "thread"), new MetricTag.Values(poolName, String.valueOf(index))))
+            .setValue(load);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.data;
+
+import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.junit.*;
+
+public class HotIndicatorCacheTest {
+
+    @Test
+    public void testEvictOldTimeBucket() {
+        HotIndicatorCache<MockIndicator> cache = new HotIndicatorCache<>(10);
+        cache.put(new MockIndicator(201901010101L, "a"));
+        cache.put(new MockIndicator(201901010102L, "a"));
+        Assert.assertNotNull(cache.get(new MockIndicator(201901010101L, "a")));
+        Assert.assertNotNull(cache.get(new MockIndicator(201901010102L, "a")));
+
+        cache.put(new MockIndicator(201901010103L, "a"));
+        Assert.assertNull(cache.get(new MockIndicator(201901010101L, "a")));
+        Assert.assertNotNull(cache.get(new MockIndicator(201901010103L, "a")));
+        Assert.assertEquals(2, cache.size());
+
+        cache.put(new MockIndicator(201901010101L, "b"));
+        Assert.assertNull(cache.get(new MockIndicator(201901010101L, "b")));
+        Assert.assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testMaxSize() {
+        HotIndicatorCache<MockIndicator> cache = new HotIndicatorCache<>(2);
+        cache.put(new MockIndicator(201901010101L, "a"));
+        cache.put(new MockIndicator(201901010101L, "b"));
+        cache.put(new MockIndicator(201901010101L, "c"));
+        Assert.assertNull(cache.get(new MockIndicator(201901010101L, "c")));
+
+        MockIndicator replacement = new MockIndicator(201901010101L, "a");
+        cache.put(replacement);
+        Assert.assertSame(replacement, cache.get(new MockIndicator(201901010101L, "a")));
+        Assert.assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testClear() {
+        HotIndicatorCache<MockIndicator> cache = new HotIndicatorCache<>(2);
+        cache.put(new MockIndicator(201901010101L, "a"));
+        cache.put(new MockIndicator(201901010102L, "b"));
+        cache.clear();
+        Assert.assertNull(cache.get(new MockIndicator(201901010101L, "a")));
+        Assert.assertEquals(0, cache.size());
+
+        cache.put(new MockIndicator(201901010101L, "c"));
+        cache.put(new MockIndicator(201901010101L, "d"));
+        Assert.assertNotNull(cache.get(new MockIndicator(201901010101L, "d")));
+    }
+
+    private class MockIndicator extends Indicator {
+        private final String entityId;
+
+        private MockIndicator(long timeBucket, String entityId) {
+            this.entityId = entityId;
+            setTimeBucket(timeBucket);
+        }
+
+        @Override public String id() {
+            return getTimeBucket() + "_" + entityId;
+        }
+
+        @Override public void combine(Indicator indicator) {
+        }
+
+        @Override public void calculate() {
+        }
+
+        @Override public Indicator toHour() {
+            return null;
+        }
+
+        @Override public Indicator toDay() {
+            return null;
+        }
+
+        @Override public Indicator toMonth() {
+            return null;
+        }
+
+        @Override public void deserialize(RemoteData remoteData) {
+        }
+
+        @Override public RemoteData.Builder serialize() {
+            return null;
+        }
+
+        @Override public int remoteHashCode() {
+            return 0;
+        }
+    }
+}
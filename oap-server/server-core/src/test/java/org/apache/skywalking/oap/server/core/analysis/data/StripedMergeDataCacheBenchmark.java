@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.data;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.*;
+import org.openjdk.jmh.runner.options.*;
+
+/**
+ * Compare the L1 aggregation of {@link MergeDataCache}, which accepts one writer only, with {@link
+ * StripedMergeDataCache}. Every invocation aggregates {@link #BATCH} indicators of {@link #ENTITIES} entities, then
+ * reads them out as the L1 aggregation worker does.
+ *
+ * Run the main method to execute.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StripedMergeDataCacheBenchmark {
+
+    private static final int ENTITIES = 500;
+    private static final int BATCH = 5000;
+
+    @State(Scope.Thread)
+    public static class Input {
+        private MockIndicator[] indicators;
+
+        @Setup
+        public void setup() {
+            indicators = new MockIndicator[BATCH];
+            for (int i = 0; i < BATCH; i++) {
+                indicators[i] = new MockIndicator(i % ENTITIES);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class MergeDataCacheState {
+        private MergeDataCache<MockIndicator> cache = new MergeDataCache<>();
+    }
+
+    @State(Scope.Benchmark)
+    public static class StripedMergeDataCacheState {
+        private StripedMergeDataCache<MockIndicator> cache = new StripedMergeDataCache<>(16);
+    }
+
+    @Benchmark
+    public void mergeDataCache(Input input, MergeDataCacheState state, Blackhole blackhole) {
+        MergeDataCache<MockIndicator> cache = state.cache;
+        for (MockIndicator indicator : input.indicators) {
+            cache.writing();
+            if (cache.containsKey(indicator)) {
+                cache.get(indicator).combine(indicator);
+            } else {
+                cache.put(indicator);
+            }
+            cache.finishWriting();
+        }
+
+        cache.switchPointer();
+        cache.getLast().collection().forEach(blackhole::consume);
+        cache.finishReadingLast();
+    }
+
+    @Benchmark
+    public void stripedMergeDataCache(Input input, StripedMergeDataCacheState state, Blackhole blackhole) {
+        mergeAndSnapshot(input, state, blackhole);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void stripedMergeDataCacheWith4Threads(Input input, StripedMergeDataCacheState state,
+        Blackhole blackhole) {
+        mergeAndSnapshot(input, state, blackhole);
+    }
+
+    private void mergeAndSnapshot(Input input, StripedMergeDataCacheState state, Blackhole blackhole) {
+        StripedMergeDataCache<MockIndicator> cache = state.cache;
+        for (MockIndicator indicator : input.indicators) {
+            cache.merge(indicator);
+        }
+        cache.snapshot().forEach(blackhole::consume);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(StripedMergeDataCacheBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+
+    private static class MockIndicator extends Indicator {
+        private final int entityId;
+        private long value = 1;
+
+        private MockIndicator(int entityId) {
+            this.entityId = entityId;
+        }
+
+        @Override public String id() {
+            return String.valueOf(entityId);
+        }
+
+        @Override public void combine(Indicator indicator) {
+            value += ((MockIndicator)indicator).value;
+        }
+
+        @Override public void calculate() {
+        }
+
+        @Override public Indicator toHour() {
+            return null;
+        }
+
+        @Override public Indicator toDay() {
+            return null;
+        }
+
+        @Override public Indicator toMonth() {
+            return null;
+        }
+
+        @Override public void deserialize(RemoteData remoteData) {
+        }
+
+        @Override public RemoteData.Builder serialize() {
+            return null;
+        }
+
+        @Override public int remoteHashCode() {
+            return entityId;
+        }
+
+        @Override public int hashCode() {
+            return entityId;
+        }
+
+        @Override public boolean equals(Object obj) {
+            return obj instanceof MockIndicator && ((MockIndicator)obj).entityId == entityId;
+        }
+    }
+}
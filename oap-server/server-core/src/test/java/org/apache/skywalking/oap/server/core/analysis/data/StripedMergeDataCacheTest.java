@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.data;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.junit.*;
+
+public class StripedMergeDataCacheTest {
+
+    @Test
+    public void testMerge() {
+        StripedMergeDataCache<MockIndicator> cache = new StripedMergeDataCache<>(3);
+        cache.merge(new MockIndicator("a", 1));
+        cache.merge(new MockIndicator("b", 2));
+        cache.merge(new MockIndicator("a", 3));
+        Assert.assertEquals(2, cache.size());
+
+        Map<String, Long> values = toMap(cache.snapshot());
+        Assert.assertEquals(4L, (long)values.get("a"));
+        Assert.assertEquals(2L, (long)values.get("b"));
+
+        Assert.assertEquals(0, cache.size());
+        Assert.assertTrue(cache.snapshot().isEmpty());
+    }
+
+    @Test
+    public void testConcurrentMergeAndSnapshot() throws InterruptedException {
+        final StripedMergeDataCache<MockIndicator> cache = new StripedMergeDataCache<>(8);
+        final int threads = 4;
+        final int times = 10000;
+
+        CountDownLatch latch = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                for (int i = 0; i < times; i++) {
+                    cache.merge(new MockIndicator("id" + (i % 100), 1));
+                }
+                latch.countDown();
+            }).start();
+        }
+
+        long total = 0;
+        while (latch.getCount() > 0) {
+            total += sum(cache.snapshot());
+        }
+        latch.await();
+        total += sum(cache.snapshot());
+
+        Assert.assertEquals(threads * times, total);
+    }
+
+    private static long sum(List<MockIndicator> indicators) {
+        long sum = 0;
+        for (MockIndicator indicator : indicators) {
+            sum += indicator.value;
+        }
+        return sum;
+    }
+
+    private static Map<String, Long> toMap(List<MockIndicator> indicators) {
+        Map<String, Long> map = new HashMap<>();
+        indicators.forEach(indicator -> map.put(indicator.entityId, indicator.value));
+        return map;
+    }
+
+    private static class MockIndicator extends Indicator {
+        private final String entityId;
+        private long value;
+
+        private MockIndicator(String entityId, long value) {
+            this.entityId = entityId;
+            this.value = value;
+        }
+
+        @Override public String id() {
+            return entityId;
+        }
+
+        @Override public void combine(Indicator indicator) {
+            value += ((MockIndicator)indicator).value;
+        }
+
+        @Override public void calculate() {
+        }
+
+        @Override public Indicator toHour() {
+            return null;
+        }
+
+        @Override public Indicator toDay() {
+            return null;
+        }
+
+        @Override public Indicator toMonth() {
+            return null;
+        }
+
+        @Override public void deserialize(RemoteData remoteData) {
+        }
+
+        @Override public RemoteData.Builder serialize() {
+            return null;
+        }
+
+        @Override public int remoteHashCode() {
+            return entityId.hashCode();
+        }
+
+        @Override public int hashCode() {
+            return entityId.hashCode();
+        }
+
+        @Override public boolean equals(Object obj) {
+            return obj instanceof MockIndicator && ((MockIndicator)obj).entityId.equals(entityId);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.indicator;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IntKeyLongValueHistogramTest {
+
+    @Test
+    public void testIncrement() {
+        IntKeyLongValueHistogram histogram = new IntKeyLongValueHistogram(1);
+        histogram.increment(5, 1);
+        histogram.increment(1, 2);
+        histogram.increment(9, 3);
+        histogram.increment(5, 4);
+        histogram.increment(3, 5);
+
+        Assert.assertEquals(4, histogram.size());
+        assertKeys(histogram, 1, 3, 5, 9);
+        Assert.assertEquals(5, histogram.get(5));
+        Assert.assertEquals(0, histogram.get(4));
+        Assert.assertEquals(15, histogram.total());
+    }
+
+    @Test
+    public void testCombine() {
+        IntKeyLongValueHistogram histogram = new IntKeyLongValueHistogram();
+        histogram.increment(2, 1);
+        histogram.increment(4, 1);
+
+        IntKeyLongValueHistogram existingKeys = new IntKeyLongValueHistogram();
+        existingKeys.increment(4, 2);
+        histogram.combine(existingKeys);
+        assertKeys(histogram, 2, 4);
+        Assert.assertEquals(3, histogram.get(4));
+
+        IntKeyLongValueHistogram newKeys = new IntKeyLongValueHistogram();
+        newKeys.increment(1, 1);
+        newKeys.increment(4, 1);
+        newKeys.increment(7, 1);
+        histogram.combine(newKeys);
+        assertKeys(histogram, 1, 2, 4, 7);
+        Assert.assertEquals(4, histogram.get(4));
+        Assert.assertEquals(7, histogram.total());
+    }
+
+    @Test
+    public void testStorageData() {
+        IntKeyLongValueHistogram histogram = new IntKeyLongValueHistogram();
+        histogram.increment(10, 3);
+        histogram.increment(2, 1);
+        Assert.assertEquals("2,1|10,3", histogram.toStorageData());
+
+        IntKeyLongValueHistogram fromStorage = new IntKeyLongValueHistogram("10,3|2,1");
+        assertKeys(fromStorage, 2, 10);
+        Assert.assertEquals(3, fromStorage.get(10));
+
+        Assert.assertEquals(0, new IntKeyLongValueHistogram("").size());
+
+        IntKeyLongValueHistogram copy = new IntKeyLongValueHistogram();
+        copy.copyFrom(histogram);
+        histogram.increment(2, 1);
+        Assert.assertEquals(1, copy.get(2));
+    }
+
+    @Test
+    public void testSerialize() {
+        IntKeyLongValueHistogram histogram = new IntKeyLongValueHistogram();
+        histogram.increment(3, 1);
+        histogram.increment(1, 2);
+
+        IntKeyLongValueHistogram deserialized = new IntKeyLongValueHistogram();
+        deserialized.deserialize(histogram.serialize());
+        Assert.assertEquals(histogram.toStorageData(), deserialized.toStorageData());
+    }
+
+    private void assertKeys(IntKeyLongValueHistogram histogram, int... keys) {
+        Assert.assertEquals(keys.length, histogram.size());
+        for (int i = 0; i < keys.length; i++) {
+            Assert.assertEquals(keys[i], histogram.keyAt(i));
+        }
+    }
+}
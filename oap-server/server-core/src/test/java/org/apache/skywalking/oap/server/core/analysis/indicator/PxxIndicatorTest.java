@@ -93,6 +93,25 @@ public class PxxIndicatorTest {
         Assert.assertEquals(70, indicatorMocker.getValue());
     }
 
+    @Test
+    public void combineTest() {
+        PxxIndicatorMocker indicatorMocker = new PxxIndicatorMocker(50);
+        indicatorMocker.combine(110, precision);
+        indicatorMocker.combine(50, precision);
+        indicatorMocker.combine(50, precision);
+
+        PxxIndicatorMocker indicatorMocker2 = new PxxIndicatorMocker(50);
+        indicatorMocker2.combine(100, precision);
+        indicatorMocker2.combine(100, precision);
+        indicatorMocker2.combine(100, precision);
+        indicatorMocker2.combine(61, precision);
+
+        indicatorMocker.combine(indicatorMocker2);
+        indicatorMocker.calculate();
+
+        Assert.assertEquals(100, indicatorMocker.getValue());
+    }
+
     public class PxxIndicatorMocker extends PxxIndicator {
 
         public PxxIndicatorMocker(int percentileRank) {
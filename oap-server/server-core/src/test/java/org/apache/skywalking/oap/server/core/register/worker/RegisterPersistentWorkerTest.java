@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.skywalking.oap.server.core.register.worker;
+
+import java.io.IOException;
+import java.util.*;
+import org.apache.skywalking.oap.server.core.*;
+import org.apache.skywalking.oap.server.core.config.DataCarrierConfigService;
+import org.apache.skywalking.oap.server.core.register.*;
+import org.apache.skywalking.oap.server.core.source.Scope;
+import org.apache.skywalking.oap.server.core.storage.*;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.*;
+import org.junit.*;
+import org.mockito.ArgumentCaptor;
+
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+public class RegisterPersistentWorkerTest {
+
+    private IRegisterDAO registerDAO;
+    private IRegisterLockDAO registerLockDAO;
+    private CounterMetric leaseFailure;
+    private RegisterPersistentWorker worker;
+
+    @Before
+    public void setUp() {
+        registerDAO = mock(IRegisterDAO.class);
+        registerLockDAO = mock(IRegisterLockDAO.class);
+        leaseFailure = mock(CounterMetric.class);
+        MetricCreator metricCreator = mock(MetricCreator.class);
+        when(metricCreator.createGauge(anyString(), anyString(), any(), any())).thenReturn(mock(GaugeMetric.class));
+        when(metricCreator.createCounter(anyString(), anyString(), any(), any())).thenReturn(leaseFailure);
+
+        ModuleManager moduleManager = mock(ModuleManager.class, RETURNS_DEEP_STUBS);
+        when(moduleManager.find(StorageModule.NAME).provider().getService(IRegisterLockDAO.class)).thenReturn(registerLockDAO);
+        when(moduleManager.find(TelemetryModule.NAME).provider().getService(MetricCreator.class)).thenReturn(metricCreator);
+        when(moduleManager.find(CoreModule.NAME).provider().getService(DataCarrierConfigService.class)).thenReturn(new DataCarrierConfigService("sleep", "array", 0));
+
+        worker = new RegisterPersistentWorker(0, ServiceInventory.MODEL_NAME, moduleManager, registerDAO, Scope.Service);
+    }
+
+    @Test
+    public void testBatchRegister() throws IOException {
+        ServiceInventory existing = service("service-a", 0);
+        existing.setSequence(2);
+        when(registerDAO.multiGet(eq(ServiceInventory.MODEL_NAME), anyListOf(String.class))).thenReturn(Collections.singletonList(existing));
+        when(registerLockDAO.getIds(Scope.Service, 100)).thenReturn(10);
+
+        worker.onWork(service("service-a", 100));
+        worker.onWork(service("service-b", 100));
+        worker.onWork(service("service-c", 100));
+        worker.flush();
+
+        verify(registerDAO).forceUpdate(ServiceInventory.MODEL_NAME, existing);
+        Assert.assertEquals(100, existing.getHeartbeatTime());
+
+        List<RegisterSource> inserted = captureBatchInsert();
+        Assert.assertEquals(2, inserted.size());
+        Set<Integer> sequences = new HashSet<>();
+        inserted.forEach(source -> sequences.add(source.getSequence()));
+        Assert.assertEquals(new HashSet<>(Arrays.asList(10, 11)), sequences);
+    }
+
+    @Test
+    public void testSkipSourcesRegisteredByAnotherNode() throws IOException {
+        ServiceInventory registered = service("service-b", 0);
+        registered.setSequence(5);
+        when(registerDAO.multiGet(eq(ServiceInventory.MODEL_NAME), anyListOf(String.class)))
+            .thenReturn(Collections.emptyList())
+            .thenReturn(Collections.singletonList(registered));
+        when(registerLockDAO.getIds(Scope.Service, 100)).thenReturn(10);
+
+        worker.onWork(service("service-a", 100));
+        worker.onWork(service("service-b", 100));
+        worker.flush();
+
+        verify(registerDAO).forceUpdate(ServiceInventory.MODEL_NAME, registered);
+        Assert.assertEquals(5, registered.getSequence());
+
+        List<RegisterSource> inserted = captureBatchInsert();
+        Assert.assertEquals(1, inserted.size());
+        Assert.assertEquals(ServiceInventory.buildId("service-a"), inserted.get(0).id());
+        Assert.assertEquals(10, inserted.get(0).getSequence());
+    }
+
+    @Test
+    public void testKeepSourcesWhenLeaseFails() throws IOException {
+        when(registerDAO.multiGet(eq(ServiceInventory.MODEL_NAME), anyListOf(String.class))).thenReturn(Collections.emptyList());
+        when(registerLockDAO.getIds(Scope.Service, 100)).thenReturn(Const.NONE);
+
+        worker.onWork(service("service-a", 100));
+        worker.flush();
+
+        verify(leaseFailure).inc();
+        verify(registerDAO, never()).forceBatchInsert(anyString(), anyListOf(RegisterSource.class));
+
+        when(registerLockDAO.getIds(Scope.Service, 100)).thenReturn(10);
+        worker.flush();
+
+        List<RegisterSource> inserted = captureBatchInsert();
+        Assert.assertEquals(1, inserted.size());
+        Assert.assertEquals(ServiceInventory.buildId("service-a"), inserted.get(0).id());
+        Assert.assertEquals(10, inserted.get(0).getSequence());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<RegisterSource> captureBatchInsert() throws IOException {
+        ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+        verify(registerDAO).forceBatchInsert(eq(ServiceInventory.MODEL_NAME), captor.capture());
+        return captor.getValue();
+    }
+
+    private static ServiceInventory service(String name, long heartbeatTime) {
+        ServiceInventory serviceInventory = new ServiceInventory();
+        serviceInventory.setName(name);
+        serviceInventory.setAddressId(Const.NONE);
+        serviceInventory.setHeartbeatTime(heartbeatTime);
+        return serviceInventory;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.register.worker;
+
+import org.apache.skywalking.oap.server.core.Const;
+import org.apache.skywalking.oap.server.core.register.RegisterSource;
+import org.apache.skywalking.oap.server.core.source.Scope;
+import org.apache.skywalking.oap.server.core.storage.IRegisterLockDAO;
+import org.junit.*;
+
+public class RegisterSequenceLeaseTest {
+
+    @Test
+    public void testLease() {
+        MockRegisterLockDAO lockDAO = new MockRegisterLockDAO();
+        RegisterSequenceLease lease = new RegisterSequenceLease(Scope.Endpoint, lockDAO, 10);
+
+        Assert.assertTrue(lease.reserve(3));
+        Assert.assertEquals(1, lockDAO.locks);
+        Assert.assertEquals(2, lease.next());
+        Assert.assertEquals(3, lease.next());
+        Assert.assertEquals(8, lease.remaining());
+
+        Assert.assertTrue(lease.reserve(8));
+        Assert.assertEquals(1, lockDAO.locks);
+
+        Assert.assertTrue(lease.reserve(20));
+        Assert.assertEquals(2, lockDAO.locks);
+        Assert.assertEquals(20, lease.remaining());
+        for (int sequence = 4; sequence < 12; sequence++) {
+            Assert.assertEquals(sequence, lease.next());
+        }
+        Assert.assertEquals(12, lease.next());
+        Assert.assertEquals(11, lease.remaining());
+    }
+
+    @Test
+    public void testLockFailure() {
+        MockRegisterLockDAO lockDAO = new MockRegisterLockDAO();
+        lockDAO.fail = true;
+        RegisterSequenceLease lease = new RegisterSequenceLease(Scope.Endpoint, lockDAO, 10);
+
+        Assert.assertFalse(lease.reserve(1));
+        Assert.assertEquals(Const.NONE, lease.next());
+        Assert.assertEquals(0, lease.remaining());
+    }
+
+    private class MockRegisterLockDAO implements IRegisterLockDAO {
+        private int sequence = 1;
+        private int locks = 0;
+        private boolean fail = false;
+
+        @Override public int getId(Scope scope, RegisterSource registerSource) {
+            return getIds(scope, 1);
+        }
+
+        @Override public int getIds(Scope scope, int count) {
+            if (fail) {
+                return Const.NONE;
+            }
+            locks++;
+            int first = sequence + 1;
+            sequence += count;
+            return first;
+        }
+    }
+}
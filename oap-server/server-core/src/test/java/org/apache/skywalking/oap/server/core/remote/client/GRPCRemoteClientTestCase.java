@@ -18,13 +18,15 @@
 
 package org.apache.skywalking.oap.server.core.remote.client;
 
+import io.grpc.stub.StreamObserver;
 import io.grpc.testing.GrpcServerRule;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.remote.RemoteServiceHandler;
 import org.apache.skywalking.oap.server.core.remote.annotation.StreamDataClassGetter;
 import org.apache.skywalking.oap.server.core.remote.data.StreamData;
-import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.*;
 import org.apache.skywalking.oap.server.core.worker.*;
 import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
 import org.apache.skywalking.oap.server.telemetry.api.*;
@@ -41,6 +43,7 @@ public class GRPCRemoteClientTestCase {
     private final int nextWorkerId = 1;
     private ModuleManagerTesting moduleManager;
     private StreamDataClassGetter classGetter;
+    private TestWorker worker;
     @Rule public final GrpcServerRule grpcServerRule = new GrpcServerRule().directExecutor();
 
     @Before
@@ -52,30 +55,50 @@ public class GRPCRemoteClientTestCase {
         classGetter = mock(StreamDataClassGetter.class);
         moduleDefine.provider().registerServiceImplementation(StreamDataClassGetter.class, classGetter);
 
-        TestWorker worker = new TestWorker(nextWorkerId);
+        worker = new TestWorker(nextWorkerId);
         WorkerInstances.INSTANCES.put(nextWorkerId, worker);
     }
 
     @Test
     public void testPush() throws InterruptedException {
-        MetricCreator metricCreator = mock(MetricCreator.class);
-        when(metricCreator.createCounter(any(), any(), any(), any())).thenReturn(new CounterMetric() {
-            @Override public void inc() {
+        mockMetricCreator();
 
-            }
+        grpcServerRule.getServiceRegistry().addService(new RemoteServiceHandler(moduleManager));
 
-            @Override public void inc(double value) {
+        Address address = new Address("not-important", 11, false);
+        GRPCRemoteClient remoteClient = spy(new GRPCRemoteClient(moduleManager, classGetter, address, 1, 10, 2, 1, 5));
+        remoteClient.connect();
+
+        doReturn(grpcServerRule.getChannel()).when(remoteClient).getChannel();
+
+        when(classGetter.findIdByClass(TestStreamData.class)).thenReturn(1);
+
+        Class<?> dataClass = TestStreamData.class;
+        when(classGetter.findClassById(1)).thenReturn((Class<StreamData>)dataClass);
+
+        for (int i = 0; i < 12; i++) {
+            remoteClient.push(nextWorkerId, new TestStreamData());
+        }
+
+        TimeUnit.SECONDS.sleep(1);
+        Assert.assertEquals(12, worker.received.get());
+
+        remoteClient.close();
+    }
+
+    @Test
+    public void testPushToServerWithoutBatchCall() throws InterruptedException {
+        mockMetricCreator();
 
+        RemoteServiceHandler handler = new RemoteServiceHandler(moduleManager);
+        grpcServerRule.getServiceRegistry().addService(new RemoteServiceGrpc.RemoteServiceImplBase() {
+            @Override public StreamObserver<RemoteMessage> call(StreamObserver<Empty> responseObserver) {
+                return handler.call(responseObserver);
             }
         });
-        ModuleDefineTesting telemetryModuleDefine = new ModuleDefineTesting();
-        moduleManager.put(TelemetryModule.NAME, telemetryModuleDefine);
-        telemetryModuleDefine.provider().registerServiceImplementation(MetricCreator.class, metricCreator);
-
-        grpcServerRule.getServiceRegistry().addService(new RemoteServiceHandler(moduleManager));
 
         Address address = new Address("not-important", 11, false);
-        GRPCRemoteClient remoteClient = spy(new GRPCRemoteClient(moduleManager, classGetter, address, 1, 10));
+        GRPCRemoteClient remoteClient = spy(new GRPCRemoteClient(moduleManager, classGetter, address, 1, 10, 2, 1, 5));
         remoteClient.connect();
 
         doReturn(grpcServerRule.getChannel()).when(remoteClient).getChannel();
@@ -90,6 +113,32 @@ public class GRPCRemoteClientTestCase {
         }
 
         TimeUnit.SECONDS.sleep(1);
+        Assert.assertEquals(12, worker.received.get());
+
+        remoteClient.close();
+    }
+
+    private void mockMetricCreator() {
+        MetricCreator metricCreator = mock(MetricCreator.class);
+        when(metricCreator.createCounter(any(), any(), any(), any())).thenReturn(new CounterMetric() {
+            @Override public void inc() {
+
+            }
+
+            @Override public void inc(double value) {
+
+            }
+        });
+        when(metricCreator.createHistogramMetric(any(), any(), any(), any())).thenReturn(
+            new HistogramMetric() {
+                @Override public void observe(double value) {
+
+                }
+            }
+        );
+        ModuleDefineTesting telemetryModuleDefine = new ModuleDefineTesting();
+        moduleManager.put(TelemetryModule.NAME, telemetryModuleDefine);
+        telemetryModuleDefine.provider().registerServiceImplementation(MetricCreator.class, metricCreator);
     }
 
     public static class TestStreamData extends StreamData {
@@ -113,6 +162,8 @@ public class GRPCRemoteClientTestCase {
 
     class TestWorker extends AbstractWorker {
 
+        private final AtomicInteger received = new AtomicInteger(0);
+
         public TestWorker(int workerId) {
             super(workerId);
         }
@@ -120,6 +171,7 @@ public class GRPCRemoteClientTestCase {
         @Override public void in(Object o) {
             TestStreamData streamData = (TestStreamData)o;
             Assert.assertEquals(987, streamData.value);
+            received.incrementAndGet();
         }
     }
 }
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.storage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.oap.server.core.CoreModuleConfig;
+import org.apache.skywalking.oap.server.core.analysis.data.SWCollection;
+import org.apache.skywalking.oap.server.core.analysis.data.Window;
+import org.apache.skywalking.oap.server.core.analysis.worker.PersistenceWorker;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetric;
+import org.apache.skywalking.oap.server.telemetry.api.MetricCreator;
+import org.apache.skywalking.oap.server.telemetry.none.MetricCreatorNoop;
+import org.junit.*;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class PersistenceTimerTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testPrepareInParallelAndIsolateFailures() throws Exception {
+        CounterMetric errorCounter = mock(CounterMetric.class);
+        MetricCreator metricCreator = spy(new MetricCreatorNoop());
+        doReturn(errorCounter).when(metricCreator).createCounter(anyString(), anyString(), any(), any());
+
+        ModuleManager moduleManager = mock(ModuleManager.class, RETURNS_DEEP_STUBS);
+        when(moduleManager.find(TelemetryModule.NAME).provider().getService(MetricCreator.class)).thenReturn(metricCreator);
+        when(moduleManager.find(StorageModule.NAME).provider().getService(IBatchDAO.class)).thenReturn(mock(IBatchDAO.class));
+
+        CoreModuleConfig moduleConfig = mock(CoreModuleConfig.class);
+        when(moduleConfig.getPersistentParallelism()).thenReturn(2);
+        when(moduleConfig.getPersistentPeriod()).thenReturn(3600);
+        PersistenceTimer.INSTANCE.start(moduleManager, moduleConfig);
+
+        // Both workers wait for each other, they are only saved when they are prepared at the same time.
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        PersistenceWorker parallel1 = worker("parallel1", () -> barrier.await(10, TimeUnit.SECONDS));
+        PersistenceWorker parallel2 = worker("parallel2", () -> barrier.await(10, TimeUnit.SECONDS));
+        PersistenceWorker failed = worker("failed", () -> {
+            throw new IllegalStateException("prepare failure");
+        });
+
+        List<Object> saved = Collections.synchronizedList(new ArrayList<>());
+        IBatchDAO batchDAO = mock(IBatchDAO.class);
+        doAnswer(invocation -> saved.addAll((List<?>)invocation.getArguments()[0])).when(batchDAO).batchPersistence(any(List.class));
+
+        PersistenceTimer.INSTANCE.extractDataAndSave(batchDAO, Arrays.asList(parallel1, failed, parallel2));
+
+        Assert.assertEquals(2, saved.size());
+        Assert.assertTrue(saved.containsAll(Arrays.asList("parallel1", "parallel2")));
+        verify(errorCounter, times(1)).inc();
+    }
+
+    @SuppressWarnings("unchecked")
+    private PersistenceWorker worker(String modelName, Preparation preparation) throws Exception {
+        SWCollection collection = mock(SWCollection.class);
+        when(collection.collection()).thenReturn(Collections.emptyList());
+        Window cache = mock(Window.class);
+        when(cache.getLast()).thenReturn(collection);
+
+        PersistenceWorker worker = mock(PersistenceWorker.class);
+        when(worker.getModelName()).thenReturn(modelName);
+        when(worker.flushAndSwitch()).thenReturn(true);
+        when(worker.getCache()).thenReturn(cache);
+        when(worker.prepareBatch(cache)).thenAnswer(invocation -> {
+            preparation.prepare();
+            return Collections.singletonList(modelName);
+        });
+        return worker;
+    }
+
+    private interface Preparation {
+        void prepare() throws Exception;
+    }
+}
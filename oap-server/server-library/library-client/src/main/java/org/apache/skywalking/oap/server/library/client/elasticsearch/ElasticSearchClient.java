@@ -23,13 +23,17 @@ import org.apache.http.HttpEntity;
 import org.apache.http.HttpHost;
 import org.apache.http.entity.ContentType;
 import org.apache.http.nio.entity.NStringEntity;
+import org.apache.http.util.EntityUtils;
 import org.apache.skywalking.oap.server.library.client.Client;
+import org.elasticsearch.action.DocWriteRequest;
 import org.elasticsearch.action.admin.indices.create.CreateIndexRequest;
 import org.elasticsearch.action.admin.indices.create.CreateIndexResponse;
 import org.elasticsearch.action.admin.indices.delete.DeleteIndexRequest;
 import org.elasticsearch.action.admin.indices.delete.DeleteIndexResponse;
 import org.elasticsearch.action.admin.indices.get.GetIndexRequest;
+import org.elasticsearch.action.admin.indices.refresh.RefreshRequest;
 import org.elasticsearch.action.bulk.BackoffPolicy;
+import org.elasticsearch.action.bulk.BulkItemResponse;
 import org.elasticsearch.action.bulk.BulkProcessor;
 import org.elasticsearch.action.bulk.BulkRequest;
 import org.elasticsearch.action.bulk.BulkResponse;
@@ -40,6 +44,7 @@ import org.elasticsearch.action.get.MultiGetResponse;
 import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.support.IndicesOptions;
 import org.elasticsearch.action.support.WriteRequest;
 import org.elasticsearch.action.update.UpdateRequest;
 import org.elasticsearch.client.Response;
@@ -48,17 +53,26 @@ import org.elasticsearch.client.RestHighLevelClient;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.ByteSizeUnit;
 import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.common.xcontent.XContentHelper;
+import org.elasticsearch.common.xcontent.XContentType;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * @author peng-yongsheng
@@ -70,11 +84,20 @@ public class ElasticSearchClient implements Client {
     private static final String TYPE = "type";
     private final String clusterNodes;
     private final String namespace;
+    private final WriteRequest.RefreshPolicy forceRefreshPolicy;
     private RestHighLevelClient client;
 
     public ElasticSearchClient(String clusterNodes, String namespace) {
+        this(clusterNodes, namespace, WriteRequest.RefreshPolicy.IMMEDIATE);
+    }
+
+    /**
+     * @param forceRefreshPolicy the refresh policy of the force insert and update requests.
+     */
+    public ElasticSearchClient(String clusterNodes, String namespace, WriteRequest.RefreshPolicy forceRefreshPolicy) {
         this.clusterNodes = clusterNodes;
         this.namespace = namespace;
+        this.forceRefreshPolicy = forceRefreshPolicy;
     }
 
     @Override public void connect() {
@@ -125,6 +148,14 @@ public class ElasticSearchClient implements Client {
         return response.isAcknowledged();
     }
 
+    /**
+     * Refresh the index, the documents written before could be searched after that.
+     */
+    public void refresh(String indexName) throws IOException {
+        indexName = formatIndexName(indexName);
+        client.indices().refresh(new RefreshRequest(indexName));
+    }
+
     public boolean isExistsIndex(String indexName) throws IOException {
         indexName = formatIndexName(indexName);
         GetIndexRequest request = new GetIndexRequest();
@@ -132,6 +163,66 @@ public class ElasticSearchClient implements Client {
         return client.indices().exists(request);
     }
 
+    /**
+     * Create or replace the index template with the given name. The indices matching the pattern are created with the
+     * settings and the mapping of the template, and are added into the alias which has the same name as the template.
+     */
+    public boolean createTemplate(String templateName, String indexPattern, Settings settings,
+        XContentBuilder mappingBuilder) throws IOException {
+        templateName = formatIndexName(templateName);
+        indexPattern = formatIndexName(indexPattern);
+
+        XContentBuilder builder = XContentFactory.jsonBuilder().startObject();
+        builder.array("index_patterns", indexPattern);
+        builder.startObject("settings");
+        for (String key : settings.keySet()) {
+            builder.field(key, settings.get(key));
+        }
+        builder.endObject();
+        builder.startObject("mappings");
+        builder.field(TYPE, XContentHelper.convertToMap(BytesReference.bytes(mappingBuilder), false, XContentType.JSON).v2());
+        builder.endObject();
+        builder.startObject("aliases").startObject(templateName).endObject().endObject();
+        builder.endObject();
+
+        HttpEntity entity = new NStringEntity(Strings.toString(builder), ContentType.APPLICATION_JSON);
+        Response response = client.getLowLevelClient().performRequest("PUT", "/_template/" + templateName, Collections.emptyMap(), entity);
+        logger.debug("create {} template finished, status code: {}", templateName, response.getStatusLine().getStatusCode());
+        return response.getStatusLine().getStatusCode() == 200;
+    }
+
+    public boolean deleteTemplate(String templateName) throws IOException {
+        templateName = formatIndexName(templateName);
+        Response response = client.getLowLevelClient().performRequest("DELETE", "/_template/" + templateName);
+        logger.debug("delete {} template finished, status code: {}", templateName, response.getStatusLine().getStatusCode());
+        return response.getStatusLine().getStatusCode() == 200;
+    }
+
+    public boolean isExistsTemplate(String templateName) throws IOException {
+        templateName = formatIndexName(templateName);
+        Response response = client.getLowLevelClient().performRequest("HEAD", "/_template/" + templateName);
+        return response.getStatusLine().getStatusCode() == 200;
+    }
+
+    /**
+     * @param indexPattern the index name with wildcards, without the namespace.
+     * @return the names of the indices matching the pattern, without the namespace.
+     */
+    public List<String> retrievalIndexByPattern(String indexPattern) throws IOException {
+        indexPattern = formatIndexName(indexPattern);
+        Response response = client.getLowLevelClient().performRequest("GET", "/_cat/indices/" + indexPattern, Collections.singletonMap("h", "index"));
+
+        int prefixLength = formatIndexName("").length();
+        List<String> indexNames = new ArrayList<>();
+        for (String line : EntityUtils.toString(response.getEntity()).split("\\n")) {
+            String indexName = line.trim();
+            if (!indexName.isEmpty()) {
+                indexNames.add(indexName.substring(prefixLength));
+            }
+        }
+        return indexNames;
+    }
+
     public SearchResponse search(String indexName, SearchSourceBuilder searchSourceBuilder) throws IOException {
         indexName = formatIndexName(indexName);
         SearchRequest searchRequest = new SearchRequest(indexName);
@@ -140,6 +231,21 @@ public class ElasticSearchClient implements Client {
         return client.search(searchRequest);
     }
 
+    /**
+     * Search in all the given indices, the ones which don't exist are ignored.
+     */
+    public SearchResponse search(String[] indexNames, SearchSourceBuilder searchSourceBuilder) throws IOException {
+        String[] newIndexNames = new String[indexNames.length];
+        for (int i = 0; i < indexNames.length; i++) {
+            newIndexNames[i] = formatIndexName(indexNames[i]);
+        }
+        SearchRequest searchRequest = new SearchRequest(newIndexNames);
+        searchRequest.indicesOptions(IndicesOptions.lenientExpandOpen());
+        searchRequest.types(TYPE);
+        searchRequest.source(searchSourceBuilder);
+        return client.search(searchRequest);
+    }
+
     public GetResponse get(String indexName, String id) throws IOException {
         indexName = formatIndexName(indexName);
         GetRequest request = new GetRequest(indexName, TYPE, id);
@@ -153,22 +259,43 @@ public class ElasticSearchClient implements Client {
         return client.multiGet(request);
     }
 
+    /**
+     * Get every id from the index at the same position of the index names.
+     */
+    public MultiGetResponse multiGet(List<String> indexNames, List<String> ids) throws IOException {
+        MultiGetRequest request = new MultiGetRequest();
+        for (int i = 0; i < ids.size(); i++) {
+            request.add(formatIndexName(indexNames.get(i)), TYPE, ids.get(i));
+        }
+        return client.multiGet(request);
+    }
+
     public void forceInsert(String indexName, String id, XContentBuilder source) throws IOException {
         IndexRequest request = prepareInsert(indexName, id, source);
-        request.setRefreshPolicy(WriteRequest.RefreshPolicy.IMMEDIATE);
+        request.setRefreshPolicy(forceRefreshPolicy);
         client.index(request);
     }
 
+    public void forceBatchInsert(List<IndexRequest> requests) throws IOException {
+        BulkRequest request = new BulkRequest();
+        requests.forEach(request::add);
+        request.setRefreshPolicy(forceRefreshPolicy);
+        BulkResponse response = client.bulk(request);
+        if (response.hasFailures()) {
+            throw new IOException(response.buildFailureMessage());
+        }
+    }
+
     public void forceUpdate(String indexName, String id, XContentBuilder source, long version) throws IOException {
         UpdateRequest request = prepareUpdate(indexName, id, source);
         request.version(version);
-        request.setRefreshPolicy(WriteRequest.RefreshPolicy.IMMEDIATE);
+        request.setRefreshPolicy(forceRefreshPolicy);
         client.update(request);
     }
 
     public void forceUpdate(String indexName, String id, XContentBuilder source) throws IOException {
         UpdateRequest request = prepareUpdate(indexName, id, source);
-        request.setRefreshPolicy(WriteRequest.RefreshPolicy.IMMEDIATE);
+        request.setRefreshPolicy(forceRefreshPolicy);
         client.update(request);
     }
 
@@ -182,6 +309,16 @@ public class ElasticSearchClient implements Client {
         return new UpdateRequest(indexName, TYPE, id).doc(source);
     }
 
+    public IndexRequest prepareInsert(String indexName, String id, byte[] source) {
+        indexName = formatIndexName(indexName);
+        return new IndexRequest(indexName, TYPE, id).source(source, XContentType.JSON);
+    }
+
+    public UpdateRequest prepareUpdate(String indexName, String id, byte[] source) {
+        indexName = formatIndexName(indexName);
+        return new UpdateRequest(indexName, TYPE, id).doc(source, XContentType.JSON);
+    }
+
     public int delete(String indexName, String timeBucketColumnName, long endTimeBucket) throws IOException {
         indexName = formatIndexName(indexName);
         Map<String, String> params = Collections.singletonMap("conflicts", "proceed");
@@ -207,8 +344,28 @@ public class ElasticSearchClient implements Client {
         return indexName;
     }
 
+    /**
+     * The reverse of {@link #formatIndexName(String)}.
+     */
+    public String unformatIndexName(String indexName) {
+        if (StringUtils.isNotEmpty(namespace) && indexName.startsWith(namespace + "_")) {
+            return indexName.substring(namespace.length() + 1);
+        }
+        return indexName;
+    }
+
     public BulkProcessor createBulkProcessor(int bulkActions, int bulkSize, int flushInterval,
         int concurrentRequests) {
+        return createBulkProcessor(bulkActions, bulkSize, flushInterval, concurrentRequests, indexNames -> {
+        });
+    }
+
+    /**
+     * @param failureHandler accepts the names of the indices with failed requests of every bulk with failures, the
+     * names are without the namespace.
+     */
+    public BulkProcessor createBulkProcessor(int bulkActions, int bulkSize, int flushInterval,
+        int concurrentRequests, Consumer<Set<String>> failureHandler) {
         BulkProcessor.Listener listener = new BulkProcessor.Listener() {
             @Override
             public void beforeBulk(long executionId, BulkRequest request) {
@@ -218,12 +375,28 @@ public class ElasticSearchClient implements Client {
             @Override
             public void afterBulk(long executionId, BulkRequest request,
                 BulkResponse response) {
-
+                if (response.hasFailures()) {
+                    int failures = 0;
+                    Set<String> indexNames = new HashSet<>();
+                    for (BulkItemResponse itemResponse : response.getItems()) {
+                        if (itemResponse.isFailed()) {
+                            failures++;
+                            indexNames.add(unformatIndexName(itemResponse.getIndex()));
+                        }
+                    }
+                    logger.error("{} of {} data bulk failed, first failure: {}", failures, request.numberOfActions(), firstFailureMessage(response));
+                    failureHandler.accept(indexNames);
+                }
             }
 
             @Override
             public void afterBulk(long executionId, BulkRequest request, Throwable failure) {
                 logger.error("{} data bulk failed, reason: {}", request.numberOfActions(), failure);
+                Set<String> indexNames = new HashSet<>();
+                for (DocWriteRequest writeRequest : request.requests()) {
+                    indexNames.add(unformatIndexName(writeRequest.index()));
+                }
+                failureHandler.accept(indexNames);
             }
         };
 
@@ -235,4 +408,13 @@ public class ElasticSearchClient implements Client {
             .setBackoffPolicy(BackoffPolicy.exponentialBackoff(TimeValue.timeValueMillis(100), 3))
             .build();
     }
+
+    private String firstFailureMessage(BulkResponse response) {
+        for (BulkItemResponse itemResponse : response.getItems()) {
+            if (itemResponse.isFailed()) {
+                return itemResponse.getFailureMessage();
+            }
+        }
+        return null;
+    }
 }
@@ -23,6 +23,10 @@ package org.apache.skywalking.oap.server.library.module;
  */
 public class ModuleStartException extends Exception {
 
+    public ModuleStartException(String message) {
+        super(message);
+    }
+
     public ModuleStartException(String message, Throwable cause) {
         super(message, cause);
     }
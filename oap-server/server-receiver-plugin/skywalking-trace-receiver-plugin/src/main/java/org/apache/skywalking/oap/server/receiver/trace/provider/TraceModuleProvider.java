@@ -19,6 +19,7 @@
 package org.apache.skywalking.oap.server.receiver.trace.provider;
 
 import java.io.IOException;
+import java.util.Arrays;
 import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.server.*;
 import org.apache.skywalking.oap.server.library.module.*;
@@ -41,6 +42,7 @@ public class TraceModuleProvider extends ModuleProvider {
     private final TraceServiceModuleConfig moduleConfig;
     private SegmentParse.Producer segmentProducer;
     private SegmentParseV2.Producer segmentProducerV2;
+    private SegmentIngestionWorker.OverflowPolicy overflowPolicy;
 
     public TraceModuleProvider() {
         this.moduleConfig = new TraceServiceModuleConfig();
@@ -58,7 +60,8 @@ public class TraceModuleProvider extends ModuleProvider {
         return moduleConfig;
     }
 
-    @Override public void prepare() throws ServiceNotProvidedException {
+    @Override public void prepare() throws ServiceNotProvidedException, ModuleStartException {
+        overflowPolicy = parseOverflowPolicy(moduleConfig.getIngestionOverflowPolicy());
         moduleConfig.setDbLatencyThresholds(new DBLatencyThresholds(moduleConfig.getSlowDBAccessThreshold()));
 
         SegmentParserListenerManager listenerManager = new SegmentParserListenerManager();
@@ -84,7 +87,6 @@ public class TraceModuleProvider extends ModuleProvider {
         try {
 
             grpcHandlerRegister.addHandler(new TraceSegmentServiceHandler(segmentProducer));
-            grpcHandlerRegister.addHandler(new TraceSegmentReportServiceHandler(segmentProducerV2, getManager()));
             jettyHandlerRegister.addHandler(new TraceSegmentServletHandler(segmentProducer));
 
             SegmentStandardizationWorker standardizationWorker = new SegmentStandardizationWorker(getManager(), segmentProducer,
@@ -92,15 +94,33 @@ public class TraceModuleProvider extends ModuleProvider {
                 false);
             segmentProducer.setStandardizationWorker(standardizationWorker);
 
-            SegmentStandardizationWorker standardizationWorker2 = new SegmentStandardizationWorker(getManager(), segmentProducer,
+            SegmentStandardizationWorker standardizationWorker2 = new SegmentStandardizationWorker(getManager(), segmentProducerV2,
                 moduleConfig.getBufferPath(), moduleConfig.getBufferOffsetMaxFileSize(), moduleConfig.getBufferDataMaxFileSize(), moduleConfig.isBufferFileCleanWhenRestart(),
                 true);
             segmentProducerV2.setStandardizationWorker(standardizationWorker2);
+
+            SegmentIngestionWorker ingestionWorker = new SegmentIngestionWorker(getManager(), segmentProducerV2,
+                moduleConfig.getIngestionWorkers(), moduleConfig.getIngestionQueueSize(),
+                overflowPolicy);
+            ingestionWorker.setStandardizationWorker(standardizationWorker2);
+            grpcHandlerRegister.addHandler(new TraceSegmentReportServiceHandler(ingestionWorker, getManager()));
         } catch (IOException e) {
             throw new ModuleStartException(e.getMessage(), e);
         }
     }
 
+    static SegmentIngestionWorker.OverflowPolicy parseOverflowPolicy(String policy) throws ModuleStartException {
+        if (policy != null) {
+            for (SegmentIngestionWorker.OverflowPolicy overflowPolicy : SegmentIngestionWorker.OverflowPolicy.values()) {
+                if (overflowPolicy.name().equalsIgnoreCase(policy.trim())) {
+                    return overflowPolicy;
+                }
+            }
+        }
+        throw new ModuleStartException("Unknown ingestionOverflowPolicy: " + policy + ", the valid policies are "
+            + Arrays.toString(SegmentIngestionWorker.OverflowPolicy.values()));
+    }
+
     @Override public void notifyAfterCompleted() {
 
     }
@@ -39,4 +39,18 @@ public class TraceServiceModuleConfig extends ModuleConfig {
      */
     @Setter @Getter private String slowDBAccessThreshold = "default:200";
     @Setter @Getter private DBLatencyThresholds dbLatencyThresholds;
+
+    /**
+     * The number of threads parsing the v6 segments taken from the ingestion queue.
+     */
+    @Setter @Getter private int ingestionWorkers = 4;
+    /**
+     * The max number of v6 segments waiting in the ingestion queue.
+     */
+    @Setter @Getter private int ingestionQueueSize = 10000;
+    /**
+     * What to do when the ingestion queue is full, BLOCK, DROP or SPILL. See {@link
+     * org.apache.skywalking.oap.server.receiver.trace.provider.parser.SegmentIngestionWorker.OverflowPolicy}
+     */
+    @Setter @Getter private String ingestionOverflowPolicy = "BLOCK";
 }
@@ -25,8 +25,7 @@ import org.apache.skywalking.apm.network.language.agent.v2.TraceSegmentReportSer
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.apache.skywalking.oap.server.library.server.grpc.GRPCHandler;
 import org.apache.skywalking.oap.server.receiver.trace.provider.handler.v5.grpc.TraceSegmentServiceHandler;
-import org.apache.skywalking.oap.server.receiver.trace.provider.parser.SegmentParseV2;
-import org.apache.skywalking.oap.server.receiver.trace.provider.parser.SegmentSource;
+import org.apache.skywalking.oap.server.receiver.trace.provider.parser.SegmentIngestionWorker;
 import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
 import org.apache.skywalking.oap.server.telemetry.api.*;
 import org.slf4j.Logger;
@@ -36,11 +35,11 @@ public class TraceSegmentReportServiceHandler extends TraceSegmentReportServiceG
 
     private static final Logger logger = LoggerFactory.getLogger(TraceSegmentServiceHandler.class);
 
-    private final SegmentParseV2.Producer segmentProducer;
+    private final SegmentIngestionWorker ingestionWorker;
     private HistogramMetric histogram;
 
-    public TraceSegmentReportServiceHandler(SegmentParseV2.Producer segmentProducer, ModuleManager moduleManager) {
-        this.segmentProducer = segmentProducer;
+    public TraceSegmentReportServiceHandler(SegmentIngestionWorker ingestionWorker, ModuleManager moduleManager) {
+        this.ingestionWorker = ingestionWorker;
         MetricCreator metricCreator = moduleManager.find(TelemetryModule.NAME).provider().getService(MetricCreator.class);
         histogram = metricCreator.createHistogramMetric("trace_grpc_v6_in_latency", "The process latency of service mesh telemetry",
             MetricTag.EMPTY_KEY, MetricTag.EMPTY_VALUE);
@@ -55,7 +54,7 @@ public class TraceSegmentReportServiceHandler extends TraceSegmentReportServiceG
 
                 HistogramMetric.Timer timer = histogram.createTimer();
                 try {
-                    segmentProducer.send(segment, SegmentSource.Agent);
+                    ingestionWorker.in(segment);
                 } finally {
                     timer.finish();
                 }
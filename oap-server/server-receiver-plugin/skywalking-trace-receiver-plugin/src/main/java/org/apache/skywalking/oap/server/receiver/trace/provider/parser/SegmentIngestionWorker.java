@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.receiver.trace.provider.parser;
+
+import java.util.List;
+import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
+import org.apache.skywalking.apm.network.language.agent.UpstreamSegment;
+import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.receiver.trace.provider.parser.standardization.*;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.*;
+import org.slf4j.*;
+
+/**
+ * The bounded queue between the gRPC handler and the {@link SegmentParseV2.Producer}, so parsing, id exchange and
+ * listener fan-out run on the ingestion worker threads, rather than on the gRPC threads of the agent streams.
+ *
+ * When the queue is full, the segment is handled by the {@link OverflowPolicy}.
+ */
+public class SegmentIngestionWorker extends AbstractWorker<UpstreamSegment> {
+
+    private static final Logger logger = LoggerFactory.getLogger(SegmentIngestionWorker.class);
+
+    private final DataCarrier<UpstreamSegment> dataCarrier;
+    private final SegmentParseV2.Producer segmentProducer;
+    private final OverflowPolicy overflowPolicy;
+    private final GaugeMetric queueDepth;
+    private final CounterMetric dropCounter;
+    private final CounterMetric spillCounter;
+    private SegmentStandardizationWorker standardizationWorker;
+
+    public SegmentIngestionWorker(ModuleManager moduleManager, SegmentParseV2.Producer segmentProducer, int workers,
+        int queueSize, OverflowPolicy overflowPolicy) {
+        super(Integer.MAX_VALUE);
+        this.segmentProducer = segmentProducer;
+        this.overflowPolicy = overflowPolicy;
+
+        int channelSize = Math.max(workers, 1);
+        this.dataCarrier = new DataCarrier<>("SegmentIngestionWorker", channelSize, Math.max(queueSize / channelSize, 1));
+        this.dataCarrier.setBufferStrategy(OverflowPolicy.BLOCK.equals(overflowPolicy) ? BufferStrategy.BLOCKING : BufferStrategy.IF_POSSIBLE);
+        this.dataCarrier.consume(new Consumer(), channelSize);
+
+        MetricCreator metricCreator = moduleManager.find(TelemetryModule.NAME).provider().getService(MetricCreator.class);
+        queueDepth = metricCreator.createGauge("v6_trace_ingestion_queue_depth", "The number of trace segments waiting in the ingestion queue",
+            MetricTag.EMPTY_KEY, MetricTag.EMPTY_VALUE);
+        dropCounter = metricCreator.createCounter("v6_trace_ingestion_drop", "The number of trace segments dropped because the ingestion queue is full",
+            MetricTag.EMPTY_KEY, MetricTag.EMPTY_VALUE);
+        spillCounter = metricCreator.createCounter("v6_trace_ingestion_spill", "The number of trace segments spilled to the buffer file because the ingestion queue is full",
+            MetricTag.EMPTY_KEY, MetricTag.EMPTY_VALUE);
+    }
+
+    /**
+     * @param standardizationWorker writes the spilled segments into the buffer file, required by {@link
+     * OverflowPolicy#SPILL} only.
+     */
+    public void setStandardizationWorker(SegmentStandardizationWorker standardizationWorker) {
+        this.standardizationWorker = standardizationWorker;
+    }
+
+    @Override public void in(UpstreamSegment segment) {
+        queueDepth.inc();
+        if (dataCarrier.produce(segment)) {
+            return;
+        }
+        queueDepth.dec();
+
+        if (OverflowPolicy.SPILL.equals(overflowPolicy) && standardizationWorker != null) {
+            spillCounter.inc();
+            String id = segment.getGlobalTraceIdsCount() > 0 ? UniqueIdUtils.format(segment.getGlobalTraceIds(0)) : "";
+            SegmentStandardization standardization = new SegmentStandardization(id);
+            standardization.setUpstreamSegment(segment);
+            standardizationWorker.in(standardization);
+        } else {
+            dropCounter.inc();
+            if (logger.isDebugEnabled()) {
+                logger.debug("The ingestion queue is full, drop the segment.");
+            }
+        }
+    }
+
+    public enum OverflowPolicy {
+        /**
+         * Block the gRPC thread until there is room in the queue, so the backpressure goes to the agent.
+         */
+        BLOCK,
+        /**
+         * Drop the segment.
+         */
+        DROP,
+        /**
+         * Write the segment into the buffer file, which will be parsed again by the buffer reader.
+         */
+        SPILL
+    }
+
+    private class Consumer implements IConsumer<UpstreamSegment> {
+
+        @Override public void init() {
+        }
+
+        @Override public void consume(List<UpstreamSegment> data) {
+            queueDepth.dec(data.size());
+            for (UpstreamSegment segment : data) {
+                segmentProducer.send(segment, SegmentSource.Agent);
+            }
+        }
+
+        @Override public void onError(List<UpstreamSegment> data, Throwable t) {
+            logger.error(t.getMessage(), t);
+        }
+
+        @Override public void onExit() {
+        }
+    }
+}
@@ -116,21 +116,11 @@ public class SegmentParse {
     }
 
     private boolean preBuild(List<UniqueId> traceIds, SegmentDecorator segmentDecorator) {
-        StringBuilder segmentIdBuilder = new StringBuilder();
-
-        for (int i = 0; i < segmentDecorator.getTraceSegmentId().getIdPartsList().size(); i++) {
-            if (i == 0) {
-                segmentIdBuilder.append(segmentDecorator.getTraceSegmentId().getIdPartsList().get(i));
-            } else {
-                segmentIdBuilder.append(".").append(segmentDecorator.getTraceSegmentId().getIdPartsList().get(i));
-            }
-        }
-
         for (UniqueId uniqueId : traceIds) {
             notifyGlobalsListener(uniqueId);
         }
 
-        segmentCoreInfo.setSegmentId(segmentIdBuilder.toString());
+        segmentCoreInfo.setSegmentId(UniqueIdUtils.format(segmentDecorator.getTraceSegmentId()));
         segmentCoreInfo.setServiceId(segmentDecorator.getServiceId());
         segmentCoreInfo.setServiceInstanceId(segmentDecorator.getServiceInstanceId());
         segmentCoreInfo.setDataBinary(segmentDecorator.toByteArray());
@@ -37,6 +37,9 @@ import org.slf4j.*;
 /**
  * SegmentParseV2 is a replication of SegmentParse, but be compatible with v2 trace protocol.
  *
+ * One parser and its span listeners are created for each thread by the {@link Producer}, and reset before parsing
+ * every segment, rather than created for every segment.
+ *
  * @author wusheng
  */
 public class SegmentParseV2 {
@@ -45,9 +48,12 @@ public class SegmentParseV2 {
 
     private final ModuleManager moduleManager;
     private final List<SpanListener> spanListeners;
-    private final SegmentParserListenerManager listenerManager;
+    private final List<FirstSpanListener> firstSpanListeners;
+    private final List<EntrySpanListener> entrySpanListeners;
+    private final List<ExitSpanListener> exitSpanListeners;
+    private final List<LocalSpanListener> localSpanListeners;
+    private final List<GlobalTraceIdsListener> globalTraceIdsListeners;
     private final SegmentCoreInfo segmentCoreInfo;
-    private final TraceServiceModuleConfig config;
     @Setter private SegmentStandardizationWorker standardizationWorker;
     private volatile static CounterMetric TRACE_BUFFER_FILE_RETRY;
     private volatile static CounterMetric TRACE_BUFFER_FILE_OUT;
@@ -55,13 +61,15 @@ public class SegmentParseV2 {
 
     private SegmentParseV2(ModuleManager moduleManager, SegmentParserListenerManager listenerManager, TraceServiceModuleConfig config) {
         this.moduleManager = moduleManager;
-        this.listenerManager = listenerManager;
-        this.spanListeners = new LinkedList<>();
+        this.spanListeners = new ArrayList<>();
+        this.firstSpanListeners = new ArrayList<>();
+        this.entrySpanListeners = new ArrayList<>();
+        this.exitSpanListeners = new ArrayList<>();
+        this.localSpanListeners = new ArrayList<>();
+        this.globalTraceIdsListeners = new ArrayList<>();
         this.segmentCoreInfo = new SegmentCoreInfo();
-        this.segmentCoreInfo.setStartTime(Long.MAX_VALUE);
-        this.segmentCoreInfo.setEndTime(Long.MIN_VALUE);
-        this.segmentCoreInfo.setV2(true);
-        this.config = config;
+
+        createSpanListeners(listenerManager, config);
 
         if (TRACE_BUFFER_FILE_RETRY == null) {
             MetricCreator metricCreator = moduleManager.find(TelemetryModule.NAME).provider().getService(MetricCreator.class);
@@ -75,17 +83,18 @@ public class SegmentParseV2 {
     }
 
     public boolean parse(BufferData<UpstreamSegment> bufferData, SegmentSource source) {
-        createSpanListeners();
+        reset();
 
         try {
             UpstreamSegment upstreamSegment = bufferData.getMessageType();
 
             List<UniqueId> traceIds = upstreamSegment.getGlobalTraceIdsList();
 
-            if (bufferData.getV2Segment() == null) {
-                bufferData.setV2Segment(parseBinarySegment(upstreamSegment));
+            SegmentObject segmentObject = bufferData.getV2Segment();
+            if (segmentObject == null) {
+                segmentObject = parseBinarySegment(upstreamSegment);
+                bufferData.setV2Segment(segmentObject);
             }
-            SegmentObject segmentObject = parseBinarySegment(upstreamSegment);
 
             SegmentDecorator segmentDecorator = new SegmentDecorator(segmentObject);
 
@@ -116,26 +125,32 @@ public class SegmentParseV2 {
         }
     }
 
+    private void reset() {
+        segmentCoreInfo.setSegmentId(null);
+        segmentCoreInfo.setServiceId(0);
+        segmentCoreInfo.setServiceInstanceId(0);
+        segmentCoreInfo.setStartTime(Long.MAX_VALUE);
+        segmentCoreInfo.setEndTime(Long.MIN_VALUE);
+        segmentCoreInfo.setError(false);
+        segmentCoreInfo.setMinuteTimeBucket(0);
+        segmentCoreInfo.setDataBinary(null);
+        segmentCoreInfo.setV2(true);
+
+        for (SpanListener listener : spanListeners) {
+            listener.reset();
+        }
+    }
+
     private SegmentObject parseBinarySegment(UpstreamSegment segment) throws InvalidProtocolBufferException {
         return SegmentObject.parseFrom(segment.getSegment());
     }
 
     private boolean preBuild(List<UniqueId> traceIds, SegmentDecorator segmentDecorator) {
-        StringBuilder segmentIdBuilder = new StringBuilder();
-
-        for (int i = 0; i < segmentDecorator.getTraceSegmentId().getIdPartsList().size(); i++) {
-            if (i == 0) {
-                segmentIdBuilder.append(segmentDecorator.getTraceSegmentId().getIdPartsList().get(i));
-            } else {
-                segmentIdBuilder.append(".").append(segmentDecorator.getTraceSegmentId().getIdPartsList().get(i));
-            }
-        }
-
         for (UniqueId uniqueId : traceIds) {
             notifyGlobalsListener(uniqueId);
         }
 
-        segmentCoreInfo.setSegmentId(segmentIdBuilder.toString());
+        segmentCoreInfo.setSegmentId(UniqueIdUtils.format(segmentDecorator.getTraceSegmentId()));
         segmentCoreInfo.setServiceId(segmentDecorator.getServiceId());
         segmentCoreInfo.setServiceInstanceId(segmentDecorator.getServiceInstanceId());
         segmentCoreInfo.setDataBinary(segmentDecorator.toByteArray());
@@ -204,78 +219,85 @@ public class SegmentParseV2 {
     }
 
     private void notifyListenerToBuild() {
-        spanListeners.forEach(SpanListener::build);
+        for (SpanListener listener : spanListeners) {
+            listener.build();
+        }
     }
 
     private void notifyExitListener(SpanDecorator spanDecorator) {
-        spanListeners.forEach(listener -> {
-            if (listener.containsPoint(SpanListener.Point.Exit)) {
-                ((ExitSpanListener)listener).parseExit(spanDecorator, segmentCoreInfo);
-            }
-        });
+        for (ExitSpanListener listener : exitSpanListeners) {
+            listener.parseExit(spanDecorator, segmentCoreInfo);
+        }
     }
 
     private void notifyEntryListener(SpanDecorator spanDecorator) {
-        spanListeners.forEach(listener -> {
-            if (listener.containsPoint(SpanListener.Point.Entry)) {
-                ((EntrySpanListener)listener).parseEntry(spanDecorator, segmentCoreInfo);
-            }
-        });
+        for (EntrySpanListener listener : entrySpanListeners) {
+            listener.parseEntry(spanDecorator, segmentCoreInfo);
+        }
     }
 
     private void notifyLocalListener(SpanDecorator spanDecorator) {
-        spanListeners.forEach(listener -> {
-            if (listener.containsPoint(SpanListener.Point.Local)) {
-                ((LocalSpanListener)listener).parseLocal(spanDecorator, segmentCoreInfo);
-            }
-        });
+        for (LocalSpanListener listener : localSpanListeners) {
+            listener.parseLocal(spanDecorator, segmentCoreInfo);
+        }
     }
 
     private void notifyFirstListener(SpanDecorator spanDecorator) {
-        spanListeners.forEach(listener -> {
-            if (listener.containsPoint(SpanListener.Point.First)) {
-                ((FirstSpanListener)listener).parseFirst(spanDecorator, segmentCoreInfo);
-            }
-        });
+        for (FirstSpanListener listener : firstSpanListeners) {
+            listener.parseFirst(spanDecorator, segmentCoreInfo);
+        }
     }
 
     private void notifyGlobalsListener(UniqueId uniqueId) {
-        spanListeners.forEach(listener -> {
+        for (GlobalTraceIdsListener listener : globalTraceIdsListeners) {
+            listener.parseGlobalTraceId(uniqueId, segmentCoreInfo);
+        }
+    }
+
+    private void createSpanListeners(SegmentParserListenerManager listenerManager, TraceServiceModuleConfig config) {
+        listenerManager.getSpanListenerFactories().forEach(spanListenerFactory -> {
+            SpanListener listener = spanListenerFactory.create(moduleManager, config);
+            spanListeners.add(listener);
+
+            if (listener.containsPoint(SpanListener.Point.First)) {
+                firstSpanListeners.add((FirstSpanListener)listener);
+            }
+            if (listener.containsPoint(SpanListener.Point.Entry)) {
+                entrySpanListeners.add((EntrySpanListener)listener);
+            }
+            if (listener.containsPoint(SpanListener.Point.Exit)) {
+                exitSpanListeners.add((ExitSpanListener)listener);
+            }
+            if (listener.containsPoint(SpanListener.Point.Local)) {
+                localSpanListeners.add((LocalSpanListener)listener);
+            }
             if (listener.containsPoint(SpanListener.Point.TraceIds)) {
-                ((GlobalTraceIdsListener)listener).parseGlobalTraceId(uniqueId, segmentCoreInfo);
+                globalTraceIdsListeners.add((GlobalTraceIdsListener)listener);
             }
         });
     }
 
-    private void createSpanListeners() {
-        listenerManager.getSpanListenerFactories().forEach(spanListenerFactory -> spanListeners.add(spanListenerFactory.create(moduleManager, config)));
-    }
-
     public static class Producer implements DataStreamReader.CallBack<UpstreamSegment> {
 
         @Setter private SegmentStandardizationWorker standardizationWorker;
-        private final ModuleManager moduleManager;
-        private final SegmentParserListenerManager listenerManager;
-        private final TraceServiceModuleConfig config;
+        private final ThreadLocal<SegmentParseV2> segmentParses;
 
         public Producer(ModuleManager moduleManager, SegmentParserListenerManager listenerManager, TraceServiceModuleConfig config) {
-            this.moduleManager = moduleManager;
-            this.listenerManager = listenerManager;
-            this.config = config;
+            this.segmentParses = ThreadLocal.withInitial(() -> new SegmentParseV2(moduleManager, listenerManager, config));
         }
 
         public void send(UpstreamSegment segment, SegmentSource source) {
-            SegmentParseV2 segmentParse = new SegmentParseV2(moduleManager, listenerManager, config);
+            SegmentParseV2 segmentParse = segmentParses.get();
             segmentParse.setStandardizationWorker(standardizationWorker);
             segmentParse.parse(new BufferData<>(segment), source);
         }
 
         @Override public boolean call(BufferData<UpstreamSegment> bufferData) {
-            SegmentParseV2 segmentParse = new SegmentParseV2(moduleManager, listenerManager, config);
+            SegmentParseV2 segmentParse = segmentParses.get();
             segmentParse.setStandardizationWorker(standardizationWorker);
             boolean parseResult = segmentParse.parse(bufferData, SegmentSource.Buffer);
             if (parseResult) {
-                segmentParse.TRACE_BUFFER_FILE_OUT.inc();
+                TRACE_BUFFER_FILE_OUT.inc();
             }
 
             return parseResult;
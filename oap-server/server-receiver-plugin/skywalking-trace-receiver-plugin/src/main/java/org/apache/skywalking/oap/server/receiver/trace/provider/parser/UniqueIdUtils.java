@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.receiver.trace.provider.parser;
+
+import org.apache.skywalking.apm.network.language.agent.UniqueId;
+
+public class UniqueIdUtils {
+
+    /**
+     * Join the id parts by dot, read the parts as primitive long values, rather than from the boxed list of protobuf.
+     *
+     * @return the segment id or trace id in string, such as 1.2.3
+     */
+    public static String format(UniqueId uniqueId) {
+        int count = uniqueId.getIdPartsCount();
+        if (count == 0) {
+            return "";
+        }
+
+        StringBuilder builder = new StringBuilder(count * 20);
+        builder.append(uniqueId.getIdParts(0));
+        for (int i = 1; i < count; i++) {
+            builder.append('.').append(uniqueId.getIdParts(i));
+        }
+        return builder.toString();
+    }
+}
@@ -89,7 +89,7 @@ public class SegmentDecorator implements StandardBuilder {
         if (isOrigin) {
             return isV2 ? segmentObjectV2.toByteArray() : segmentObject.toByteArray();
         } else {
-            return segmentBuilder.build().toByteArray();
+            return isV2 ? segmentBuilderV2.build().toByteArray() : segmentBuilder.build().toByteArray();
         }
     }
 
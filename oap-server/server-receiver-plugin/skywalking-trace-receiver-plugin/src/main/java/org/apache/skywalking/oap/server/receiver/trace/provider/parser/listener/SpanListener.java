@@ -24,6 +24,11 @@ package org.apache.skywalking.oap.server.receiver.trace.provider.parser.listener
 public interface SpanListener {
     void build();
 
+    /**
+     * Clear the state collected from the last segment, then this listener could be reused for the next segment.
+     */
+    void reset();
+
     boolean containsPoint(Point point);
 
     enum Point {
@@ -27,7 +27,7 @@ import org.apache.skywalking.oap.server.core.source.*;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.apache.skywalking.oap.server.library.util.TimeBucketUtils;
 import org.apache.skywalking.oap.server.receiver.trace.provider.*;
-import org.apache.skywalking.oap.server.receiver.trace.provider.parser.SpanTags;
+import org.apache.skywalking.oap.server.receiver.trace.provider.parser.*;
 import org.apache.skywalking.oap.server.receiver.trace.provider.parser.decorator.*;
 import org.apache.skywalking.oap.server.receiver.trace.provider.parser.listener.*;
 import org.slf4j.*;
@@ -246,18 +246,19 @@ public class MultiScopesSpanListener implements EntrySpanListener, ExitSpanListe
 
     @Override public void parseGlobalTraceId(UniqueId uniqueId, SegmentCoreInfo segmentCoreInfo) {
         if (traceId == null) {
-            StringBuilder traceIdBuilder = new StringBuilder();
-            for (int i = 0; i < uniqueId.getIdPartsList().size(); i++) {
-                if (i == 0) {
-                    traceIdBuilder.append(uniqueId.getIdPartsList().get(i));
-                } else {
-                    traceIdBuilder.append(".").append(uniqueId.getIdPartsList().get(i));
-                }
-            }
-            traceId = traceIdBuilder.toString();
+            traceId = UniqueIdUtils.format(uniqueId);
         }
     }
 
+    @Override public void reset() {
+        entrySourceBuilders.clear();
+        exitSourceBuilders.clear();
+        slowDatabaseAccesses.clear();
+        entrySpanDecorator = null;
+        minuteTimeBucket = 0;
+        traceId = null;
+    }
+
     public static class Factory implements SpanListenerFactory {
 
         @Override
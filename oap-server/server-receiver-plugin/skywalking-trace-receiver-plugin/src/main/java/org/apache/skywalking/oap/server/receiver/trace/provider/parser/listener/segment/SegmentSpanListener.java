@@ -27,6 +27,7 @@ import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.apache.skywalking.oap.server.library.util.BooleanUtils;
 import org.apache.skywalking.oap.server.library.util.TimeBucketUtils;
 import org.apache.skywalking.oap.server.receiver.trace.provider.TraceServiceModuleConfig;
+import org.apache.skywalking.oap.server.receiver.trace.provider.parser.UniqueIdUtils;
 import org.apache.skywalking.oap.server.receiver.trace.provider.parser.decorator.SegmentCoreInfo;
 import org.apache.skywalking.oap.server.receiver.trace.provider.parser.decorator.SpanDecorator;
 import org.apache.skywalking.oap.server.receiver.trace.provider.parser.listener.EntrySpanListener;
@@ -46,7 +47,7 @@ public class SegmentSpanListener implements FirstSpanListener, EntrySpanListener
 
     private final SourceReceiver sourceReceiver;
     private final TraceSegmentSampler sampler;
-    private final Segment segment = new Segment();
+    private Segment segment = new Segment();
     private final EndpointInventoryCache serviceNameCacheService;
     private SAMPLE_STATUS sampleStatus = SAMPLE_STATUS.UNKNOWN;
     private int entryEndpointId = 0;
@@ -103,15 +104,7 @@ public class SegmentSpanListener implements FirstSpanListener, EntrySpanListener
             return;
         }
 
-        StringBuilder traceIdBuilder = new StringBuilder();
-        for (int i = 0; i < uniqueId.getIdPartsList().size(); i++) {
-            if (i == 0) {
-                traceIdBuilder.append(uniqueId.getIdPartsList().get(i));
-            } else {
-                traceIdBuilder.append(".").append(uniqueId.getIdPartsList().get(i));
-            }
-        }
-        segment.setTraceId(traceIdBuilder.toString());
+        segment.setTraceId(UniqueIdUtils.format(uniqueId));
     }
 
     @Override public void build() {
@@ -134,6 +127,13 @@ public class SegmentSpanListener implements FirstSpanListener, EntrySpanListener
         sourceReceiver.receive(segment);
     }
 
+    @Override public void reset() {
+        segment = new Segment();
+        sampleStatus = SAMPLE_STATUS.UNKNOWN;
+        entryEndpointId = 0;
+        firstEndpointId = 0;
+    }
+
     private enum SAMPLE_STATUS {
         UNKNOWN, SAMPLED, IGNORE
     }
@@ -18,7 +18,6 @@
 
 package org.apache.skywalking.oap.server.receiver.trace.provider.parser.listener.segment;
 
-import java.util.List;
 import org.apache.skywalking.apm.network.language.agent.UniqueId;
 
 /**
@@ -44,10 +43,8 @@ public class TraceSegmentSampler {
     }
 
     public boolean shouldSample(UniqueId uniqueId) {
-        List<Long> idPartsList = uniqueId.getIdPartsList();
-        if (idPartsList.size() == 3) {
-            Long lastLong = idPartsList.get(2);
-            long sampleValue = lastLong % 10000;
+        if (uniqueId.getIdPartsCount() == 3) {
+            long sampleValue = uniqueId.getIdParts(2) % 10000;
             if (sampleValue < sampleRate) {
                 return true;
             }
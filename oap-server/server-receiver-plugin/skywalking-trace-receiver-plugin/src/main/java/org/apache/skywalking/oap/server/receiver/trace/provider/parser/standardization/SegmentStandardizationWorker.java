@@ -24,9 +24,8 @@ import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
 import org.apache.skywalking.apm.network.language.agent.UpstreamSegment;
 import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
-import org.apache.skywalking.oap.server.library.buffer.BufferStream;
+import org.apache.skywalking.oap.server.library.buffer.*;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
-import org.apache.skywalking.oap.server.receiver.trace.provider.parser.SegmentParse;
 import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
 import org.apache.skywalking.oap.server.telemetry.api.*;
 import org.slf4j.*;
@@ -41,7 +40,7 @@ public class SegmentStandardizationWorker extends AbstractWorker<SegmentStandard
     private final DataCarrier<SegmentStandardization> dataCarrier;
     private CounterMetric traceBufferFileIn;
 
-    public SegmentStandardizationWorker(ModuleManager moduleManager, SegmentParse.Producer segmentParseCreator,
+    public SegmentStandardizationWorker(ModuleManager moduleManager, DataStreamReader.CallBack<UpstreamSegment> segmentParseCreator,
         String path,
         int offsetFileMaxSize, int dataFileMaxSize, boolean cleanWhenRestart, boolean isV6) throws IOException {
         super(Integer.MAX_VALUE);
@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.skywalking.oap.server.receiver.trace.provider;
+
+import org.apache.skywalking.oap.server.library.module.ModuleStartException;
+import org.apache.skywalking.oap.server.receiver.trace.provider.parser.SegmentIngestionWorker;
+import org.junit.*;
+
+public class TraceModuleProviderTest {
+
+    @Test
+    public void testParseOverflowPolicy() throws ModuleStartException {
+        Assert.assertEquals(SegmentIngestionWorker.OverflowPolicy.BLOCK, TraceModuleProvider.parseOverflowPolicy("BLOCK"));
+        Assert.assertEquals(SegmentIngestionWorker.OverflowPolicy.SPILL, TraceModuleProvider.parseOverflowPolicy(" spill "));
+    }
+
+    @Test
+    public void testUnknownOverflowPolicy() {
+        try {
+            TraceModuleProvider.parseOverflowPolicy("DISCARD");
+            Assert.fail();
+        } catch (ModuleStartException e) {
+            Assert.assertTrue(e.getMessage().contains("[BLOCK, DROP, SPILL]"));
+        }
+    }
+}
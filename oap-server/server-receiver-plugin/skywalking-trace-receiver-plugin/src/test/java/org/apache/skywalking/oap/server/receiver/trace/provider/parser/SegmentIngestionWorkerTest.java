@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.skywalking.oap.server.receiver.trace.provider.parser;
+
+import java.util.concurrent.*;
+import org.apache.skywalking.apm.network.language.agent.*;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.receiver.trace.provider.parser.standardization.*;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.*;
+import org.junit.*;
+import org.mockito.ArgumentCaptor;
+
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+public class SegmentIngestionWorkerTest {
+
+    private ModuleManager moduleManager;
+    private CounterMetric dropCounter;
+    private CounterMetric spillCounter;
+    private SegmentParseV2.Producer producer;
+    private CountDownLatch consuming;
+    private CountDownLatch release;
+
+    @Before
+    public void setUp() {
+        dropCounter = mock(CounterMetric.class);
+        spillCounter = mock(CounterMetric.class);
+        MetricCreator metricCreator = mock(MetricCreator.class);
+        when(metricCreator.createGauge(anyString(), anyString(), any(), any())).thenReturn(mock(GaugeMetric.class));
+        when(metricCreator.createCounter(eq("v6_trace_ingestion_drop"), anyString(), any(), any())).thenReturn(dropCounter);
+        when(metricCreator.createCounter(eq("v6_trace_ingestion_spill"), anyString(), any(), any())).thenReturn(spillCounter);
+
+        moduleManager = mock(ModuleManager.class, RETURNS_DEEP_STUBS);
+        when(moduleManager.find(TelemetryModule.NAME).provider().getService(MetricCreator.class)).thenReturn(metricCreator);
+
+        consuming = new CountDownLatch(1);
+        release = new CountDownLatch(1);
+        producer = mock(SegmentParseV2.Producer.class);
+        doAnswer(invocation -> {
+            consuming.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return null;
+        }).when(producer).send(any(UpstreamSegment.class), any(SegmentSource.class));
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+    }
+
+    @Test
+    public void testDropWhenQueueIsFull() throws InterruptedException {
+        SegmentIngestionWorker worker = new SegmentIngestionWorker(moduleManager, producer, 1, 1, SegmentIngestionWorker.OverflowPolicy.DROP);
+        SegmentStandardizationWorker standardizationWorker = mock(SegmentStandardizationWorker.class);
+        worker.setStandardizationWorker(standardizationWorker);
+
+        fillQueue(worker);
+        worker.in(segment(3));
+
+        verify(dropCounter).inc();
+        verify(spillCounter, never()).inc();
+        verify(standardizationWorker, never()).in(any(SegmentStandardization.class));
+    }
+
+    @Test
+    public void testSpillWhenQueueIsFull() throws InterruptedException {
+        SegmentIngestionWorker worker = new SegmentIngestionWorker(moduleManager, producer, 1, 1, SegmentIngestionWorker.OverflowPolicy.SPILL);
+        SegmentStandardizationWorker standardizationWorker = mock(SegmentStandardizationWorker.class);
+        worker.setStandardizationWorker(standardizationWorker);
+
+        fillQueue(worker);
+        UpstreamSegment overflow = segment(3);
+        worker.in(overflow);
+
+        verify(spillCounter).inc();
+        verify(dropCounter, never()).inc();
+        ArgumentCaptor<SegmentStandardization> captor = ArgumentCaptor.forClass(SegmentStandardization.class);
+        verify(standardizationWorker).in(captor.capture());
+        Assert.assertSame(overflow, captor.getValue().getUpstreamSegment());
+    }
+
+    /**
+     * The first segment holds the only consumer in the producer, the second one takes the only slot of the queue.
+     */
+    private void fillQueue(SegmentIngestionWorker worker) throws InterruptedException {
+        worker.in(segment(1));
+        Assert.assertTrue(consuming.await(10, TimeUnit.SECONDS));
+        worker.in(segment(2));
+        verify(dropCounter, never()).inc();
+        verify(spillCounter, never()).inc();
+    }
+
+    private static UpstreamSegment segment(long part) {
+        return UpstreamSegment.newBuilder()
+            .addGlobalTraceIds(UniqueId.newBuilder().addIdParts(part).addIdParts(1).addIdParts(1))
+            .build();
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.receiver.trace.provider.parser;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.apache.skywalking.apm.network.language.agent.*;
+import org.apache.skywalking.apm.network.language.agent.v2.*;
+import org.apache.skywalking.oap.server.core.register.*;
+import org.apache.skywalking.oap.server.library.module.*;
+import org.apache.skywalking.oap.server.receiver.trace.provider.TraceServiceModuleConfig;
+import org.apache.skywalking.oap.server.receiver.trace.provider.parser.listener.endpoint.MultiScopesSpanListener;
+import org.apache.skywalking.oap.server.receiver.trace.provider.parser.listener.segment.SegmentSpanListener;
+import org.apache.skywalking.oap.server.receiver.trace.provider.parser.listener.service.ServiceMappingSpanListener;
+import org.mockito.stubbing.Answer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.*;
+import org.openjdk.jmh.runner.options.*;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Benchmark of {@link SegmentParseV2.Producer#send(UpstreamSegment, SegmentSource)} over the recorded segments, which
+ * ids have been exchanged already. All services of the core module are stubbed, so only the cost of the parser and
+ * the span listeners is measured.
+ *
+ * Run the main method to execute.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SegmentParseV2Benchmark {
+
+    private static final int SEGMENTS = 1000;
+
+    private SegmentParseV2.Producer producer;
+    private UpstreamSegment[] segments;
+
+    @Setup
+    public void setup() {
+        // The debug logs of the test configuration cost far more than the parsing.
+        Configurator.setRootLevel(Level.WARN);
+
+        ModuleManager moduleManager = mock(ModuleManager.class, withSettings().stubOnly().defaultAnswer(STUB_ANSWER));
+
+        SegmentParserListenerManager listenerManager = new SegmentParserListenerManager();
+        listenerManager.add(new MultiScopesSpanListener.Factory());
+        listenerManager.add(new ServiceMappingSpanListener.Factory());
+        listenerManager.add(new SegmentSpanListener.Factory(10000));
+
+        producer = new SegmentParseV2.Producer(moduleManager, listenerManager, new TraceServiceModuleConfig());
+
+        segments = new UpstreamSegment[SEGMENTS];
+        long startTimestamp = System.currentTimeMillis();
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = createSegment(i, startTimestamp + i);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SEGMENTS)
+    public void send() {
+        for (UpstreamSegment segment : segments) {
+            producer.send(segment, SegmentSource.Agent);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(SegmentParseV2Benchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+
+    private static UpstreamSegment createSegment(int sequence, long startTimestamp) {
+        UniqueId traceId = UniqueId.newBuilder().addIdParts(1).addIdParts(Thread.currentThread().getId()).addIdParts(sequence).build();
+        UniqueId segmentId = UniqueId.newBuilder().addIdParts(2).addIdParts(Thread.currentThread().getId()).addIdParts(sequence).build();
+
+        SegmentObject.Builder segment = SegmentObject.newBuilder();
+        segment.setTraceSegmentId(segmentId);
+        segment.setServiceId(1);
+        segment.setServiceInstanceId(1);
+
+        SpanObjectV2.Builder entrySpan = SpanObjectV2.newBuilder();
+        entrySpan.setSpanId(0);
+        entrySpan.setParentSpanId(-1);
+        entrySpan.setSpanType(SpanType.Entry);
+        entrySpan.setSpanLayer(SpanLayer.Http);
+        entrySpan.setStartTime(startTimestamp);
+        entrySpan.setEndTime(startTimestamp + 600);
+        entrySpan.setComponentId(1);
+        entrySpan.setOperationNameId(2);
+        entrySpan.addRefs(SegmentReference.newBuilder().setRefType(RefType.CrossProcess)
+            .setParentTraceSegmentId(traceId).setParentSpanId(1).setParentServiceInstanceId(2)
+            .setNetworkAddressId(3).setEntryServiceInstanceId(2).setEntryEndpointId(4).setParentEndpointId(4));
+        segment.addSpans(entrySpan);
+
+        SpanObjectV2.Builder localSpan = SpanObjectV2.newBuilder();
+        localSpan.setSpanId(1);
+        localSpan.setParentSpanId(0);
+        localSpan.setSpanType(SpanType.Local);
+        localSpan.setStartTime(startTimestamp + 100);
+        localSpan.setEndTime(startTimestamp + 500);
+        localSpan.setOperationNameId(3);
+        segment.addSpans(localSpan);
+
+        SpanObjectV2.Builder exitSpan = SpanObjectV2.newBuilder();
+        exitSpan.setSpanId(2);
+        exitSpan.setParentSpanId(1);
+        exitSpan.setSpanType(SpanType.Exit);
+        exitSpan.setSpanLayer(SpanLayer.RPCFramework);
+        exitSpan.setStartTime(startTimestamp + 120);
+        exitSpan.setEndTime(startTimestamp + 480);
+        exitSpan.setComponentId(3);
+        exitSpan.setPeerId(5);
+        exitSpan.setOperationNameId(6);
+        segment.addSpans(exitSpan);
+
+        return UpstreamSegment.newBuilder().addGlobalTraceIds(traceId).setSegment(segment.build().toByteString()).build();
+    }
+
+    /**
+     * Every service is a stub, the inventory caches always return the same inventories, and all ids are 1.
+     */
+    private static final Answer<Object> STUB_ANSWER = invocation -> {
+        Class<?> type = invocation.getMethod().getReturnType();
+        if ("getService".equals(invocation.getMethod().getName())) {
+            type = (Class<?>)invocation.getArguments()[0];
+        }
+
+        if (ServiceInventory.class.equals(type)) {
+            ServiceInventory serviceInventory = new ServiceInventory();
+            serviceInventory.setSequence(1);
+            serviceInventory.setName("service");
+            return serviceInventory;
+        } else if (ServiceInstanceInventory.class.equals(type)) {
+            ServiceInstanceInventory instanceInventory = new ServiceInstanceInventory();
+            instanceInventory.setSequence(1);
+            instanceInventory.setServiceId(1);
+            instanceInventory.setName("instance");
+            return instanceInventory;
+        } else if (EndpointInventory.class.equals(type)) {
+            EndpointInventory endpointInventory = new EndpointInventory();
+            endpointInventory.setSequence(1);
+            endpointInventory.setName("endpoint");
+            return endpointInventory;
+        } else if (int.class.equals(type)) {
+            return 1;
+        } else if (boolean.class.equals(type)) {
+            return false;
+        } else if (void.class.equals(type)) {
+            return null;
+        } else if (type.isInterface() || (type.getName().startsWith("org.apache.skywalking") && !type.isEnum())) {
+            return mock(type, withSettings().stubOnly().defaultAnswer(SegmentParseV2Benchmark.STUB_ANSWER));
+        }
+        return RETURNS_DEFAULTS.answer(invocation);
+    };
+}
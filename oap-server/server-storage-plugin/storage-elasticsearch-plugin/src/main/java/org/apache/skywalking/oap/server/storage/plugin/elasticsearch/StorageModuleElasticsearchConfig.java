@@ -28,6 +28,18 @@ public class StorageModuleElasticsearchConfig extends ModuleConfig {
 
     @Setter @Getter private String nameSpace;
     @Setter @Getter private String clusterNodes;
+    /**
+     * The refresh policy of the inventory and register lock writes, one of immediate, wait_until and none. With
+     * wait_until or none, the inventories registered by this OAP node are kept in {@link
+     * org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base.RecentRegisterCache} until they could be
+     * searched.
+     */
+    @Setter @Getter private String registerRefreshPolicy = "immediate";
+    /**
+     * The number of days of data in every index of the records and indicators, 0 means one index per model. The
+     * expired data is removed by dropping whole indices when it is greater than 0.
+     */
+    @Setter @Getter private int indexPartitionDays = 0;
     private int indexShardsNumber;
     private int indexReplicasNumber;
     private boolean highPerformanceMode;
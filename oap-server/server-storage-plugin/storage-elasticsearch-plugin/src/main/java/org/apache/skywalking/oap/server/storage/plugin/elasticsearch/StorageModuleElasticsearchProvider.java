@@ -18,6 +18,7 @@
 
 package org.apache.skywalking.oap.server.storage.plugin.elasticsearch;
 
+import java.util.Arrays;
 import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.storage.*;
 import org.apache.skywalking.oap.server.core.storage.cache.*;
@@ -28,6 +29,7 @@ import org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base.*;
 import org.apache.skywalking.oap.server.storage.plugin.elasticsearch.cache.*;
 import org.apache.skywalking.oap.server.storage.plugin.elasticsearch.lock.*;
 import org.apache.skywalking.oap.server.storage.plugin.elasticsearch.query.*;
+import org.elasticsearch.action.support.WriteRequest;
 import org.slf4j.*;
 
 /**
@@ -39,6 +41,7 @@ public class StorageModuleElasticsearchProvider extends ModuleProvider {
 
     private final StorageModuleElasticsearchConfig config;
     private ElasticSearchClient elasticSearchClient;
+    private IndexPartitioner partitioner;
 
     public StorageModuleElasticsearchProvider() {
         super();
@@ -61,26 +64,29 @@ public class StorageModuleElasticsearchProvider extends ModuleProvider {
     }
 
     @Override
-    public void prepare() throws ServiceNotProvidedException {
-        elasticSearchClient = new ElasticSearchClient(config.getClusterNodes(), config.getNameSpace());
+    public void prepare() throws ServiceNotProvidedException, ModuleStartException {
+        WriteRequest.RefreshPolicy registerRefreshPolicy = parseRefreshPolicy(config.getRegisterRefreshPolicy());
+        elasticSearchClient = new ElasticSearchClient(config.getClusterNodes(), config.getNameSpace(), registerRefreshPolicy);
+        RecentRegisterCache registerCache = registerRefreshPolicy == WriteRequest.RefreshPolicy.IMMEDIATE ? null : new RecentRegisterCache();
+        partitioner = new IndexPartitioner(config.getIndexPartitionDays());
 
         this.registerServiceImplementation(IBatchDAO.class, new BatchProcessEsDAO(elasticSearchClient, config.getBulkActions(), config.getBulkSize(), config.getFlushInterval(), config.getConcurrentRequests()));
-        this.registerServiceImplementation(StorageDAO.class, new StorageEsDAO(elasticSearchClient));
+        this.registerServiceImplementation(StorageDAO.class, new StorageEsDAO(elasticSearchClient, registerCache, partitioner));
         this.registerServiceImplementation(IRegisterLockDAO.class, new RegisterLockDAOImpl(elasticSearchClient));
-        this.registerServiceImplementation(IHistoryDeleteDAO.class, new HistoryDeleteEsDAO(elasticSearchClient));
+        this.registerServiceImplementation(IHistoryDeleteDAO.class, new HistoryDeleteEsDAO(elasticSearchClient, partitioner));
 
-        this.registerServiceImplementation(IServiceInventoryCacheDAO.class, new ServiceInventoryCacheEsDAO(elasticSearchClient));
-        this.registerServiceImplementation(IServiceInstanceInventoryCacheDAO.class, new ServiceInstanceInventoryCacheDAO(elasticSearchClient));
-        this.registerServiceImplementation(IEndpointInventoryCacheDAO.class, new EndpointInventoryCacheEsDAO(elasticSearchClient));
-        this.registerServiceImplementation(INetworkAddressInventoryCacheDAO.class, new NetworkAddressInventoryCacheEsDAO(elasticSearchClient));
+        this.registerServiceImplementation(IServiceInventoryCacheDAO.class, new ServiceInventoryCacheEsDAO(elasticSearchClient, registerCache));
+        this.registerServiceImplementation(IServiceInstanceInventoryCacheDAO.class, new ServiceInstanceInventoryCacheDAO(elasticSearchClient, registerCache));
+        this.registerServiceImplementation(IEndpointInventoryCacheDAO.class, new EndpointInventoryCacheEsDAO(elasticSearchClient, registerCache));
+        this.registerServiceImplementation(INetworkAddressInventoryCacheDAO.class, new NetworkAddressInventoryCacheEsDAO(elasticSearchClient, registerCache));
 
-        this.registerServiceImplementation(ITopologyQueryDAO.class, new TopologyQueryEsDAO(elasticSearchClient));
-        this.registerServiceImplementation(IMetricQueryDAO.class, new MetricQueryEsDAO(elasticSearchClient));
-        this.registerServiceImplementation(ITraceQueryDAO.class, new TraceQueryEsDAO(elasticSearchClient));
+        this.registerServiceImplementation(ITopologyQueryDAO.class, new TopologyQueryEsDAO(elasticSearchClient, partitioner));
+        this.registerServiceImplementation(IMetricQueryDAO.class, new MetricQueryEsDAO(elasticSearchClient, partitioner));
+        this.registerServiceImplementation(ITraceQueryDAO.class, new TraceQueryEsDAO(elasticSearchClient, partitioner));
         this.registerServiceImplementation(IMetadataQueryDAO.class, new MetadataQueryEsDAO(elasticSearchClient));
-        this.registerServiceImplementation(IAggregationQueryDAO.class, new AggregationQueryEsDAO(elasticSearchClient));
-        this.registerServiceImplementation(IAlarmQueryDAO.class, new AlarmQueryEsDAO(elasticSearchClient));
-        this.registerServiceImplementation(ITopNRecordsQueryDAO.class, new TopNRecordsQueryEsDAO(elasticSearchClient));
+        this.registerServiceImplementation(IAggregationQueryDAO.class, new AggregationQueryEsDAO(elasticSearchClient, partitioner));
+        this.registerServiceImplementation(IAlarmQueryDAO.class, new AlarmQueryEsDAO(elasticSearchClient, partitioner));
+        this.registerServiceImplementation(ITopNRecordsQueryDAO.class, new TopNRecordsQueryEsDAO(elasticSearchClient, partitioner));
     }
 
     @Override
@@ -88,7 +94,7 @@ public class StorageModuleElasticsearchProvider extends ModuleProvider {
         try {
             elasticSearchClient.connect();
 
-            StorageEsInstaller installer = new StorageEsInstaller(getManager(), config.getIndexShardsNumber(), config.getIndexReplicasNumber());
+            StorageEsInstaller installer = new StorageEsInstaller(getManager(), config.getIndexShardsNumber(), config.getIndexReplicasNumber(), partitioner);
             installer.install(elasticSearchClient);
 
             RegisterLockInstaller lockInstaller = new RegisterLockInstaller(elasticSearchClient);
@@ -98,6 +104,18 @@ public class StorageModuleElasticsearchProvider extends ModuleProvider {
         }
     }
 
+    static WriteRequest.RefreshPolicy parseRefreshPolicy(String policy) throws ModuleStartException {
+        if (policy != null) {
+            for (WriteRequest.RefreshPolicy refreshPolicy : WriteRequest.RefreshPolicy.values()) {
+                if (refreshPolicy.name().equalsIgnoreCase(policy.trim())) {
+                    return refreshPolicy;
+                }
+            }
+        }
+        throw new ModuleStartException("Unknown registerRefreshPolicy: " + policy + ", the valid policies are "
+            + Arrays.toString(WriteRequest.RefreshPolicy.values()).toLowerCase());
+    }
+
     @Override
     public void notifyAfterCompleted() {
     }
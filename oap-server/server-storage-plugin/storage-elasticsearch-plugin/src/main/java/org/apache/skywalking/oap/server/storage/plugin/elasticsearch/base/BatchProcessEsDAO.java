@@ -18,7 +18,10 @@
 
 package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import org.apache.skywalking.oap.server.core.storage.BatchFailureListener;
 import org.apache.skywalking.oap.server.core.storage.IBatchDAO;
 import org.apache.skywalking.oap.server.library.client.elasticsearch.ElasticSearchClient;
 import org.apache.skywalking.oap.server.library.util.CollectionUtils;
@@ -34,11 +37,12 @@ public class BatchProcessEsDAO extends EsDAO implements IBatchDAO {
 
     private static final Logger logger = LoggerFactory.getLogger(BatchProcessEsDAO.class);
 
-    private BulkProcessor bulkProcessor;
+    private volatile BulkProcessor bulkProcessor;
     private final int bulkActions;
     private final int bulkSize;
     private final int flushInterval;
     private final int concurrentRequests;
+    private volatile BatchFailureListener failureListener;
 
     public BatchProcessEsDAO(ElasticSearchClient client, int bulkActions, int bulkSize, int flushInterval,
         int concurrentRequests) {
@@ -51,7 +55,11 @@ public class BatchProcessEsDAO extends EsDAO implements IBatchDAO {
 
     @Override public void batchPersistence(List<?> batchCollection) {
         if (bulkProcessor == null) {
-            this.bulkProcessor = getClient().createBulkProcessor(bulkActions, bulkSize, flushInterval, concurrentRequests);
+            synchronized (this) {
+                if (bulkProcessor == null) {
+                    this.bulkProcessor = getClient().createBulkProcessor(bulkActions, bulkSize, flushInterval, concurrentRequests, this::onFailure);
+                }
+            }
         }
 
         if (logger.isDebugEnabled()) {
@@ -71,4 +79,17 @@ public class BatchProcessEsDAO extends EsDAO implements IBatchDAO {
 
         this.bulkProcessor.flush();
     }
+
+    @Override public void setFailureListener(BatchFailureListener listener) {
+        this.failureListener = listener;
+    }
+
+    private void onFailure(Set<String> indexNames) {
+        BatchFailureListener listener = failureListener;
+        if (listener != null) {
+            Set<String> modelNames = new HashSet<>();
+            indexNames.forEach(indexName -> modelNames.add(IndexPartitioner.modelName(indexName)));
+            listener.onFailure(modelNames);
+        }
+    }
 }
@@ -18,10 +18,12 @@
 
 package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base;
 
+import java.io.IOException;
 import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
 import org.apache.skywalking.oap.server.core.query.sql.Where;
 import org.apache.skywalking.oap.server.core.storage.AbstractDAO;
 import org.apache.skywalking.oap.server.library.client.elasticsearch.ElasticSearchClient;
+import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.index.query.*;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
 
@@ -53,4 +55,25 @@ public abstract class EsDAO extends AbstractDAO<ElasticSearchClient> {
         }
         sourceBuilder.size(0);
     }
+
+    /**
+     * Search the inventory of the sequence. When the register writes don't refresh the index, the inventories registered
+     * by another OAP node can't be searched until the next index refresh, so when nothing is hit, the index is refreshed,
+     * at most once per interval, and searched once more. The sequences still missed after the refresh are remembered by
+     * the register cache for a while, so looking them up again doesn't refresh the index.
+     *
+     * @param registerCache null if the register writes refresh the index, then the index is searched only once.
+     */
+    protected final SearchResponse searchBySequence(String indexName, int sequence, SearchSourceBuilder sourceBuilder,
+        RecentRegisterCache registerCache) throws IOException {
+        SearchResponse response = getClient().search(indexName, sourceBuilder);
+        if (registerCache != null && response.getHits().totalHits == 0 && registerCache.tryRefresh(indexName)) {
+            getClient().refresh(indexName);
+            response = getClient().search(indexName, sourceBuilder);
+            if (response.getHits().totalHits == 0) {
+                registerCache.putMissing(indexName, sequence);
+            }
+        }
+        return response;
+    }
 }
@@ -24,7 +24,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * @author peng-yongsheng
@@ -33,13 +34,35 @@ public class HistoryDeleteEsDAO extends EsDAO implements IHistoryDeleteDAO {
 
     private static final Logger logger = LoggerFactory.getLogger(HistoryDeleteEsDAO.class);
 
-    public HistoryDeleteEsDAO(ElasticSearchClient client) {
+    private final IndexPartitioner partitioner;
+    private volatile boolean ttlWarned = false;
+
+    public HistoryDeleteEsDAO(ElasticSearchClient client, IndexPartitioner partitioner) {
         super(client);
+        this.partitioner = partitioner;
     }
 
+    /**
+     * Drop the partitions which only hold the expired data if the index is partitioned, the data in the partition of
+     * the boundary is kept until the whole partition expires.
+     */
     @Override
     public void deleteHistory(String modelName, String timeBucketColumnName, Long timeBucketBefore) throws IOException {
         ElasticSearchClient client = getClient();
+        if (partitioner.isPartitioned()) {
+            if (!ttlWarned && partitioner.isExpiredWithinPartition(timeBucketBefore, LocalDateTime.now())) {
+                ttlWarned = true;
+                logger.warn("The TTL of {} is shorter than an index partition, its data is kept until the whole partition expires, "
+                    + "set indexPartitionDays to 0 if the data must not be kept longer than the TTL.", modelName);
+            }
+            List<String> indexNames = client.retrievalIndexByPattern(partitioner.pattern(modelName));
+            for (String indexName : partitioner.expiredIndexNames(modelName, indexNames, timeBucketBefore)) {
+                boolean isAcknowledged = client.deleteIndex(indexName);
+                logger.info("Delete expired index {}, isAcknowledged: {}", client.formatIndexName(indexName), isAcknowledged);
+            }
+            return;
+        }
+
         int statusCode = client.delete(modelName, timeBucketColumnName, timeBucketBefore);
         if (logger.isDebugEnabled()) {
             logger.debug("Delete history from {} index, status code {}", client.formatIndexName(modelName), statusCode);
@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.skywalking.oap.server.core.Const;
+
+/**
+ * Split the index of the records and indicators by time. Every partition holds the data of the given number of days,
+ * it is named as the model name plus the first day of the partition, e.g. segment-20190101, and is created by the
+ * index template of the model at the first write. All the partitions of a model are in the alias named as the model
+ * name, so the reads without a time range still see all of them.
+ *
+ * Nothing is partitioned when the number of days is 0.
+ */
+public class IndexPartitioner {
+
+    public static final String PARTITION_SEPARATOR = "-";
+
+    /**
+     * Search through the alias rather than listing the partitions when the time range spans more of them.
+     */
+    private static final int MAX_SEARCH_PARTITIONS = 32;
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final int partitionDays;
+
+    public IndexPartitioner(int partitionDays) {
+        this.partitionDays = partitionDays;
+    }
+
+    public boolean isPartitioned() {
+        return partitionDays > 0;
+    }
+
+    /**
+     * @return the index name pattern of all the partitions of the model.
+     */
+    public String pattern(String modelName) {
+        return modelName + PARTITION_SEPARATOR + "*";
+    }
+
+    /**
+     * @return the model of the index, the index name itself if it isn't a partition.
+     */
+    public static String modelName(String indexName) {
+        int index = indexName.lastIndexOf(PARTITION_SEPARATOR);
+        if (index > 0 && indexName.substring(index + 1).matches("\\d{8}")) {
+            return indexName.substring(0, index);
+        }
+        return indexName;
+    }
+
+    /**
+     * @param timeBucket in any precision, from second to month.
+     * @return the index which the data of the time bucket is written into.
+     */
+    public String indexName(String modelName, long timeBucket) {
+        if (!isPartitioned()) {
+            return modelName;
+        }
+        return partitionName(modelName, partitionStart(toDate(timeBucket)));
+    }
+
+    /**
+     * @param id the indicator id, which starts with its time bucket.
+     */
+    public String indexNameOfId(String modelName, String id) {
+        if (!isPartitioned()) {
+            return modelName;
+        }
+        int index = id.indexOf(Const.ID_SPLIT);
+        return indexName(modelName, Long.parseLong(index < 0 ? id : id.substring(0, index)));
+    }
+
+    /**
+     * @return the indices covering the time range, which has to be searched.
+     */
+    public String[] indexNames(String modelName, long startTimeBucket, long endTimeBucket) {
+        if (!isPartitioned() || startTimeBucket <= 0 || endTimeBucket <= 0) {
+            return new String[] {modelName};
+        }
+
+        LocalDate start = partitionStart(toDate(startTimeBucket));
+        LocalDate end = toDate(endTimeBucket);
+        long partitions = (end.toEpochDay() - start.toEpochDay()) / partitionDays + 1;
+        if (partitions <= 0 || partitions > MAX_SEARCH_PARTITIONS) {
+            return new String[] {modelName};
+        }
+
+        String[] indexNames = new String[(int)partitions];
+        for (int i = 0; i < indexNames.length; i++) {
+            indexNames[i] = partitionName(modelName, start.plusDays((long)i * partitionDays));
+        }
+        return indexNames;
+    }
+
+    /**
+     * @param indexNames the partitions of the model.
+     * @param timeBucketBefore the data before and at this time bucket is expired.
+     * @return the partitions which only hold the expired data.
+     */
+    public List<String> expiredIndexNames(String modelName, List<String> indexNames, long timeBucketBefore) {
+        LocalDate boundary = toDate(timeBucketBefore);
+        String prefix = modelName + PARTITION_SEPARATOR;
+
+        List<String> expired = new ArrayList<>();
+        for (String indexName : indexNames) {
+            if (!indexName.startsWith(prefix)) {
+                continue;
+            }
+            LocalDate start;
+            try {
+                start = LocalDate.parse(indexName.substring(prefix.length()), FORMATTER);
+            } catch (RuntimeException e) {
+                continue;
+            }
+            if (!start.plusDays(partitionDays).isAfter(boundary)) {
+                expired.add(indexName);
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * @param timeBucketBefore the data before and at this time bucket is expired.
+     * @return true if the data expires within one partition span, then the partitions are kept far longer than the TTL,
+     * as a partition is only deleted after all its data expires.
+     */
+    public boolean isExpiredWithinPartition(long timeBucketBefore, LocalDateTime now) {
+        return isPartitioned() && toDateTime(timeBucketBefore).plusDays(partitionDays).isAfter(now);
+    }
+
+    private String partitionName(String modelName, LocalDate start) {
+        return modelName + PARTITION_SEPARATOR + start.format(FORMATTER);
+    }
+
+    private LocalDate partitionStart(LocalDate date) {
+        long epochDay = date.toEpochDay();
+        return LocalDate.ofEpochDay(epochDay - Math.floorMod(epochDay, (long)partitionDays));
+    }
+
+    static LocalDate toDate(long timeBucket) {
+        return toDateTime(timeBucket).toLocalDate();
+    }
+
+    /**
+     * Time buckets are yyyyMMddHHmmss, yyyyMMddHHmm, yyyyMMddHH, yyyyMMdd or yyyyMM.
+     */
+    static LocalDateTime toDateTime(long timeBucket) {
+        long second;
+        if (timeBucket > 99999999999999L) {
+            throw new IllegalArgumentException("Unexpected time bucket: " + timeBucket);
+        } else if (timeBucket > 999999999999L) {
+            second = timeBucket;
+        } else if (timeBucket > 9999999999L) {
+            second = timeBucket * 100;
+        } else if (timeBucket > 99999999L) {
+            second = timeBucket * 10000;
+        } else if (timeBucket > 999999L) {
+            second = timeBucket * 1000000;
+        } else {
+            second = (timeBucket * 100 + 1) * 1000000;
+        }
+        long day = second / 1000000;
+        return LocalDateTime.of((int)(day / 10000), (int)(day / 100 % 100), (int)(day % 100),
+            (int)(second / 10000 % 100), (int)(second / 100 % 100), (int)(second % 100));
+    }
+}
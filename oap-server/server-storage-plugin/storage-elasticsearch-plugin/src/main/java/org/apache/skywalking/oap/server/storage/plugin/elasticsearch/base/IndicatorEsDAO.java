@@ -18,13 +18,17 @@
 
 package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.lucene.util.BytesRef;
 import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
 import org.apache.skywalking.oap.server.core.storage.*;
-import org.apache.skywalking.oap.server.core.storage.type.StorageDataType;
 import org.apache.skywalking.oap.server.library.client.elasticsearch.ElasticSearchClient;
 import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.get.MultiGetItemResponse;
+import org.elasticsearch.action.get.MultiGetResponse;
 import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.update.UpdateRequest;
 import org.elasticsearch.common.xcontent.*;
@@ -37,51 +41,91 @@ public class IndicatorEsDAO extends EsDAO implements IIndicatorDAO<IndexRequest,
 
     private static final Logger logger = LoggerFactory.getLogger(IndicatorEsDAO.class);
 
+    private static final ThreadLocal<ByteArrayOutputStream> SOURCE_BUFFER = ThreadLocal.withInitial(ByteArrayOutputStream::new);
+
+    /**
+     * The buffer grown beyond this size by a large indicator is dropped after use, rather than kept by the thread.
+     */
+    private static final int MAX_SOURCE_BUFFER_SIZE = 64 * 1024;
+
     private final StorageBuilder<Indicator> storageBuilder;
+    private final IndexPartitioner partitioner;
 
-    public IndicatorEsDAO(ElasticSearchClient client, StorageBuilder<Indicator> storageBuilder) {
+    public IndicatorEsDAO(ElasticSearchClient client, StorageBuilder<Indicator> storageBuilder,
+        IndexPartitioner partitioner) {
         super(client);
         this.storageBuilder = storageBuilder;
+        this.partitioner = partitioner;
     }
 
     @Override public Indicator get(String modelName, Indicator indicator) throws IOException {
-        GetResponse response = getClient().get(modelName, indicator.id());
+        GetResponse response = getClient().get(partitioner.indexName(modelName, indicator.getTimeBucket()), indicator.id());
         if (response.isExists()) {
-            return storageBuilder.map2Data(response.getSource());
+            return toIndicator(response);
         } else {
             return null;
         }
     }
 
-    @Override public IndexRequest prepareBatchInsert(String modelName, Indicator indicator) throws IOException {
-        Map<String, Object> objectMap = storageBuilder.data2Map(indicator);
-
-        XContentBuilder builder = XContentFactory.jsonBuilder().startObject();
-        for (String key : objectMap.keySet()) {
-            Object value = objectMap.get(key);
-            if (value instanceof StorageDataType) {
-                builder.field(key, ((StorageDataType)value).toStorageData());
-            } else {
-                builder.field(key, value);
+    @Override public List<Indicator> multiGet(String modelName, List<Indicator> indicators) throws IOException {
+        List<String> indexNames = new ArrayList<>(indicators.size());
+        List<String> ids = new ArrayList<>(indicators.size());
+        indicators.forEach(indicator -> {
+            indexNames.add(partitioner.indexName(modelName, indicator.getTimeBucket()));
+            ids.add(indicator.id());
+        });
+
+        MultiGetResponse response = getClient().multiGet(indexNames, ids);
+
+        List<Indicator> result = new ArrayList<>(ids.size());
+        for (MultiGetItemResponse itemResponse : response.getResponses()) {
+            if (itemResponse.isFailed()) {
+                logger.warn("multi get {} failure, id: {}, reason: {}", modelName, itemResponse.getId(), itemResponse.getFailure().getMessage());
+                continue;
+            }
+            GetResponse getResponse = itemResponse.getResponse();
+            if (getResponse.isExists()) {
+                result.add(toIndicator(getResponse));
             }
         }
-        builder.endObject();
-        return getClient().prepareInsert(modelName, indicator.id(), builder);
+        return result;
+    }
+
+    @Override public IndexRequest prepareBatchInsert(String modelName, Indicator indicator) throws IOException {
+        return getClient().prepareInsert(partitioner.indexName(modelName, indicator.getTimeBucket()), indicator.id(), toSource(indicator));
     }
 
     @Override public UpdateRequest prepareBatchUpdate(String modelName, Indicator indicator) throws IOException {
-        Map<String, Object> objectMap = storageBuilder.data2Map(indicator);
-
-        XContentBuilder builder = XContentFactory.jsonBuilder().startObject();
-        for (String key : objectMap.keySet()) {
-            Object value = objectMap.get(key);
-            if (value instanceof StorageDataType) {
-                builder.field(key, ((StorageDataType)value).toStorageData());
-            } else {
-                builder.field(key, value);
-            }
+        return getClient().prepareUpdate(partitioner.indexName(modelName, indicator.getTimeBucket()), indicator.id(), toSource(indicator));
+    }
+
+    /**
+     * Decode the source straight from its bytes, rather than through {@link GetResponse#getSource()}.
+     */
+    private Indicator toIndicator(GetResponse response) throws IOException {
+        BytesRef source = response.getSourceAsBytesRef().toBytesRef();
+        try (XContentParser parser = XContentType.JSON.xContent().createParser(NamedXContentRegistry.EMPTY,
+            DeprecationHandler.THROW_UNSUPPORTED_OPERATION, source.bytes, source.offset, source.length)) {
+            return storageBuilder.reader2Data(new XContentStorageDataReader(parser));
         }
+    }
+
+    /**
+     * Encode the indicator into the buffer of the current thread, the bytes are copied out once it is done.
+     */
+    private byte[] toSource(Indicator indicator) throws IOException {
+        ByteArrayOutputStream buffer = SOURCE_BUFFER.get();
+        buffer.reset();
+
+        XContentBuilder builder = new XContentBuilder(XContentType.JSON.xContent(), buffer);
+        builder.startObject();
+        storageBuilder.data2Writer(indicator, new XContentStorageDataWriter(builder));
         builder.endObject();
-        return getClient().prepareUpdate(modelName, indicator.id(), builder);
+        builder.close();
+        byte[] source = buffer.toByteArray();
+        if (buffer.size() > MAX_SOURCE_BUFFER_SIZE) {
+            SOURCE_BUFFER.remove();
+        }
+        return source;
     }
 }
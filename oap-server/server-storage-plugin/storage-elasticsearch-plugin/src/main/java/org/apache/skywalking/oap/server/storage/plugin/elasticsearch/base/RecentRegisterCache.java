@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.skywalking.oap.server.core.register.RegisterSource;
+
+/**
+ * The inventories registered by this OAP node recently, by model name and sequence. When the register writes don't
+ * refresh the index, a new inventory can't be searched by its sequence until the next index refresh, so the inventory
+ * cache DAOs look up here first. This cache only holds the inventories registered by this node, the DAOs refresh the
+ * index and search again when the ones registered by another node are missed.
+ *
+ * To keep the lookups from refreshing the indexes as often as the registrations did, an index is refreshed at most
+ * once per second, and the sequences still missed after a refresh are remembered for a few seconds.
+ *
+ * Get by id is real time in ElasticSearch, so only the searches by sequence need this cache.
+ */
+public class RecentRegisterCache {
+
+    /**
+     * Far longer than the index.refresh_interval of the indexes, after that the inventory could be searched.
+     */
+    private static final long EXPIRE_MILLIS = 30 * 1000;
+    private static final long MISS_EXPIRE_MILLIS = 3 * 1000;
+    private static final long REFRESH_INTERVAL_MILLIS = 1000;
+
+    private final long expireMillis;
+    private final long missExpireMillis;
+    private final long refreshIntervalMillis;
+    private final Map<String, Map<Integer, Entry>> models = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> lastRefreshTimes = new ConcurrentHashMap<>();
+    private volatile long lastPurgeTime = System.currentTimeMillis();
+
+    public RecentRegisterCache() {
+        this(EXPIRE_MILLIS, MISS_EXPIRE_MILLIS, REFRESH_INTERVAL_MILLIS);
+    }
+
+    RecentRegisterCache(long expireMillis, long missExpireMillis, long refreshIntervalMillis) {
+        this.expireMillis = expireMillis;
+        this.missExpireMillis = missExpireMillis;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+    }
+
+    public void put(String modelName, RegisterSource source) {
+        long now = System.currentTimeMillis();
+        models.computeIfAbsent(modelName, name -> new ConcurrentHashMap<>()).put(source.getSequence(), new Entry(source, now + expireMillis));
+        tryPurge(now);
+    }
+
+    /**
+     * Remember the sequence which isn't found even after the index refresh.
+     */
+    public void putMissing(String modelName, int sequence) {
+        long now = System.currentTimeMillis();
+        models.computeIfAbsent(modelName, name -> new ConcurrentHashMap<>()).putIfAbsent(sequence, new Entry(null, now + missExpireMillis));
+        tryPurge(now);
+    }
+
+    /**
+     * @return true if the sequence was missed after an index refresh in the last few seconds.
+     */
+    public boolean isMissing(String modelName, int sequence) {
+        Map<Integer, Entry> entries = models.get(modelName);
+        if (entries == null) {
+            return false;
+        }
+        Entry entry = entries.get(sequence);
+        return entry != null && entry.source == null && entry.expireTime >= System.currentTimeMillis();
+    }
+
+    /**
+     * @return true if the index could be refreshed now, then the refresh interval starts again.
+     */
+    public boolean tryRefresh(String modelName) {
+        AtomicLong lastRefreshTime = lastRefreshTimes.computeIfAbsent(modelName, name -> new AtomicLong());
+        long now = System.currentTimeMillis();
+        long last = lastRefreshTime.get();
+        return now - last >= refreshIntervalMillis && lastRefreshTime.compareAndSet(last, now);
+    }
+
+    /**
+     * @return the inventory registered in the last 30 seconds, or null.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends RegisterSource> T get(String modelName, int sequence) {
+        Map<Integer, Entry> entries = models.get(modelName);
+        if (entries == null) {
+            return null;
+        }
+        Entry entry = entries.get(sequence);
+        if (entry == null || entry.expireTime < System.currentTimeMillis()) {
+            return null;
+        }
+        return (T)entry.source;
+    }
+
+    private void tryPurge(long now) {
+        if (now - lastPurgeTime > expireMillis) {
+            lastPurgeTime = now;
+            purge(now);
+        }
+    }
+
+    private void purge(long now) {
+        for (Map<Integer, Entry> entries : models.values()) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().expireTime < now) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private static class Entry {
+        private final RegisterSource source;
+        private final long expireTime;
+
+        private Entry(RegisterSource source, long expireTime) {
+            this.source = source;
+            this.expireTime = expireTime;
+        }
+    }
+}
@@ -33,10 +33,13 @@ import org.elasticsearch.common.xcontent.*;
 public class RecordEsDAO extends EsDAO implements IRecordDAO<IndexRequest> {
 
     private final StorageBuilder<Record> storageBuilder;
+    private final IndexPartitioner partitioner;
 
-    public RecordEsDAO(ElasticSearchClient client, StorageBuilder<Record> storageBuilder) {
+    public RecordEsDAO(ElasticSearchClient client, StorageBuilder<Record> storageBuilder,
+        IndexPartitioner partitioner) {
         super(client);
         this.storageBuilder = storageBuilder;
+        this.partitioner = partitioner;
     }
 
     @Override public IndexRequest prepareBatchInsert(String modelName, Record record) throws IOException {
@@ -52,6 +55,6 @@ public class RecordEsDAO extends EsDAO implements IRecordDAO<IndexRequest> {
             }
         }
         builder.endObject();
-        return getClient().prepareInsert(modelName, record.id(), builder);
+        return getClient().prepareInsert(partitioner.indexName(modelName, record.getTimeBucket()), record.id(), builder);
     }
 }
@@ -19,11 +19,12 @@
 package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base;
 
 import java.io.IOException;
-import java.util.Map;
+import java.util.*;
 import org.apache.skywalking.oap.server.core.register.RegisterSource;
 import org.apache.skywalking.oap.server.core.storage.*;
 import org.apache.skywalking.oap.server.library.client.elasticsearch.ElasticSearchClient;
-import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.get.*;
+import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.common.xcontent.*;
 import org.slf4j.*;
 
@@ -35,10 +36,13 @@ public class RegisterEsDAO extends EsDAO implements IRegisterDAO {
     private static final Logger logger = LoggerFactory.getLogger(RegisterEsDAO.class);
 
     private final StorageBuilder<RegisterSource> storageBuilder;
+    private final RecentRegisterCache registerCache;
 
-    public RegisterEsDAO(ElasticSearchClient client, StorageBuilder<RegisterSource> storageBuilder) {
+    public RegisterEsDAO(ElasticSearchClient client, StorageBuilder<RegisterSource> storageBuilder,
+        RecentRegisterCache registerCache) {
         super(client);
         this.storageBuilder = storageBuilder;
+        this.registerCache = registerCache;
     }
 
     @Override public RegisterSource get(String modelName, String id) throws IOException {
@@ -50,14 +54,55 @@ public class RegisterEsDAO extends EsDAO implements IRegisterDAO {
         }
     }
 
+    @Override public List<RegisterSource> multiGet(String modelName, List<String> ids) throws IOException {
+        List<RegisterSource> result = new ArrayList<>(ids.size());
+        if (ids.isEmpty()) {
+            return result;
+        }
+
+        MultiGetResponse response = getClient().multiGet(modelName, ids);
+        for (MultiGetItemResponse itemResponse : response.getResponses()) {
+            if (itemResponse.isFailed()) {
+                throw new IOException("multi get " + modelName + " failure, id: " + itemResponse.getId() + ", reason: " + itemResponse.getFailure().getMessage());
+            }
+            GetResponse getResponse = itemResponse.getResponse();
+            if (getResponse.isExists()) {
+                result.add(storageBuilder.map2Data(getResponse.getSource()));
+            }
+        }
+        return result;
+    }
+
     @Override public void forceInsert(String modelName, RegisterSource source) throws IOException {
         XContentBuilder builder = build(source);
         getClient().forceInsert(modelName, source.id(), builder);
+        cache(modelName, source);
+    }
+
+    @Override public void forceBatchInsert(String modelName, List<RegisterSource> sources) throws IOException {
+        List<IndexRequest> requests = new ArrayList<>(sources.size());
+        for (RegisterSource source : sources) {
+            requests.add(getClient().prepareInsert(modelName, source.id(), build(source)));
+        }
+        getClient().forceBatchInsert(requests);
+        for (RegisterSource source : sources) {
+            cache(modelName, source);
+        }
     }
 
     @Override public void forceUpdate(String modelName, RegisterSource source) throws IOException {
         XContentBuilder builder = build(source);
         getClient().forceUpdate(modelName, source.id(), builder);
+        cache(modelName, source);
+    }
+
+    /**
+     * Keep a copy of the written inventory, the given one may be changed by the register worker later.
+     */
+    private void cache(String modelName, RegisterSource source) {
+        if (registerCache != null) {
+            registerCache.put(modelName, storageBuilder.map2Data(storageBuilder.data2Map(source)));
+        }
     }
 
     private XContentBuilder build(RegisterSource source) throws IOException {
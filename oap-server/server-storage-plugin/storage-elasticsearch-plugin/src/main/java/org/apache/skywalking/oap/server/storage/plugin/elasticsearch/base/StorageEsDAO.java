@@ -29,19 +29,27 @@ import org.apache.skywalking.oap.server.library.client.elasticsearch.ElasticSear
  */
 public class StorageEsDAO extends EsDAO implements StorageDAO {
 
-    public StorageEsDAO(ElasticSearchClient client) {
+    private final RecentRegisterCache registerCache;
+    private final IndexPartitioner partitioner;
+
+    /**
+     * @param registerCache keeps the registered inventories, null if the register writes refresh the index.
+     */
+    public StorageEsDAO(ElasticSearchClient client, RecentRegisterCache registerCache, IndexPartitioner partitioner) {
         super(client);
+        this.registerCache = registerCache;
+        this.partitioner = partitioner;
     }
 
     @Override public IIndicatorDAO newIndicatorDao(StorageBuilder<Indicator> storageBuilder) {
-        return new IndicatorEsDAO(getClient(), storageBuilder);
+        return new IndicatorEsDAO(getClient(), storageBuilder, partitioner);
     }
 
     @Override public IRegisterDAO newRegisterDao(StorageBuilder<RegisterSource> storageBuilder) {
-        return new RegisterEsDAO(getClient(), storageBuilder);
+        return new RegisterEsDAO(getClient(), storageBuilder, registerCache);
     }
 
     @Override public IRecordDAO newRecordDao(StorageBuilder<Record> storageBuilder) {
-        return new RecordEsDAO(getClient(), storageBuilder);
+        return new RecordEsDAO(getClient(), storageBuilder, partitioner);
     }
 }
@@ -44,17 +44,30 @@ public class StorageEsInstaller extends ModelInstaller {
     private final int indexShardsNumber;
     private final int indexReplicasNumber;
     private final ColumnTypeEsMapping mapping;
+    private final IndexPartitioner partitioner;
 
-    public StorageEsInstaller(ModuleManager moduleManager, int indexShardsNumber, int indexReplicasNumber) {
+    public StorageEsInstaller(ModuleManager moduleManager, int indexShardsNumber, int indexReplicasNumber,
+        IndexPartitioner partitioner) {
         super(moduleManager);
         this.indexShardsNumber = indexShardsNumber;
         this.indexReplicasNumber = indexReplicasNumber;
         this.mapping = new ColumnTypeEsMapping();
+        this.partitioner = partitioner;
+    }
+
+    /**
+     * The records and indicators are partitioned, the inventories always stay in one index.
+     */
+    private boolean isPartitioned(Model tableDefine) {
+        return partitioner.isPartitioned() && tableDefine.isDeleteHistory();
     }
 
     @Override protected boolean isExists(Client client, Model tableDefine) throws StorageException {
         ElasticSearchClient esClient = (ElasticSearchClient)client;
         try {
+            if (isPartitioned(tableDefine)) {
+                return esClient.isExistsTemplate(tableDefine.getName());
+            }
             return esClient.isExistsIndex(tableDefine.getName());
         } catch (IOException e) {
             throw new StorageException(e.getMessage());
@@ -69,6 +82,11 @@ public class StorageEsInstaller extends ModelInstaller {
         ElasticSearchClient esClient = (ElasticSearchClient)client;
 
         try {
+            if (isPartitioned(tableDefine)) {
+                esClient.deleteTemplate(tableDefine.getName());
+                esClient.deleteIndex(partitioner.pattern(tableDefine.getName()));
+                return;
+            }
             if (!esClient.deleteIndex(tableDefine.getName())) {
                 throw new StorageException(tableDefine.getName() + " index delete failure.");
             }
@@ -91,6 +109,11 @@ public class StorageEsInstaller extends ModelInstaller {
             logger.error("create {} index mapping builder error, error message: {}", esClient.formatIndexName(tableDefine.getName()), e.getMessage());
         }
 
+        if (isPartitioned(tableDefine)) {
+            createTemplate(esClient, tableDefine, settings, mappingBuilder);
+            return;
+        }
+
         boolean isAcknowledged;
         try {
             isAcknowledged = esClient.createIndex(tableDefine.getName(), settings, mappingBuilder);
@@ -104,6 +127,28 @@ public class StorageEsInstaller extends ModelInstaller {
         }
     }
 
+    /**
+     * The partitions are created by the template at the first write, so they get the same settings and mapping as the
+     * single index, and join the alias named as the model.
+     */
+    private void createTemplate(ElasticSearchClient esClient, Model tableDefine, Settings settings,
+        XContentBuilder mappingBuilder) throws StorageException {
+        boolean isAcknowledged;
+        try {
+            if (esClient.isExistsIndex(tableDefine.getName())) {
+                throw new StorageException("index " + esClient.formatIndexName(tableDefine.getName()) + " exists, delete it before partitioning the index.");
+            }
+            isAcknowledged = esClient.createTemplate(tableDefine.getName(), partitioner.pattern(tableDefine.getName()), settings, mappingBuilder);
+        } catch (IOException e) {
+            throw new StorageException(e.getMessage());
+        }
+        logger.info("create {} template finished, isAcknowledged: {}", esClient.formatIndexName(tableDefine.getName()), isAcknowledged);
+
+        if (!isAcknowledged) {
+            throw new StorageException("create " + esClient.formatIndexName(tableDefine.getName()) + " template failure, ");
+        }
+    }
+
     private Settings createSettingBuilder() {
         return Settings.builder()
             .put("index.number_of_shards", indexShardsNumber)
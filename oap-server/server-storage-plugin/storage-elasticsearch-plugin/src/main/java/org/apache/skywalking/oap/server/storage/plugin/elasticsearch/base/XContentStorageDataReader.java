@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base;
+
+import java.io.IOException;
+import org.apache.skywalking.oap.server.core.storage.StorageDataReader;
+import org.elasticsearch.common.xcontent.XContentParser;
+
+/**
+ * Read the fields of the top level object of the {@link XContentParser} as the columns.
+ */
+public class XContentStorageDataReader implements StorageDataReader {
+
+    private final XContentParser parser;
+    private boolean started;
+
+    public XContentStorageDataReader(XContentParser parser) {
+        this.parser = parser;
+        this.started = false;
+    }
+
+    @Override public String nextColumn() throws IOException {
+        XContentParser.Token token = parser.nextToken();
+        if (!started) {
+            started = true;
+            if (token != XContentParser.Token.START_OBJECT) {
+                return null;
+            }
+            token = parser.nextToken();
+        }
+        if (token != XContentParser.Token.FIELD_NAME) {
+            return null;
+        }
+        String columnName = parser.currentName();
+        parser.nextToken();
+        return columnName;
+    }
+
+    @Override public long readLong() throws IOException {
+        return parser.longValue();
+    }
+
+    @Override public int readInt() throws IOException {
+        return parser.intValue();
+    }
+
+    @Override public double readDouble() throws IOException {
+        return parser.doubleValue();
+    }
+
+    @Override public float readFloat() throws IOException {
+        return parser.floatValue();
+    }
+
+    @Override public String readString() throws IOException {
+        return parser.textOrNull();
+    }
+
+    @Override public Object readObject() throws IOException {
+        switch (parser.currentToken()) {
+            case START_OBJECT:
+                return parser.map();
+            case START_ARRAY:
+                return parser.list();
+            case VALUE_NULL:
+                return null;
+            default:
+                return parser.objectText();
+        }
+    }
+
+    @Override public void skip() throws IOException {
+        parser.skipChildren();
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base;
+
+import java.io.IOException;
+import org.apache.skywalking.oap.server.core.storage.StorageDataWriter;
+import org.apache.skywalking.oap.server.core.storage.type.StorageDataType;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+
+/**
+ * Write the columns as the fields of the current object of the {@link XContentBuilder}.
+ */
+public class XContentStorageDataWriter implements StorageDataWriter {
+
+    private final XContentBuilder builder;
+
+    public XContentStorageDataWriter(XContentBuilder builder) {
+        this.builder = builder;
+    }
+
+    @Override public void write(String columnName, long value) throws IOException {
+        builder.field(columnName, value);
+    }
+
+    @Override public void write(String columnName, int value) throws IOException {
+        builder.field(columnName, value);
+    }
+
+    @Override public void write(String columnName, double value) throws IOException {
+        builder.field(columnName, value);
+    }
+
+    @Override public void write(String columnName, String value) throws IOException {
+        builder.field(columnName, value);
+    }
+
+    @Override public void write(String columnName, StorageDataType value) throws IOException {
+        builder.field(columnName, value == null ? null : value.toStorageData());
+    }
+
+    @Override public void write(String columnName, Object value) throws IOException {
+        builder.field(columnName, value);
+    }
+}
@@ -23,6 +23,7 @@ import org.apache.skywalking.oap.server.core.register.*;
 import org.apache.skywalking.oap.server.core.storage.cache.IEndpointInventoryCacheDAO;
 import org.apache.skywalking.oap.server.library.client.elasticsearch.ElasticSearchClient;
 import org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base.EsDAO;
+import org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base.RecentRegisterCache;
 import org.elasticsearch.action.get.GetResponse;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.index.query.QueryBuilders;
@@ -39,8 +40,11 @@ public class EndpointInventoryCacheEsDAO extends EsDAO implements IEndpointInven
 
     private final EndpointInventory.Builder builder = new EndpointInventory.Builder();
 
-    public EndpointInventoryCacheEsDAO(ElasticSearchClient client) {
+    private final RecentRegisterCache registerCache;
+
+    public EndpointInventoryCacheEsDAO(ElasticSearchClient client, RecentRegisterCache registerCache) {
         super(client);
+        this.registerCache = registerCache;
     }
 
     @Override public int getEndpointId(int serviceId, String endpointName, int detectPoint) {
@@ -59,12 +63,18 @@ public class EndpointInventoryCacheEsDAO extends EsDAO implements IEndpointInven
     }
 
     @Override public EndpointInventory get(int endpointId) {
+        if (registerCache != null) {
+            EndpointInventory inventory = registerCache.get(EndpointInventory.MODEL_NAME, endpointId);
+            if (inventory != null || registerCache.isMissing(EndpointInventory.MODEL_NAME, endpointId)) {
+                return inventory;
+            }
+        }
         try {
             SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
             searchSourceBuilder.query(QueryBuilders.termQuery(EndpointInventory.SEQUENCE, endpointId));
             searchSourceBuilder.size(1);
 
-            SearchResponse response = getClient().search(EndpointInventory.MODEL_NAME, searchSourceBuilder);
+            SearchResponse response = searchBySequence(EndpointInventory.MODEL_NAME, endpointId, searchSourceBuilder, registerCache);
             if (response.getHits().totalHits == 1) {
                 SearchHit searchHit = response.getHits().getAt(0);
                 return builder.map2Data(searchHit.getSourceAsMap());
@@ -23,6 +23,7 @@ import org.apache.skywalking.oap.server.core.register.NetworkAddressInventory;
 import org.apache.skywalking.oap.server.core.storage.cache.INetworkAddressInventoryCacheDAO;
 import org.apache.skywalking.oap.server.library.client.elasticsearch.ElasticSearchClient;
 import org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base.EsDAO;
+import org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base.RecentRegisterCache;
 import org.elasticsearch.action.get.GetResponse;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.index.query.QueryBuilders;
@@ -39,8 +40,11 @@ public class NetworkAddressInventoryCacheEsDAO extends EsDAO implements INetwork
 
     private final NetworkAddressInventory.Builder builder = new NetworkAddressInventory.Builder();
 
-    public NetworkAddressInventoryCacheEsDAO(ElasticSearchClient client) {
+    private final RecentRegisterCache registerCache;
+
+    public NetworkAddressInventoryCacheEsDAO(ElasticSearchClient client, RecentRegisterCache registerCache) {
         super(client);
+        this.registerCache = registerCache;
     }
 
     @Override public int getAddressId(String networkAddress) {
@@ -59,12 +63,18 @@ public class NetworkAddressInventoryCacheEsDAO extends EsDAO implements INetwork
     }
 
     @Override public NetworkAddressInventory get(int addressId) {
+        if (registerCache != null) {
+            NetworkAddressInventory inventory = registerCache.get(NetworkAddressInventory.MODEL_NAME, addressId);
+            if (inventory != null || registerCache.isMissing(NetworkAddressInventory.MODEL_NAME, addressId)) {
+                return inventory;
+            }
+        }
         try {
             SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
             searchSourceBuilder.query(QueryBuilders.termQuery(NetworkAddressInventory.SEQUENCE, addressId));
             searchSourceBuilder.size(1);
 
-            SearchResponse response = getClient().search(NetworkAddressInventory.MODEL_NAME, searchSourceBuilder);
+            SearchResponse response = searchBySequence(NetworkAddressInventory.MODEL_NAME, addressId, searchSourceBuilder, registerCache);
             if (response.getHits().totalHits == 1) {
                 SearchHit searchHit = response.getHits().getAt(0);
                 return builder.map2Data(searchHit.getSourceAsMap());
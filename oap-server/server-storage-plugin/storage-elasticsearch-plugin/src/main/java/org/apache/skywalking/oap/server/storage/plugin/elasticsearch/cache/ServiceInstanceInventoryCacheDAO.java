@@ -23,6 +23,7 @@ import org.apache.skywalking.oap.server.core.register.*;
 import org.apache.skywalking.oap.server.core.storage.cache.IServiceInstanceInventoryCacheDAO;
 import org.apache.skywalking.oap.server.library.client.elasticsearch.ElasticSearchClient;
 import org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base.EsDAO;
+import org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base.RecentRegisterCache;
 import org.elasticsearch.action.get.GetResponse;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.index.query.QueryBuilders;
@@ -39,17 +40,26 @@ public class ServiceInstanceInventoryCacheDAO extends EsDAO implements IServiceI
 
     private final ServiceInstanceInventory.Builder builder = new ServiceInstanceInventory.Builder();
 
-    public ServiceInstanceInventoryCacheDAO(ElasticSearchClient client) {
+    private final RecentRegisterCache registerCache;
+
+    public ServiceInstanceInventoryCacheDAO(ElasticSearchClient client, RecentRegisterCache registerCache) {
         super(client);
+        this.registerCache = registerCache;
     }
 
     @Override public ServiceInstanceInventory get(int serviceInstanceId) {
+        if (registerCache != null) {
+            ServiceInstanceInventory inventory = registerCache.get(ServiceInstanceInventory.MODEL_NAME, serviceInstanceId);
+            if (inventory != null || registerCache.isMissing(ServiceInstanceInventory.MODEL_NAME, serviceInstanceId)) {
+                return inventory;
+            }
+        }
         try {
             SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
             searchSourceBuilder.query(QueryBuilders.termQuery(ServiceInstanceInventory.SEQUENCE, serviceInstanceId));
             searchSourceBuilder.size(1);
 
-            SearchResponse response = getClient().search(ServiceInstanceInventory.MODEL_NAME, searchSourceBuilder);
+            SearchResponse response = searchBySequence(ServiceInstanceInventory.MODEL_NAME, serviceInstanceId, searchSourceBuilder, registerCache);
             if (response.getHits().totalHits == 1) {
                 SearchHit searchHit = response.getHits().getAt(0);
                 return builder.map2Data(searchHit.getSourceAsMap());
@@ -25,6 +25,7 @@ import org.apache.skywalking.oap.server.core.storage.cache.IServiceInventoryCach
 import org.apache.skywalking.oap.server.library.client.elasticsearch.ElasticSearchClient;
 import org.apache.skywalking.oap.server.library.util.BooleanUtils;
 import org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base.EsDAO;
+import org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base.RecentRegisterCache;
 import org.elasticsearch.action.get.GetResponse;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.index.query.*;
@@ -41,8 +42,11 @@ public class ServiceInventoryCacheEsDAO extends EsDAO implements IServiceInvento
 
     private final ServiceInventory.Builder builder = new ServiceInventory.Builder();
 
-    public ServiceInventoryCacheEsDAO(ElasticSearchClient client) {
+    private final RecentRegisterCache registerCache;
+
+    public ServiceInventoryCacheEsDAO(ElasticSearchClient client, RecentRegisterCache registerCache) {
         super(client);
+        this.registerCache = registerCache;
     }
 
     @Override public int getServiceId(String serviceName) {
@@ -70,12 +74,18 @@ public class ServiceInventoryCacheEsDAO extends EsDAO implements IServiceInvento
     }
 
     @Override public ServiceInventory get(int serviceId) {
+        if (registerCache != null) {
+            ServiceInventory inventory = registerCache.get(ServiceInventory.MODEL_NAME, serviceId);
+            if (inventory != null || registerCache.isMissing(ServiceInventory.MODEL_NAME, serviceId)) {
+                return inventory;
+            }
+        }
         try {
             SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
             searchSourceBuilder.query(QueryBuilders.termQuery(ServiceInventory.SEQUENCE, serviceId));
             searchSourceBuilder.size(1);
 
-            SearchResponse response = getClient().search(ServiceInventory.MODEL_NAME, searchSourceBuilder);
+            SearchResponse response = searchBySequence(ServiceInventory.MODEL_NAME, serviceId, searchSourceBuilder, registerCache);
             if (response.getHits().totalHits == 1) {
                 SearchHit searchHit = response.getHits().getAt(0);
                 return builder.map2Data(searchHit.getSourceAsMap());
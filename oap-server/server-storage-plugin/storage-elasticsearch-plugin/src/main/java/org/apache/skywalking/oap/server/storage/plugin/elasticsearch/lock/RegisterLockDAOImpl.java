@@ -64,6 +64,28 @@ public class RegisterLockDAOImpl extends EsDAO implements IRegisterLockDAO {
         return sequence;
     }
 
+    @Override public int getIds(Scope scope, int count) {
+        String id = String.valueOf(scope.ordinal());
+
+        int sequence = Const.NONE;
+        try {
+            GetResponse response = getClient().get(RegisterLockIndex.NAME, id);
+            if (response.isExists()) {
+                Map<String, Object> source = response.getSource();
+
+                sequence = ((Number)source.get(RegisterLockIndex.COLUMN_SEQUENCE)).intValue();
+                long version = response.getVersion();
+
+                lock(id, sequence + count, version);
+                sequence++;
+            }
+        } catch (Throwable t) {
+            logger.warn("Try to lock the row with the id {} failure, error message: {}", id, t.getMessage());
+            return Const.NONE;
+        }
+        return sequence;
+    }
+
     private void lock(String id, int sequence, long version) throws IOException {
         XContentBuilder source = XContentFactory.jsonBuilder().startObject();
         source.field(RegisterLockIndex.COLUMN_SEQUENCE, sequence);
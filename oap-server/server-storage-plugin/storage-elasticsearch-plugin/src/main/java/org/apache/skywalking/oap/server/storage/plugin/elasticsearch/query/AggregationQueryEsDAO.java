@@ -27,6 +27,7 @@ import org.apache.skywalking.oap.server.core.storage.DownSamplingModelNameBuilde
 import org.apache.skywalking.oap.server.core.storage.query.IAggregationQueryDAO;
 import org.apache.skywalking.oap.server.library.client.elasticsearch.ElasticSearchClient;
 import org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base.EsDAO;
+import org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base.IndexPartitioner;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.index.query.*;
 import org.elasticsearch.search.aggregations.*;
@@ -39,8 +40,11 @@ import org.elasticsearch.search.builder.SearchSourceBuilder;
  */
 public class AggregationQueryEsDAO extends EsDAO implements IAggregationQueryDAO {
 
-    public AggregationQueryEsDAO(ElasticSearchClient client) {
+    private final IndexPartitioner partitioner;
+
+    public AggregationQueryEsDAO(ElasticSearchClient client, IndexPartitioner partitioner) {
         super(client);
+        this.partitioner = partitioner;
     }
 
     @Override
@@ -50,7 +54,7 @@ public class AggregationQueryEsDAO extends EsDAO implements IAggregationQueryDAO
 
         SearchSourceBuilder sourceBuilder = SearchSourceBuilder.searchSource();
         sourceBuilder.query(QueryBuilders.rangeQuery(Indicator.TIME_BUCKET).lte(endTB).gte(startTB));
-        return aggregation(indexName, valueCName, sourceBuilder, topN, order);
+        return aggregation(partitioner.indexNames(indexName, startTB, endTB), valueCName, sourceBuilder, topN, order);
     }
 
     @Override public List<TopNEntity> getAllServiceInstanceTopN(String indName, String valueCName, int topN, Step step,
@@ -59,7 +63,7 @@ public class AggregationQueryEsDAO extends EsDAO implements IAggregationQueryDAO
 
         SearchSourceBuilder sourceBuilder = SearchSourceBuilder.searchSource();
         sourceBuilder.query(QueryBuilders.rangeQuery(Indicator.TIME_BUCKET).lte(endTB).gte(startTB));
-        return aggregation(indexName, valueCName, sourceBuilder, topN, order);
+        return aggregation(partitioner.indexNames(indexName, startTB, endTB), valueCName, sourceBuilder, topN, order);
     }
 
     @Override public List<TopNEntity> getServiceInstanceTopN(int serviceId, String indName, String valueCName, int topN,
@@ -74,7 +78,7 @@ public class AggregationQueryEsDAO extends EsDAO implements IAggregationQueryDAO
         boolQueryBuilder.must().add(QueryBuilders.rangeQuery(Indicator.TIME_BUCKET).lte(endTB).gte(startTB));
         boolQueryBuilder.must().add(QueryBuilders.termQuery(ServiceInstanceInventory.SERVICE_ID, serviceId));
 
-        return aggregation(indexName, valueCName, sourceBuilder, topN, order);
+        return aggregation(partitioner.indexNames(indexName, startTB, endTB), valueCName, sourceBuilder, topN, order);
     }
 
     @Override
@@ -84,7 +88,7 @@ public class AggregationQueryEsDAO extends EsDAO implements IAggregationQueryDAO
 
         SearchSourceBuilder sourceBuilder = SearchSourceBuilder.searchSource();
         sourceBuilder.query(QueryBuilders.rangeQuery(Indicator.TIME_BUCKET).lte(endTB).gte(startTB));
-        return aggregation(indexName, valueCName, sourceBuilder, topN, order);
+        return aggregation(partitioner.indexNames(indexName, startTB, endTB), valueCName, sourceBuilder, topN, order);
     }
 
     @Override
@@ -100,10 +104,10 @@ public class AggregationQueryEsDAO extends EsDAO implements IAggregationQueryDAO
         boolQueryBuilder.must().add(QueryBuilders.rangeQuery(Indicator.TIME_BUCKET).lte(endTB).gte(startTB));
         boolQueryBuilder.must().add(QueryBuilders.termQuery(EndpointInventory.SERVICE_ID, serviceId));
 
-        return aggregation(indexName, valueCName, sourceBuilder, topN, order);
+        return aggregation(partitioner.indexNames(indexName, startTB, endTB), valueCName, sourceBuilder, topN, order);
     }
 
-    private List<TopNEntity> aggregation(String indexName, String valueCName, SearchSourceBuilder sourceBuilder,
+    private List<TopNEntity> aggregation(String[] indexNames, String valueCName, SearchSourceBuilder sourceBuilder,
         int topN,
         Order order) throws IOException {
         boolean asc = false;
@@ -121,9 +125,12 @@ public class AggregationQueryEsDAO extends EsDAO implements IAggregationQueryDAO
             );
         sourceBuilder.aggregation(aggregationBuilder);
 
-        SearchResponse response = getClient().search(indexName, sourceBuilder);
+        SearchResponse response = getClient().search(indexNames, sourceBuilder);
 
         List<TopNEntity> topNEntities = new ArrayList<>();
+        if (response.getAggregations() == null) {
+            return topNEntities;
+        }
         Terms idTerms = response.getAggregations().get(Indicator.ENTITY_ID);
         for (Terms.Bucket termsBucket : idTerms.getBuckets()) {
             TopNEntity topNEntity = new TopNEntity();
@@ -37,8 +37,11 @@ import org.elasticsearch.search.builder.SearchSourceBuilder;
  */
 public class AlarmQueryEsDAO extends EsDAO implements IAlarmQueryDAO {
 
-    public AlarmQueryEsDAO(ElasticSearchClient client) {
+    private final IndexPartitioner partitioner;
+
+    public AlarmQueryEsDAO(ElasticSearchClient client, IndexPartitioner partitioner) {
         super(client);
+        this.partitioner = partitioner;
     }
 
     public Alarms getAlarm(final Scope scope, final String keyword, final int limit, final int from, final long startTB,
@@ -61,7 +64,7 @@ public class AlarmQueryEsDAO extends EsDAO implements IAlarmQueryDAO {
         sourceBuilder.size(limit);
         sourceBuilder.from(from);
 
-        SearchResponse response = getClient().search(AlarmRecord.INDEX_NAME, sourceBuilder);
+        SearchResponse response = getClient().search(partitioner.indexNames(AlarmRecord.INDEX_NAME, startTB, endTB), sourceBuilder);
 
         Alarms alarms = new Alarms();
         alarms.setTotal((int)response.getHits().totalHits);
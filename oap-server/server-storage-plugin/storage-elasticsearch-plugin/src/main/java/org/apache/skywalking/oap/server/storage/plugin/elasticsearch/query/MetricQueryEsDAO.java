@@ -27,6 +27,7 @@ import org.apache.skywalking.oap.server.core.storage.DownSamplingModelNameBuilde
 import org.apache.skywalking.oap.server.core.storage.query.IMetricQueryDAO;
 import org.apache.skywalking.oap.server.library.client.elasticsearch.ElasticSearchClient;
 import org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base.EsDAO;
+import org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base.IndexPartitioner;
 import org.elasticsearch.action.get.*;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.search.aggregations.AggregationBuilders;
@@ -40,8 +41,11 @@ import org.elasticsearch.search.builder.SearchSourceBuilder;
  */
 public class MetricQueryEsDAO extends EsDAO implements IMetricQueryDAO {
 
-    public MetricQueryEsDAO(ElasticSearchClient client) {
+    private final IndexPartitioner partitioner;
+
+    public MetricQueryEsDAO(ElasticSearchClient client, IndexPartitioner partitioner) {
         super(client);
+        this.partitioner = partitioner;
     }
 
     public IntValues getValues(String indName, Step step, long startTB, long endTB, Where where, String valueCName,
@@ -56,9 +60,12 @@ public class MetricQueryEsDAO extends EsDAO implements IMetricQueryDAO {
 
         sourceBuilder.aggregation(entityIdAggregation);
 
-        SearchResponse response = getClient().search(indexName, sourceBuilder);
+        SearchResponse response = getClient().search(partitioner.indexNames(indexName, startTB, endTB), sourceBuilder);
 
         IntValues intValues = new IntValues();
+        if (response.getAggregations() == null) {
+            return intValues;
+        }
         Terms idTerms = response.getAggregations().get(Indicator.ENTITY_ID);
         for (Terms.Bucket idBucket : idTerms.getBuckets()) {
             long value = 0;
@@ -103,7 +110,7 @@ public class MetricQueryEsDAO extends EsDAO implements IMetricQueryDAO {
         String valueCName) throws IOException {
         String indexName = DownSamplingModelNameBuilder.build(step, indName);
 
-        MultiGetResponse response = getClient().multiGet(indexName, ids);
+        MultiGetResponse response = getClient().multiGet(indexNamesOfIds(indexName, ids), ids);
 
         IntValues intValues = new IntValues();
         for (MultiGetItemResponse itemResponse : response.getResponses()) {
@@ -111,7 +118,7 @@ public class MetricQueryEsDAO extends EsDAO implements IMetricQueryDAO {
             KVInt kvInt = new KVInt();
             kvInt.setId(itemResponse.getId());
             kvInt.setValue(0);
-            Map<String, Object> source = itemResponse.getResponse().getSource();
+            Map<String, Object> source = sourceOf(itemResponse);
             if (source != null) {
                 kvInt.setValue(((Number)source.getOrDefault(valueCName, 0)).longValue());
             }
@@ -124,14 +131,14 @@ public class MetricQueryEsDAO extends EsDAO implements IMetricQueryDAO {
         String valueCName) throws IOException {
         String indexName = DownSamplingModelNameBuilder.build(step, indName);
 
-        MultiGetResponse response = getClient().multiGet(indexName, ids);
+        MultiGetResponse response = getClient().multiGet(indexNamesOfIds(indexName, ids), ids);
 
         Thermodynamic thermodynamic = new Thermodynamic();
         List<List<Long>> thermodynamicValueMatrix = new ArrayList<>();
 
         int numOfSteps = 0;
         for (MultiGetItemResponse itemResponse : response.getResponses()) {
-            Map<String, Object> source = itemResponse.getResponse().getSource();
+            Map<String, Object> source = sourceOf(itemResponse);
             if (source == null) {
                 // add empty list to represent no data exist for this time bucket
                 thermodynamicValueMatrix.add(new ArrayList<>());
@@ -141,16 +148,15 @@ public class MetricQueryEsDAO extends EsDAO implements IMetricQueryDAO {
                 numOfSteps = ((Number)source.get(ThermodynamicIndicator.NUM_OF_STEPS)).intValue() + 1;
 
                 String value = (String)source.get(ThermodynamicIndicator.DETAIL_GROUP);
-                IntKeyLongValueArray intKeyLongValues = new IntKeyLongValueArray(5);
-                intKeyLongValues.toObject(value);
+                IntKeyLongValueHistogram detailGroup = new IntKeyLongValueHistogram(value);
 
                 List<Long> axisYValues = new ArrayList<>();
                 for (int i = 0; i < numOfSteps; i++) {
                     axisYValues.add(0L);
                 }
 
-                for (IntKeyLongValue intKeyLongValue : intKeyLongValues) {
-                    axisYValues.set(intKeyLongValue.getKey(), intKeyLongValue.getValue());
+                for (int i = 0; i < detailGroup.size(); i++) {
+                    axisYValues.set(detailGroup.keyAt(i), detailGroup.valueAt(i));
                 }
 
                 thermodynamicValueMatrix.add(axisYValues);
@@ -161,4 +167,23 @@ public class MetricQueryEsDAO extends EsDAO implements IMetricQueryDAO {
 
         return thermodynamic;
     }
+
+    /**
+     * Every id starts with its time bucket, so the data of the ids may be in different partitions.
+     */
+    private List<String> indexNamesOfIds(String indexName, List<String> ids) {
+        List<String> indexNames = new ArrayList<>(ids.size());
+        ids.forEach(id -> indexNames.add(partitioner.indexNameOfId(indexName, id)));
+        return indexNames;
+    }
+
+    /**
+     * @return null if the data doesn't exist, including the partition of it doesn't exist.
+     */
+    private Map<String, Object> sourceOf(MultiGetItemResponse itemResponse) {
+        if (itemResponse.isFailed()) {
+            return null;
+        }
+        return itemResponse.getResponse().getSource();
+    }
 }
@@ -25,6 +25,7 @@ import org.apache.skywalking.oap.server.core.query.entity.*;
 import org.apache.skywalking.oap.server.core.storage.query.ITopNRecordsQueryDAO;
 import org.apache.skywalking.oap.server.library.client.elasticsearch.ElasticSearchClient;
 import org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base.EsDAO;
+import org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base.IndexPartitioner;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.index.query.*;
 import org.elasticsearch.search.SearchHit;
@@ -35,8 +36,11 @@ import org.elasticsearch.search.sort.SortOrder;
  * @author wusheng
  */
 public class TopNRecordsQueryEsDAO extends EsDAO implements ITopNRecordsQueryDAO {
-    public TopNRecordsQueryEsDAO(ElasticSearchClient client) {
+    private final IndexPartitioner partitioner;
+
+    public TopNRecordsQueryEsDAO(ElasticSearchClient client, IndexPartitioner partitioner) {
         super(client);
+        this.partitioner = partitioner;
     }
 
     @Override
@@ -49,7 +53,7 @@ public class TopNRecordsQueryEsDAO extends EsDAO implements ITopNRecordsQueryDAO
 
         sourceBuilder.query(boolQueryBuilder);
         sourceBuilder.size(topN).sort(TopN.LATENCY, order.equals(Order.DES) ? SortOrder.DESC : SortOrder.ASC);
-        SearchResponse response = getClient().search(metricName, sourceBuilder);
+        SearchResponse response = getClient().search(partitioner.indexNames(metricName, startSecondTB, endSecondTB), sourceBuilder);
 
         List<TopNRecord> results = new ArrayList<>();
 
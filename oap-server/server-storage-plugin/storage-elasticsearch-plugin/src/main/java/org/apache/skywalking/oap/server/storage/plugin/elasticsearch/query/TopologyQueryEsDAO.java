@@ -35,6 +35,7 @@ import org.apache.skywalking.oap.server.core.storage.query.ITopologyQueryDAO;
 import org.apache.skywalking.oap.server.library.client.elasticsearch.ElasticSearchClient;
 import org.apache.skywalking.oap.server.library.util.CollectionUtils;
 import org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base.EsDAO;
+import org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base.IndexPartitioner;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.index.query.BoolQueryBuilder;
 import org.elasticsearch.index.query.QueryBuilders;
@@ -47,8 +48,11 @@ import org.elasticsearch.search.builder.SearchSourceBuilder;
  */
 public class TopologyQueryEsDAO extends EsDAO implements ITopologyQueryDAO {
 
-    public TopologyQueryEsDAO(ElasticSearchClient client) {
+    private final IndexPartitioner partitioner;
+
+    public TopologyQueryEsDAO(ElasticSearchClient client, IndexPartitioner partitioner) {
         super(client);
+        this.partitioner = partitioner;
     }
 
     @Override
@@ -63,7 +67,7 @@ public class TopologyQueryEsDAO extends EsDAO implements ITopologyQueryDAO {
         setQueryCondition(sourceBuilder, startTB, endTB, serviceIds);
 
         String indexName = DownSamplingModelNameBuilder.build(step, ServiceRelationServerSideIndicator.INDEX_NAME);
-        return load(sourceBuilder, indexName, DetectPoint.SERVER);
+        return load(sourceBuilder, partitioner.indexNames(indexName, startTB, endTB), DetectPoint.SERVER);
     }
 
     @Override
@@ -78,7 +82,7 @@ public class TopologyQueryEsDAO extends EsDAO implements ITopologyQueryDAO {
         setQueryCondition(sourceBuilder, startTB, endTB, serviceIds);
 
         String indexName = DownSamplingModelNameBuilder.build(step, ServiceRelationClientSideIndicator.INDEX_NAME);
-        return load(sourceBuilder, indexName, DetectPoint.CLIENT);
+        return load(sourceBuilder, partitioner.indexNames(indexName, startTB, endTB), DetectPoint.CLIENT);
     }
 
     private void setQueryCondition(SearchSourceBuilder sourceBuilder, long startTB, long endTB,
@@ -105,7 +109,7 @@ public class TopologyQueryEsDAO extends EsDAO implements ITopologyQueryDAO {
         sourceBuilder.query(QueryBuilders.rangeQuery(ServiceRelationServerSideIndicator.TIME_BUCKET).gte(startTB).lte(endTB));
         sourceBuilder.size(0);
 
-        return load(sourceBuilder, indexName, DetectPoint.SERVER);
+        return load(sourceBuilder, partitioner.indexNames(indexName, startTB, endTB), DetectPoint.SERVER);
     }
 
     @Override public List<Call> loadClientSideServiceRelations(Step step, long startTB, long endTB) throws IOException {
@@ -114,7 +118,7 @@ public class TopologyQueryEsDAO extends EsDAO implements ITopologyQueryDAO {
         sourceBuilder.query(QueryBuilders.rangeQuery(ServiceRelationServerSideIndicator.TIME_BUCKET).gte(startTB).lte(endTB));
         sourceBuilder.size(0);
 
-        return load(sourceBuilder, indexName, DetectPoint.CLIENT);
+        return load(sourceBuilder, partitioner.indexNames(indexName, startTB, endTB), DetectPoint.CLIENT);
     }
 
     @Override
@@ -135,16 +139,19 @@ public class TopologyQueryEsDAO extends EsDAO implements ITopologyQueryDAO {
 
         sourceBuilder.query(boolQuery);
 
-        return load(sourceBuilder, indexName, DetectPoint.SERVER);
+        return load(sourceBuilder, partitioner.indexNames(indexName, startTB, endTB), DetectPoint.SERVER);
     }
 
-    private List<Call> load(SearchSourceBuilder sourceBuilder, String indexName,
+    private List<Call> load(SearchSourceBuilder sourceBuilder, String[] indexNames,
         DetectPoint detectPoint) throws IOException {
         sourceBuilder.aggregation(AggregationBuilders.terms(Indicator.ENTITY_ID).field(Indicator.ENTITY_ID).size(1000));
 
-        SearchResponse response = getClient().search(indexName, sourceBuilder);
+        SearchResponse response = getClient().search(indexNames, sourceBuilder);
 
         List<Call> calls = new ArrayList<>();
+        if (response.getAggregations() == null) {
+            return calls;
+        }
         Terms entityTerms = response.getAggregations().get(Indicator.ENTITY_ID);
         for (Terms.Bucket entityBucket : entityTerms.getBuckets()) {
             String entityId = entityBucket.getKeyAsString();
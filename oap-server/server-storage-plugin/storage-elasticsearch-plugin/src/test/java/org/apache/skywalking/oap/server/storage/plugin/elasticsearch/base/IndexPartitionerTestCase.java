@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import org.junit.*;
+
+public class IndexPartitionerTestCase {
+
+    @Test
+    public void testNotPartitioned() {
+        IndexPartitioner partitioner = new IndexPartitioner(0);
+        Assert.assertEquals("segment", partitioner.indexName("segment", 20190101120000L));
+        Assert.assertArrayEquals(new String[] {"segment"}, partitioner.indexNames("segment", 201901011200L, 201901021200L));
+    }
+
+    @Test
+    public void testIndexName() {
+        IndexPartitioner partitioner = new IndexPartitioner(1);
+        Assert.assertEquals("segment-20190102", partitioner.indexName("segment", 20190102235959L));
+        Assert.assertEquals("endpoint_avg-20190102", partitioner.indexName("endpoint_avg", 201901021200L));
+        Assert.assertEquals("endpoint_avg_hour-20190102", partitioner.indexName("endpoint_avg_hour", 2019010212L));
+        Assert.assertEquals("endpoint_avg_month-20190101", partitioner.indexName("endpoint_avg_month", 201901L));
+        Assert.assertEquals("endpoint_avg-20190102", partitioner.indexNameOfId("endpoint_avg", "201901021200_1"));
+        Assert.assertEquals("endpoint_avg-20190102", partitioner.indexNameOfId("endpoint_avg", "201901021200"));
+
+        partitioner = new IndexPartitioner(7);
+        Assert.assertEquals(partitioner.indexName("segment", 20190101000000L), partitioner.indexName("segment", 20190102000000L));
+    }
+
+    @Test
+    public void testModelName() {
+        Assert.assertEquals("segment", IndexPartitioner.modelName("segment-20190101"));
+        Assert.assertEquals("endpoint_avg_hour", IndexPartitioner.modelName("endpoint_avg_hour"));
+        Assert.assertEquals("endpoint_avg-x", IndexPartitioner.modelName("endpoint_avg-x"));
+    }
+
+    @Test
+    public void testIndexNames() {
+        IndexPartitioner partitioner = new IndexPartitioner(1);
+        Assert.assertArrayEquals(new String[] {"endpoint_avg-20181231", "endpoint_avg-20190101"}, partitioner.indexNames("endpoint_avg", 201812312300L, 201901010100L));
+        Assert.assertArrayEquals(new String[] {"segment"}, partitioner.indexNames("segment", 0, 0));
+        Assert.assertArrayEquals(new String[] {"endpoint_avg_month"}, partitioner.indexNames("endpoint_avg_month", 201801L, 201906L));
+    }
+
+    @Test
+    public void testExpiredIndexNames() {
+        IndexPartitioner partitioner = new IndexPartitioner(1);
+        Assert.assertEquals(Arrays.asList("endpoint_avg-20181230", "endpoint_avg-20181231"),
+            partitioner.expiredIndexNames("endpoint_avg", Arrays.asList("endpoint_avg-20181230", "endpoint_avg-20181231", "endpoint_avg-20190101", "endpoint_avg-x"), 201901011200L));
+    }
+
+    @Test
+    public void testExpiredWithinPartition() {
+        LocalDateTime now = LocalDateTime.of(2019, 1, 2, 12, 0);
+        IndexPartitioner partitioner = new IndexPartitioner(1);
+        Assert.assertTrue(partitioner.isExpiredWithinPartition(201901021030L, now));
+        Assert.assertTrue(partitioner.isExpiredWithinPartition(20190102103000L, now));
+        Assert.assertFalse(partitioner.isExpiredWithinPartition(2019010112L, now));
+        Assert.assertFalse(partitioner.isExpiredWithinPartition(20181120L, now));
+
+        Assert.assertFalse(new IndexPartitioner(0).isExpiredWithinPartition(201901021030L, now));
+    }
+}
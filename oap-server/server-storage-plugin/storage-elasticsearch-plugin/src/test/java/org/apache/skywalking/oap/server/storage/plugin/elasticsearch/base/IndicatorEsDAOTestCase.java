@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base;
+
+import java.util.Arrays;
+import java.util.List;
+import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
+import org.apache.skywalking.oap.server.core.analysis.manual.servicerelation.ServiceRelationServerSideIndicator;
+import org.apache.skywalking.oap.server.core.storage.StorageBuilder;
+import org.apache.skywalking.oap.server.library.client.elasticsearch.ElasticSearchClient;
+import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.get.MultiGetItemResponse;
+import org.elasticsearch.action.get.MultiGetResponse;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.index.IndexNotFoundException;
+import org.elasticsearch.index.get.GetResult;
+import org.junit.*;
+
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class IndicatorEsDAOTestCase {
+
+    private static final String MODEL_NAME = "service_relation_server_side";
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testMultiGetWithMissingIndicators() throws Exception {
+        ServiceRelationServerSideIndicator existed1 = indicator(1, 2);
+        ServiceRelationServerSideIndicator missing = indicator(5, 6);
+        ServiceRelationServerSideIndicator failed = indicator(7, 8);
+        ServiceRelationServerSideIndicator existed2 = indicator(3, 4);
+
+        MultiGetItemResponse[] items = new MultiGetItemResponse[] {
+            found(existed2),
+            new MultiGetItemResponse(new GetResponse(new GetResult(MODEL_NAME, "type", missing.id(), -1, false, null, null)), null),
+            new MultiGetItemResponse(null, new MultiGetResponse.Failure(MODEL_NAME, "type", failed.id(), new IndexNotFoundException(MODEL_NAME))),
+            found(existed1)
+        };
+
+        ElasticSearchClient client = mock(ElasticSearchClient.class);
+        when(client.multiGet(anyListOf(String.class), anyListOf(String.class))).thenReturn(new MultiGetResponse(items));
+
+        StorageBuilder storageBuilder = new ServiceRelationServerSideIndicator.Builder();
+        IndicatorEsDAO indicatorDAO = new IndicatorEsDAO(client, storageBuilder, new IndexPartitioner(0));
+
+        List<Indicator> result = indicatorDAO.multiGet(MODEL_NAME, Arrays.asList(existed1, missing, failed, existed2));
+        Assert.assertEquals(2, result.size());
+        assertSame(existed2, (ServiceRelationServerSideIndicator)result.get(0));
+        assertSame(existed1, (ServiceRelationServerSideIndicator)result.get(1));
+    }
+
+    private void assertSame(ServiceRelationServerSideIndicator expected, ServiceRelationServerSideIndicator actual) {
+        Assert.assertEquals(expected.id(), actual.id());
+        Assert.assertEquals(expected.getSourceServiceId(), actual.getSourceServiceId());
+        Assert.assertEquals(expected.getDestServiceId(), actual.getDestServiceId());
+        Assert.assertEquals(expected.getEntityId(), actual.getEntityId());
+    }
+
+    private MultiGetItemResponse found(ServiceRelationServerSideIndicator indicator) {
+        String source = "{\"" + ServiceRelationServerSideIndicator.SOURCE_SERVICE_ID + "\":" + indicator.getSourceServiceId()
+            + ",\"" + ServiceRelationServerSideIndicator.DEST_SERVICE_ID + "\":" + indicator.getDestServiceId()
+            + ",\"" + ServiceRelationServerSideIndicator.COMPONENT_ID + "\":" + indicator.getComponentId()
+            + ",\"" + ServiceRelationServerSideIndicator.ENTITY_ID + "\":\"" + indicator.getEntityId() + "\""
+            + ",\"" + Indicator.TIME_BUCKET + "\":" + indicator.getTimeBucket() + "}";
+        GetResult result = new GetResult(MODEL_NAME, "type", indicator.id(), 1, true, new BytesArray(source), null);
+        return new MultiGetItemResponse(new GetResponse(result), null);
+    }
+
+    private ServiceRelationServerSideIndicator indicator(int sourceServiceId, int destServiceId) {
+        ServiceRelationServerSideIndicator indicator = new ServiceRelationServerSideIndicator();
+        indicator.setSourceServiceId(sourceServiceId);
+        indicator.setDestServiceId(destServiceId);
+        indicator.setComponentId(7);
+        indicator.setEntityId(sourceServiceId + "_" + destServiceId);
+        indicator.setTimeBucket(201901011200L);
+        return indicator;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base;
+
+import java.util.Map;
+import org.apache.skywalking.oap.server.core.register.EndpointInventory;
+import org.junit.*;
+import org.powermock.reflect.Whitebox;
+
+public class RecentRegisterCacheTestCase {
+
+    @Test
+    public void testGet() {
+        RecentRegisterCache cache = new RecentRegisterCache();
+        cache.put(EndpointInventory.MODEL_NAME, endpoint(1));
+
+        EndpointInventory inventory = cache.get(EndpointInventory.MODEL_NAME, 1);
+        Assert.assertEquals(1, inventory.getSequence());
+        Assert.assertNull(cache.get(EndpointInventory.MODEL_NAME, 2));
+        Assert.assertNull(cache.get("service_inventory", 1));
+    }
+
+    @Test
+    public void testExpire() throws InterruptedException {
+        RecentRegisterCache cache = new RecentRegisterCache(50, 50, 50);
+        cache.put(EndpointInventory.MODEL_NAME, endpoint(1));
+        Assert.assertNotNull(cache.get(EndpointInventory.MODEL_NAME, 1));
+
+        Thread.sleep(100);
+        Assert.assertNull(cache.get(EndpointInventory.MODEL_NAME, 1));
+    }
+
+    @Test
+    public void testPurge() throws InterruptedException {
+        RecentRegisterCache cache = new RecentRegisterCache(50, 50, 50);
+        cache.put(EndpointInventory.MODEL_NAME, endpoint(1));
+        cache.put(EndpointInventory.MODEL_NAME, endpoint(2));
+        Assert.assertEquals(2, entries(cache).size());
+
+        Thread.sleep(100);
+        cache.put(EndpointInventory.MODEL_NAME, endpoint(3));
+        Assert.assertEquals(1, entries(cache).size());
+        Assert.assertNotNull(cache.get(EndpointInventory.MODEL_NAME, 3));
+    }
+
+    @Test
+    public void testMissing() throws InterruptedException {
+        RecentRegisterCache cache = new RecentRegisterCache(1000, 50, 50);
+        cache.putMissing(EndpointInventory.MODEL_NAME, 1);
+        Assert.assertTrue(cache.isMissing(EndpointInventory.MODEL_NAME, 1));
+        Assert.assertNull(cache.get(EndpointInventory.MODEL_NAME, 1));
+        Assert.assertFalse(cache.isMissing(EndpointInventory.MODEL_NAME, 2));
+
+        Thread.sleep(100);
+        Assert.assertFalse(cache.isMissing(EndpointInventory.MODEL_NAME, 1));
+
+        cache.putMissing(EndpointInventory.MODEL_NAME, 1);
+        cache.put(EndpointInventory.MODEL_NAME, endpoint(1));
+        Assert.assertFalse(cache.isMissing(EndpointInventory.MODEL_NAME, 1));
+        Assert.assertNotNull(cache.get(EndpointInventory.MODEL_NAME, 1));
+
+        cache.putMissing(EndpointInventory.MODEL_NAME, 1);
+        Assert.assertNotNull(cache.get(EndpointInventory.MODEL_NAME, 1));
+    }
+
+    @Test
+    public void testRefreshInterval() throws InterruptedException {
+        RecentRegisterCache cache = new RecentRegisterCache(1000, 1000, 50);
+        Assert.assertTrue(cache.tryRefresh(EndpointInventory.MODEL_NAME));
+        Assert.assertFalse(cache.tryRefresh(EndpointInventory.MODEL_NAME));
+        Assert.assertTrue(cache.tryRefresh("service_inventory"));
+
+        Thread.sleep(100);
+        Assert.assertTrue(cache.tryRefresh(EndpointInventory.MODEL_NAME));
+    }
+
+    private Map<Integer, ?> entries(RecentRegisterCache cache) {
+        Map<String, Map<Integer, ?>> models = Whitebox.getInternalState(cache, "models");
+        return models.get(EndpointInventory.MODEL_NAME);
+    }
+
+    private EndpointInventory endpoint(int sequence) {
+        EndpointInventory inventory = new EndpointInventory();
+        inventory.setSequence(sequence);
+        return inventory;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import org.apache.skywalking.oap.server.core.analysis.indicator.IntKeyLongValueArray;
+import org.elasticsearch.common.xcontent.*;
+import org.junit.*;
+
+public class XContentStorageDataTestCase {
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        XContentBuilder builder = new XContentBuilder(XContentType.JSON.xContent(), output);
+        builder.startObject();
+        XContentStorageDataWriter writer = new XContentStorageDataWriter(builder);
+        writer.write("entity_id", "1_2");
+        writer.write("summation", 10000000000L);
+        writer.write("count", 3);
+        writer.write("value", 1.5);
+        writer.write("detail_group", (IntKeyLongValueArray)null);
+        builder.startObject("unknown").field("nested", 1).endObject();
+        writer.write("time_bucket", 201901010101L);
+        builder.endObject();
+        builder.close();
+
+        byte[] source = output.toByteArray();
+        try (XContentParser parser = XContentType.JSON.xContent().createParser(NamedXContentRegistry.EMPTY,
+            DeprecationHandler.THROW_UNSUPPORTED_OPERATION, source, 0, source.length)) {
+            XContentStorageDataReader reader = new XContentStorageDataReader(parser);
+            Assert.assertEquals("entity_id", reader.nextColumn());
+            Assert.assertEquals("1_2", reader.readString());
+            Assert.assertEquals("summation", reader.nextColumn());
+            Assert.assertEquals(10000000000L, reader.readLong());
+            Assert.assertEquals("count", reader.nextColumn());
+            Assert.assertEquals(3, reader.readInt());
+            Assert.assertEquals("value", reader.nextColumn());
+            Assert.assertEquals(1.5, reader.readDouble(), 0);
+            Assert.assertEquals("detail_group", reader.nextColumn());
+            Assert.assertNull(reader.readString());
+            Assert.assertEquals("unknown", reader.nextColumn());
+            reader.skip();
+            Assert.assertEquals("time_bucket", reader.nextColumn());
+            Assert.assertEquals(201901010101L, reader.readObject());
+            Assert.assertNull(reader.nextColumn());
+        }
+    }
+}
@@ -33,10 +33,19 @@ import org.slf4j.LoggerFactory;
 public class SQLExecutor {
     private final Logger logger = LoggerFactory.getLogger(SQLExecutor.class);
 
+    private String tableName;
     private String sql;
     private List<Object> param;
 
     public SQLExecutor(String sql, List<Object> param) {
+        this(null, sql, param);
+    }
+
+    /**
+     * @param tableName the table written by the SQL, which tells the failed models when the batch fails.
+     */
+    public SQLExecutor(String tableName, String sql, List<Object> param) {
+        this.tableName = tableName;
         this.sql = sql;
         this.param = param;
     }
@@ -44,11 +53,31 @@ public class SQLExecutor {
     public void invoke(Connection connection) throws SQLException {
         PreparedStatement preparedStatement = connection.prepareStatement(sql);
 
+        setParameters(preparedStatement);
+
+        logger.debug("execute aql in batch: {}", sql);
+        preparedStatement.execute();
+    }
+
+    /**
+     * Bind the parameters of this executor to the given statement, which should be prepared from {@link #getSql()}.
+     * Used to add the executors sharing the same SQL into a JDBC batch.
+     */
+    public void setParameters(PreparedStatement preparedStatement) throws SQLException {
         for (int i = 0; i < param.size(); i++) {
             preparedStatement.setObject(i + 1, param.get(i));
         }
+    }
 
-        logger.debug("execute aql in batch: {}", sql);
-        preparedStatement.execute();
+    public String getTableName() {
+        return tableName;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public List<Object> getParam() {
+        return param;
     }
 }
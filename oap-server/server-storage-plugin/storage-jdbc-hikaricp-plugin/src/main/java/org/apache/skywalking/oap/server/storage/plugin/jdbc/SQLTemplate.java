@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.jdbc;
+
+import java.util.List;
+import lombok.Getter;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
+import org.apache.skywalking.oap.server.core.storage.model.ModelColumn;
+
+/**
+ * The SQL of writing a model, built once when the model is added into {@link TableMetaInfo}. The parameters of the
+ * columns are in the order of {@link #getColumnNames()}, the id goes first in the insert SQL and last in the update
+ * SQL.
+ */
+@Getter
+public class SQLTemplate {
+    private final String[] columnNames;
+    private final String insertSQL;
+    private final String updateSQL;
+    /**
+     * The insert SQL with MySQL ON DUPLICATE KEY UPDATE clause, shares the parameters of {@link #getInsertSQL()}.
+     */
+    private final String upsertSQL;
+
+    public SQLTemplate(Model model) {
+        List<ModelColumn> columns = model.getColumns();
+        columnNames = new String[columns.size()];
+
+        SQLBuilder insertBuilder = new SQLBuilder("INSERT INTO " + model.getName() + " VALUES");
+        insertBuilder.append("(?");
+        SQLBuilder updateBuilder = new SQLBuilder("UPDATE " + model.getName() + " SET ");
+        SQLBuilder upsertBuilder = new SQLBuilder(" ON DUPLICATE KEY UPDATE ");
+        for (int i = 0; i < columns.size(); i++) {
+            ModelColumn column = columns.get(i);
+            columnNames[i] = column.getColumnName().getName();
+            String storageName = column.getColumnName().getStorageName();
+
+            insertBuilder.append(",?");
+            updateBuilder.append(storageName + "= ?");
+            upsertBuilder.append(storageName + "=VALUES(" + storageName + ")");
+            if (i != columns.size() - 1) {
+                updateBuilder.append(",");
+                upsertBuilder.append(",");
+            }
+        }
+        insertBuilder.append(")");
+        updateBuilder.append(" WHERE id = ?");
+
+        insertSQL = insertBuilder.toString();
+        updateSQL = updateBuilder.toString();
+        upsertSQL = insertSQL + upsertBuilder.toString();
+    }
+}
@@ -27,12 +27,18 @@ import org.apache.skywalking.oap.server.core.storage.model.Model;
  */
 public class TableMetaInfo {
     private static Map<String, Model> TABLES = new HashMap<>();
+    private static Map<String, SQLTemplate> TEMPLATES = new HashMap<>();
 
     public static void addModel(Model model) {
         TABLES.put(model.getName(), model);
+        TEMPLATES.put(model.getName(), new SQLTemplate(model));
     }
 
     public static Model get(String moduleName) {
         return TABLES.get(moduleName);
     }
+
+    public static SQLTemplate getSQLTemplate(String moduleName) {
+        return TEMPLATES.get(moduleName);
+    }
 }
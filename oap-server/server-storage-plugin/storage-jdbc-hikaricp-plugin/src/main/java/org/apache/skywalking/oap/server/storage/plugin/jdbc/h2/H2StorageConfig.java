@@ -32,4 +32,8 @@ public class H2StorageConfig extends ModuleConfig {
     private String url = "jdbc:h2:mem:collector";
     private String user = "";
     private String password = "";
+    /**
+     * The max number of the rows sent to the database in one JDBC batch.
+     */
+    private int batchSize = 1000;
 }
@@ -68,7 +68,7 @@ public class H2StorageProvider extends ModuleProvider {
         settings.setProperty("dataSource.password", config.getPassword());
         h2Client = new JDBCHikariCPClient(settings);
 
-        this.registerServiceImplementation(IBatchDAO.class, new H2BatchDAO(h2Client));
+        this.registerServiceImplementation(IBatchDAO.class, new H2BatchDAO(h2Client, config.getBatchSize()));
         this.registerServiceImplementation(StorageDAO.class, new H2StorageDAO(h2Client));
 
         lockDAO = new H2RegisterLockDAO(h2Client);
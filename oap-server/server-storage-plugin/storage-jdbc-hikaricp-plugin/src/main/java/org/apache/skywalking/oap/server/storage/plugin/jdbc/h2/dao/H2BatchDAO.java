@@ -19,8 +19,16 @@
 package org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.dao;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.skywalking.oap.server.core.storage.BatchFailureListener;
 import org.apache.skywalking.oap.server.core.storage.IBatchDAO;
 import org.apache.skywalking.oap.server.library.client.jdbc.JDBCClientException;
 import org.apache.skywalking.oap.server.library.client.jdbc.hikaricp.JDBCHikariCPClient;
@@ -29,15 +37,21 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
+ * Execute the {@link SQLExecutor}s of a flush in a single transaction. The executors are grouped by their SQL, every
+ * group is prepared once and sent to the database as JDBC batches of batchSize rows.
+ *
  * @author wusheng
  */
 public class H2BatchDAO implements IBatchDAO {
     private static final Logger logger = LoggerFactory.getLogger(H2BatchDAO.class);
 
     private JDBCHikariCPClient h2Client;
+    private final int batchSize;
+    private volatile BatchFailureListener failureListener;
 
-    public H2BatchDAO(JDBCHikariCPClient h2Client) {
+    public H2BatchDAO(JDBCHikariCPClient h2Client, int batchSize) {
         this.h2Client = h2Client;
+        this.batchSize = batchSize > 0 ? batchSize : 1;
     }
 
     @Override public void batchPersistence(List<?> batchCollection) {
@@ -49,15 +63,65 @@ public class H2BatchDAO implements IBatchDAO {
             logger.debug("batch sql statements execute, data size: {}", batchCollection.size());
         }
 
-        try (Connection connection = h2Client.getConnection()) {
-            for (Object exe : batchCollection) {
-                SQLExecutor sqlExecutor = (SQLExecutor)exe;
-                sqlExecutor.invoke(connection);
+        Map<String, List<SQLExecutor>> groups = new LinkedHashMap<>();
+        for (Object exe : batchCollection) {
+            SQLExecutor sqlExecutor = (SQLExecutor)exe;
+            groups.computeIfAbsent(sqlExecutor.getSql(), sql -> new ArrayList<>()).add(sqlExecutor);
+        }
+
+        try (Connection connection = h2Client.getTransactionConnection()) {
+            try {
+                for (Map.Entry<String, List<SQLExecutor>> group : groups.entrySet()) {
+                    executeBatch(connection, group.getKey(), group.getValue());
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
             }
         } catch (SQLException e) {
             logger.error(e.getMessage(), e);
+            onFailure(groups.values());
         } catch (JDBCClientException e) {
             logger.error(e.getMessage(), e);
+            onFailure(groups.values());
+        }
+    }
+
+    @Override public void setFailureListener(BatchFailureListener listener) {
+        this.failureListener = listener;
+    }
+
+    /**
+     * The transaction is rolled back, so all the models in the batch failed.
+     */
+    private void onFailure(Collection<List<SQLExecutor>> groups) {
+        BatchFailureListener listener = failureListener;
+        if (listener != null) {
+            Set<String> modelNames = new HashSet<>();
+            groups.forEach(executors -> executors.forEach(executor -> {
+                if (executor.getTableName() != null) {
+                    modelNames.add(executor.getTableName());
+                }
+            }));
+            listener.onFailure(modelNames);
+        }
+    }
+
+    private void executeBatch(Connection connection, String sql, List<SQLExecutor> executors) throws SQLException {
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            int batched = 0;
+            for (SQLExecutor executor : executors) {
+                executor.setParameters(preparedStatement);
+                preparedStatement.addBatch();
+                if (++batched == batchSize) {
+                    preparedStatement.executeBatch();
+                    batched = 0;
+                }
+            }
+            if (batched > 0) {
+                preparedStatement.executeBatch();
+            }
         }
     }
 }
@@ -19,9 +19,12 @@
 package org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.dao;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
 import org.apache.skywalking.oap.server.core.storage.IIndicatorDAO;
 import org.apache.skywalking.oap.server.core.storage.StorageBuilder;
+import org.apache.skywalking.oap.server.core.storage.StorageData;
 import org.apache.skywalking.oap.server.library.client.jdbc.hikaricp.JDBCHikariCPClient;
 import org.apache.skywalking.oap.server.storage.plugin.jdbc.SQLExecutor;
 
@@ -41,6 +44,17 @@ public class H2IndicatorDAO extends H2SQLExecutor implements IIndicatorDAO<SQLEx
         return (Indicator)getByID(h2Client, modelName, indicator.id(), storageBuilder);
     }
 
+    @Override public List<Indicator> multiGet(String modelName, List<Indicator> indicators) throws IOException {
+        List<String> ids = new ArrayList<>(indicators.size());
+        indicators.forEach(indicator -> ids.add(indicator.id()));
+
+        List<Indicator> result = new ArrayList<>(ids.size());
+        for (StorageData data : getByIDs(h2Client, modelName, ids, storageBuilder)) {
+            result.add((Indicator)data);
+        }
+        return result;
+    }
+
     @Override public SQLExecutor prepareBatchInsert(String modelName, Indicator indicator) throws IOException {
         return getInsertExecutor(modelName, indicator, storageBuilder);
     }
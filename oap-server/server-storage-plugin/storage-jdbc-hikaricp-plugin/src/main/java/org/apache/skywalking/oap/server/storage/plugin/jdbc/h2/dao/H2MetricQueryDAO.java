@@ -27,8 +27,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
-import org.apache.skywalking.oap.server.core.analysis.indicator.IntKeyLongValue;
-import org.apache.skywalking.oap.server.core.analysis.indicator.IntKeyLongValueArray;
+import org.apache.skywalking.oap.server.core.analysis.indicator.IntKeyLongValueHistogram;
 import org.apache.skywalking.oap.server.core.analysis.indicator.ThermodynamicIndicator;
 import org.apache.skywalking.oap.server.core.query.entity.IntValues;
 import org.apache.skywalking.oap.server.core.query.entity.KVInt;
@@ -191,16 +190,15 @@ public class H2MetricQueryDAO extends H2SQLExecutor implements IMetricQueryDAO {
                     String id = resultSet.getString("id");
                     numOfSteps = resultSet.getInt("num_of_steps") + 1;
                     String value = resultSet.getString("detail_group");
-                    IntKeyLongValueArray intKeyLongValues = new IntKeyLongValueArray(5);
-                    intKeyLongValues.toObject(value);
+                    IntKeyLongValueHistogram detailGroup = new IntKeyLongValueHistogram(value);
 
                     List<Long> axisYValues = new ArrayList<>();
                     for (int i = 0; i < numOfSteps; i++) {
                         axisYValues.add(0L);
                     }
 
-                    for (IntKeyLongValue intKeyLongValue : intKeyLongValues) {
-                        axisYValues.set(intKeyLongValue.getKey(), intKeyLongValue.getValue());
+                    for (int i = 0; i < detailGroup.size(); i++) {
+                        axisYValues.set(detailGroup.keyAt(i), detailGroup.valueAt(i));
                     }
 
                     thermodynamicValueMatrix.put(id, axisYValues);
@@ -59,4 +59,21 @@ public class H2RegisterLockDAO implements IRegisterLockDAO {
         }
         return Const.NONE;
     }
+
+    @Override public int getIds(Scope scope, int count) {
+        try (Connection connection = h2Client.getTransactionConnection()) {
+            ResultSet resultSet = h2Client.executeQuery(connection, "select sequence from " + H2RegisterLockInstaller.LOCK_TABLE_NAME + " where id = " + scope.ordinal() + " for update");
+            while (resultSet.next()) {
+                int sequence = resultSet.getInt("sequence");
+                h2Client.execute(connection, "update " + H2RegisterLockInstaller.LOCK_TABLE_NAME + " set sequence = " + (sequence + count) + " where id = " + scope.ordinal());
+                connection.commit();
+                return sequence + 1;
+            }
+        } catch (JDBCClientException | SQLException e) {
+            logger.error("try inventory register lock for scope id={} name={} failure.", scope.ordinal(), scope.name());
+            logger.error("tryLock error", e);
+            return Const.NONE;
+        }
+        return Const.NONE;
+    }
 }
@@ -23,6 +23,7 @@ import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -36,6 +37,7 @@ import org.apache.skywalking.oap.server.library.client.jdbc.JDBCClientException;
 import org.apache.skywalking.oap.server.library.client.jdbc.hikaricp.JDBCHikariCPClient;
 import org.apache.skywalking.oap.server.storage.plugin.jdbc.SQLBuilder;
 import org.apache.skywalking.oap.server.storage.plugin.jdbc.SQLExecutor;
+import org.apache.skywalking.oap.server.storage.plugin.jdbc.SQLTemplate;
 import org.apache.skywalking.oap.server.storage.plugin.jdbc.TableMetaInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -59,6 +61,34 @@ public class H2SQLExecutor {
         }
     }
 
+    protected List<StorageData> getByIDs(JDBCHikariCPClient h2Client, String modelName, List<String> ids,
+        StorageBuilder storageBuilder) throws IOException {
+        List<StorageData> storageDataList = new ArrayList<>(ids.size());
+        if (ids.isEmpty()) {
+            return storageDataList;
+        }
+
+        SQLBuilder sql = new SQLBuilder("SELECT * FROM " + modelName + " WHERE id IN (");
+        for (int i = 0; i < ids.size(); i++) {
+            sql.append(i == 0 ? "?" : ",?");
+        }
+        sql.append(")");
+
+        try (Connection connection = h2Client.getConnection()) {
+            try (ResultSet rs = h2Client.executeQuery(connection, sql.toString(), ids.toArray())) {
+                StorageData storageData;
+                while ((storageData = toStorageData(rs, modelName, storageBuilder)) != null) {
+                    storageDataList.add(storageData);
+                }
+            }
+        } catch (SQLException e) {
+            throw new IOException(e.getMessage(), e);
+        } catch (JDBCClientException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        return storageDataList;
+    }
+
     protected StorageData getByColumn(JDBCHikariCPClient h2Client, String modelName, String columnName, Object value,
         StorageBuilder storageBuilder) throws IOException {
         try (Connection connection = h2Client.getConnection()) {
@@ -102,56 +132,36 @@ public class H2SQLExecutor {
 
     protected SQLExecutor getInsertExecutor(String modelName, StorageData indicator,
         StorageBuilder storageBuilder) throws IOException {
-        Map<String, Object> objectMap = storageBuilder.data2Map(indicator);
-
-        SQLBuilder sqlBuilder = new SQLBuilder("INSERT INTO " + modelName + " VALUES");
-        List<ModelColumn> columns = TableMetaInfo.get(modelName).getColumns();
-        List<Object> param = new ArrayList<>();
-        sqlBuilder.append("(?,");
-        param.add(indicator.id());
-        for (int i = 0; i < columns.size(); i++) {
-            ModelColumn column = columns.get(i);
-            sqlBuilder.append("?");
-            if (i != columns.size() - 1) {
-                sqlBuilder.append(",");
-            }
+        SQLTemplate template = TableMetaInfo.getSQLTemplate(modelName);
+        String[] columnNames = template.getColumnNames();
 
-            Object value = objectMap.get(column.getColumnName().getName());
-            if (value instanceof StorageDataType) {
-                param.add(((StorageDataType)value).toStorageData());
-            } else {
-                param.add(value);
-            }
-        }
-        sqlBuilder.append(")");
+        Object[] param = new Object[columnNames.length + 1];
+        param[0] = indicator.id();
+        bindValues(indicator, storageBuilder, columnNames, param, 1);
 
-        return new SQLExecutor(sqlBuilder.toString(), param);
+        return new SQLExecutor(modelName, template.getInsertSQL(), Arrays.asList(param));
     }
 
     protected SQLExecutor getUpdateExecutor(String modelName, StorageData indicator,
         StorageBuilder storageBuilder) throws IOException {
-        Map<String, Object> objectMap = storageBuilder.data2Map(indicator);
-
-        SQLBuilder sqlBuilder = new SQLBuilder("UPDATE " + modelName + " SET ");
-        List<ModelColumn> columns = TableMetaInfo.get(modelName).getColumns();
-        List<Object> param = new ArrayList<>();
-        for (int i = 0; i < columns.size(); i++) {
-            ModelColumn column = columns.get(i);
-            sqlBuilder.append(column.getColumnName().getStorageName() + "= ?");
-            if (i != columns.size() - 1) {
-                sqlBuilder.append(",");
-            }
+        SQLTemplate template = TableMetaInfo.getSQLTemplate(modelName);
+        String[] columnNames = template.getColumnNames();
+
+        Object[] param = new Object[columnNames.length + 1];
+        bindValues(indicator, storageBuilder, columnNames, param, 0);
+        param[columnNames.length] = indicator.id();
 
-            Object value = objectMap.get(column.getColumnName().getName());
-            if (value instanceof StorageDataType) {
-                param.add(((StorageDataType)value).toStorageData());
-            } else {
-                param.add(value);
+        return new SQLExecutor(modelName, template.getUpdateSQL(), Arrays.asList(param));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void bindValues(StorageData indicator, StorageBuilder storageBuilder, String[] columnNames,
+        Object[] param, int offset) {
+        storageBuilder.data2Values(indicator, columnNames, param, offset);
+        for (int i = offset; i < offset + columnNames.length; i++) {
+            if (param[i] instanceof StorageDataType) {
+                param[i] = ((StorageDataType)param[i]).toStorageData();
             }
         }
-        sqlBuilder.append(" WHERE id = ?");
-        param.add(indicator.id());
-
-        return new SQLExecutor(sqlBuilder.toString(), param);
     }
 }
@@ -45,12 +45,12 @@ public class MySQLStorageProvider extends ModuleProvider {
 
     private static final Logger logger = LoggerFactory.getLogger(H2StorageProvider.class);
 
-    private H2StorageConfig config;
+    private MySQLStorageConfig config;
     private JDBCHikariCPClient mysqlClient;
     private H2RegisterLockDAO lockDAO;
 
     public MySQLStorageProvider() {
-        config = new H2StorageConfig();
+        config = new MySQLStorageConfig();
     }
 
     @Override public String name() {
@@ -75,8 +75,8 @@ public class MySQLStorageProvider extends ModuleProvider {
 
         mysqlClient = new JDBCHikariCPClient(settings);
 
-        this.registerServiceImplementation(IBatchDAO.class, new H2BatchDAO(mysqlClient));
-        this.registerServiceImplementation(StorageDAO.class, new H2StorageDAO(mysqlClient));
+        this.registerServiceImplementation(IBatchDAO.class, new H2BatchDAO(mysqlClient, config.getBatchSize()));
+        this.registerServiceImplementation(StorageDAO.class, new MySQLStorageDAO(mysqlClient, config.isUpsert()));
         lockDAO = new H2RegisterLockDAO(mysqlClient);
         this.registerServiceImplementation(IRegisterLockDAO.class, lockDAO);
 
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.jdbc.mysql;
+
+import java.io.IOException;
+import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
+import org.apache.skywalking.oap.server.core.storage.StorageBuilder;
+import org.apache.skywalking.oap.server.library.client.jdbc.hikaricp.JDBCHikariCPClient;
+import org.apache.skywalking.oap.server.storage.plugin.jdbc.SQLExecutor;
+import org.apache.skywalking.oap.server.storage.plugin.jdbc.TableMetaInfo;
+import org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.dao.H2IndicatorDAO;
+
+/**
+ * Write the indicators by INSERT ... ON DUPLICATE KEY UPDATE, both for the new and the existing ones. Then every
+ * indicator of a model is written by the same SQL, and they go to the database in one JDBC batch.
+ */
+public class MySQLUpsertIndicatorDAO extends H2IndicatorDAO {
+
+    public MySQLUpsertIndicatorDAO(JDBCHikariCPClient mysqlClient, StorageBuilder<Indicator> storageBuilder) {
+        super(mysqlClient, storageBuilder);
+    }
+
+    @Override public SQLExecutor prepareBatchInsert(String modelName, Indicator indicator) throws IOException {
+        SQLExecutor insertExecutor = super.prepareBatchInsert(modelName, indicator);
+        return new SQLExecutor(modelName, TableMetaInfo.getSQLTemplate(modelName).getUpsertSQL(), insertExecutor.getParam());
+    }
+
+    @Override public SQLExecutor prepareBatchUpdate(String modelName, Indicator indicator) throws IOException {
+        return prepareBatchInsert(modelName, indicator);
+    }
+}
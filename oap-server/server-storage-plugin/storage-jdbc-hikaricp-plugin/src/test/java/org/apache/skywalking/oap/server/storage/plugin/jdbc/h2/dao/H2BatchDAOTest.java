@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.dao;
+
+import java.sql.*;
+import java.util.*;
+import org.apache.skywalking.oap.server.core.storage.BatchFailureListener;
+import org.apache.skywalking.oap.server.library.client.jdbc.hikaricp.JDBCHikariCPClient;
+import org.apache.skywalking.oap.server.storage.plugin.jdbc.SQLExecutor;
+import org.junit.*;
+
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class H2BatchDAOTest {
+
+    private static final String TABLE = "h2_batch_dao_test";
+    private static final String INSERT_SQL = "INSERT INTO " + TABLE + " VALUES(?,?)";
+    private static final String UPDATE_SQL = "UPDATE " + TABLE + " SET amount = ? WHERE id = ?";
+
+    private JDBCHikariCPClient h2Client;
+    private List<Connection> connections;
+
+    @Before
+    public void setUp() throws Exception {
+        Properties settings = new Properties();
+        settings.setProperty("dataSourceClassName", "org.h2.jdbcx.JdbcDataSource");
+        settings.setProperty("dataSource.url", "jdbc:h2:mem:" + TABLE);
+        settings.setProperty("dataSource.user", "");
+        settings.setProperty("dataSource.password", "");
+        JDBCHikariCPClient client = new JDBCHikariCPClient(settings);
+        client.connect();
+
+        try (Connection connection = client.getConnection()) {
+            client.execute(connection, "DROP TABLE IF EXISTS " + TABLE);
+            client.execute(connection, "CREATE TABLE " + TABLE + " (id VARCHAR(300) PRIMARY KEY, amount INT)");
+            client.execute(connection, "INSERT INTO " + TABLE + " VALUES('existing', 0)");
+        }
+
+        connections = new ArrayList<>();
+        h2Client = spy(client);
+        doAnswer(invocation -> {
+            Connection connection = spy((Connection)invocation.callRealMethod());
+            connections.add(connection);
+            return connection;
+        }).when(h2Client).getTransactionConnection();
+    }
+
+    @Test
+    public void testGroupedBatch() throws Exception {
+        H2BatchDAO batchDAO = new H2BatchDAO(h2Client, 2);
+        List<SQLExecutor> executors = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            executors.add(new SQLExecutor(INSERT_SQL, Arrays.asList("id" + i, i)));
+            if (i == 2) {
+                executors.add(new SQLExecutor(UPDATE_SQL, Arrays.asList(100, "existing")));
+            }
+        }
+        batchDAO.batchPersistence(executors);
+
+        Assert.assertEquals(1, connections.size());
+        verify(connections.get(0), times(2)).prepareStatement(anyString());
+        verify(connections.get(0)).commit();
+        Assert.assertEquals(6, count());
+        Assert.assertEquals(100, value("existing"));
+        Assert.assertEquals(4, value("id4"));
+    }
+
+    @Test
+    public void testRollbackOnFailure() throws Exception {
+        H2BatchDAO batchDAO = new H2BatchDAO(h2Client, 2);
+        BatchFailureListener failureListener = mock(BatchFailureListener.class);
+        batchDAO.setFailureListener(failureListener);
+
+        List<SQLExecutor> executors = new ArrayList<>();
+        executors.add(new SQLExecutor(TABLE, UPDATE_SQL, Arrays.asList(100, "existing")));
+        executors.add(new SQLExecutor(TABLE, INSERT_SQL, Arrays.asList("id0", 0)));
+        executors.add(new SQLExecutor(TABLE, INSERT_SQL, Arrays.asList("existing", 1)));
+        batchDAO.batchPersistence(executors);
+
+        verify(connections.get(0)).rollback();
+        verify(connections.get(0), never()).commit();
+        verify(failureListener).onFailure(Collections.singleton(TABLE));
+        Assert.assertEquals(1, count());
+        Assert.assertEquals(0, value("existing"));
+    }
+
+    private int count() throws Exception {
+        try (Connection connection = h2Client.getConnection();
+             ResultSet resultSet = connection.createStatement().executeQuery("SELECT COUNT(*) FROM " + TABLE)) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    private int value(String id) throws Exception {
+        try (Connection connection = h2Client.getConnection();
+             ResultSet resultSet = h2Client.executeQuery(connection, "SELECT amount FROM " + TABLE + " WHERE id = ?", id)) {
+            Assert.assertTrue(resultSet.next());
+            return resultSet.getInt(1);
+        }
+    }
+}
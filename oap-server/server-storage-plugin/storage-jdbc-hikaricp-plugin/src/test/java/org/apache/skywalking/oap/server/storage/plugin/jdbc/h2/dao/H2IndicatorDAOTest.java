@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.dao;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
+import org.apache.skywalking.oap.server.core.analysis.manual.servicerelation.ServiceRelationServerSideIndicator;
+import org.apache.skywalking.oap.server.core.storage.StorageBuilder;
+import org.apache.skywalking.oap.server.core.storage.model.ColumnName;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
+import org.apache.skywalking.oap.server.core.storage.model.ModelColumn;
+import org.apache.skywalking.oap.server.library.client.jdbc.hikaricp.JDBCHikariCPClient;
+import org.apache.skywalking.oap.server.storage.plugin.jdbc.TableMetaInfo;
+import org.junit.*;
+
+public class H2IndicatorDAOTest {
+
+    private static final String MODEL_NAME = "h2_indicator_dao_test";
+
+    private JDBCHikariCPClient h2Client;
+    private H2IndicatorDAO indicatorDAO;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        Properties settings = new Properties();
+        settings.setProperty("dataSourceClassName", "org.h2.jdbcx.JdbcDataSource");
+        settings.setProperty("dataSource.url", "jdbc:h2:mem:" + MODEL_NAME);
+        settings.setProperty("dataSource.user", "");
+        settings.setProperty("dataSource.password", "");
+        h2Client = new JDBCHikariCPClient(settings);
+        h2Client.connect();
+
+        List<ModelColumn> columns = new ArrayList<>();
+        columns.add(new ModelColumn(new ColumnName(ServiceRelationServerSideIndicator.SOURCE_SERVICE_ID), int.class, false));
+        columns.add(new ModelColumn(new ColumnName(ServiceRelationServerSideIndicator.DEST_SERVICE_ID), int.class, false));
+        columns.add(new ModelColumn(new ColumnName(ServiceRelationServerSideIndicator.COMPONENT_ID), int.class, false));
+        columns.add(new ModelColumn(new ColumnName(ServiceRelationServerSideIndicator.ENTITY_ID), String.class, false));
+        columns.add(new ModelColumn(new ColumnName(Indicator.TIME_BUCKET), long.class, false));
+        TableMetaInfo.addModel(new Model(MODEL_NAME, columns, true, true, null));
+
+        try (Connection connection = h2Client.getConnection()) {
+            h2Client.execute(connection, "DROP TABLE IF EXISTS " + MODEL_NAME);
+            h2Client.execute(connection, "CREATE TABLE " + MODEL_NAME + " (id VARCHAR(300) PRIMARY KEY, source_service_id INT, "
+                + "dest_service_id INT, component_id INT, entity_id VARCHAR(300), time_bucket BIGINT)");
+        }
+
+        StorageBuilder storageBuilder = new ServiceRelationServerSideIndicator.Builder();
+        indicatorDAO = new H2IndicatorDAO(h2Client, storageBuilder);
+    }
+
+    @Test
+    public void testMultiGetWithMissingIndicators() throws Exception {
+        try (Connection connection = h2Client.getConnection()) {
+            indicatorDAO.prepareBatchInsert(MODEL_NAME, indicator(1, 2)).invoke(connection);
+            indicatorDAO.prepareBatchInsert(MODEL_NAME, indicator(3, 4)).invoke(connection);
+        }
+
+        List<Indicator> result = indicatorDAO.multiGet(MODEL_NAME, Arrays.asList(indicator(1, 2), indicator(5, 6), indicator(3, 4)));
+        Assert.assertEquals(2, result.size());
+        for (Indicator dbData : result) {
+            ServiceRelationServerSideIndicator relation = (ServiceRelationServerSideIndicator)dbData;
+            Assert.assertEquals(indicator(relation.getSourceServiceId(), relation.getDestServiceId()).id(), relation.id());
+            Assert.assertEquals(relation.getSourceServiceId() + 1, relation.getDestServiceId());
+            Assert.assertEquals(relation.getSourceServiceId() + "_" + relation.getDestServiceId(), relation.getEntityId());
+        }
+        Assert.assertNotEquals(((ServiceRelationServerSideIndicator)result.get(0)).getSourceServiceId(),
+            ((ServiceRelationServerSideIndicator)result.get(1)).getSourceServiceId());
+
+        Assert.assertTrue(indicatorDAO.multiGet(MODEL_NAME, Arrays.asList(indicator(5, 6))).isEmpty());
+    }
+
+    static ServiceRelationServerSideIndicator indicator(int sourceServiceId, int destServiceId) {
+        ServiceRelationServerSideIndicator indicator = new ServiceRelationServerSideIndicator();
+        indicator.setSourceServiceId(sourceServiceId);
+        indicator.setDestServiceId(destServiceId);
+        indicator.setComponentId(7);
+        indicator.setEntityId(sourceServiceId + "_" + destServiceId);
+        indicator.setTimeBucket(201901011200L);
+        return indicator;
+    }
+}
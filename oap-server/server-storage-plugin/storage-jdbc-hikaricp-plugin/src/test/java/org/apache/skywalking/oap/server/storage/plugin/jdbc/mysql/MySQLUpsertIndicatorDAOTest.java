@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.skywalking.oap.server.storage.plugin.jdbc.mysql;
+
+import java.sql.*;
+import java.util.*;
+import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
+import org.apache.skywalking.oap.server.core.analysis.manual.servicerelation.ServiceRelationServerSideIndicator;
+import org.apache.skywalking.oap.server.core.storage.StorageBuilder;
+import org.apache.skywalking.oap.server.core.storage.model.*;
+import org.apache.skywalking.oap.server.library.client.jdbc.hikaricp.JDBCHikariCPClient;
+import org.apache.skywalking.oap.server.storage.plugin.jdbc.*;
+import org.junit.*;
+
+public class MySQLUpsertIndicatorDAOTest {
+
+    private static final String MODEL_NAME = "mysql_upsert_indicator_dao_test";
+
+    private JDBCHikariCPClient client;
+    private MySQLUpsertIndicatorDAO indicatorDAO;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        Properties settings = new Properties();
+        settings.setProperty("dataSourceClassName", "org.h2.jdbcx.JdbcDataSource");
+        settings.setProperty("dataSource.url", "jdbc:h2:mem:" + MODEL_NAME + ";MODE=MySQL");
+        settings.setProperty("dataSource.user", "");
+        settings.setProperty("dataSource.password", "");
+        client = new JDBCHikariCPClient(settings);
+        client.connect();
+
+        List<ModelColumn> columns = new ArrayList<>();
+        columns.add(new ModelColumn(new ColumnName(ServiceRelationServerSideIndicator.SOURCE_SERVICE_ID), int.class, false));
+        columns.add(new ModelColumn(new ColumnName(ServiceRelationServerSideIndicator.DEST_SERVICE_ID), int.class, false));
+        columns.add(new ModelColumn(new ColumnName(ServiceRelationServerSideIndicator.COMPONENT_ID), int.class, false));
+        columns.add(new ModelColumn(new ColumnName(ServiceRelationServerSideIndicator.ENTITY_ID), String.class, false));
+        columns.add(new ModelColumn(new ColumnName(Indicator.TIME_BUCKET), long.class, false));
+        TableMetaInfo.addModel(new Model(MODEL_NAME, columns, true, true, null));
+
+        try (Connection connection = client.getConnection()) {
+            client.execute(connection, "DROP TABLE IF EXISTS " + MODEL_NAME);
+            client.execute(connection, "CREATE TABLE " + MODEL_NAME + " (id VARCHAR(300) PRIMARY KEY, source_service_id INT, "
+                + "dest_service_id INT, component_id INT, entity_id VARCHAR(300), time_bucket BIGINT)");
+        }
+
+        StorageBuilder storageBuilder = new ServiceRelationServerSideIndicator.Builder();
+        indicatorDAO = new MySQLUpsertIndicatorDAO(client, storageBuilder);
+    }
+
+    @Test
+    public void testUpsertSQL() throws Exception {
+        String upsertSQL = "INSERT INTO " + MODEL_NAME + " VALUES(?,?,?,?,?,?) ON DUPLICATE KEY UPDATE "
+            + "source_service_id=VALUES(source_service_id),dest_service_id=VALUES(dest_service_id),"
+            + "component_id=VALUES(component_id),entity_id=VALUES(entity_id),time_bucket=VALUES(time_bucket)";
+        Assert.assertEquals(upsertSQL, oneLine(TableMetaInfo.getSQLTemplate(MODEL_NAME).getUpsertSQL()));
+
+        ServiceRelationServerSideIndicator indicator = indicator("first");
+        SQLExecutor insertExecutor = indicatorDAO.prepareBatchInsert(MODEL_NAME, indicator);
+        SQLExecutor updateExecutor = indicatorDAO.prepareBatchUpdate(MODEL_NAME, indicator);
+        Assert.assertEquals(upsertSQL, oneLine(insertExecutor.getSql()));
+        Assert.assertEquals(upsertSQL, oneLine(updateExecutor.getSql()));
+        Assert.assertEquals(indicator.id(), insertExecutor.getParam().get(0));
+        Assert.assertEquals(insertExecutor.getParam(), updateExecutor.getParam());
+    }
+
+    @Test
+    public void testUpsertExistingRow() throws Exception {
+        try (Connection connection = client.getConnection()) {
+            indicatorDAO.prepareBatchInsert(MODEL_NAME, indicator("first")).invoke(connection);
+            indicatorDAO.prepareBatchUpdate(MODEL_NAME, indicator("second")).invoke(connection);
+
+            try (ResultSet resultSet = client.executeQuery(connection, "SELECT entity_id FROM " + MODEL_NAME)) {
+                Assert.assertTrue(resultSet.next());
+                Assert.assertEquals("second", resultSet.getString(1));
+                Assert.assertFalse(resultSet.next());
+            }
+        }
+    }
+
+    private static String oneLine(String sql) {
+        return sql.replace(System.lineSeparator(), "");
+    }
+
+    private static ServiceRelationServerSideIndicator indicator(String entityId) {
+        ServiceRelationServerSideIndicator indicator = new ServiceRelationServerSideIndicator();
+        indicator.setSourceServiceId(1);
+        indicator.setDestServiceId(2);
+        indicator.setComponentId(7);
+        indicator.setEntityId(entityId);
+        indicator.setTimeBucket(201901011200L);
+        return indicator;
+    }
+}